@@ -0,0 +1,85 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import brain.Main;
+import data_types.Board;
+import data_types.Move;
+import data_types.MoveList;
+
+/**
+ * Benchmarks of the Board hot paths over the positions of the corpus
+ * @author Bryson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BoardBenchmark {
+    
+    @Param({Positions.OPENING, Positions.MIDDLEGAME_KIWIPETE, Positions.MIDDLEGAME_ITALIAN,
+            Positions.MIDDLEGAME_SICILIAN, Positions.ENDGAME_ROOK, Positions.ENDGAME_PAWNS, Positions.ENDGAME_QUEEN})
+    public String fen;
+    
+    private Board board;
+    private Move move;
+    private final MoveList moves = new MoveList();
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new Board(fen);
+        
+        // play a non-promoting move, so replaying it never has to ask for a piece; it is picked
+        // on a board of its own, since board would otherwise cache its legal moves and checkMate
+        // would look them up instead of generating them
+        for (Move legalMove : new Board(fen).legalMoves()) {
+            if (!legalMove.isPromotion()) {
+                move = legalMove;
+                break;
+            }
+        }
+    }
+    
+    @Benchmark
+    public MoveList legalMoves() {
+        board.legalMoves(moves);
+        return moves;
+    }
+    
+    @Benchmark
+    public Board moveAndTakeBack() {
+        board.move(move);
+        board.takeBackLastMove();
+        return board;
+    }
+    
+    @Benchmark
+    public boolean checkMate() {
+        return board.checkMate();
+    }
+    
+    @Benchmark
+    public int heuristic() {
+        return Main.heuristic(board);
+    }
+    
+    @Benchmark
+    public long perft3() {
+        return board.perft(3);
+    }
+}
@@ -0,0 +1,83 @@
+package bench;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import data_types.Board;
+import data_types.Coordinate;
+import data_types.Move;
+import data_types.Piece;
+import data_types.PieceColor;
+import data_types.Square;
+
+/**
+ * Benchmarks of the Piece, Move and Coordinate hot paths
+ * @author Bryson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PieceBenchmark {
+    
+    @Param({"pawn", "knight", "bishop", "rook", "queen", "king"})
+    public String pieceType;
+    
+    private Piece piece;
+    private Coordinate coordinate;
+    private Square squareFrom;
+    private Square squareTo;
+    
+    @Setup
+    public void setup() {
+        PieceColor white = PieceColor.WHITE;
+        switch (pieceType) {
+        case "pawn": piece = Piece.pawn(white, false); break;
+        case "knight": piece = Piece.knight(white, false); break;
+        case "bishop": piece = Piece.bishop(white, false); break;
+        case "rook": piece = Piece.rook(white, false); break;
+        case "queen": piece = Piece.queen(white, false); break;
+        case "king": piece = Piece.king(white, false); break;
+        default: throw new IllegalArgumentException("Unrecognized piece type: " + pieceType);
+        }
+        coordinate = new Coordinate("d4");
+        
+        Board board = new Board();
+        squareFrom = board.getSquare("g1");
+        squareTo = board.getSquare("f3");
+    }
+    
+    @Benchmark
+    public Set<Coordinate> moveSet() {
+        return piece.moveSet(coordinate);
+    }
+    
+    @Benchmark
+    public Move createMove() {
+        return Move.createMove(squareFrom, squareTo);
+    }
+    
+    @Benchmark
+    public Coordinate coordinateFromIndices() {
+        return new Coordinate(3, 3);
+    }
+    
+    @Benchmark
+    public Coordinate coordinateFromNotation() {
+        return new Coordinate("d4");
+    }
+}
@@ -0,0 +1,22 @@
+package bench;
+
+/**
+ * Corpus of positions the benchmarks run over, in Forsyth-Edwards Notation (FEN)
+ * @author Bryson
+ */
+public final class Positions {
+    
+    public final static String OPENING = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    
+    public final static String MIDDLEGAME_KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    public final static String MIDDLEGAME_ITALIAN = "r1bq1rk1/ppp2ppp/2np1n2/2b1p3/2B1P3/2PP1N2/PP3PPP/RNBQ1RK1 w - - 0 7";
+    public final static String MIDDLEGAME_SICILIAN = "r1b1kb1r/1pqp1ppp/p1n1pn2/8/3NP3/2N1B3/PPP1BPPP/R2QK2R w KQkq - 2 8";
+    
+    public final static String ENDGAME_ROOK = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    public final static String ENDGAME_PAWNS = "8/5pk1/6p1/p6p/P6P/6P1/5PK1/8 w - - 0 40";
+    public final static String ENDGAME_QUEEN = "6k1/5pp1/7p/8/3Q4/6P1/5PKP/2q5 b - - 3 45";
+    
+    private Positions() {
+        // not instantiable
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import data_types.Board;
+import engine.Engine;
+import engine.SearchResult;
+
+/**
+ * Benchmarks of a fixed-depth engine search over the middlegame positions of the corpus,
+ * to measure how the response time scales with the number of search threads
+ * @author Bryson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    
+    @Param({Positions.MIDDLEGAME_KIWIPETE, Positions.MIDDLEGAME_ITALIAN, Positions.MIDDLEGAME_SICILIAN})
+    public String fen;
+    
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+    
+    @Param({"6"})
+    public int depth;
+    
+    private Board board;
+    private Engine engine;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new Board(fen);
+    }
+    
+    // every search starts from an empty transposition table, as a new request would
+    @Setup(Level.Invocation)
+    public void newEngine() {
+        engine = new Engine(board, 64, threads);
+    }
+    
+    @Benchmark
+    public SearchResult search() {
+        return engine.search(depth);
+    }
+}
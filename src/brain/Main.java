@@ -1,27 +1,29 @@
 package brain;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
 import java.util.Random;
-import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
 
 import javax.swing.JOptionPane;
 
 import data_types.Board;
-import data_types.Coordinate;
 import data_types.Move;
-import data_types.Piece;
 import data_types.PieceColor;
 import engine.Engine;
+import engine.Evaluator;
+import engine.Network;
+import engine.SearchLimits;
 import gui.GUI;
 
 public class Main {
     private final static int ENGINE_WAIT_TIME = 5000; // milliseconds 
+    private final static String NETWORK_FILE = "network.nnue";
     
     private final static Board board = new Board();
+    private final static Engine engine = new Engine(board, Engine.DEFAULT_HASH_MEGABYTES,
+            Math.min(Runtime.getRuntime().availableProcessors(), Engine.MAX_THREADS));
     private static PieceColor playerSide;
     private static GUI gui;
     private static BlockingQueue<Move> moveQueue;
@@ -29,6 +31,7 @@ public class Main {
     public static void main(String[] args) {
         
         moveQueue = new LinkedBlockingDeque<Move>();
+        loadNetwork();
         
         runGameComputer();
         
@@ -39,6 +42,22 @@ public class Main {
         }
     }
     
+    /**
+     * Evaluate positions with the neural network in NETWORK_FILE, if there is one, instead of
+     * with the hand-written evaluation
+     */
+    private static void loadNetwork() {
+        if (!new File(NETWORK_FILE).isFile()) {
+            return;
+        }
+        try {
+            engine.setNetwork(Network.load(NETWORK_FILE));
+        } catch (IOException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(null, "Could not load " + NETWORK_FILE + ", using the default evaluation.");
+        }
+    }
+    
     /**
      * Play a two-player game
      */
@@ -73,12 +92,13 @@ public class Main {
         } else if (playerSide.equals(PieceColor.BLACK)) {
             JOptionPane.showMessageDialog(null, "You are black. Good luck!");
             
-            Move computerMove = getComputerMove(board);
+            Move computerMove = engine.search(SearchLimits.time(ENGINE_WAIT_TIME)).bestMove();
             board.move(computerMove);
             gui.refreshBoard();
         } else {
             throw new RuntimeException("Side to play is not either white or black");
         }
+        runEngine();
         
         while (!board.checkMate()) {
             Move move;
@@ -98,9 +118,10 @@ public class Main {
             }
             
             // computer turn
-            Move computerMove = getComputerMove(board);
+            Move computerMove = engine.search(SearchLimits.time(ENGINE_WAIT_TIME)).bestMove();
             board.move(computerMove);
             gui.refreshBoard();
+            runEngine();
         }
     }
     
@@ -123,207 +144,25 @@ public class Main {
         throw new RuntimeException("May not pick a color other than white or black with nonzero probability");
     }
     
-    public static Move getComputerMove(Board board) {
-        Board boardCopy = new Board(board.whitePieces(), board.blackPieces(), board.turn(), board.getLastMove());
-        int originalHeuristic = heuristic(boardCopy);
-        
-        if (boardCopy.turn().equals(PieceColor.WHITE)) {
-            Map<Move, Integer> bestCaptureMap = maxMoveCaptures(boardCopy, 3);
-            Move bestCapture = getArbitrary(bestCaptureMap.keySet());
-            int bestCaptureValue = bestCaptureMap.get(bestCapture);
-            
-            if (bestCaptureValue-originalHeuristic > 0) {
-                return bestCapture;
-            }
-            
-            Move bestNormalMove = Move.undefined();
-            int bestNormalValue = -1000;
-            
-            for (Move move : boardCopy.legalMoves()) {
-                if (!move.isCapture()) {
-                    boardCopy.move(move);
-                    Map<Move, Integer> bestResponseMap = minMoveCaptures(boardCopy, 2);
-                    Move bestResponseCapture = getArbitrary(bestResponseMap.keySet());
-                    int bestResponseValue = bestResponseMap.get(bestResponseCapture);
-                    
-                    if (bestResponseValue >= bestNormalValue) {
-                        bestNormalMove = move;
-                        bestNormalValue = bestResponseValue;
-                    }
-                    
-                    boardCopy.takeBackLastMove();
-                }
-            }
-            
-            if (bestCapture.isUndefined() || bestNormalValue > bestCaptureValue) {return bestNormalMove;}
-            
-            return bestCapture;
-        } else if (boardCopy.turn().equals(PieceColor.BLACK)) {
-            Map<Move, Integer> bestCaptureMap = minMoveCaptures(boardCopy, 3);
-            Move bestCapture = getArbitrary(bestCaptureMap.keySet());
-            int bestCaptureValue = bestCaptureMap.get(bestCapture);
-            
-            if (bestCaptureValue-originalHeuristic < 0) {
-                return bestCapture;
-            }
-            
-            Move bestNormalMove = Move.undefined();
-            int bestNormalValue = 1000;
-            
-            for (Move move : boardCopy.legalMoves()) {
-                if (!move.isCapture()) {
-                    boardCopy.move(move);
-                    Map<Move, Integer> bestResponseMap = maxMoveCaptures(boardCopy, 2);
-                    Move bestResponseCapture = getArbitrary(bestResponseMap.keySet());
-                    int bestResponseValue = bestResponseMap.get(bestResponseCapture);
-                    
-                    if (bestResponseValue <= bestNormalValue) {
-                        bestNormalMove = move;
-                        bestNormalValue = bestResponseValue;
-                    }
-                    
-                    boardCopy.takeBackLastMove();
-                }
-            }
-            
-            if (bestCapture.isUndefined() || bestNormalValue < bestCaptureValue) {return bestNormalMove;}
-            
-            return bestCapture;
-        } else {
-            throw new RuntimeException("Board turn is not one of white or black");
-        }
-    }
-    
-    public static Map<Move, Integer> maxMoveCaptures(Board board, int levelAnalysis) {
-        Board boardCopy = new Board(board.whitePieces(), board.blackPieces(), board.turn(), board.getLastMove());
-        Map<Move, Integer> bestCaptureMap = new HashMap<>();
-        
-        Set<Move> captures = boardCopy.getCaptures();
-        
-        Move bestCapture = Move.undefined();
-        int bestValue = -1000;
-        
-        if (captures.size() == 0) {
-            bestCaptureMap.put(bestCapture, heuristic(boardCopy));
-            return bestCaptureMap;
-        }
-        
-        if (levelAnalysis <= 0) {
-            for (Move capture : captures) {
-                boardCopy.move(capture);
-                
-                int heuristic = heuristic(boardCopy);
-                if (heuristic >= bestValue) {
-                    bestCapture = capture;
-                    bestValue = heuristic;
-                }
-                
-                boardCopy.takeBackLastMove();
-            }
-            
-            bestCaptureMap.put(bestCapture, bestValue);
-            return bestCaptureMap;
-        }
-        
-        for (Move capture : captures) {
-            boardCopy.move(capture);
-            
-            Map<Move, Integer> responseCaptureMap = minMoveCaptures(boardCopy, levelAnalysis-1);
-            Move bestResponseCapture = getArbitrary(responseCaptureMap.keySet());
-            int bestResponseValue = responseCaptureMap.get(bestResponseCapture);
-            
-            if (bestResponseValue >= bestValue) {
-                bestCapture = capture;
-                bestValue = bestResponseValue;
-            }
-            
-            boardCopy.takeBackLastMove();
-        }
-        
-        bestCaptureMap.put(bestCapture, bestValue);
-        return bestCaptureMap;
-    }
-    
-    public static Map<Move, Integer> minMoveCaptures(Board board, int levelAnalysis) {
-        Board boardCopy = new Board(board.whitePieces(), board.blackPieces(), board.turn(), board.getLastMove());
-        Map<Move, Integer> bestCaptureMap = new HashMap<>();
-        
-        Set<Move> captures = boardCopy.getCaptures();
-        
-        Move bestCapture = Move.undefined();
-        int bestValue = 1000;
-        
-        if (captures.size() == 0) {
-            bestCaptureMap.put(bestCapture, heuristic(boardCopy));
-            return bestCaptureMap;
-        }
-        
-        if (levelAnalysis <= 0) {
-            for (Move capture : captures) {
-                boardCopy.move(capture);
-                
-                int heuristic = heuristic(boardCopy);
-                if (heuristic <= bestValue) {
-                    bestCapture = capture;
-                    bestValue = heuristic;
-                }
-                
-                boardCopy.takeBackLastMove();
-            }
-            
-            bestCaptureMap.put(bestCapture, bestValue);
-            return bestCaptureMap;
-        }
-        
-        for (Move capture : captures) {
-            boardCopy.move(capture);
-            
-            Map<Move, Integer> responseCaptureMap = maxMoveCaptures(boardCopy, levelAnalysis-1);
-            Move bestResponseCapture = getArbitrary(responseCaptureMap.keySet());
-            int bestResponseValue = responseCaptureMap.get(bestResponseCapture);
-            
-            if (bestResponseValue <= bestValue) {
-                bestCapture = capture;
-                bestValue = bestResponseValue;
-            }
-            
-            boardCopy.takeBackLastMove();
-        }
-        
-        bestCaptureMap.put(bestCapture, bestValue);
-        return bestCaptureMap;
-    }
-    
     /**
      * Obtain a heuristic for a board
      * @param board Board to obtain heuristic for
-     * @return a heuristic evaluating the board
+     * @return a heuristic evaluating the board in centipawns from white's point of view, which is
+     *          Engine.MATE if white has checkmated black and -Engine.MATE if black has checkmated white
      */
     public static int heuristic(Board board) {
-        int heuristic = 0;
-        
         if (board.checkMate()) {
             if (board.turn().equals(PieceColor.WHITE)) {
-                return -1000;
+                return -Engine.MATE;
             } else if (board.turn().equals(PieceColor.BLACK)) {
-                return 1000;
+                return Engine.MATE;
             } else {
                 throw new RuntimeException("Board turn is not one of white or black");
             }
         }
         
-        Map<Piece, Set<Coordinate>> blackPieces = board.blackPieces();
-        Map<Piece, Set<Coordinate>> whitePieces = board.whitePieces();
-
-        for (Piece blackPiece : blackPieces.keySet()) {
-            heuristic -= blackPiece.value()*blackPieces.get(blackPiece).size();
-        }
-        
-        for (Piece whitePiece : whitePieces.keySet()) {
-            heuristic += whitePiece.value()*whitePieces.get(whitePiece).size();
-        }
-        
-        return heuristic;
+        int eval = Evaluator.evaluate(board);
+        return board.turn().equals(PieceColor.WHITE) ? eval : -eval;
     }
     
     /**
@@ -338,39 +177,10 @@ public class Main {
         return gui;
     }
     
-    public static void runEngine(Board board) {
-        Thread engineThread = new Thread(new Runnable() {
-            public void run() {
-                Engine engine = new Engine(board);
-                engine.start();
-            }
-        });
-        
-        engineThread.start();
-    }
-    
     /**
-     * Retrieve an arbitrary element out of a set
-     * @param set Set of elements to remove from
-     * @return any element contained in set
+     * Let the computer think on the player's time, until its next move is requested
      */
-    private static <T> T getArbitrary(Set<T> set) {
-        Set<T> setCopy = new HashSet<>(set);
-        if (set.size() == 0) {
-            throw new RuntimeException("Can not remove an arbitrary element out of empty set");
-        }
-        
-        Random generator = new Random();
-        int pick = generator.nextInt(set.size());
-        
-        int i = 0;
-        for (T item : setCopy) {
-            if (i == pick) {
-                return item;
-            }
-            i++;
-        }
-        
-        throw new RuntimeException("Item must have been picked");
+    public static void runEngine() {
+        engine.start();
     }
 }
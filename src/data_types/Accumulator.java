@@ -0,0 +1,194 @@
+package data_types;
+
+/**
+ * The first layer of an efficiently updatable neural network (NNUE), kept up to date as pieces
+ * are added to and removed from a BitBoard.
+ *
+ * The inputs of the network are one feature for each piece on each square, seen from the point
+ * of view of each side: from black's point of view the board is mirrored and the colors of the
+ * pieces are swapped, so that "own pieces" and "enemy pieces" mean the same thing for both sides.
+ * The first layer holds, for each side, the biases plus the weight column of every active feature.
+ * A move only turns a few features on and off, so instead of computing the layer from scratch,
+ * adding a piece adds its weight column and removing a piece subtracts it.
+ *
+ * Weights and values are 16-bit integers, and overflow wraps around as in the networks this
+ * layer is trained for. Squares and pieces are indexed as in BitBoard.
+ * @author Bryson
+ */
+public final class Accumulator {
+    
+    public final static int INPUTS = 12 * 64;
+    
+    private final short[] weights;
+    private final short[] biases;
+    private final int size;
+    private final short[][] values;
+    
+    // Abstraction Function:
+    //  - represents the first layer of a network with size neurons, where weights[f*size + i] is
+    //     the weight of feature f for neuron i and biases[i] the bias of neuron i, and values[c][i]
+    //     is the value of neuron i from the point of view of color c
+    //
+    // Rep Invariant:
+    //  - size == biases.length > 0, weights.length == INPUTS * size
+    //  - values.length == 2, values[c].length == size
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private and final
+    //  - weights and biases are shared with the network that made this accumulator, which never
+    //     mutates them, and this accumulator never mutates them either
+    //  - values never leaves this accumulator: callers read it through value and dot
+    //
+    
+    /**
+     * Create an accumulator holding the biases of a layer, as for a position without pieces
+     * @param weights weights of the layer, where weights[f*biases.length + i] is the weight of
+     *          feature f for neuron i, and feature (p*64 + s) is piece p on square s; not mutated
+     *          while this accumulator is in use
+     * @param biases biases of the neurons of the layer, biases.length > 0; not mutated while this
+     *          accumulator is in use
+     * @throws IllegalArgumentException if the lengths of weights and biases do not agree
+     */
+    public Accumulator(short[] weights, short[] biases) {
+        if (biases.length == 0 || weights.length != INPUTS * biases.length) {
+            throw new IllegalArgumentException("Layer must have " + INPUTS + " weights per neuron");
+        }
+        this.weights = weights;
+        this.biases = biases;
+        this.size = biases.length;
+        this.values = new short[2][size];
+        reset();
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert size == biases.length && size > 0;
+        assert weights.length == INPUTS * size;
+        assert values.length == 2 && values[BitBoard.WHITE].length == size && values[BitBoard.BLACK].length == size;
+    }
+    
+    /**
+     * Retrieve the number of neurons of this layer
+     * @return the number of neurons of this layer
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Set this layer to its biases, as for a position without pieces
+     */
+    public void reset() {
+        System.arraycopy(biases, 0, values[BitBoard.WHITE], 0, size);
+        System.arraycopy(biases, 0, values[BitBoard.BLACK], 0, size);
+    }
+    
+    /**
+     * Set this layer to the pieces of a position
+     * @param position position whose pieces become the active features
+     */
+    public void refresh(BitBoard position) {
+        reset();
+        for (int square = 0; square < 64; square++) {
+            if (position.pieceAt(square) != BitBoard.EMPTY) {
+                add(position.pieceAt(square), square);
+            }
+        }
+    }
+    
+    /**
+     * Turn on the features of a piece on a square
+     * @param piece piece index of the piece
+     * @param square square of the piece
+     */
+    public void add(int piece, int square) {
+        short[] white = values[BitBoard.WHITE];
+        short[] black = values[BitBoard.BLACK];
+        int whiteColumn = feature(BitBoard.WHITE, piece, square) * size;
+        int blackColumn = feature(BitBoard.BLACK, piece, square) * size;
+        for (int i = 0; i < size; i++) {
+            white[i] += weights[whiteColumn + i];
+            black[i] += weights[blackColumn + i];
+        }
+    }
+    
+    /**
+     * Turn off the features of a piece on a square
+     * @param piece piece index of the piece
+     * @param square square of the piece
+     */
+    public void remove(int piece, int square) {
+        short[] white = values[BitBoard.WHITE];
+        short[] black = values[BitBoard.BLACK];
+        int whiteColumn = feature(BitBoard.WHITE, piece, square) * size;
+        int blackColumn = feature(BitBoard.BLACK, piece, square) * size;
+        for (int i = 0; i < size; i++) {
+            white[i] -= weights[whiteColumn + i];
+            black[i] -= weights[blackColumn + i];
+        }
+    }
+    
+    /**
+     * Retrieve the value of a neuron
+     * @param perspective BitBoard.WHITE or BitBoard.BLACK, the side to see the position from
+     * @param neuron index of the neuron, 0 <= neuron < size()
+     * @return the value of neuron seen from perspective
+     */
+    public int value(int perspective, int neuron) {
+        return values[perspective][neuron];
+    }
+    
+    /**
+     * Multiply the clipped values of this layer with the weights of the next layer
+     * @param perspective BitBoard.WHITE or BitBoard.BLACK, the side to see the position from
+     * @param next weights of the next layer, of which next[offset..offset+size()-1] are used
+     * @param offset index in next of the weight of the first neuron
+     * @param max largest value a neuron passes on, max > 0
+     * @return the sum over the neurons i of min(max(value(perspective, i), 0), max) * next[offset + i]
+     */
+    public int dot(int perspective, byte[] next, int offset, int max) {
+        short[] layer = values[perspective];
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            int clipped = Math.min(Math.max(layer[i], 0), max);
+            sum += clipped * next[offset + i];
+        }
+        return sum;
+    }
+    
+    /**
+     * Check if this layer holds the pieces of a position, as refresh would set it
+     * @param position position to compare to
+     * @return true if and only if every neuron of this layer has the value refresh(position) gives it
+     */
+    public boolean matches(BitBoard position) {
+        Accumulator fresh = new Accumulator(weights, biases);
+        fresh.refresh(position);
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            for (int i = 0; i < size; i++) {
+                if (fresh.values[color][i] != values[color][i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Retrieve the feature of a piece on a square, seen from one side
+     * @param perspective BitBoard.WHITE or BitBoard.BLACK, the side to see the piece from
+     * @param piece piece index of the piece
+     * @param square square of the piece
+     * @return the input of the network that is on when piece stands on square, seen from perspective
+     */
+    public static int feature(int perspective, int piece, int square) {
+        if (perspective == BitBoard.WHITE) {
+            return piece * 64 + square;
+        }
+        int swapped = BitBoard.piece(1 - BitBoard.colorOf(piece), BitBoard.typeOf(piece));
+        return swapped * 64 + (square ^ 56);
+    }
+}
@@ -0,0 +1,283 @@
+package data_types;
+
+/**
+ * Precomputed attack tables used by BitBoard move generation.
+ *
+ * Knight, king and pawn attacks are looked up per square, and bishop and rook attacks are
+ * looked up with magic bitboards: the blockers relevant to a slider on a square are multiplied
+ * by a magic number, and the top bits of the product index a table holding the attacked squares
+ * for that exact set of blockers. The magic numbers are searched for once, when the class is
+ * loaded, using a fixed seed so that the tables are identical on every run.
+ *
+ * Squares are indexed as in BitBoard.
+ * @author bgalapon
+ */
+public final class Attacks {
+    
+    private final static long[] KNIGHT = new long[64];
+    private final static long[] KING = new long[64];
+    private final static long[][] PAWN = new long[2][64];
+    
+    private final static long[] BISHOP_MASKS = new long[64];
+    private final static long[] BISHOP_MAGICS = new long[64];
+    private final static int[] BISHOP_SHIFTS = new int[64];
+    private final static long[][] BISHOP_TABLE = new long[64][];
+    
+    private final static long[] ROOK_MASKS = new long[64];
+    private final static long[] ROOK_MAGICS = new long[64];
+    private final static int[] ROOK_SHIFTS = new int[64];
+    private final static long[][] ROOK_TABLE = new long[64][];
+    
+    private final static long[][] BETWEEN = new long[64][64];
+    private final static long[][] LINE = new long[64][64];
+    
+    private final static long EDGES_FILES = BitBoard.FILE_A | BitBoard.FILE_H;
+    private final static long EDGES_RANKS = BitBoard.RANK_1 | BitBoard.RANK_8;
+    
+    // seed of the random number generator used to search for magic numbers
+    private static long seed = 0x2545F4914F6CDD1DL;
+    
+    static {
+        for (int square = 0; square < 64; square++) {
+            long bit = 1L << square;
+            KNIGHT[square] = BitBoard.knightAttacks(bit);
+            KING[square] = BitBoard.kingAttacks(bit);
+            PAWN[BitBoard.WHITE][square] = BitBoard.pawnAttacks(BitBoard.WHITE, bit);
+            PAWN[BitBoard.BLACK][square] = BitBoard.pawnAttacks(BitBoard.BLACK, bit);
+            
+            // a blocker on the last square of a ray never changes the attacks, so leave it out of the mask
+            long fileEdges = EDGES_FILES & ~(BitBoard.FILE_A << BitBoard.file(square));
+            long rankEdges = EDGES_RANKS & ~(BitBoard.RANK_1 << (8 * BitBoard.rank(square)));
+            BISHOP_MASKS[square] = slowBishopAttacks(square, 0L) & ~(EDGES_FILES | EDGES_RANKS);
+            ROOK_MASKS[square] = (verticalAttacks(square, 0L) & ~rankEdges) | (horizontalAttacks(square, 0L) & ~fileEdges);
+            
+            initMagic(square, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE, false);
+            initMagic(square, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE, true);
+        }
+        
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                long toBit = 1L << to;
+                if (from == to) {
+                    continue;
+                }
+                if ((rook(from, 0L) & toBit) != 0) {
+                    BETWEEN[from][to] = rook(from, toBit) & rook(to, 1L << from);
+                    LINE[from][to] = (rook(from, 0L) & rook(to, 0L)) | (1L << from) | toBit;
+                } else if ((bishop(from, 0L) & toBit) != 0) {
+                    BETWEEN[from][to] = bishop(from, toBit) & bishop(to, 1L << from);
+                    LINE[from][to] = (bishop(from, 0L) & bishop(to, 0L)) | (1L << from) | toBit;
+                }
+            }
+        }
+    }
+    
+    private Attacks() {
+        // not instantiable
+    }
+    
+    /**
+     * Retrieve the squares attacked by a knight
+     * @param square square of the knight
+     * @return the squares attacked by a knight on square
+     */
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+    
+    /**
+     * Retrieve the squares attacked by a king
+     * @param square square of the king
+     * @return the squares attacked by a king on square
+     */
+    public static long king(int square) {
+        return KING[square];
+    }
+    
+    /**
+     * Retrieve the squares attacked by a pawn
+     * @param color color of the pawn, BitBoard.WHITE or BitBoard.BLACK
+     * @param square square of the pawn
+     * @return the squares attacked by a pawn of color color on square
+     */
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+    
+    /**
+     * Retrieve the squares attacked by a bishop
+     * @param square square of the bishop
+     * @param occupied bitboard of squares that block the bishop
+     * @return the squares attacked by a bishop on square
+     */
+    public static long bishop(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[square][index];
+    }
+    
+    /**
+     * Retrieve the squares attacked by a rook
+     * @param square square of the rook
+     * @param occupied bitboard of squares that block the rook
+     * @return the squares attacked by a rook on square
+     */
+    public static long rook(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[square][index];
+    }
+    
+    /**
+     * Retrieve the squares attacked by a queen
+     * @param square square of the queen
+     * @param occupied bitboard of squares that block the queen
+     * @return the squares attacked by a queen on square
+     */
+    public static long queen(int square, long occupied) {
+        return bishop(square, occupied) | rook(square, occupied);
+    }
+    
+    /**
+     * Retrieve the squares strictly between two squares
+     * @param from first square
+     * @param to second square
+     * @return the squares strictly between from and to if they share a rank, file or diagonal,
+     *         otherwise the empty bitboard
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+    
+    /**
+     * Retrieve the full line through two squares
+     * @param from first square
+     * @param to second square
+     * @return every square of the rank, file or diagonal through from and to, edge to edge,
+     *         or the empty bitboard if from and to do not share one
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Find a magic number for a slider on a square and fill in its attack table
+     * @param square square of the slider
+     * @param masks relevant blocker masks, already filled in for square
+     * @param magics magic numbers to fill in for square
+     * @param shifts index shifts to fill in for square
+     * @param table attack tables to fill in for square
+     * @param rook true to fill in rook attacks, false to fill in bishop attacks
+     */
+    private static void initMagic(int square, long[] masks, long[] magics, int[] shifts, long[][] table, boolean rook) {
+        long mask = masks[square];
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] blockers = new long[size];
+        long[] attacks = new long[size];
+        
+        // enumerate every subset of mask with the carry-rippler trick
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            blockers[i] = subset;
+            attacks[i] = rook ? verticalAttacks(square, subset) | horizontalAttacks(square, subset)
+                              : slowBishopAttacks(square, subset);
+            subset = (subset - mask) & mask;
+        }
+        
+        long[] entries = new long[size];
+        int[] epoch = new int[size];
+        for (int attempt = 1; ; attempt++) {
+            long magic = nextRandom() & nextRandom() & nextRandom();
+            
+            // good magics spread the high bits of the mask widely, so skip candidates that don't
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((blockers[i] * magic) >>> (64 - bits));
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    entries[index] = attacks[i];
+                } else if (entries[index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+            
+            if (!collision) {
+                magics[square] = magic;
+                shifts[square] = 64 - bits;
+                table[square] = entries;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Retrieve the next number of a xorshift random number generator
+     * @return the next pseudo-random number
+     */
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+    
+    /**
+     * Compute the squares attacked by a bishop by walking its rays
+     * @param square square of the bishop
+     * @param occupied bitboard of squares that block the bishop
+     * @return the squares attacked by a bishop on square
+     */
+    private static long slowBishopAttacks(int square, long occupied) {
+        return ray(square, occupied, 9, ~BitBoard.FILE_A) | ray(square, occupied, 7, ~BitBoard.FILE_H)
+                | ray(square, occupied, -7, ~BitBoard.FILE_A) | ray(square, occupied, -9, ~BitBoard.FILE_H);
+    }
+    
+    /**
+     * Compute the squares attacked by a rook along its file by walking its rays
+     * @param square square of the rook
+     * @param occupied bitboard of squares that block the rook
+     * @return the squares on the file of square attacked by a rook on square
+     */
+    private static long verticalAttacks(int square, long occupied) {
+        return ray(square, occupied, 8, -1L) | ray(square, occupied, -8, -1L);
+    }
+    
+    /**
+     * Compute the squares attacked by a rook along its rank by walking its rays
+     * @param square square of the rook
+     * @param occupied bitboard of squares that block the rook
+     * @return the squares on the rank of square attacked by a rook on square
+     */
+    private static long horizontalAttacks(int square, long occupied) {
+        return ray(square, occupied, 1, ~BitBoard.FILE_A) | ray(square, occupied, -1, ~BitBoard.FILE_H);
+    }
+    
+    /**
+     * Retrieve the squares a sliding piece reaches in one direction
+     * @param square square of the sliding piece
+     * @param occupied bitboard of squares that block the sliding piece
+     * @param shift distance between consecutive squares of the ray
+     * @param mask squares that may be reached without wrapping around the board
+     * @return the squares on the ray from square up to and including the first blocker
+     */
+    private static long ray(int square, long occupied, int shift, long mask) {
+        long attacks = 0L;
+        long bit = 1L << square;
+        
+        while (true) {
+            bit = (shift > 0) ? (bit << shift) & mask : (bit >>> -shift) & mask;
+            if (bit == 0) {break;}
+            attacks |= bit;
+            if ((bit & occupied) != 0) {break;}
+        }
+        
+        return attacks;
+    }
+}
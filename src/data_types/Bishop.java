@@ -11,7 +11,9 @@ public class Bishop implements Piece {
     private final PieceColor color;
     private final boolean moved;
     
-    private static final Coordinate D4_COORDINATE = new Coordinate(3, 3);
+    // canonical instances, indexed by color and then by whether or not they have moved
+    private static final Bishop[] INSTANCES = {new Bishop(PieceColor.WHITE, false), new Bishop(PieceColor.WHITE, true),
+                                               new Bishop(PieceColor.BLACK, false), new Bishop(PieceColor.BLACK, true)};
 
     
     // Abstraction Function: 
@@ -36,6 +38,16 @@ public class Bishop implements Piece {
         checkRep();
     }
     
+    /**
+     * Retrieve the canonical Bishop with a color
+     * @param color color of the bishop, requires color is PieceColor.WHITE or PieceColor.BLACK
+     * @param moved whether or not the bishop has moved
+     * @return the bishop with color color that has (or has not) moved, which is the same instance on every call
+     */
+    static Bishop of(PieceColor color, boolean moved) {
+        return INSTANCES[2 * color.ordinal() + (moved ? 1 : 0)];
+    }
+    
     /** 
      * Assert the Rep Invariant.
      */
@@ -52,9 +64,9 @@ public class Bishop implements Piece {
         
         for (int i = -7; i <= 7; i++) {
             if (inRange(x+i, y+i) && i != 0) 
-                moves.add(new Coordinate(x+i, y+i));
+                moves.add(Coordinate.of(x+i, y+i));
             if (inRange(x+i, y-i) && i != 0)
-                moves.add(new Coordinate(x+i, y-i));
+                moves.add(Coordinate.of(x+i, y-i));
         }
         
         checkRep();
@@ -84,16 +96,13 @@ public class Bishop implements Piece {
 
     @Override
     public boolean equals(Object other) {
+        if (this == other) {return true;}
         if (! (other instanceof Bishop)) {return false;}
         
         Bishop otherBishop = (Bishop) other; 
         
-        boolean moveSetSame = this.moveSet(D4_COORDINATE).equals(otherBishop.moveSet(D4_COORDINATE));
-        boolean colorSame = this.color().equals(otherBishop.color());
-        boolean movedSame = this.hasMoved() == otherBishop.hasMoved();
-        
-        // considered equivalent if they have an equivalent moveSet when placed on d4
-        return  moveSetSame && colorSame && movedSame;
+        // considered equivalent if they have the same color and have both moved (or not)
+        return this.color == otherBishop.color && this.moved == otherBishop.moved;
     }
         
     @Override
@@ -103,9 +112,14 @@ public class Bishop implements Piece {
     
     @Override
     public int hashCode() {
-        return moveSet(D4_COORDINATE).size() + (color().equals(PieceColor.BLACK) ? 0 : 1);
+        return Piece.code(PieceType.BISHOP, color, moved);
     }
 
+    @Override
+    public PieceType type() {
+        return PieceType.BISHOP;
+    }
+    
     @Override
     public boolean isPawn() {
         return false;
@@ -118,7 +132,7 @@ public class Bishop implements Piece {
 
     @Override
     public Piece getMovedVersion() {
-        return new Bishop(color, true);
+        return of(color, true);
     }
 
     @Override
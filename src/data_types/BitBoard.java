@@ -0,0 +1,1407 @@
+package data_types;
+
+import java.util.Arrays;
+
+/**
+ * Represents a mutable chess position stored as 64-bit bitboards, one per piece type and color,
+ * together with the side to move, the castling rights and the en passent square.
+ *
+ * Squares are indexed from 0 to 63, such that the square at Coordinate (x, y) has index 8*y + x
+ * (i.e. a1 is square 0, h1 is square 7 and h8 is square 63), and bit i of a bitboard
+ * is set if and only if square i belongs to the set that bitboard represents.
+ * @author bgalapon
+ */
+public class BitBoard {
+    
+    public final static int WHITE = 0;
+    public final static int BLACK = 1;
+    
+    public final static int PAWN = 0;
+    public final static int KNIGHT = 1;
+    public final static int BISHOP = 2;
+    public final static int ROOK = 3;
+    public final static int QUEEN = 4;
+    public final static int KING = 5;
+    
+    public final static int EMPTY = -1;
+    public final static int NO_SQUARE = -1;
+    
+    public final static int WHITE_KINGSIDE = 1;
+    public final static int WHITE_QUEENSIDE = 2;
+    public final static int BLACK_KINGSIDE = 4;
+    public final static int BLACK_QUEENSIDE = 8;
+    
+    public final static int MAX_MOVES = 256;
+    public final static int MAX_HISTORY = 1024;
+    
+    public final static long FILE_A = 0x0101010101010101L;
+    public final static long FILE_H = FILE_A << 7;
+    public final static long RANK_1 = 0xFFL;
+    public final static long RANK_8 = RANK_1 << 56;
+    
+    public final static String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    
+    // values of pawns, knights, bishops, rooks, queens and kings in centipawns for static exchange evaluation
+    private final static int[] SEE_VALUES = {100, 320, 330, 500, 900, 20000};
+    
+    private final static int E1 = 4, F1 = 5, G1 = 6, D1 = 3, C1 = 2, B1 = 1, A1 = 0, H1 = 7;
+    private final static int E8 = 60, F8 = 61, G8 = 62, D8 = 59, C8 = 58, B8 = 57, A8 = 56, H8 = 63;
+    
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private long moved;
+    private final int[] mailbox = new int[64];
+    private int turn;
+    private int castlingRights;
+    private int enPassent;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long key;
+    private long pawnKey;
+    private int material;
+    private int positional;
+    private int phase;
+    private Accumulator accumulator;
+    
+    // undo records: bits 0-15 hold the move, 16-19 the captured piece (plus one),
+    // 20-23 the castling rights, 24-30 the en passent square (plus one), 31 whether the
+    // moving piece had moved before, 32 whether the captured piece had, and 33-48 the halfmove clock
+    private final int[] swapList = new int[32];
+    private long[] history = new long[MAX_HISTORY];
+    private long[] keys = new long[MAX_HISTORY];
+    private int historySize;
+    
+    // Abstraction Function:
+    //  - represents a chess position where square s holds the piece mailbox[s] (EMPTY if
+    //     no piece is on s), and pieces[piece(color, type)] is the set of squares holding a
+    //     piece of that color and type
+    //  - a piece on square s has moved before if and only if bit s of moved is set
+    //  - turn is the side (WHITE or BLACK) to move next
+    //  - castlingRights is the set of castling moves that are still available to either side
+    //  - enPassent is the square a pawn may capture on en passent, or NO_SQUARE if there is none
+    //  - halfmoveClock is the number of moves played since the last capture or pawn move
+    //  - fullmoveNumber is the number of the move being played, counting a move of each side as one
+    //  - material and positional are the material and packed piece-square scores of this position,
+    //     in centipawns from white's point of view, as given by PieceSquare
+    //  - phase is the phase of the game as given by PieceSquare, before it is capped at MAX_PHASE
+    //  - accumulator, if not null, is the first layer of a neural network evaluating this position
+    //  - history[0..historySize-1] are the undo records of the moves made on this position, in order,
+    //     where a record of PackedMove.NONE stands for a null move, and keys[i] is the Zobrist key of this position before the move of history[i] was made
+    //  - swapList is scratch space for see, meaningless between calls
+    //
+    // Rep Invariant:
+    //  - the bitboards in pieces are pairwise disjoint
+    //  - colors[c] is the union of all pieces of color c, and occupied is the union of colors
+    //  - mailbox[s] == p if and only if bit s of pieces[p] is set
+    //  - moved is a subset of occupied
+    //  - key is the Zobrist key of this position, as computed by computeKey(), and pawnKey the
+    //     exclusive or of Zobrist.piece over its pawns
+    //  - material and positional are the sums of PieceSquare.material and PieceSquare.positional
+    //     over the pieces of this position, and phase is the sum of PieceSquare.phase over them
+    //  - accumulator is null or matches this position
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private
+    //  - all inputs and outputs are primitives, except for accumulator, which is shared with
+    //     the caller on purpose so that it can evaluate this position
+    //
+    
+    /**
+     * Create an empty position with white to move
+     */
+    public BitBoard() {
+        for (int square = 0; square < 64; square++) {
+            mailbox[square] = EMPTY;
+        }
+        turn = WHITE;
+        enPassent = NO_SQUARE;
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        long union = 0L;
+        for (int piece = 0; piece < pieces.length; piece++) {
+            assert (union & pieces[piece]) == 0;
+            union |= pieces[piece];
+        }
+        assert union == occupied;
+        assert (colors[WHITE] | colors[BLACK]) == occupied;
+        assert (colors[WHITE] & colors[BLACK]) == 0;
+        assert (moved & ~occupied) == 0;
+        assert key == computeKey();
+        long pawns = 0L;
+        int materialSum = 0;
+        int positionalSum = 0;
+        int phaseSum = 0;
+        for (int square = 0; square < 64; square++) {
+            if (mailbox[square] != EMPTY) {
+                materialSum += PieceSquare.material(mailbox[square]);
+                positionalSum += PieceSquare.positional(mailbox[square], square);
+                phaseSum += PieceSquare.phase(mailbox[square]);
+                if (typeOf(mailbox[square]) == PAWN) {
+                    pawns ^= Zobrist.piece(mailbox[square], square);
+                }
+            }
+        }
+        assert material == materialSum;
+        assert positional == positionalSum;
+        assert phase == phaseSum;
+        assert pawnKey == pawns;
+        assert accumulator == null || accumulator.matches(this);
+    }
+    
+    /**
+     * Overwrite this position with a copy of another position
+     * @param other position to copy
+     */
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        occupied = other.occupied;
+        moved = other.moved;
+        turn = other.turn;
+        castlingRights = other.castlingRights;
+        enPassent = other.enPassent;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        key = other.key;
+        pawnKey = other.pawnKey;
+        material = other.material;
+        positional = other.positional;
+        phase = other.phase;
+        if (history.length < other.historySize) {
+            history = new long[other.history.length];
+            keys = new long[other.history.length];
+        }
+        System.arraycopy(other.history, 0, history, 0, other.historySize);
+        System.arraycopy(other.keys, 0, keys, 0, other.historySize);
+        historySize = other.historySize;
+        if (accumulator != null) {
+            accumulator.refresh(this);
+        }
+    }
+    
+    /**
+     * Retrieve the index of a square
+     * @param x x-coordinate of square, 0 <= x < 8
+     * @param y y-coordinate of square, 0 <= y < 8
+     * @return the index of the square at (x, y)
+     */
+    public static int square(int x, int y) {
+        return (y << 3) | x;
+    }
+    
+    /**
+     * Retrieve the x-coordinate (file) of a square
+     * @param square index of square
+     * @return the x-coordinate of square
+     */
+    public static int file(int square) {
+        return square & 7;
+    }
+    
+    /**
+     * Retrieve the y-coordinate (rank) of a square
+     * @param square index of square
+     * @return the y-coordinate of square
+     */
+    public static int rank(int square) {
+        return square >>> 3;
+    }
+    
+    /**
+     * Retrieve the piece index of a piece with a color and type
+     * @param color WHITE or BLACK
+     * @param type one of PAWN, KNIGHT, BISHOP, ROOK, QUEEN or KING
+     * @return the piece index of the piece with color color and type type
+     */
+    public static int piece(int color, int type) {
+        return color * 6 + type;
+    }
+    
+    /**
+     * Retrieve the color of a piece
+     * @param piece piece index, requires piece != EMPTY
+     * @return the color of piece
+     */
+    public static int colorOf(int piece) {
+        return piece < 6 ? WHITE : BLACK;
+    }
+    
+    /**
+     * Retrieve the type of a piece
+     * @param piece piece index, requires piece != EMPTY
+     * @return the type of piece
+     */
+    public static int typeOf(int piece) {
+        return piece < 6 ? piece : piece - 6;
+    }
+    
+    /**
+     * Place a piece on a square, replacing any piece already there
+     * @param square square to place piece on
+     * @param piece piece index of the piece to place
+     * @param hasMoved whether or not the placed piece has moved before
+     */
+    public void addPiece(int square, int piece, boolean hasMoved) {
+        if (mailbox[square] != EMPTY) {
+            removePiece(square);
+        }
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        colors[colorOf(piece)] |= bit;
+        occupied |= bit;
+        if (hasMoved) {
+            moved |= bit;
+        }
+        mailbox[square] = piece;
+        key ^= Zobrist.piece(piece, square);
+        if (typeOf(piece) == PAWN) {
+            pawnKey ^= Zobrist.piece(piece, square);
+        }
+        if (accumulator != null) {
+            accumulator.add(piece, square);
+        }
+        material += PieceSquare.material(piece);
+        positional += PieceSquare.positional(piece, square);
+        phase += PieceSquare.phase(piece);
+    }
+    
+    /**
+     * Remove the piece on a square, if there is one
+     * @param square square to clear
+     */
+    public void removePiece(int square) {
+        int piece = mailbox[square];
+        if (piece == EMPTY) {
+            return;
+        }
+        long bit = ~(1L << square);
+        pieces[piece] &= bit;
+        colors[colorOf(piece)] &= bit;
+        occupied &= bit;
+        moved &= bit;
+        mailbox[square] = EMPTY;
+        key ^= Zobrist.piece(piece, square);
+        if (typeOf(piece) == PAWN) {
+            pawnKey ^= Zobrist.piece(piece, square);
+        }
+        if (accumulator != null) {
+            accumulator.remove(piece, square);
+        }
+        material -= PieceSquare.material(piece);
+        positional -= PieceSquare.positional(piece, square);
+        phase -= PieceSquare.phase(piece);
+    }
+    
+    /**
+     * Retrieve the piece on a square
+     * @param square square to look at
+     * @return the piece index of the piece on square, or EMPTY if there is none
+     */
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+    
+    /**
+     * Check if the piece on a square has moved before
+     * @param square square to look at
+     * @return true if and only if square holds a piece that has moved before
+     */
+    public boolean hasMoved(int square) {
+        return (moved & (1L << square)) != 0;
+    }
+    
+    /**
+     * Retrieve the squares holding pieces of a color and type
+     * @param color WHITE or BLACK
+     * @param type piece type
+     * @return a bitboard of the squares holding a piece of color color and type type
+     */
+    public long pieces(int color, int type) {
+        return pieces[piece(color, type)];
+    }
+    
+    /**
+     * Retrieve the squares holding pieces of a color
+     * @param color WHITE or BLACK
+     * @return a bitboard of the squares holding a piece of color color
+     */
+    public long occupancy(int color) {
+        return colors[color];
+    }
+    
+    /**
+     * Retrieve the occupied squares
+     * @return a bitboard of all the squares holding a piece
+     */
+    public long occupied() {
+        return occupied;
+    }
+    
+    /**
+     * Retrieve the side to move
+     * @return WHITE or BLACK, whichever is to move next
+     */
+    public int turn() {
+        return turn;
+    }
+    
+    /**
+     * Set the side to move
+     * @param color WHITE or BLACK
+     */
+    public void setTurn(int color) {
+        key ^= Zobrist.side(turn) ^ Zobrist.side(color);
+        this.turn = color;
+    }
+    
+    /**
+     * Retrieve the castling rights of this position
+     * @return a bitwise union of WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE and BLACK_QUEENSIDE
+     */
+    public int castlingRights() {
+        return castlingRights;
+    }
+    
+    /**
+     * Recompute the castling rights from the pieces on the board: a side may castle
+     * to one side if its king and the rook on that side are both still unmoved on their
+     * initial squares
+     */
+    public void refreshCastlingRights() {
+        key ^= Zobrist.castling(castlingRights);
+        castlingRights = 0;
+        if (unmoved(E1, piece(WHITE, KING))) {
+            if (unmoved(H1, piece(WHITE, ROOK))) {castlingRights |= WHITE_KINGSIDE;}
+            if (unmoved(A1, piece(WHITE, ROOK))) {castlingRights |= WHITE_QUEENSIDE;}
+        }
+        if (unmoved(E8, piece(BLACK, KING))) {
+            if (unmoved(H8, piece(BLACK, ROOK))) {castlingRights |= BLACK_KINGSIDE;}
+            if (unmoved(A8, piece(BLACK, ROOK))) {castlingRights |= BLACK_QUEENSIDE;}
+        }
+        key ^= Zobrist.castling(castlingRights);
+    }
+    
+    /**
+     * Retrieve the en passent square
+     * @return the square a pawn may capture on en passent, or NO_SQUARE if there is none
+     */
+    public int enPassent() {
+        return enPassent;
+    }
+    
+    /**
+     * Record that a pawn of the side that is not to move has just pushed two squares
+     * @param from square the pawn was pushed from
+     * @param to square the pawn was pushed to
+     */
+    public void setDoublePush(int from, int to) {
+        clearEnPassent();
+        long adjacent = ((1L << to) << 1 & ~FILE_A) | ((1L << to) >>> 1 & ~FILE_H);
+        
+        // only remember the square if a pawn is actually able to capture on it
+        if ((adjacent & pieces(turn, PAWN)) != 0) {
+            enPassent = (from + to) >>> 1;
+            key ^= Zobrist.enPassent(enPassent);
+        }
+    }
+    
+    /**
+     * Forget the en passent square of this position
+     */
+    public void clearEnPassent() {
+        key ^= Zobrist.enPassent(enPassent);
+        enPassent = NO_SQUARE;
+    }
+    
+    /**
+     * Retrieve the Zobrist key of this position
+     * @return a 64-bit hash of the piece placement, side to move, castling rights and en passent
+     *          file of this position, equal for equal positions
+     */
+    public long key() {
+        return key;
+    }
+    
+    /**
+     * Retrieve the pawn key of this position, kept up to date as pieces are added and removed
+     * @return a 64-bit hash of the placement of the pawns of this position, equal for positions
+     *          with the same pawns and 0 for positions without pawns
+     */
+    public long pawnKey() {
+        return pawnKey;
+    }
+    
+    /**
+     * Retrieve the material score of this position, kept up to date as pieces are added and removed
+     * @return the value of the white pieces minus the value of the black pieces, in centipawns
+     */
+    public int material() {
+        return material;
+    }
+    
+    /**
+     * Retrieve the piece-square score of this position, kept up to date as pieces are added and removed
+     * @return the piece-square bonuses of the white pieces minus those of the black pieces, in
+     *          centipawns, packed into a middlegame and an endgame score as by PieceSquare.score
+     */
+    public int positional() {
+        return positional;
+    }
+
+    /**
+     * Retrieve the phase of the game of this position, kept up to date as pieces are added and removed
+     * @return PieceSquare.MAX_PHASE with all pieces on the board, down to 0 with only pawns and kings
+     */
+    public int phase() {
+        return Math.min(phase, PieceSquare.MAX_PHASE);
+    }
+    
+    /**
+     * Keep the first layer of a neural network up to date with this position, adding and removing
+     * its pieces as they are added and removed, in place of any accumulator kept up to date before
+     * @param accumulator first layer to set to the pieces of this position and keep up to date from
+     *          now on, or null to stop keeping any up to date
+     */
+    public void setAccumulator(Accumulator accumulator) {
+        this.accumulator = accumulator;
+        if (accumulator != null) {
+            accumulator.refresh(this);
+        }
+        checkRep();
+    }
+    
+    /**
+     * Retrieve the halfmove clock of this position
+     * @return the number of moves played since the last capture or pawn move
+     */
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+    
+    /**
+     * Check if this position occurred before in its history, since the last capture, pawn move or
+     * null move, with the same side to move, castling rights and en passent square
+     * @return true if and only if this position repeats a position of its history
+     */
+    public boolean repetition() {
+        int earliest = Math.max(historySize - halfmoveClock, 0);
+        for (int i = historySize - 1; i >= earliest; i--) {
+            if ((int) (history[i] & 0xFFFF) == PackedMove.NONE) {
+                return false;
+            }
+            if (((historySize - i) & 1) == 0 && keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Retrieve the full move number of this position
+     * @return the number of the move being played, starting at 1 and increasing after each move of black
+     */
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+    
+    /**
+     * Overwrite this position with a position written in Forsyth-Edwards Notation (FEN).
+     * FEN does not record which pieces have moved before, so a piece is taken to be unmoved
+     * if and only if it stands on its square of the standard initial position (and, for
+     * kings and rooks, the castling rights of the FEN still allow it to castle). Clears
+     * the history of this position.
+     * @param fen position in FEN, where the halfmove clock and move number fields may be omitted
+     * @throws IllegalArgumentException if fen is not a valid FEN position
+     */
+    public void loadFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("FEN must have between 4 and 6 fields");
+        }
+        
+        int[] placement = new int[64];
+        Arrays.fill(placement, EMPTY);
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("FEN must have 8 ranks");
+        }
+        for (int i = 0; i < 8; i++) {
+            int y = 7 - i;
+            int x = 0;
+            for (char c : ranks[i].toCharArray()) {
+                if ('1' <= c && c <= '8') {
+                    x += c - '0';
+                    continue;
+                }
+                int type = "pnbrqk".indexOf(Character.toLowerCase(c));
+                if (type < 0 || x >= 8) {
+                    throw new IllegalArgumentException("Unrecognized rank in FEN: " + ranks[i]);
+                }
+                placement[square(x++, y)] = piece(Character.isUpperCase(c) ? WHITE : BLACK, type);
+            }
+            if (x != 8) {
+                throw new IllegalArgumentException("Rank in FEN does not have 8 squares: " + ranks[i]);
+            }
+        }
+        
+        if (!fields[1].equals("w") && !fields[1].equals("b")) {
+            throw new IllegalArgumentException("Unrecognized side to move in FEN: " + fields[1]);
+        }
+        if (!fields[2].matches("-|K?Q?k?q?")) {
+            throw new IllegalArgumentException("Unrecognized castling rights in FEN: " + fields[2]);
+        }
+        if (!fields[3].matches("-|[a-h][36]")) {
+            throw new IllegalArgumentException("Unrecognized en passent square in FEN: " + fields[3]);
+        }
+        
+        // start from an empty position
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        Arrays.fill(mailbox, EMPTY);
+        occupied = 0L;
+        moved = 0L;
+        historySize = 0;
+        castlingRights = 0;
+        enPassent = NO_SQUARE;
+        turn = WHITE;
+        key = 0L;
+        pawnKey = 0L;
+        if (accumulator != null) {
+            accumulator.reset();
+        }
+        material = 0;
+        positional = 0;
+        phase = 0;
+        
+        int castling = 0;
+        for (char c : fields[2].toCharArray()) {
+            castling |= (c == 'K') ? WHITE_KINGSIDE : (c == 'Q') ? WHITE_QUEENSIDE : (c == 'k') ? BLACK_KINGSIDE : (c == 'q') ? BLACK_QUEENSIDE : 0;
+        }
+        for (int square = 0; square < 64; square++) {
+            if (placement[square] != EMPTY) {
+                addPiece(square, placement[square], !initialSquare(square, placement[square], castling));
+            }
+        }
+        
+        setTurn(fields[1].equals("w") ? WHITE : BLACK);
+        refreshCastlingRights();
+        if (!fields[3].equals("-")) {
+            int target = square(fields[3].charAt(0) - 'a', fields[3].charAt(1) - '1');
+            int forward = (turn == WHITE) ? 8 : -8;
+            setDoublePush(target + forward, target - forward);
+        }
+        
+        try {
+            halfmoveClock = (fields.length > 4) ? Integer.parseInt(fields[4]) : 0;
+            fullmoveNumber = (fields.length > 5) ? Integer.parseInt(fields[5]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unrecognized move counters in FEN");
+        }
+        
+        checkRep();
+    }
+    
+    /**
+     * Retrieve this position in Forsyth-Edwards Notation (FEN)
+     * @return the FEN of this position
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                int piece = mailbox[square(x, y)];
+                if (piece == EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char letter = "pnbrqk".charAt(typeOf(piece));
+                fen.append(colorOf(piece) == WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (y > 0) {
+                fen.append('/');
+            }
+        }
+        
+        fen.append(turn == WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+        if ((castlingRights & WHITE_KINGSIDE) != 0) {fen.append('K');}
+        if ((castlingRights & WHITE_QUEENSIDE) != 0) {fen.append('Q');}
+        if ((castlingRights & BLACK_KINGSIDE) != 0) {fen.append('k');}
+        if ((castlingRights & BLACK_QUEENSIDE) != 0) {fen.append('q');}
+        
+        fen.append(' ');
+        if (enPassent == NO_SQUARE) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + file(enPassent))).append(rank(enPassent) + 1);
+        }
+        
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+    
+    /**
+     * Retrieve the square of a king
+     * @param color color of king
+     * @return the square the king of color color is on
+     */
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[piece(color, KING)]);
+    }
+    
+    /**
+     * Check if a king is in check
+     * @param color color of king
+     * @return true if the king of color color is attacked by an opposing piece
+     */
+    public boolean inCheck(int color) {
+        return isAttacked(kingSquare(color), color ^ 1, occupied);
+    }
+    
+    /**
+     * Check if a square is attacked by a side
+     * @param square square to check
+     * @param byColor side to check attacks for
+     * @param occupied bitboard of occupied squares that block sliding pieces
+     * @return true if some piece of color byColor attacks square
+     */
+    public boolean isAttacked(int square, int byColor, long occupied) {
+        if ((Attacks.pawn(byColor ^ 1, square) & pieces(byColor, PAWN)) != 0) {return true;}
+        if ((Attacks.knight(square) & pieces(byColor, KNIGHT)) != 0) {return true;}
+        if ((Attacks.king(square) & pieces(byColor, KING)) != 0) {return true;}
+        
+        long diagonals = pieces(byColor, BISHOP) | pieces(byColor, QUEEN);
+        if (diagonals != 0 && (Attacks.bishop(square, occupied) & diagonals) != 0) {return true;}
+        
+        long lines = pieces(byColor, ROOK) | pieces(byColor, QUEEN);
+        return lines != 0 && (Attacks.rook(square, occupied) & lines) != 0;
+    }
+    
+    /**
+     * Retrieve the pieces of a side that attack a square
+     * @param square square to check
+     * @param byColor side to find attackers for
+     * @param occupied bitboard of occupied squares that block sliding pieces
+     * @return a bitboard of the pieces of color byColor that attack square
+     */
+    public long attackers(int square, int byColor, long occupied) {
+        long diagonals = pieces(byColor, BISHOP) | pieces(byColor, QUEEN);
+        long lines = pieces(byColor, ROOK) | pieces(byColor, QUEEN);
+        return (Attacks.pawn(byColor ^ 1, square) & pieces(byColor, PAWN))
+                | (Attacks.knight(square) & pieces(byColor, KNIGHT))
+                | (Attacks.king(square) & pieces(byColor, KING))
+                | (Attacks.bishop(square, occupied) & diagonals)
+                | (Attacks.rook(square, occupied) & lines);
+    }
+    
+    /**
+     * Resolve the exchange a move starts on its target square, without making any move: both
+     * sides keep recapturing with their least valuable attacker, including pieces revealed
+     * behind the ones that captured, and either side may stop when recapturing would lose.
+     * Pins and checks are ignored, and castling exchanges nothing.
+     *  - requires that move was generated for this position
+     * @param move encoded move that starts the exchange
+     * @return the material the side to move wins by the exchange, in centipawns, which is
+     *          negative if it loses material
+     */
+    public int see(int move) {
+        int flags = PackedMove.flags(move);
+        if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+            return 0;
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        
+        long occupancy = occupied ^ (1L << from);
+        if (flags == PackedMove.EN_PASSENT) {
+            occupancy ^= 1L << (turn == WHITE ? to - 8 : to + 8);
+        }
+        long attackers = (attackers(to, WHITE, occupancy) | attackers(to, BLACK, occupancy)) & occupancy;
+        long diagonals = pieces[piece(WHITE, BISHOP)] | pieces[piece(BLACK, BISHOP)] | pieces[piece(WHITE, QUEEN)] | pieces[piece(BLACK, QUEEN)];
+        long lines = pieces[piece(WHITE, ROOK)] | pieces[piece(BLACK, ROOK)] | pieces[piece(WHITE, QUEEN)] | pieces[piece(BLACK, QUEEN)];
+        
+        int depth = 0;
+        swapList[0] = exchangeGain(move);
+        int onSquare = PackedMove.isPromotion(move) ? SEE_VALUES[PackedMove.promotionType(move)] : SEE_VALUES[typeOf(mailbox[from])];
+        int color = turn;
+        while (true) {
+            color ^= 1;
+            long sideAttackers = attackers & colors[color];
+            if (sideAttackers == 0) {
+                break;
+            }
+            int type = leastValuableType(sideAttackers, color);
+            if (type == KING && (attackers & colors[color ^ 1]) != 0) {
+                break;
+            }
+            
+            // each entry is what the side capturing there wins if the exchange stops right after
+            depth++;
+            swapList[depth] = onSquare - swapList[depth - 1];
+            onSquare = SEE_VALUES[type];
+            
+            occupancy ^= Long.lowestOneBit(sideAttackers & pieces[piece(color, type)]);
+            if (type == PAWN || type == BISHOP || type == QUEEN) {
+                attackers |= Attacks.bishop(to, occupancy) & diagonals;
+            }
+            if (type == ROOK || type == QUEEN) {
+                attackers |= Attacks.rook(to, occupancy) & lines;
+            }
+            attackers &= occupancy;
+        }
+        
+        // going backwards, each side either stops the exchange or recaptures, whichever is better
+        while (depth > 0) {
+            swapList[depth - 1] = -Math.max(-swapList[depth - 1], swapList[depth]);
+            depth--;
+        }
+        return swapList[0];
+    }
+    
+    /**
+     * Check whether the exchange a move starts wins at least some amount of material, as
+     * resolved by see(move), stopping as soon as the answer is known
+     *  - requires that move was generated for this position
+     * @param move encoded move that starts the exchange
+     * @param threshold material in centipawns the side to move must win at least
+     * @return true if and only if see(move) >= threshold
+     */
+    public boolean seeGreaterOrEqual(int move, int threshold) {
+        int flags = PackedMove.flags(move);
+        if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+            return 0 >= threshold;
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        
+        // swap is how far the side to move is from the threshold if it may stop now, negated
+        // on every capture so that it is always from the point of view of the side that just moved
+        int swap = exchangeGain(move) - threshold;
+        if (swap < 0) {
+            return false;
+        }
+        swap = (PackedMove.isPromotion(move) ? SEE_VALUES[PackedMove.promotionType(move)] : SEE_VALUES[typeOf(mailbox[from])]) - swap;
+        if (swap <= 0) {
+            return true;
+        }
+        
+        long occupancy = occupied ^ (1L << from);
+        if (flags == PackedMove.EN_PASSENT) {
+            occupancy ^= 1L << (turn == WHITE ? to - 8 : to + 8);
+        }
+        long attackers = (attackers(to, WHITE, occupancy) | attackers(to, BLACK, occupancy)) & occupancy;
+        long diagonals = pieces[piece(WHITE, BISHOP)] | pieces[piece(BLACK, BISHOP)] | pieces[piece(WHITE, QUEEN)] | pieces[piece(BLACK, QUEEN)];
+        long lines = pieces[piece(WHITE, ROOK)] | pieces[piece(BLACK, ROOK)] | pieces[piece(WHITE, QUEEN)] | pieces[piece(BLACK, QUEEN)];
+        
+        int color = turn;
+        int result = 1;
+        while (true) {
+            color ^= 1;
+            attackers &= occupancy;
+            long sideAttackers = attackers & colors[color];
+            if (sideAttackers == 0) {
+                break;
+            }
+            result ^= 1;
+            
+            int type = leastValuableType(sideAttackers, color);
+            if (type == KING) {
+                // the king may only recapture if the other side has nothing left to take it with
+                return ((attackers & colors[color ^ 1]) != 0) ? result == 0 : result != 0;
+            }
+            swap = SEE_VALUES[type] - swap;
+            if (swap < result) {
+                break;
+            }
+            
+            occupancy ^= Long.lowestOneBit(sideAttackers & pieces[piece(color, type)]);
+            if (type == PAWN || type == BISHOP || type == QUEEN) {
+                attackers |= Attacks.bishop(to, occupancy) & diagonals;
+            }
+            if (type == ROOK || type == QUEEN) {
+                attackers |= Attacks.rook(to, occupancy) & lines;
+            }
+        }
+        return result != 0;
+    }
+    
+    /**
+     * Generate the legal moves of the side to move. Checking pieces and pinned pieces are
+     * found once up front, so every move written is legal without having to be played first.
+     * @param moves buffer to write moves to, requires moves.length >= MAX_MOVES
+     * @return the number of legal moves written to the front of moves
+     */
+    public int generateLegalMoves(int[] moves) {
+        return generate(moves, false);
+    }
+    
+    /**
+     * Generate the legal captures and promotions of the side to move, including en passent
+     * captures and promotions that do not capture
+     * @param moves buffer to write moves to, requires moves.length >= MAX_MOVES
+     * @return the number of legal captures and promotions written to the front of moves
+     */
+    public int generateCaptures(int[] moves) {
+        return generate(moves, true);
+    }
+    
+    /**
+     * Play a move on this position, remembering what is needed to take it back. Flips the side to move.
+     *  - requires that move was generated for this position
+     * @param move encoded move to play
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int flags = PackedMove.flags(move);
+        int piece = mailbox[from];
+        int color = turn;
+        int captureSquare = (flags == PackedMove.EN_PASSENT) ? (color == WHITE ? to - 8 : to + 8) : to;
+        int captured = mailbox[captureSquare];
+        
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, 2 * history.length);
+            keys = Arrays.copyOf(keys, 2 * keys.length);
+        }
+        keys[historySize] = key;
+        history[historySize++] = (move & 0xFFFFL)
+                | ((long) (captured + 1) << 16)
+                | ((long) castlingRights << 20)
+                | ((long) (enPassent + 1) << 24)
+                | (hasMoved(from) ? 1L << 31 : 0L)
+                | (hasMoved(captureSquare) ? 1L << 32 : 0L)
+                | ((long) halfmoveClock << 33);
+        
+        if (typeOf(piece) == PAWN || captured != EMPTY) {
+            halfmoveClock = 0;
+        } else {
+            halfmoveClock++;
+        }
+        
+        removePiece(from);
+        removePiece(captureSquare);
+        
+        if (flags == PackedMove.KING_CASTLE) {
+            removePiece(to + 1);
+            addPiece(to - 1, piece(color, ROOK), true);
+        } else if (flags == PackedMove.QUEEN_CASTLE) {
+            removePiece(to - 2);
+            addPiece(to + 1, piece(color, ROOK), true);
+        }
+        
+        if (flags >= PackedMove.PROMOTION) {
+            addPiece(to, piece(color, PackedMove.promotionType(move)), true);
+        } else {
+            addPiece(to, piece, true);
+        }
+        
+        key ^= Zobrist.castling(castlingRights);
+        castlingRights &= castlingMask(from) & castlingMask(to);
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.side(BLACK);
+        if (color == BLACK) {
+            fullmoveNumber++;
+        }
+        turn ^= 1;
+        
+        if (flags == PackedMove.DOUBLE_PUSH) {
+            setDoublePush(from, to);
+        } else {
+            clearEnPassent();
+        }
+    }
+    
+    /**
+     * Pass the turn without moving a piece, remembering what is needed to take it back with
+     * unmakeMove. Flips the side to move and forgets the en passent square.
+     *  - requires that the side to move is not in check
+     */
+    public void makeNullMove() {
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, 2 * history.length);
+            keys = Arrays.copyOf(keys, 2 * keys.length);
+        }
+        keys[historySize] = key;
+        history[historySize++] = PackedMove.NONE
+                | ((long) castlingRights << 20)
+                | ((long) (enPassent + 1) << 24)
+                | ((long) halfmoveClock << 33);
+        
+        halfmoveClock++;
+        key ^= Zobrist.side(BLACK);
+        if (turn == BLACK) {
+            fullmoveNumber++;
+        }
+        turn ^= 1;
+        clearEnPassent();
+    }
+    
+    /**
+     * Take back the last move played with makeMove or makeNullMove. Flips the side to move.
+     *  - requires that historySize() > 0
+     */
+    public void unmakeMove() {
+        long record = history[--historySize];
+        int move = (int) (record & 0xFFFF);
+        if (move == PackedMove.NONE) {
+            turn ^= 1;
+            if (turn == BLACK) {
+                fullmoveNumber--;
+            }
+            enPassent = (int) ((record >>> 24) & 127) - 1;
+            halfmoveClock = (int) ((record >>> 33) & 0xFFFF);
+            key = keys[historySize];
+            return;
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int flags = PackedMove.flags(move);
+        int captured = (int) ((record >>> 16) & 15) - 1;
+        
+        turn ^= 1;
+        int color = turn;
+        if (color == BLACK) {
+            fullmoveNumber--;
+        }
+        int piece = (flags >= PackedMove.PROMOTION) ? piece(color, PAWN) : mailbox[to];
+        
+        removePiece(to);
+        addPiece(from, piece, (record & (1L << 31)) != 0);
+        
+        if (captured != EMPTY) {
+            int captureSquare = (flags == PackedMove.EN_PASSENT) ? (color == WHITE ? to - 8 : to + 8) : to;
+            addPiece(captureSquare, captured, (record & (1L << 32)) != 0);
+        }
+        
+        if (flags == PackedMove.KING_CASTLE) {
+            removePiece(to - 1);
+            addPiece(to + 1, piece(color, ROOK), false);
+        } else if (flags == PackedMove.QUEEN_CASTLE) {
+            removePiece(to + 1);
+            addPiece(to - 2, piece(color, ROOK), false);
+        }
+        
+        castlingRights = (int) ((record >>> 20) & 15);
+        enPassent = (int) ((record >>> 24) & 127) - 1;
+        halfmoveClock = (int) ((record >>> 33) & 0xFFFF);
+        key = keys[historySize];
+    }
+    
+    /**
+     * Retrieve the number of moves that can be taken back
+     * @return the number of moves played with makeMove that have not been taken back
+     */
+    public int historySize() {
+        return historySize;
+    }
+    
+    /**
+     * Retrieve the squares attacked by knights
+     * @param knights bitboard of knights
+     * @return the squares attacked by a knight in knights
+     */
+    public static long knightAttacks(long knights) {
+        long l1 = (knights >>> 1) & ~FILE_H;
+        long l2 = (knights >>> 2) & ~(FILE_H | FILE_H >>> 1);
+        long r1 = (knights << 1) & ~FILE_A;
+        long r2 = (knights << 2) & ~(FILE_A | FILE_A << 1);
+        long h1 = l1 | r1;
+        long h2 = l2 | r2;
+        return (h1 << 16) | (h1 >>> 16) | (h2 << 8) | (h2 >>> 8);
+    }
+    
+    /**
+     * Retrieve the squares attacked by kings
+     * @param kings bitboard of kings
+     * @return the squares attacked by a king in kings
+     */
+    public static long kingAttacks(long kings) {
+        long attacks = ((kings << 1) & ~FILE_A) | ((kings >>> 1) & ~FILE_H);
+        long row = kings | attacks;
+        return attacks | (row << 8) | (row >>> 8);
+    }
+    
+    /**
+     * Retrieve the squares attacked by pawns
+     * @param color color of the pawns
+     * @param pawns bitboard of pawns
+     * @return the squares attacked by a pawn of color color in pawns
+     */
+    public static long pawnAttacks(int color, long pawns) {
+        if (color == WHITE) {
+            return ((pawns << 9) & ~FILE_A) | ((pawns << 7) & ~FILE_H);
+        } else {
+            return ((pawns >>> 7) & ~FILE_A) | ((pawns >>> 9) & ~FILE_H);
+        }
+    }
+    
+    /**
+     * Retrieve the squares attacked by a bishop
+     * @param square square of the bishop
+     * @param occupied bitboard of squares that block the bishop
+     * @return the squares attacked by a bishop on square
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return Attacks.bishop(square, occupied);
+    }
+    
+    /**
+     * Retrieve the squares attacked by a rook
+     * @param square square of the rook
+     * @param occupied bitboard of squares that block the rook
+     * @return the squares attacked by a rook on square
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return Attacks.rook(square, occupied);
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Retrieve the material a move wins before any recapture
+     * @param move encoded move of this position
+     * @return the value of the piece move captures, plus the value a promotion adds to the pawn
+     */
+    private int exchangeGain(int move) {
+        int flags = PackedMove.flags(move);
+        int captured = mailbox[PackedMove.to(move)];
+        int gain = (flags == PackedMove.EN_PASSENT) ? SEE_VALUES[PAWN] : (captured == EMPTY) ? 0 : SEE_VALUES[typeOf(captured)];
+        if (PackedMove.isPromotion(move)) {
+            gain += SEE_VALUES[PackedMove.promotionType(move)] - SEE_VALUES[PAWN];
+        }
+        return gain;
+    }
+    
+    /**
+     * Find the type of the least valuable piece among some pieces of a side
+     * @param attackers nonempty bitboard of pieces of color color
+     * @param color side the pieces belong to
+     * @return the least valuable type of piece with a piece in attackers
+     */
+    private int leastValuableType(long attackers, int color) {
+        for (int type = PAWN; type < KING; type++) {
+            if ((attackers & pieces[piece(color, type)]) != 0) {
+                return type;
+            }
+        }
+        return KING;
+    }
+    
+    /**
+     * Compute the Zobrist key of this position from scratch
+     * @return the exclusive or of the keys of every piece on its square, the castling rights,
+     *          the en passent square and the side to move
+     */
+    private long computeKey() {
+        long hash = Zobrist.castling(castlingRights) ^ Zobrist.enPassent(enPassent) ^ Zobrist.side(turn);
+        for (int square = 0; square < 64; square++) {
+            if (mailbox[square] != EMPTY) {
+                hash ^= Zobrist.piece(mailbox[square], square);
+            }
+        }
+        return hash;
+    }
+    
+    /**
+     * Check if a square holds an unmoved piece
+     * @param square square to look at
+     * @param piece piece index expected on square
+     * @return true if and only if square holds piece, and it has never moved
+     */
+    private boolean unmoved(int square, int piece) {
+        return mailbox[square] == piece && !hasMoved(square);
+    }
+    
+    /**
+     * Check if a piece stands where it would in the standard initial position
+     * @param square square of the piece
+     * @param piece piece index of the piece
+     * @param castling castling rights the position is known to have
+     * @return true if piece starts the game on square, and if it is a king or rook,
+     *          castling still allows it to castle
+     */
+    private static boolean initialSquare(int square, int piece, int castling) {
+        int color = colorOf(piece);
+        int backRank = (color == WHITE) ? 0 : 7;
+        int kingside = (color == WHITE) ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenside = (color == WHITE) ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        int x = file(square);
+        
+        switch (typeOf(piece)) {
+        case PAWN: return rank(square) == ((color == WHITE) ? 1 : 6);
+        case KNIGHT: return rank(square) == backRank && (x == 1 || x == 6);
+        case BISHOP: return rank(square) == backRank && (x == 2 || x == 5);
+        case QUEEN: return rank(square) == backRank && x == 3;
+        case KING: return rank(square) == backRank && x == 4 && (castling & (kingside | queenside)) != 0;
+        case ROOK: return rank(square) == backRank && ((x == 7 && (castling & kingside) != 0) || (x == 0 && (castling & queenside) != 0));
+        default: return false;
+        }
+    }
+    
+    /**
+     * Retrieve the castling rights that survive a move touching a square
+     * @param square source or target square of a move
+     * @return the castling rights that remain available after a piece moves from or onto square
+     */
+    private static int castlingMask(int square) {
+        switch (square) {
+        case E1: return ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        case H1: return ~WHITE_KINGSIDE;
+        case A1: return ~WHITE_QUEENSIDE;
+        case E8: return ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        case H8: return ~BLACK_KINGSIDE;
+        case A8: return ~BLACK_QUEENSIDE;
+        default: return ~0;
+        }
+    }
+    
+    /**
+     * Generate legal moves of the side to move
+     * @param moves buffer to write moves to, requires moves.length >= MAX_MOVES
+     * @param capturesOnly true to only generate captures and promotions, false to generate every legal move
+     * @return the number of moves written to the front of moves
+     */
+    private int generate(int[] moves, boolean capturesOnly) {
+        int count = 0;
+        int us = turn;
+        int them = us ^ 1;
+        int king = kingSquare(us);
+        long own = colors[us];
+        long enemy = colors[them];
+        long checkers = attackers(king, them, occupied);
+        long targetMask = capturesOnly ? enemy : ~own;
+        
+        // king moves, checked against an occupancy without the king so it cannot hide behind itself
+        long withoutKing = occupied & ~(1L << king);
+        for (long targets = Attacks.king(king) & targetMask; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (!isAttacked(to, them, withoutKing)) {
+                moves[count++] = PackedMove.encode(king, to, (enemy & (1L << to)) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET);
+            }
+        }
+        
+        // in double check only the king may move
+        if (Long.bitCount(checkers) > 1) {
+            return count;
+        }
+        
+        // when in check, every other move has to capture the checker or block it
+        long checkMask = -1L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Attacks.between(king, checker);
+        }
+        long pinned = pinned(us, king);
+        
+        count = generatePawnMoves(moves, count, king, checkMask, pinned, capturesOnly);
+        
+        for (int type = KNIGHT; type <= QUEEN; type++) {
+            for (long sources = pieces(us, type); sources != 0; sources &= sources - 1) {
+                int from = Long.numberOfTrailingZeros(sources);
+                long targets = attacks(type, from, occupied) & targetMask & checkMask;
+                if ((pinned & (1L << from)) != 0) {
+                    targets &= Attacks.line(king, from);
+                }
+                for (; targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    moves[count++] = PackedMove.encode(from, to, (enemy & (1L << to)) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET);
+                }
+            }
+        }
+        
+        if (checkers == 0 && !capturesOnly) {
+            if (us == WHITE) {
+                count = addCastle(moves, count, WHITE_KINGSIDE, E1, G1, (1L << F1) | (1L << G1), F1, PackedMove.KING_CASTLE);
+                count = addCastle(moves, count, WHITE_QUEENSIDE, E1, C1, (1L << D1) | (1L << C1) | (1L << B1), D1, PackedMove.QUEEN_CASTLE);
+            } else {
+                count = addCastle(moves, count, BLACK_KINGSIDE, E8, G8, (1L << F8) | (1L << G8), F8, PackedMove.KING_CASTLE);
+                count = addCastle(moves, count, BLACK_QUEENSIDE, E8, C8, (1L << D8) | (1L << C8) | (1L << B8), D8, PackedMove.QUEEN_CASTLE);
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Retrieve the pieces of a side that are pinned to their king
+     * @param color side to find pinned pieces for
+     * @param king square of the king of color color
+     * @return a bitboard of the pieces of color color that may only move along the line to their king
+     */
+    private long pinned(int color, int king) {
+        int them = color ^ 1;
+        long enemy = colors[them];
+        long snipers = (Attacks.rook(king, enemy) & (pieces(them, ROOK) | pieces(them, QUEEN)))
+                | (Attacks.bishop(king, enemy) & (pieces(them, BISHOP) | pieces(them, QUEEN)));
+        long pinned = 0L;
+        
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & colors[color];
+            }
+        }
+        
+        return pinned;
+    }
+    
+    /**
+     * Add the legal pawn moves of the side to move to a buffer
+     * @param moves buffer to write moves to
+     * @param count number of moves already in moves
+     * @param king square of the king of the side to move
+     * @param checkMask squares a move must land on to resolve a check, or every square if not in check
+     * @param pinned pieces of the side to move that are pinned to their king
+     * @param capturesOnly true to only add captures and promotions
+     * @return the number of moves in moves after adding
+     */
+    private int generatePawnMoves(int[] moves, int count, int king, long checkMask, long pinned, boolean capturesOnly) {
+        int us = turn;
+        long enemy = colors[us ^ 1];
+        long empty = ~occupied;
+        int forward = (us == WHITE) ? 8 : -8;
+        long lastRank = (us == WHITE) ? RANK_8 : RANK_1;
+        
+        for (long sources = pieces(us, PAWN); sources != 0; sources &= sources - 1) {
+            int from = Long.numberOfTrailingZeros(sources);
+            long allowed = checkMask;
+            if ((pinned & (1L << from)) != 0) {
+                allowed &= Attacks.line(king, from);
+            }
+            
+            int single = from + forward;
+            boolean promotes = (1L << single & lastRank) != 0;
+            if ((empty & (1L << single)) != 0 && (promotes || !capturesOnly)) {
+                if ((allowed & (1L << single)) != 0) {
+                    count = addPawnMove(moves, count, from, single, promotes, false);
+                }
+                int twice = single + forward;
+                if (!capturesOnly && !hasMoved(from) && twice >= 0 && twice < 64 && (empty & allowed & (1L << twice)) != 0) {
+                    moves[count++] = PackedMove.encode(from, twice, PackedMove.DOUBLE_PUSH);
+                }
+            }
+            
+            long attacks = Attacks.pawn(us, from);
+            for (long targets = attacks & enemy & allowed; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                count = addPawnMove(moves, count, from, to, (1L << to & lastRank) != 0, true);
+            }
+            
+            if (enPassent != NO_SQUARE && (attacks & (1L << enPassent)) != 0 && enPassentLegal(from, king)) {
+                moves[count++] = PackedMove.encode(from, enPassent, PackedMove.EN_PASSENT);
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Check if a pawn of the side to move may capture en passent. Two pawns leave the same rank
+     * at once, which may uncover an attack on the king that a pin mask does not see, so the
+     * sliding attacks on the king are recomputed with both pawns gone.
+     * @param from square of the capturing pawn, requires that it attacks the en passent square
+     * @param king square of the king of the side to move
+     * @return true if and only if capturing en passent from from does not leave the king in check
+     */
+    private boolean enPassentLegal(int from, int king) {
+        int them = turn ^ 1;
+        int captured = (turn == WHITE) ? enPassent - 8 : enPassent + 8;
+        long after = (occupied & ~(1L << from) & ~(1L << captured)) | (1L << enPassent);
+        
+        // knights and pawns other than the captured one cannot be dealt with by en passent
+        long pawns = pieces(them, PAWN) & ~(1L << captured);
+        if ((Attacks.knight(king) & pieces(them, KNIGHT)) != 0 || (Attacks.pawn(turn, king) & pawns) != 0) {
+            return false;
+        }
+        
+        long diagonals = pieces(them, BISHOP) | pieces(them, QUEEN);
+        long lines = pieces(them, ROOK) | pieces(them, QUEEN);
+        return (Attacks.bishop(king, after) & diagonals) == 0 && (Attacks.rook(king, after) & lines) == 0;
+    }
+    
+    /**
+     * Retrieve the squares attacked by a non-pawn piece
+     * @param type type of the piece, requires type != PAWN
+     * @param square square of the piece
+     * @param occupied bitboard of squares that block sliding pieces
+     * @return the squares attacked by a piece of type type on square
+     */
+    private static long attacks(int type, int square, long occupied) {
+        switch (type) {
+        case KNIGHT: return Attacks.knight(square);
+        case BISHOP: return Attacks.bishop(square, occupied);
+        case ROOK: return Attacks.rook(square, occupied);
+        case QUEEN: return Attacks.queen(square, occupied);
+        case KING: return Attacks.king(square);
+        default: throw new IllegalArgumentException("Pawn attacks depend on color");
+        }
+    }
+    
+    /**
+     * Add a pawn move to a buffer, expanding it into every promotion if necessary
+     * @param moves buffer to write moves to
+     * @param count number of moves already in moves
+     * @param from square the pawn starts on
+     * @param to square the pawn lands on
+     * @param promotes whether or not to lands on the last rank
+     * @param capture whether or not the pawn captures on to
+     * @return the number of moves in moves after adding
+     */
+    private static int addPawnMove(int[] moves, int count, int from, int to, boolean promotes, boolean capture) {
+        if (promotes) {
+            int flags = capture ? PackedMove.PROMOTION_CAPTURE : PackedMove.PROMOTION;
+            for (int type = KNIGHT; type <= QUEEN; type++) {
+                moves[count++] = PackedMove.encode(from, to, flags | (type - KNIGHT));
+            }
+        } else {
+            moves[count++] = PackedMove.encode(from, to, capture ? PackedMove.CAPTURE : PackedMove.QUIET);
+        }
+        return count;
+    }
+    
+    /**
+     * Add a castling move to a buffer if it is available
+     * @param moves buffer to write moves to
+     * @param count number of moves already in moves
+     * @param right castling right required to castle
+     * @param kingFrom square the king starts on
+     * @param kingTo square the king lands on
+     * @param between squares between king and rook that must be empty
+     * @param passed square the king passes over on the way to kingTo
+     * @param flags PackedMove.KING_CASTLE or PackedMove.QUEEN_CASTLE
+     * @return the number of moves in moves after adding
+     */
+    private int addCastle(int[] moves, int count, int right, int kingFrom, int kingTo, long between, int passed, int flags) {
+        if ((castlingRights & right) == 0 || (occupied & between) != 0) {
+            return count;
+        }
+        
+        // king may not castle out of, through or into check
+        int them = turn ^ 1;
+        if (isAttacked(kingFrom, them, occupied) || isAttacked(passed, them, occupied) || isAttacked(kingTo, them, occupied)) {
+            return count;
+        }
+        
+        moves[count++] = PackedMove.encode(kingFrom, kingTo, flags);
+        return count;
+    }
+}
@@ -5,7 +5,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
 /**
@@ -17,16 +16,18 @@ public class Board {
     
     public final static int DEFAULT_SIZE = 8;
     
-    private final Square[][] grid = new Square[DEFAULT_SIZE][DEFAULT_SIZE];
-    private PieceColor turn;
+    private final static PieceType[] TYPES = PieceType.values();
+    
+    private final BitBoard position = new BitBoard();
+    private final int[] moveBuffer = new int[BitBoard.MAX_MOVES];
     private List<Move> movesPlayed = new ArrayList<>();
     private final Set<Move> legalMoves = new HashSet<>();
-    private final Set<Move> legalMovesBeforeMove = new HashSet<>();
+    private boolean legalMovesGenerated = false;
+    private int packedMovesMade = 0;
     
     // TODO list:
     //
     // throw IllegalArgumentExceptions in Move variant constructors to help with main method
-    // make legalMoves part of rep so you don't need to recalculate it every time
     // add in stalemate, 3 move repetition, 50 move rule, and insufficient material
     // add a resign button/ draw offer button
     // adjust spec of move to not allow any more moves on board after checkmate, and add tests to test that
@@ -38,32 +39,34 @@ public class Board {
     //        all pieces that the player on 'side' can capture a piece on square
     
     // Abstraction Function:
-    //  - represents a chess board filled with the squares in grid, such that the square
-    //     grid[x][y] 0 <= x, y < DEFAULT_SIZE is the square at Coordinate (x,y) on the chess board.
-    //  - turn is the side (white or black) to move next
-    //  - lastMove is the last move that was played in the game
-    //  
+    //  - represents a chess board holding the pieces of position, such that the square
+    //     at Coordinate (x, y) holds the piece on square BitBoard.square(x, y) of position
+    //  - position.turn() is the side (white or black) to move next
+    //  - movesPlayed is the list of moves that were played in the game, in order, the last
+    //     position.historySize() - packedMovesMade of which were played on this board and can be taken back
+    //  - the last packedMovesMade moves of position were made with makeMove(int) or makeNullMove(),
+    //     and are not in movesPlayed
+    //  - if legalMovesGenerated is true, legalMoves is the set of legal moves in this position
+    //
     // Rep Invariant:
     //  - exactly two kings, one of opposite color, exist on the board
     //  - the opposite king is not in check
-    //  - square at grid[x][y] has coordinate (x, y)
-    // 
+    //  - 0 <= packedMovesMade <= position.historySize()
+    //
     // Safety from Rep Exposure:
     //  - all fields are private and final
     //  - all mutable inputs are defensively copied
     //  - all mutable outputs are defensively copied
     //
-
+    
     /**
      * Create a standard chess Board
      */
     public Board() {
-        createEmptyGrid();
-        
         PieceColor black = PieceColor.BLACK;
         PieceColor white = PieceColor.WHITE;
         
-        turn = white;
+        position.setTurn(BitBoard.WHITE);
         
         // add all black pieces
         addInitialPawns(black);
@@ -81,6 +84,7 @@ public class Board {
         addInitialQueen(white);
         addInitialKing(white);
         
+        position.refreshCastlingRights();
         checkRep();
     }
     
@@ -92,12 +96,7 @@ public class Board {
      * @param turn the side to move next
      */
     public Board(Map<Piece, Set<Coordinate>> whitePieces, Map<Piece, Set<Coordinate>> blackPieces, PieceColor turn, Move lastMove){
-        createEmptyGrid();
-        this.turn = turn;
-        
-        if (!lastMove.isUndefined()) {
-            movesPlayed.add(lastMove);
-        }
+        position.setTurn(colorIndex(turn));
         
         Map<Piece, Set<Coordinate>> whitePiecesCopy = new HashMap<>(whitePieces);
         Map<Piece, Set<Coordinate>> blackPiecesCopy = new HashMap<>(blackPieces);
@@ -105,17 +104,68 @@ public class Board {
         // add all the white pieces
         for (Piece piece : whitePiecesCopy.keySet()) {
             for (Coordinate coord : whitePiecesCopy.get(piece)) {
-                grid[coord.getX()][coord.getY()].addPiece(piece);
+                addPiece(coord, piece);
             }
         }
         
         // add all the black pieces
         for (Piece piece : blackPiecesCopy.keySet()) {
             for (Coordinate coord : blackPiecesCopy.get(piece)) {
-                grid[coord.getX()][coord.getY()].addPiece(piece);
+                addPiece(coord, piece);
             }
         }
         
+        position.refreshCastlingRights();
+        
+        if (!lastMove.isUndefined()) {
+            movesPlayed.add(lastMove);
+            
+            // a pawn that was just pushed two squares may be captured en passent
+            Coordinate coordFrom = lastMove.coordFrom();
+            Coordinate coordTo = lastMove.coordTo();
+            boolean pawnPushedTwoSquares = !lastMove.isCastle() && lastMove.movedPieces().iterator().next().isPawn()
+                    && coordFrom.getX() == coordTo.getX() && Math.abs(coordFrom.getY() - coordTo.getY()) == 2;
+            
+            if (pawnPushedTwoSquares) {
+                position.setDoublePush(squareIndex(coordFrom), squareIndex(coordTo));
+            }
+        }
+        
+        checkRep();
+    }
+    
+    /**
+     * Create a chess board from a position in Forsyth-Edwards Notation (FEN)
+     *  - since FEN does not record which pieces have moved, a piece is considered unmoved
+     *    if and only if it stands on its initial square (and, for kings and rooks, the
+     *    castling rights of the FEN allow it to castle)
+     *  - no moves are considered to have been played on this board
+     * @param fen position in FEN, where the halfmove clock and move number fields may be omitted
+     * @throws IllegalArgumentException if fen is not a valid FEN position, or describes a
+     *          position that can't arise in a game
+     */
+    public Board(String fen) {
+        position.loadFen(fen);
+        
+        boolean oneKingEach = Long.bitCount(position.pieces(BitBoard.WHITE, BitBoard.KING)) == 1
+                && Long.bitCount(position.pieces(BitBoard.BLACK, BitBoard.KING)) == 1;
+        if (!oneKingEach || position.inCheck(position.turn() ^ 1)) {
+            throw new IllegalArgumentException("FEN does not describe a legal position");
+        }
+        
+        checkRep();
+    }
+    
+    /**
+     * Create a copy of a chess board, along with the moves played on it, which can be taken back
+     * on the copy and make up the history its repetitions are checked against
+     *  - requires that every move made on other with makeMove(int) has been unmade
+     * @param other board to copy
+     */
+    public Board(Board other) {
+        other.requireNoPackedMoves();
+        position.copyFrom(other.position);
+        movesPlayed.addAll(other.movesPlayed);
         checkRep();
     }
     
@@ -123,49 +173,33 @@ public class Board {
      * Assert the Rep Invariant.
      */
     private void checkRep() {
-        assert !oppositeKingCheck();
-        for (int row = 0; row < DEFAULT_SIZE; row++) {
-            for (int col = 0; col < DEFAULT_SIZE; col++) {
-                assert grid[row][col].coordinate().getX() == row;
-                assert grid[row][col].coordinate().getY() == col;
-            }
-        }
-        Set<Coordinate> whiteKingPlacement = whitePieces().get(retrieveKing(PieceColor.WHITE));
-        Set<Coordinate> blackKingPlacement = blackPieces().get(retrieveKing(PieceColor.BLACK));
-        assert whiteKingPlacement.size() == 1;
-        assert blackKingPlacement.size() == 1;
+        assert Long.bitCount(position.pieces(BitBoard.WHITE, BitBoard.KING)) == 1;
+        assert Long.bitCount(position.pieces(BitBoard.BLACK, BitBoard.KING)) == 1;
+        assert !position.inCheck(position.turn() ^ 1);
+        assert 0 <= packedMovesMade && packedMovesMade <= position.historySize();
     }
     
     /**
      * Make a chess move on this Board. Flips the side to move.
      *  - requires that chessMove is contained in this.legalMoves()
+     *  - requires that every move made with makeMove(int) has been unmade
      * @param chessMove move to make on this board
      * @throws IllegalArgumentException if chessMove is not a legal move on this board
      */
     public void move(Move chessMove) throws IllegalArgumentException{
-        Square squareFrom = getSquare(chessMove.coordFrom());
+        requireNoPackedMoves();
         
-        if (! squareFrom.isOccupied())
+        if (!getSquare(chessMove.coordFrom()).isOccupied())
             throw new IllegalArgumentException("Piece not found");
         
-        if (!legalMoves().contains(chessMove)) {
+        if (!generateLegalMoves().contains(chessMove)) {
             throw new IllegalArgumentException("Illegal move attempted");
         }
         
-        movePiece(chessMove);
-        
-        if (chessMove.isCastle()) {
-            Coordinate rookCoord = getRookCoordinate(chessMove.coordTo());
-            Square rookSquareFrom = getSquare(rookCoord);
-            Square rookSquareTo = getSquare(getRookDestination(rookCoord));
-            Move rookMove = Move.createMove(rookSquareFrom, rookSquareTo);
-            movePiece(rookMove);
-        }
+        position.makeMove(encode(chessMove));
         
         this.movesPlayed.add(chessMove);
-        this.legalMovesBeforeMove.addAll(this.legalMoves);
-        this.legalMoves.removeAll(legalMoves);
-        changeTurn();
+        this.legalMovesGenerated = false;
         checkRep();
     }
     
@@ -177,54 +211,43 @@ public class Board {
      * @return true if a pawn move from coordFrom to coordTo is an enPassent capture
      */
     public boolean isEnPassent(Coordinate coordFrom, Coordinate coordTo) {
-        // may not en passent without moving a pawn
-        if (!getSquare(coordFrom).getPiece().isPawn()) {
+        int piece = position.pieceAt(squareIndex(coordFrom));
+        
+        // may not en passent without moving a pawn of the side to move
+        if (piece != BitBoard.piece(position.turn(), BitBoard.PAWN)) {
             return false;
         }
         
-        Move lastMove = getLastMove();
-        if (lastMove.isUndefined() || lastMove.isCastle()) {return false;}
-        
-        Coordinate lastMoveCoordFrom = lastMove.coordFrom();
-        Coordinate lastMoveCoordTo = lastMove.coordTo();
-        Piece lastMovePiece = getArbitrary(lastMove.movedPieces());
-        
-        if (!lastMovePiece.isPawn()) {return false;}
-        
-        boolean pawnHadPushedTwoSquares = lastMoveCoordFrom.getX() == lastMoveCoordTo.getX() && 
-                Math.abs(lastMoveCoordFrom.getY() - lastMoveCoordTo.getY()) == 2;
-        boolean pawnHadPushedAdjacentFile = Math.abs(lastMoveCoordFrom.getX() - coordFrom.getX()) == 1;
+        int enPassent = position.enPassent();
+        if (enPassent == BitBoard.NO_SQUARE || squareIndex(coordTo) != enPassent) {
+            return false;
+        }
         
+        // pawn should capture diagonally forward into the en passent square
         int scalar = (turn().equals(PieceColor.WHITE)) ? 1 : -1;
-        // pawn should capture into the square between lastMoveCoordFrom and lastMoveCoordTo
-        boolean pawnCanCapture = new Coordinate(lastMoveCoordFrom.getX(), lastMoveCoordFrom.getY()-scalar).equals(coordTo);
-        
-        return lastMovePiece.isPawn() && pawnHadPushedTwoSquares && pawnHadPushedAdjacentFile && pawnCanCapture;
+        return Math.abs(coordFrom.getX() - coordTo.getX()) == 1 && coordTo.getY() - coordFrom.getY() == scalar;
     }
-
+    
     
     /**
-     * Take back the last move played 
-     *  - if last move is undefined, then don't change the board
+     * Take back the last move played
+     *  - if last move is undefined, or was not played on this board (i.e. was only
+     *    passed to the constructor as the last move of the game), then don't change the board
+     *  - requires that every move made with makeMove(int) has been unmade
      */
     public void takeBackLastMove() {
-        Move lastMove = getLastMove();
+        requireNoPackedMoves();
         
-        if (lastMove.isUndefined()) {
-            // don't do anything 
+        if (position.historySize() == 0) {
+            // don't do anything
             return;
-        } 
-        
-        takeBackMove(lastMove);
+        }
         
-        // flip the turn to the other side
-        flipTurn();
+        position.unmakeMove();
         
         // remove the last element from movesPlayed
-        movesPlayed.remove(lastMove); 
-        this.legalMoves.removeAll(legalMoves);
-        this.legalMoves.addAll(legalMovesBeforeMove);
-        this.legalMovesBeforeMove.removeAll(legalMovesBeforeMove);
+        movesPlayed.remove(movesPlayed.size() - 1);
+        this.legalMovesGenerated = false;
     }
     
     /**
@@ -272,7 +295,7 @@ public class Board {
     public Set<Move> getCaptures() {
         Set<Move> captures = new HashSet<>();
         
-        for (Move move : legalMoves()) {
+        for (Move move : generateLegalMoves()) {
             if (move.isCapture()) {
                 captures.add(move);
             }
@@ -300,67 +323,21 @@ public class Board {
         
         return checks;
     }
-    
+   
    /**
     * Retrieve the placement of all existing black pieces currently on the board
-    * @return a map that maps a particular black piece to all the coordinates that contains that piece 
+    * @return a map that maps a particular black piece to all the coordinates that contains that piece
     */
     public Map<Piece, Set<Coordinate>> blackPieces() {
-        PieceColor black = PieceColor.BLACK;
-        Map<Piece, Set<Coordinate>> blackPieces = new HashMap<>();
-        
-        for (int row = 0; row < Board.DEFAULT_SIZE; row++) {
-            for (int col = 0; col < Board.DEFAULT_SIZE; col++) {
-                Square square = grid[row][col];
-                if (square.isOccupied()) {
-                    Piece piece = square.getPiece();
-                    if (piece.color().equals(black)) {
-                        if (blackPieces.keySet().contains(piece)) {
-                            Set<Coordinate> blackPlacement = blackPieces.get(piece);
-                            blackPlacement.add(square.coordinate());
-                            blackPieces.put(piece, blackPlacement);
-                        } else {
-                            Set<Coordinate> blackPlacement = new HashSet<>();
-                            blackPlacement.add(square.coordinate());
-                            blackPieces.put(piece, blackPlacement);
-                        }
-                    }
-                }
-            }
-        }
-        
-        return blackPieces;
+        return pieces(BitBoard.BLACK);
     }
     
     /**
      * Retrieve the placement of all existing white pieces currently on the board
-     * @return a map that maps a particular white piece to all the coordinates that contains that piece 
+     * @return a map that maps a particular white piece to all the coordinates that contains that piece
      */
      public Map<Piece, Set<Coordinate>> whitePieces() {
-         PieceColor white = PieceColor.WHITE;
-         Map<Piece, Set<Coordinate>> whitePieces = new HashMap<>();
-         
-         for (int row = 0; row < Board.DEFAULT_SIZE; row++) {
-             for (int col = 0; col < Board.DEFAULT_SIZE; col++) {
-                 Square square = grid[row][col];
-                 if (square.isOccupied()) {
-                     Piece piece = square.getPiece();
-                     if (piece.color().equals(white)) {
-                         if (whitePieces.keySet().contains(piece)) {
-                             Set<Coordinate> whitePlacement = whitePieces.get(piece);
-                             whitePlacement.add(square.coordinate());
-                             whitePieces.put(piece, whitePlacement);
-                         } else {
-                             Set<Coordinate> whitePlacement = new HashSet<>();
-                             whitePlacement.add(square.coordinate());
-                             whitePieces.put(piece, whitePlacement);
-                         }
-                     }
-                 }
-             }
-         }
-         
-         return whitePieces;
+         return pieces(BitBoard.WHITE);
      }
     
     /**
@@ -368,7 +345,7 @@ public class Board {
      * @return whose turn it is to move
      */
     public PieceColor turn() {
-        return this.turn;
+        return pieceColor(position.turn());
     }
     
     /**
@@ -376,112 +353,290 @@ public class Board {
      * @return a set of all legal moves the current player has
      */
     public Set<Move> legalMoves() {
-        if (this.legalMoves.size() != 0) {
-            return this.legalMoves;
+        return new HashSet<>(generateLegalMoves());
+    }
+    
+    /**
+     * Generate the legal moves the current player has as packed moves, without allocating
+     * @param moves list to fill, cleared first
+     */
+    public void legalMoves(MoveList moves) {
+        moves.setSize(position.generateLegalMoves(moves.buffer()));
+    }
+    
+    /**
+     * Generate the legal captures and promotions the current player has as packed moves, without allocating
+     * @param moves list to fill, cleared first
+     */
+    public void captures(MoveList moves) {
+        moves.setSize(position.generateCaptures(moves.buffer()));
+    }
+    
+    /**
+     * Retrieve the type of the piece on a square, indexed as in packed moves
+     * @param square index of square, 0 <= square < 64
+     * @return the type of the piece on square, or PieceType.NONE if square is empty
+     */
+    public PieceType pieceTypeAt(int square) {
+        int piece = position.pieceAt(square);
+        return (piece == BitBoard.EMPTY) ? PieceType.NONE : TYPES[BitBoard.typeOf(piece)];
+    }
+    
+    /**
+     * Make a packed move on this Board, without recording it in movesPlayed(). Flips the side to move.
+     * Meant for search, which makes and unmakes many moves and must not allocate.
+     *  - requires that move was generated by legalMoves(MoveList) for the current position
+     * @param move packed move to make on this board
+     */
+    public void makeMove(int move) {
+        position.makeMove(move);
+        packedMovesMade++;
+        legalMovesGenerated = false;
+    }
+    
+    /**
+     * Pass the turn without moving, as if the current player could skip a move. Flips the side to
+     * move. Meant for null-move pruning in search, and unmade with unmakeMove().
+     *  - requires that the current player is not in check
+     */
+    public void makeNullMove() {
+        position.makeNullMove();
+        packedMovesMade++;
+        legalMovesGenerated = false;
+    }
+    
+    /**
+     * Unmake the last packed move made with makeMove(int) or makeNullMove()
+     * @throws RuntimeException if there is no packed move to unmake
+     */
+    public void unmakeMove() {
+        if (packedMovesMade == 0) {
+            throw new RuntimeException("No packed move to unmake");
         }
-        
-        Set<Move> legalMoves = new HashSet<>();
-        
-        Map<Piece, Set<Coordinate>> pieces;
-        
-        if (turn().equals(PieceColor.WHITE)) {
-            pieces = whitePieces();
-        } else if (turn().equals(PieceColor.BLACK)) {
-            pieces = blackPieces();
-        } else {
-            throw new RuntimeException("turn is neither black or white");
+        position.unmakeMove();
+        packedMovesMade--;
+        legalMovesGenerated = false;
+    }
+    
+    /**
+     * Convert a legal Move into a packed move
+     * @param chessMove move to convert
+     * @return the packed move chessMove represents in the current position
+     * @throws IllegalArgumentException if chessMove is not a legal move on this board
+     */
+    public int toPackedMove(Move chessMove) {
+        if (!generateLegalMoves().contains(chessMove)) {
+            throw new IllegalArgumentException("Illegal move attempted");
         }
-        
-        for (Piece piece : pieces.keySet()) {
-            for (Coordinate coordFrom : pieces.get(piece)) {
-                Map<Direction, Coordinate> farthestCoordinateCleared = new HashMap<>();
-                
-                for (Coordinate coordTo : piece.moveSet(coordFrom)) {
-                    Square squareFrom = getSquare(coordFrom);
-                    Square squareTo = getSquare(coordTo);
-                    Piece squareFromPiece = squareFrom.getPiece();
-                    Piece squareToPiece = squareTo.getPiece();
-                    
-                    // can't land on a square which contains a piece of the same color
-                    if (squareToPiece.color().equals(turn())) {continue;}
-                    
-                    if (piece.isPawn()) {
-                        // can't push a pawn to land on a piece
-                        if (squareTo.isOccupied() && coordFrom.getX() == coordTo.getX()) {continue;}
-                       
-                        // can't jump over pieces
-                        if (pawnJumpedOverPiece(coordFrom, coordTo)) {continue;}
-                        
-                        boolean isCaptureMove = coordTo.getX() != coordFrom.getX();
-                        boolean isEnPassent = isEnPassent(coordFrom, coordTo);
-                        boolean isPromotion = coordTo.getY() == 7 || coordTo.getY() == 0;
-                        
-                        // can't capture on an unoccupied square
-                        if (!isEnPassent && isCaptureMove && !squareTo.isOccupied()) {continue;}
-                        
-                        if (isEnPassent) {
-                            legalMoves.add(Move.enPassent(squareFrom, squareTo));
-                        } else if (isPromotion) {
-                            legalMoves.add(Move.promote(squareFrom, squareTo, Piece.knight(piece.color(), true)));
-                            legalMoves.add(Move.promote(squareFrom, squareTo, Piece.queen(piece.color(), true)));
-                            legalMoves.add(Move.promote(squareFrom, squareTo, Piece.bishop(piece.color(), true)));
-                            legalMoves.add(Move.promote(squareFrom, squareTo, Piece.rook(piece.color(), true)));
-                        } else {
-                            legalMoves.add(Move.createMove(squareFrom, squareTo));
-                        }
-                    } else {
-                        Piece unmovedWhiteKing = Piece.king(PieceColor.WHITE, false);
-                        Piece unmovedBlackKing = Piece.king(PieceColor.BLACK, false);
-                        boolean pieceIsUnmovedKing = piece.equals(unmovedWhiteKing) || piece.equals(unmovedBlackKing);
-                        boolean moveIsCastlingMove = pieceIsUnmovedKing && Math.abs(coordTo.getX() - coordFrom.getX()) == 2;
-                        
-                        if (moveIsCastlingMove) {
-                            Coordinate rookCoord = getRookCoordinate(coordTo);
-                            Square rookSquare = getSquare(rookCoord);
-                            
-                            // can't castle without a rook
-                            if (!rookSquare.isOccupied()) {continue;}
-                            // squares between king and rook must be clear
-                            if (!squaresCleared(coordFrom, rookCoord)) {continue;}
-                            // rook may not have moved before
-                            if (rookSquare.getPiece().hasMoved()) {continue;}
-                            // king may not castle out of, through, or into check
-                            if (!kingAvoidsCheck(coordFrom, coordTo)) {continue;}
-                        } else {
-                            
-                            Direction direction = getCardinalDirection(coordFrom, coordTo);
-
-                            if (!farthestCoordinateCleared.keySet().contains(direction)) {
-                                if (!squaresCleared(coordFrom, coordTo)) {continue;}
-                                farthestCoordinateCleared.put(direction, coordTo);
-                            } else {
-                                Coordinate farthestCoord = farthestCoordinateCleared.get(direction);
-                                
-                                if (fartherAway(coordFrom, coordTo, farthestCoord).equals(coordTo)) {
-                                    
-                                    // each square, (including the square at farthestCoord must be clear), since
-                                    // every square in the cardinal direction from coordFrom to farthestCoord exclusive
-                                    // has been checked to be clear
-                                    if (!squaresCleared(farthestCoord, coordTo) || getSquare(farthestCoord).isOccupied()) {continue;}
-                                    
-                                    farthestCoordinateCleared.put(direction, coordTo);
-                                }
-                            }
-                            
-                            // can't land on same color piece
-                            if (squareToPiece.color().equals(squareFromPiece.color())) {continue;}
-                        }
-                        
-                        legalMoves.add(Move.createMove(getSquare(coordFrom), getSquare(coordTo)));
-                    }
-                }
-            }
+        return encode(chessMove);
+    }
+    
+    /**
+     * Convert a packed move into a Move
+     *  - requires that move was generated by legalMoves(MoveList) for the current position
+     * @param move packed move to convert
+     * @return the Move that move represents in the current position
+     */
+    public Move toMove(int move) {
+        return decode(move);
+    }
+    
+    /**
+     * Count the leaf nodes of the tree of legal moves from this position (perft)
+     * @param depth number of moves to look ahead, requires depth >= 0
+     * @return the number of distinct sequences of depth legal moves that can be played from this position
+     */
+    public long perft(int depth) {
+        if (depth == 0) {
+            return 1;
         }
-        
-        legalMoves = filterChecks(legalMoves);
-        
-        checkRep();
-        return legalMoves;
+        return perft(position, depth, new int[depth][BitBoard.MAX_MOVES]);
+    }
+    
+    /**
+     * Check if the king of the current player is in check
+     * @return true if the king of the current player is in check in the current position
+     */
+    public boolean inCheck() {
+        return position.inCheck(position.turn());
+    }
+    
+    /**
+     * Resolve the exchange a packed move starts on its target square, without making any move:
+     * both sides keep recapturing with their least valuable attacker, including pieces revealed
+     * behind the ones that captured, and either side may stop when recapturing would lose. Pins
+     * and checks are ignored. Pawns count 100, knights 320, bishops 330, rooks 500 and queens 900.
+     *  - requires that move was generated by legalMoves(MoveList) or captures(MoveList) for the current position
+     * @param move packed move that starts the exchange
+     * @return the material the current player wins by the exchange, in centipawns, which is
+     *          negative if it loses material
+     */
+    public int see(int move) {
+        return position.see(move);
+    }
+    
+    /**
+     * Resolve the exchange a move starts on its target square, as see(int) does
+     * @param chessMove move that starts the exchange
+     * @return the material the current player wins by the exchange, in centipawns
+     * @throws IllegalArgumentException if chessMove is not a legal move on this board
+     */
+    public int see(Move chessMove) {
+        return position.see(toPackedMove(chessMove));
+    }
+    
+    /**
+     * Check whether the exchange a packed move starts wins at least some amount of material,
+     * stopping as soon as the answer is known, which is faster than comparing see(move)
+     *  - requires that move was generated by legalMoves(MoveList) or captures(MoveList) for the current position
+     * @param move packed move that starts the exchange
+     * @param threshold material in centipawns the current player must win at least
+     * @return true if and only if see(move) >= threshold
+     */
+    public boolean seeGreaterOrEqual(int move, int threshold) {
+        return position.seeGreaterOrEqual(move, threshold);
+    }
+    
+    /**
+     * Check whether the exchange a move starts wins at least some amount of material
+     * @param chessMove move that starts the exchange
+     * @param threshold material in centipawns the current player must win at least
+     * @return true if and only if see(chessMove) >= threshold
+     * @throws IllegalArgumentException if chessMove is not a legal move on this board
+     */
+    public boolean seeGreaterOrEqual(Move chessMove, int threshold) {
+        return position.seeGreaterOrEqual(toPackedMove(chessMove), threshold);
+    }
+    
+    /**
+     * Retrieve the material score of this board, kept up to date incrementally as moves are played
+     * @return the value of the white pieces minus the value of the black pieces, in centipawns,
+     *          where pawns are worth 100, knights 320, bishops 330, rooks 500 and queens 900
+     */
+    public int material() {
+        return position.material();
+    }
+    
+    /**
+     * Retrieve the piece-square score of this board, kept up to date incrementally as moves are played
+     * @return the bonuses the white pieces get for the squares they stand on minus those of the
+     *          black pieces, in centipawns, as given by PieceSquare and packed into a middlegame
+     *          and an endgame score as by PieceSquare.score
+     */
+    public int positional() {
+        return position.positional();
+    }
+    
+    /**
+     * Retrieve the phase of the game of this board, kept up to date incrementally as moves are played
+     * @return PieceSquare.MAX_PHASE with all pieces on the board, down to 0 with only pawns and kings
+     */
+    public int phase() {
+        return position.phase();
+    }
+    
+    /**
+     * Check if the current player has a piece other than pawns and its king, without which
+     * positions where any move makes things worse (zugzwang) are common
+     * @return true if the current player has a knight, bishop, rook or queen
+     */
+    public boolean hasNonPawnMaterial() {
+        int color = position.turn();
+        return (position.occupancy(color) & ~position.pieces(color, BitBoard.PAWN) & ~position.pieces(color, BitBoard.KING)) != 0;
+    }
+    
+    /**
+     * Count the pieces of a color and type on this board
+     * @param color color of the pieces to count
+     * @param type type of the pieces to count, not PieceType.NONE
+     * @return the number of pieces of color color and type type on this board
+     * @throws IllegalArgumentException if type is PieceType.NONE
+     */
+    public int pieceCount(PieceColor color, PieceType type) {
+        if (type == PieceType.NONE) {
+            throw new IllegalArgumentException("No pieces of type NONE");
+        }
+        return Long.bitCount(position.pieces(colorIndex(color), type.ordinal()));
+    }
+    
+    /**
+     * Retrieve the squares of the pieces of a color and type on this board
+     * @param color color of the pieces
+     * @param type type of the pieces, not PieceType.NONE
+     * @return the set of squares holding a piece of color color and type type, where bit
+     *          8*y + x is set if square (x, y) is in the set
+     * @throws IllegalArgumentException if type is PieceType.NONE
+     */
+    public long pieces(PieceColor color, PieceType type) {
+        if (type == PieceType.NONE) {
+            throw new IllegalArgumentException("No pieces of type NONE");
+        }
+        return position.pieces(colorIndex(color), type.ordinal());
+    }
+    
+    /**
+     * Retrieve the squares of the pieces of a color on this board
+     * @param color color of the pieces
+     * @return the set of squares holding a piece of color color, where bit 8*y + x is set if
+     *          square (x, y) is in the set
+     */
+    public long occupancy(PieceColor color) {
+        return position.occupancy(colorIndex(color));
+    }
+    
+    /**
+     * Keep the first layer of a neural network up to date with this board as moves are made and
+     * unmade, in place of any accumulator kept up to date before
+     * @param accumulator first layer to set to the pieces of this board and keep up to date from
+     *          now on, or null to stop keeping any up to date
+     */
+    public void setAccumulator(Accumulator accumulator) {
+        position.setAccumulator(accumulator);
+    }
+    
+    /**
+     * Retrieve the Zobrist key of this position, kept up to date incrementally as moves are played
+     * @return a 64-bit hash of the piece placement, side to move, castling rights and en passent
+     *          file of this position, equal for equal positions and almost surely different otherwise
+     */
+    public long zobristKey() {
+        return position.key();
+    }
+    
+    /**
+     * Retrieve the pawn key of this position, kept up to date incrementally as moves are played
+     * @return a 64-bit hash of the placement of the pawns of this position, equal for positions
+     *          with the same pawns, whatever the other pieces, and 0 for positions without pawns
+     */
+    public long pawnKey() {
+        return position.pawnKey();
+    }
+    
+    /**
+     * Retrieve the halfmove clock of this position
+     * @return the number of moves played since the last capture or pawn move, counting the moves
+     *          before the game was loaded from FEN
+     */
+    public int halfmoveClock() {
+        return position.halfmoveClock();
+    }
+    
+    /**
+     * Check if this position occurred before, since the last capture or pawn move, in the moves
+     * played on this board or made with makeMove(int)
+     * @return true if and only if this position repeats an earlier position of the game, with the
+     *          same side to move, castling rights and en passent square
+     */
+    public boolean repetition() {
+        return position.repetition();
+    }
+    
+    /**
+     * Retrieve this position in Forsyth-Edwards Notation (FEN)
+     * @return the FEN of the current position
+     */
+    public String toFen() {
+        return position.toFen();
     }
     
     /**
@@ -489,7 +644,10 @@ public class Board {
      * @return true if the current player is in checkmate
      */
     public boolean checkMate() {
-        return legalMoves().size() == 0;
+        if (legalMovesGenerated) {
+            return legalMoves.isEmpty();
+        }
+        return position.generateLegalMoves(moveBuffer) == 0;
     }
     
     /**
@@ -500,7 +658,7 @@ public class Board {
     public Move getLastMove() {
         if (movesPlayed.size() == 0) {
             return Move.undefined();
-        } 
+        }
         
         int finalIndex = movesPlayed.size()-1;
         return movesPlayed.get(finalIndex);
@@ -513,9 +671,7 @@ public class Board {
      * @return the square at coordinate (x, y)
      */
     public Square getSquare(int x, int y) {
-        Square square = grid[x][y];
-        
-        return square.squareCopy();
+        return createSquare(Coordinate.of(x, y));
     }
     
     /**
@@ -524,9 +680,7 @@ public class Board {
      * @return the square at coordinate coord
      */
     public Square getSquare(Coordinate coord) {
-        Square square = grid[coord.getX()][coord.getY()];
-        
-        return square.squareCopy();
+        return createSquare(coord);
     }
     
     /**
@@ -541,45 +695,7 @@ public class Board {
             throw new IllegalArgumentException("input not a valid chess coordinate");
         }
         
-        String firstLetter = coord.substring(0, 1);
-        String number = coord.substring(1, 2);
-        
-        int xCoordinate;
-        
-        switch(firstLetter) {
-        case "a":
-            xCoordinate = 0;
-            break;
-        case "b":
-            xCoordinate = 1;
-            break;
-        case "c":
-            xCoordinate = 2;
-            break;
-        case "d":
-            xCoordinate = 3;
-            break;
-        case "e":
-            xCoordinate = 4;
-            break;
-        case "f":
-            xCoordinate = 5;
-            break;
-        case "g":
-            xCoordinate = 6;
-            break;
-        case "h":
-            xCoordinate = 7;
-            break;
-        default:
-            throw new RuntimeException("could not recognize first letter");
-        }
-        
-        int yCoordinate = Integer.valueOf(number)-1;
-        
-        Square square = grid[xCoordinate][yCoordinate];
-        
-        return square.squareCopy();
+        return createSquare(Coordinate.of(coord));
     }
     
     /**
@@ -587,14 +703,13 @@ public class Board {
      * @param square to be placed on the chess board
      */
     public void setSquare(Square square) {
-        Square squareCopy = new Square(square.coordinate());
+        position.removePiece(squareIndex(square.coordinate()));
         if (square.isOccupied()) {
-            squareCopy.addPiece(square.getPiece());
+            addPiece(square.coordinate(), square.getPiece());
         }
         
-        forceSetSquare(squareCopy);
-        this.legalMoves.removeAll(legalMoves);
-        this.legalMovesBeforeMove.removeAll(legalMovesBeforeMove);
+        position.refreshCastlingRights();
+        this.legalMovesGenerated = false;
         checkRep();
     }
     
@@ -604,32 +719,39 @@ public class Board {
         
         Board otherBoard = (Board) other;
         
-        boolean whitePiecesSame = this.whitePieces().equals(otherBoard.whitePieces());
-        boolean blackPiecesSame = this.blackPieces().equals(otherBoard.blackPieces());
-        boolean legalMovesSame = this.legalMoves().equals(otherBoard.legalMoves());
+        boolean piecesSame = true;
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            for (int type = BitBoard.PAWN; type <= BitBoard.KING; type++) {
+                piecesSame &= this.position.pieces(color, type) == otherBoard.position.pieces(color, type);
+            }
+        }
+        
+        boolean movedSame = true;
+        for (long squares = position.occupied(); squares != 0; squares &= squares - 1) {
+            int square = Long.numberOfTrailingZeros(squares);
+            movedSame &= this.position.hasMoved(square) == otherBoard.position.hasMoved(square);
+        }
+        
+        boolean enPassentSame = this.position.enPassent() == otherBoard.position.enPassent();
         boolean turnSame = this.turn().equals(otherBoard.turn());
         boolean lastMoveSame = this.getLastMove().equals(otherBoard.getLastMove());
         
-        return legalMovesSame && turnSame && lastMoveSame && whitePiecesSame && blackPiecesSame;
+        return piecesSame && movedSame && enPassentSame && turnSame && lastMoveSame;
     }
     
     /**
-     * Flip the current turn to the opposing side (or pass the turn), without changing the 
+     * Flip the current turn to the opposing side (or pass the turn), without changing the
      *  physical board
      */
     public void flipTurn() {
-        if (this.turn.equals(PieceColor.BLACK)) {
-            this.turn = PieceColor.WHITE;
-        } else {
-            this.turn = PieceColor.BLACK;
-        }
-        this.legalMoves.removeAll(legalMoves);
-        this.legalMovesBeforeMove.removeAll(legalMovesBeforeMove);
+        position.setTurn(position.turn() ^ 1);
+        position.clearEnPassent();
+        this.legalMovesGenerated = false;
     }
     
     /**
      * Retrieve the string representation of this board, from white's perspective
-     * 
+     *
      * @return a board where uppercase letters denote white pieces
      *          and lowercase letters denote black pieces.
      *          - squares that don't contain pieces contain a '-'
@@ -639,29 +761,14 @@ public class Board {
         String rep = "";
         for (int row = Board.DEFAULT_SIZE-1; row >= 0; row--) { // print from top to bottom
             for (int col = 0; col < Board.DEFAULT_SIZE; col++) {
-                Piece squarePiece = grid[col][row].getPiece();
-                if (!squarePiece.exists()) {
+                int piece = position.pieceAt(BitBoard.square(col, row));
+                if (piece == BitBoard.EMPTY) {
                     rep += "- ";
                     continue;
                 }
-
-                if (squarePiece.isPawn()) {
-                    if (squarePiece.color().equals(PieceColor.WHITE)) {
-                        rep += "P";
-                    } else if (squarePiece.color().equals(PieceColor.BLACK)) {
-                        rep += "p";
-                    } else {
-                        throw new RuntimeException("Piece is neither one of black or white");
-                    }
-                } else {
-                    if (squarePiece.color().equals(PieceColor.WHITE)) {
-                        rep += squarePiece.toString();
-                    } else if (squarePiece.color().equals(PieceColor.BLACK)) {
-                        rep += squarePiece.toString().toLowerCase();
-                    } else {
-                        throw new RuntimeException("Piece is neither one of black or white");
-                    }
-                }
+                
+                String letter = "PNBRQK".substring(BitBoard.typeOf(piece), BitBoard.typeOf(piece) + 1);
+                rep += (BitBoard.colorOf(piece) == BitBoard.WHITE) ? letter : letter.toLowerCase();
                 rep += " ";
             }
             rep += "\n";
@@ -675,639 +782,232 @@ public class Board {
     //////////////////////////////////////////////////////////////////////
     
     /**
-     * Retrieve the coordinate furthest away from a point
-     * @param coordFrom reference coordinate
-     * @param coordEnd1 first end coordinate
-     * @param coordEnd2 second end coordinate
-     * @return which of coordEnd1 or coordEnd2 that is furthest in Euclidean distance
-     *          away from coordFrom
-     *           - if coordEnd1 and coordEnd2 are the same distance from coordFrom,
-     *              return coordEnd2 arbitrarily
-     */
-    private Coordinate fartherAway(Coordinate coordFrom, Coordinate coordEnd1, Coordinate coordEnd2) {
-        int xStart = coordFrom.getX();
-        int yStart = coordFrom.getY();
-        int xEnd1 = coordEnd1.getX();
-        int yEnd1 = coordEnd1.getY();
-        int xEnd2 = coordEnd2.getX();
-        int yEnd2 = coordEnd2.getY();
-        
-        double distance1 = Math.pow(xStart - xEnd1, 2) + Math.pow(yStart - yEnd1, 2);
-        double distance2 = Math.pow(xStart - xEnd2, 2) + Math.pow(yStart - yEnd2, 2);
-        
-        return distance1 > distance2 ? coordEnd1 : coordEnd2; 
-    }
-    
-    /**
-     * Check if a pawn jumps over a piece
-     *      - requires that coordFrom and coordTo share a file (i.e. coordFrom.getX() == coordTo.getX())
-     * @param coordFrom starting coordinate of pawn
-     * @param coordTo ending coordinate of pawn
-     * @return true if this pawn jumped over a piece
+     * Retrieve the legal moves of this position, generating them if they are not known yet
+     * @return the set of legal moves the current player has
+     *          - the returned set is part of the rep, and must not be mutated
      */
-    private boolean pawnJumpedOverPiece(Coordinate coordFrom, Coordinate coordTo) {
-        boolean pushedTwoSquares = Math.abs(coordTo.getY() - coordFrom.getY()) == 2;
-        int scalar = turn().equals(PieceColor.WHITE) ? 1 : -1;
-        Square oneSquareAbove = getSquare(coordFrom.getX(), coordFrom.getY()+1*scalar);
-        
-        return pushedTwoSquares && oneSquareAbove.isOccupied();
-    }
-    
-    /**
-     * Retrieve the rook coordinate destination when castling 
-     * @param coordFrom coordinate that the rook is being moved from when castling
-     * @return the coordinate the rook will land on after castling
-     */
-    private Coordinate getRookDestination(Coordinate coordFrom) {
-        if (coordFrom.equals(new Coordinate("a1"))) {
-            return new Coordinate("d1");
-        } else if (coordFrom.equals(new Coordinate("h1"))) {
-            return new Coordinate("f1");
-        } else if (coordFrom.equals(new Coordinate("a8"))) {
-            return new Coordinate("d8");
-        } else if (coordFrom.equals(new Coordinate("h8"))) {
-            return new Coordinate("f8");
-        } else {
-            throw new RuntimeException("Rook can not start from: " + coordFrom);
+    private Set<Move> generateLegalMoves() {
+        if (legalMovesGenerated) {
+            return legalMoves;
         }
-    }
-    
-    /**
-     * Retrieve the coordinate of the rook of the side to castle, if an unmoved king castles
-     * and lands on coordTo
-     * @param coordTo coordinate that an unmoved king will land on, given that the 
-     *  current move is a castling move
-     * @return the rook coordinate of the side to castle, if an unmoved king castles
-     *  and lands on coordTo.
-     *      - if coordTo is not a coordinate that a king can land on when castling, this method
-     *      throws an illegal argument exception
-     */
-    private Coordinate getRookCoordinate(Coordinate coordTo) {
-        if (coordTo.equals(new Coordinate("g1"))) {
-            return new Coordinate("h1");
-        } else if (coordTo.equals(new Coordinate("c1"))) {
-            return new Coordinate("a1");
-        } else if (coordTo.equals(new Coordinate("g8"))) {
-            return new Coordinate("h8");
-        } else if (coordTo.equals(new Coordinate("c8"))){
-            return new Coordinate("a8");
-        } else {
-            throw new IllegalArgumentException("Can not retrieve rook coordinate for that coordTo");
-        }
-    }
-    
-    /**
-     * Check if the squares between coordFrom and coordTo exclusive are occupied
-     * @param coordFrom source coordinate
-     * @param coordTo target coordinate
-     * @return true if and only if all the squares between coordFrom and coordTo
-     *          exclusive are unoccupied
-     */
-    private boolean squaresCleared(Coordinate coordFrom, Coordinate coordTo) {
-        for (Coordinate coord : coordInBetween(coordFrom, coordTo)) {
-            if (coord.equals(coordTo)) {continue;}
-            
-            if (getSquare(coord).isOccupied()) {
-                return false;
-            }
+        
+        legalMoves.clear();
+        int count = position.generateLegalMoves(moveBuffer);
+        for (int i = 0; i < count; i++) {
+            legalMoves.add(decode(moveBuffer[i]));
         }
         
-        return true;
+        legalMovesGenerated = true;
+        return legalMoves;
     }
     
     /**
-     * Check if the king can pass through squares coordFrom to coordTo without being checked
-     *  - requires coordFrom and coordTo share a diagonal, column, or row
-     * @param coordFrom start coordinate of king
-     * @param coordTo end coordinate of king
-     * @return true if and only if the king can walk from coordFrom to coordTo **inclusive** without
-     *  being in check
+     * Count the leaf nodes of the tree of legal moves from a position
+     * @param position position to count from, left unchanged when this returns
+     * @param depth number of moves to look ahead, requires depth >= 1
+     * @param buffers move buffers to generate into, one for each remaining ply
+     * @return the number of distinct sequences of depth legal moves that can be played from position
      */
-    private boolean kingAvoidsCheck(Coordinate coordFrom, Coordinate coordTo) {
-        if (inCheck()) {return false;}
+    private static long perft(BitBoard position, int depth, int[][] buffers) {
+        int[] moves = buffers[depth - 1];
+        int count = position.generateLegalMoves(moves);
         
-        for (Coordinate coord : coordInBetween(coordFrom, coordTo)) {
-            if (inCheck(coord)) {
-                return false;
-            }
+        // the moves of the last ply only need to be counted, not played
+        if (depth == 1) {
+            return count;
         }
         
-        return true;
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            nodes += perft(position, depth - 1, buffers);
+            position.unmakeMove();
+        }
+        
+        return nodes;
     }
     
     /**
-     * Obtain the cardinal direction that a vector points in
-     *   - requires that coordFrom and coordTo share a diagonal, row, or column
-     *     on a grid
-     *   - requires that coordFrom != coordTo
-     * @param coordFrom starting coordinate of vector
-     * @param coordTo ending coordinate of vector
-     * @return the cardinal direction that the vector formed from coordTo - coordFrom points in
+     * Convert a packed move of the bitboard position into a Move
+     * @param move packed move generated for the current position
+     * @return the Move that move represents
      */
-    private Direction getCardinalDirection(Coordinate coordFrom, Coordinate coordTo) {
-        int xStart = coordFrom.getX();
-        int yStart = coordFrom.getY();
-        int xEnd = coordTo.getX();
-        int yEnd = coordTo.getY();
-        
-        if (xStart == xEnd) { // coordinates share a column
-            return yStart < yEnd ? Direction.NORTH : Direction.SOUTH;
-        } else if (yStart == yEnd) { // coordinates share a row
-            return xStart < xEnd ? Direction.EAST : Direction.WEST;
-        } else { // coordinates share a diagonal
-            if (xStart < xEnd && yStart < yEnd) {
-                return Direction.NORTH_EAST;
-            } else if (xStart > xEnd && yStart < yEnd) {
-                return Direction.NORTH_WEST;
-            } else if (xStart < xEnd && yStart > yEnd) {
-                return Direction.SOUTH_EAST;
-            } else if (xStart > xEnd && yStart > yEnd) {
-                return Direction.SOUTH_WEST;
-            } else {
-                throw new IllegalArgumentException("coordFrom and coordTo must share a column, row, or diagonal");
-            }
+    private Move decode(int move) {
+        Square squareFrom = getSquare(BitBoard.file(PackedMove.from(move)), BitBoard.rank(PackedMove.from(move)));
+        Square squareTo = getSquare(BitBoard.file(PackedMove.to(move)), BitBoard.rank(PackedMove.to(move)));
+        int flags = PackedMove.flags(move);
+        
+        if (flags == PackedMove.EN_PASSENT) {
+            return Move.enPassent(squareFrom, squareTo);
+        } else if (flags >= PackedMove.PROMOTION) {
+            int promoted = BitBoard.piece(position.turn(), PackedMove.promotionType(move));
+            return Move.promote(squareFrom, squareTo, createPiece(promoted, true));
+        } else {
+            return Move.createMove(squareFrom, squareTo);
         }
     }
     
     /**
-     * Retrieve the piece of color color on this board
-     * @param color color of king to retrieve
-     * @return the king of this color on this board
+     * Convert a legal Move into a packed move of the bitboard position
+     * @param chessMove move contained in this.legalMoves()
+     * @return the packed move chessMove represents
      */
-    private Piece retrieveKing(PieceColor color) {
-        Map<Piece, Set<Coordinate>> pieces;
+    private int encode(Move chessMove) {
+        int from = squareIndex(chessMove.coordFrom());
+        int to = squareIndex(chessMove.coordTo());
         
-        if (color.equals(PieceColor.WHITE)) {
-            pieces = whitePieces();
-        } else if (color.equals(PieceColor.BLACK)) {
-            pieces = blackPieces();
-        } else {
-            throw new RuntimeException("Color is not one of white or black");
+        if (chessMove.isCastle()) {
+            return PackedMove.encode(from, to, to > from ? PackedMove.KING_CASTLE : PackedMove.QUEEN_CASTLE);
+        } else if (chessMove.isEnPassent()) {
+            return PackedMove.encode(from, to, PackedMove.EN_PASSENT);
         }
         
-        Piece movedKing = Piece.king(color, true);
-        Piece unmovedKing = Piece.king(color, false);
-        
-        boolean movedKingOnBoard;
-        boolean unmovedKingOnBoard;
-        
-        if (pieces.keySet().contains(movedKing)) {
-            movedKingOnBoard = pieces.get(movedKing).size() == 1;
-        } else {
-            movedKingOnBoard = false;
-        }
+        boolean capture = position.pieceAt(to) != BitBoard.EMPTY;
         
-        if (pieces.keySet().contains(unmovedKing)) {
-            unmovedKingOnBoard = pieces.get(unmovedKing).size() == 1; 
+        if (chessMove.isPromotion()) {
+            int type = BitBoard.typeOf(pieceIndex(chessMove.promotedPiece()));
+            int flags = capture ? PackedMove.PROMOTION_CAPTURE : PackedMove.PROMOTION;
+            return PackedMove.encode(from, to, flags | (type - BitBoard.KNIGHT));
+        } else if (capture) {
+            return PackedMove.encode(from, to, PackedMove.CAPTURE);
+        } else if (Math.abs(to - from) == 16 && chessMove.movedPieces().iterator().next().isPawn()) {
+            return PackedMove.encode(from, to, PackedMove.DOUBLE_PUSH);
         } else {
-            unmovedKingOnBoard = false;
-        }
-        
-        if (movedKingOnBoard && unmovedKingOnBoard) {
-            throw new RuntimeException("May not have two kings on board at same time");
-        } else if (movedKingOnBoard) {
-            return movedKing;
-        } else if (unmovedKingOnBoard) {
-            return unmovedKing;
-        } else {
-            throw new RuntimeException("Must have at least one king on the board");
+            return PackedMove.encode(from, to, PackedMove.QUIET);
         }
     }
     
     /**
-     * Take back a move played on this board
-     * @param lastMove to be taken back
+     * Check that the history of this board holds no packed moves, so that it matches movesPlayed
+     * @throws RuntimeException if a move made with makeMove(int) has not been unmade
      */
-    private void takeBackMove(Move lastMove) {
-        PieceColor side = getArbitrary(lastMove.movedPieces()).color();
-        
-        if (lastMove.isCastle()) {
-            if (side.equals(PieceColor.WHITE)) {
-                if (lastMove.coordTo().equals(new Coordinate("g1"))) {
-                    Square kingSquare = new Square(new Coordinate("e1"));
-                    kingSquare.addPiece(Piece.king(PieceColor.WHITE, false));
-                    Square rookSquare = new Square(new Coordinate("h1"));
-                    rookSquare.addPiece(Piece.rook(PieceColor.WHITE, false));
-                    
-                    // set the appropriate squares
-                    forceSetSquare(kingSquare);
-                    forceSetSquare(new Square(new Coordinate("f1")));
-                    forceSetSquare(new Square(new Coordinate("g1")));
-                    forceSetSquare(rookSquare);
-                    return;
-                }
-                
-                if (lastMove.coordTo().equals(new Coordinate("c1"))) {
-                    Square kingSquare = new Square(new Coordinate("e1"));
-                    kingSquare.addPiece(Piece.king(PieceColor.WHITE, false));
-                    Square rookSquare = new Square(new Coordinate("a1"));
-                    rookSquare.addPiece(Piece.rook(PieceColor.WHITE, false));
-                    
-                    // set the appropriate squares
-                    forceSetSquare(kingSquare);
-                    forceSetSquare(new Square(new Coordinate("d1")));
-                    forceSetSquare(new Square(new Coordinate("c1")));
-                    forceSetSquare(new Square(new Coordinate("b1")));
-                    forceSetSquare(rookSquare);
-                    return;
-                }
-            } else if (side.equals(PieceColor.BLACK)){
-                if (lastMove.coordTo().equals(new Coordinate("g8"))) {
-                    Square kingSquare = new Square(new Coordinate("e8"));
-                    kingSquare.addPiece(Piece.king(PieceColor.BLACK, false));
-                    Square rookSquare = new Square(new Coordinate("h8"));
-                    rookSquare.addPiece(Piece.rook(PieceColor.BLACK, false));
-                    
-                    // set the appropriate squares
-                    forceSetSquare(kingSquare);
-                    forceSetSquare(new Square(new Coordinate("f8")));
-                    forceSetSquare(new Square(new Coordinate("g8")));
-                    forceSetSquare(rookSquare);
-                    return;
-                }
-                
-                if (lastMove.coordTo().equals(new Coordinate("c8"))) {
-                    Square kingSquare = new Square(new Coordinate("e8"));
-                    kingSquare.addPiece(Piece.king(PieceColor.BLACK, false));
-                    Square rookSquare = new Square(new Coordinate("a8"));
-                    rookSquare.addPiece(Piece.rook(PieceColor.BLACK, false));
-                    
-                    // set the appropriate squares
-                    forceSetSquare(kingSquare);
-                    forceSetSquare(new Square(new Coordinate("d8")));
-                    forceSetSquare(new Square(new Coordinate("c8")));
-                    forceSetSquare(new Square(new Coordinate("b8")));
-                    forceSetSquare(rookSquare);
-                    return;
-                }
-            } else {
-                throw new RuntimeException("Turn is not either one of white or black");
-            }
-        } else if (lastMove.isEnPassent()) {
-            if (side.equals(PieceColor.WHITE)) {
-                Coordinate coordTo = lastMove.coordTo();
-                
-                Square pawnSquare = new Square(lastMove.coordFrom());
-                pawnSquare.addPiece(Piece.pawn(PieceColor.WHITE, true));
-                Square oppPawnSquare = new Square(new Coordinate(coordTo.getX(), coordTo.getY()-1));
-                oppPawnSquare.addPiece(Piece.pawn(PieceColor.BLACK, true));
-                Square captureSquare = new Square(coordTo);
-                
-                forceSetSquare(pawnSquare);
-                forceSetSquare(oppPawnSquare);
-                forceSetSquare(captureSquare);
-            } else if (side.equals(PieceColor.BLACK)) {
-                Coordinate coordTo = lastMove.coordTo();
-                
-                Square pawnSquare = new Square(lastMove.coordFrom());
-                pawnSquare.addPiece(Piece.pawn(PieceColor.BLACK, true));
-                Square oppPawnSquare = new Square(new Coordinate(coordTo.getX(), coordTo.getY()+1));
-                oppPawnSquare.addPiece(Piece.pawn(PieceColor.WHITE, true));
-                Square captureSquare = new Square(coordTo);
-                
-                forceSetSquare(pawnSquare);
-                forceSetSquare(oppPawnSquare);
-                forceSetSquare(captureSquare);
-            } else {
-                throw new RuntimeException("Turn is not either one of white or black");
-            }
-        } else if (lastMove.isCapture()){
-            Piece capturedPiece = lastMove.capturedPiece();
-            Piece movedPiece = getArbitrary(lastMove.movedPieces());
-            
-            Square pieceSquare = new Square(lastMove.coordFrom());
-            pieceSquare.addPiece(movedPiece);
-            Square captureSquare = new Square(lastMove.coordTo());
-            captureSquare.addPiece(capturedPiece);
-            
-            forceSetSquare(pieceSquare);
-            forceSetSquare(captureSquare);
-        } else {
-            Piece movedPiece = getArbitrary(lastMove.movedPieces());
-            
-            Square pieceSquare = new Square(lastMove.coordFrom());
-            pieceSquare.addPiece(movedPiece);
-            Square landingSquare = new Square(lastMove.coordTo());
-            
-            forceSetSquare(pieceSquare);
-            forceSetSquare(landingSquare);
+    private void requireNoPackedMoves() {
+        if (packedMovesMade != 0) {
+            throw new RuntimeException("Packed moves must be unmade first");
         }
     }
     
     /**
-     * Filter out the moves that would result in an illegal position via landing in check
-     * @param moveSet set of moves to filter for checks
-     * @return the moves in moveSet that don't result in an illegal position via check
+     * Retrieve the placement of all existing pieces of a color currently on the board
+     * @param color BitBoard.WHITE or BitBoard.BLACK
+     * @return a map that maps a particular piece of color color to all the coordinates that contains that piece
      */
-    private Set<Move> filterChecks(Set<Move> moveSet) {
-        Set<Move> filteredMoves = new HashSet<Move>();
+    private Map<Piece, Set<Coordinate>> pieces(int color) {
+        Map<Piece, Set<Coordinate>> pieces = new HashMap<>();
         
-        for (Move move : moveSet) {
-            movePiece(move);
-            
-            if (!inCheck()) {
-                filteredMoves.add(move);
-            }
+        for (long squares = position.occupancy(color); squares != 0; squares &= squares - 1) {
+            int square = Long.numberOfTrailingZeros(squares);
+            Piece piece = createPiece(position.pieceAt(square), position.hasMoved(square));
             
-            takeBackMove(move);
-        }
-        
-        return filteredMoves;
-    }
-    
-    /**
-     * Forcibly move a piece on this Board
-     * @param move move to make on this board
-     */
-    private void movePiece(Move move) {
-        Square squareFrom = getSquare(move.coordFrom());
-        Square squareTo = getSquare(move.coordTo());
-        Piece pieceToMove = squareFrom.getPiece();
-        PieceColor color = pieceToMove.color();
-        
-        Coordinate coordFrom = squareFrom.coordinate();
-        Coordinate coordTo = squareTo.coordinate();
-        
-        if (!squareFrom.isOccupied()) {
-            throw new RuntimeException("No piece is there to move");
-        }
-        
-        squareFrom.removePiece();
-        
-        // take into account enPassent
-        if (isEnPassent(move)) {
-            if (color.equals(PieceColor.WHITE)) {
-                grid[coordTo.getX()][coordTo.getY()-1].removePiece();
-            } else if (color.equals(PieceColor.BLACK)){
-                grid[coordTo.getX()][coordTo.getY()+1].removePiece();
-            } else {
-                throw new RuntimeException("Color is not one of white or black");
+            Set<Coordinate> placement = pieces.get(piece);
+            if (placement == null) {
+                placement = new HashSet<>();
+                pieces.put(piece, placement);
             }
+            placement.add(Coordinate.of(BitBoard.file(square), BitBoard.rank(square)));
         }
         
-        pieceToMove = pieceToMove.getMovedVersion();
-        
-        if (move.isCapture()) {
-            Coordinate removeCoord = move.captureCoordinate();
-            grid[removeCoord.getX()][removeCoord.getY()].removePiece();            
-        }
-        
-        if (move.isPromotion()) {
-            squareTo.addPiece(move.promotedPiece());
-        } else {
-            squareTo.addPiece(pieceToMove);
-        }
-        
-        grid[coordFrom.getX()][coordFrom.getY()] = squareFrom;
-        grid[coordTo.getX()][coordTo.getY()] = squareTo;
+        return pieces;
     }
     
     /**
-     * Check if a move is an enPassent move
-     * @param move move to consider
-     * @return true if move is an enPassent capture
+     * Create a square holding the piece currently on a coordinate of this board
+     * @param coord coordinate of the square
+     * @return a new square at coord holding the piece on coord, if any
      */
-    private boolean isEnPassent(Move move) {
-        // move is not en passent if castling
-        if (move.isCastle()) {
-            return false;
-        } 
+    private Square createSquare(Coordinate coord) {
+        Square square = new Square(coord);
+        int index = squareIndex(coord);
+        int piece = position.pieceAt(index);
         
-        // move is not en passent if not moving a pawn
-        if (!move.movedPieces().iterator().next().isPawn()) {
-            return false;
+        if (piece != BitBoard.EMPTY) {
+            square.addPiece(createPiece(piece, position.hasMoved(index)));
         }
         
-        Coordinate coordFrom = move.coordFrom();
-        Coordinate coordTo = move.coordTo();
-        
-        return isEnPassent(coordFrom, coordTo);
+        return square;
     }
     
     /**
-     * Restore the board to an initial state
-     * @param squareState set of original squares to restore
+     * Place a piece on this board
+     * @param coord coordinate to place piece on
+     * @param piece piece to place, requires piece.exists()
      */
-    private void restoreBoard(Set<Square> squareState) {
-        for (Square square : squareState) {
-            grid[square.coordinate().getX()][square.coordinate().getY()] = square;
-        }
+    private void addPiece(Coordinate coord, Piece piece) {
+        position.addPiece(squareIndex(coord), pieceIndex(piece), piece.hasMoved());
     }
     
     /**
-     * Check if a coordinate is strictly in between two other coordinates
-     * @param x x-coordinate of point to check
-     * @param y y-coordinate of point to check
-     * @param xStart x-coordinate of source node
-     * @param yStart y-coordinate of source node
-     * @param xEnd x-coordinate of end node
-     * @param yEnd y-coordinate of end node
-     * @return true if (x, y) lies on the line drawn between (xStart, yStart)
-     *          and (xEnd, yEnd) on the plane
+     * Retrieve the square index of a coordinate
+     * @param coord coordinate on this board
+     * @return the index of the square at coord
      */
-    private boolean liesInBetween(int x, int y, int xStart, int yStart, int xEnd, int yEnd) {
-        if ((xStart >= x || x >= xEnd) && (xEnd >= x || x >= xStart)) {return false;}
-        if ((yStart >= y || y >= yEnd) && (yEnd >= y || y >= yStart)) {return false;}
-
-        double m1 = (y - yStart)/(x - xStart);
-        double m2 = (y - yEnd)/(x - xEnd);
-        
-        return m1 == m2;
-    }
-    
-    /**
-     * Obtain the coordinates between startCoord and endCoord
-     *  - if startCoord and endCoord do not share a column, diagonal, or row, 
-     *     return an empty List
-     *  - requires that startCoord != endCoord
-     * 
-     * @param startCoord coordinate to start at 
-     * @param endCoord coordinate to end at
-     * @return a list of coordinates, starting from startCoord **exclusive** to endCoord
-     *          **inclusive**
-     *          
-     *          i.e.
-     *          
-     *          if  startCoord = (1, 1)
-     *          and endCoord   = (4, 4),
-     *          
-     *          this function will return (2, 2), (3, 3), (4, 4)
-     */
-    private List<Coordinate> coordInBetween(Coordinate startCoord, Coordinate endCoord) {
-        List<Coordinate> inBetween = new ArrayList<Coordinate>();
-        
-        int startX = startCoord.getX();
-        int startY = startCoord.getY();
-        
-        int deltaX = endCoord.getX() - startX;
-        int deltaY = endCoord.getY() - startY;
-        
-        int scaleX = (deltaX > 0) ? 1 : -1;
-        int scaleY = (deltaY > 0) ? 1 : -1;
-        
-        if (deltaX == 0) { // coordinates share a column
-            for (int row = 1; row <= Math.abs(deltaY); row++) {
-                inBetween.add(new Coordinate(startX, startY+scaleY*row));
-            }
-        } else if (deltaY == 0){ // coordinates share a row
-            for (int col = 1; col <= Math.abs(deltaX); col++) {
-                inBetween.add(new Coordinate(startX+scaleX*col, startY));
-            }
-        } else if (Math.abs(deltaX) == Math.abs(deltaY)){ // coordinates share a diagonal
-            for (int diag = 1; diag <= Math.abs(deltaY); diag++) {
-                inBetween.add(new Coordinate(startX+scaleX*diag, startY+scaleY*diag));
-            }
-        } else {
-            // chill, coordinates do not share a column, diagonal, or row
-        }
-        
-        return inBetween;
+    private static int squareIndex(Coordinate coord) {
+        return BitBoard.square(coord.getX(), coord.getY());
     }
     
     /**
-     * Switches the turn to the other player
+     * Retrieve the color index of a color
+     * @param color PieceColor.WHITE or PieceColor.BLACK
+     * @return BitBoard.WHITE or BitBoard.BLACK, respectively
      */
-    private void changeTurn() {
-        if (turn.equals(PieceColor.WHITE)) {
-            turn = PieceColor.BLACK;
-        } else if (turn.equals(PieceColor.BLACK)) {
-            turn = PieceColor.WHITE;
+    private static int colorIndex(PieceColor color) {
+        if (color.equals(PieceColor.WHITE)) {
+            return BitBoard.WHITE;
+        } else if (color.equals(PieceColor.BLACK)) {
+            return BitBoard.BLACK;
         } else {
-            throw new RuntimeException("PieceColor is not binary");
-        }
-    }
-    
-    /**
-     * Initialize the grid to contain empty squares
-     */
-    private void createEmptyGrid() {
-        for (int row = 0; row < DEFAULT_SIZE; row++) {
-            for (int col = 0; col < DEFAULT_SIZE; col++) {
-                grid[row][col] = new Square(new Coordinate(row, col));
-            }
+            throw new RuntimeException("Color is not one of white or black");
         }
     }
     
     /**
-     * Check to see if the opposite king is in check
-     * @return true if the opposite king is in check
+     * Retrieve the color of a color index
+     * @param color BitBoard.WHITE or BitBoard.BLACK
+     * @return PieceColor.WHITE or PieceColor.BLACK, respectively
      */
-    private boolean oppositeKingCheck() {
-        changeTurn();
-        boolean oppKingInCheck = inCheck();
-        // change the turn back to what it was originally
-        changeTurn();
-        return oppKingInCheck;
+    private static PieceColor pieceColor(int color) {
+        return (color == BitBoard.WHITE) ? PieceColor.WHITE : PieceColor.BLACK;
     }
     
     /**
-     * Check if the king were placed at coordinate coord, will he be in check?
-     * @param coord of the king
-     * @return true if the king is in check if placed on coordinate coord
+     * Retrieve the piece index of a piece
+     * @param piece piece to convert, requires piece.exists()
+     * @return the BitBoard piece index of piece
      */
-    private boolean inCheck(Coordinate coord) {
-        Map<Piece, Set<Coordinate>> currentPieces;
-        
-        if (turn().equals(PieceColor.WHITE)) {
-            currentPieces = whitePieces();
-        } else if (turn().equals(PieceColor.BLACK)) {
-            currentPieces = blackPieces();
-        } else {
-            throw new RuntimeException("Color is neither one of black or white");
+    private static int pieceIndex(Piece piece) {
+        if (!piece.exists()) {
+            throw new IllegalArgumentException("Piece does not exist");
         }
         
-        Piece kingOnBoard = retrieveKing(turn());
-        
-        // pop an arbitrary element from the set of king coordinates (it's size is 1, so it does not matter)
-        Coordinate currentKingCoord = currentPieces.get(kingOnBoard).iterator().next();
-        
-        // move the king to coord
-        Square squareFrom = getSquare(currentKingCoord);
-        Square newSquareFrom = new Square(squareFrom.coordinate());
-        forceSetSquare(newSquareFrom);
-        Square squareTo = getSquare(coord);
-        Square newSquareTo = new Square(squareTo.coordinate());
-        newSquareTo.addPiece(kingOnBoard);
-        forceSetSquare(newSquareTo);
-        
-        //save original state
-        Set<Square> originalState = new HashSet<>();
-        originalState.add(squareFrom);
-        originalState.add(squareTo);
-        
-        boolean kingInCheck = inCheck();
-        
-        // place the king back
-        restoreBoard(originalState);
-    
-        return kingInCheck;
+        // piece type ordinals match the BitBoard piece types
+        return BitBoard.piece(colorIndex(piece.color()), piece.type().ordinal());
     }
     
     /**
-     * Check if the king is in check in the current position
-     * @return true if the king is in check in the current position
+     * Create the piece represented by a piece index
+     * @param piece BitBoard piece index, requires piece != BitBoard.EMPTY
+     * @param moved whether or not the piece has moved
+     * @return the piece with the color and type of piece
      */
-    private boolean inCheck() {
-        Map<Piece, Set<Coordinate>> currentPieces;
-        Map<Piece, Set<Coordinate>> otherPieces;
-        
-        if (turn().equals(PieceColor.WHITE)) {
-            currentPieces = whitePieces();
-            otherPieces = blackPieces();
-        } else if (turn().equals(PieceColor.BLACK)) {
-            currentPieces = blackPieces();
-            otherPieces = whitePieces();
-        } else {
-            throw new RuntimeException("Color is neither one of black or white");
-        }
-        
-        Piece kingOnBoard = retrieveKing(turn());
-        
-        // pop an arbitrary element from the set of king coordinates (it's size is 1, so it does not matter)
-        Coordinate currentKingCoord = currentPieces.get(kingOnBoard).iterator().next();
-        
-        for (Piece piece : otherPieces.keySet()) {
-            if (piece.isPawn()) {
-                for (Coordinate coordFrom : otherPieces.get(piece)) {
-                    for (Coordinate coordTo : piece.moveSet(coordFrom)) {
-                        if (coordFrom.getX() != coordTo.getX() && coordTo.equals(currentKingCoord)) {
-                            return true;
-                        }
-                    }
-                }
-            } else {
-                for (Coordinate coordFrom : otherPieces.get(piece)) {
-                    for (Coordinate coordTo : piece.moveSet(coordFrom)) {
-                        if (!squaresCleared(coordFrom, coordTo)) {continue;}
-                        if (coordTo.equals(currentKingCoord)) {
-                            return true;
-                        }
-                    }
-                }
-            }
+    private static Piece createPiece(int piece, boolean moved) {
+        PieceColor color = pieceColor(BitBoard.colorOf(piece));
+        
+        switch (BitBoard.typeOf(piece)) {
+        case BitBoard.PAWN:
+            return Piece.pawn(color, moved);
+        case BitBoard.KNIGHT:
+            return Piece.knight(color, moved);
+        case BitBoard.BISHOP:
+            return Piece.bishop(color, moved);
+        case BitBoard.ROOK:
+            return Piece.rook(color, moved);
+        case BitBoard.QUEEN:
+            return Piece.queen(color, moved);
+        case BitBoard.KING:
+            return Piece.king(color, moved);
+        default:
+            throw new RuntimeException("Unrecognized piece index");
         }
-        
-        return false;
-    }
-    
-    /**
-     * Foribly Replace a square on the chess board
-     * @param square to be placed on the chess board
-     */
-    private void forceSetSquare(Square square) {
-        Coordinate coordinate = square.coordinate();
-        
-        grid[coordinate.getX()][coordinate.getY()] = square;
-    }
-    
-    /**
-     * Retrieve the number of legal king moves that the color king has
-     * @param color of the king in question
-     * @return the number of legal king moves that the color king has
-     */
-    private int numKingMoves(PieceColor color) {
-        // TODO: Implement this method
-        throw new RuntimeException("Unimplemented");
     }
     
     /**
@@ -1315,15 +1015,10 @@ public class Board {
      * @param color color of the pawns
      */
     private void addInitialPawns(PieceColor color) {
-        int rank = (color.equals(PieceColor.WHITE)) ? 1 : Board.DEFAULT_SIZE - 2; 
+        int rank = (color.equals(PieceColor.WHITE)) ? 1 : Board.DEFAULT_SIZE - 2;
         
         for (int x = 0; x < Board.DEFAULT_SIZE; x++) {
-            Square square = grid[x][rank];
-            Piece pawn = Piece.pawn(color, false);
-            
-            square.addPiece(pawn);
-            
-            grid[x][rank] = square;
+            addPiece(Coordinate.of(x, rank), Piece.pawn(color, false));
         }
     }
     
@@ -1332,18 +1027,12 @@ public class Board {
      * @param color color of the knights
      */
     private void addInitialKnights(PieceColor color) {
-        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1; 
+        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1;
         
-        Square square1 = grid[1][rank];
-        Square square2 = grid[6][rank];
-
         Piece knight = Piece.knight(color, false);
-
-        square1.addPiece(knight);
-        square2.addPiece(knight);
         
-        grid[1][rank] = square1;
-        grid[6][rank] = square2;
+        addPiece(Coordinate.of(1, rank), knight);
+        addPiece(Coordinate.of(6, rank), knight);
     }
     
     /**
@@ -1351,18 +1040,12 @@ public class Board {
      * @param color color of the rooks
      */
     private void addInitialRooks(PieceColor color) {
-        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1; 
+        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1;
         
-        Square square1 = grid[0][rank];
-        Square square2 = grid[7][rank];
-
         Piece rook = Piece.rook(color, false);
-
-        square1.addPiece(rook);
-        square2.addPiece(rook);
         
-        grid[0][rank] = square1;
-        grid[7][rank] = square2;
+        addPiece(Coordinate.of(0, rank), rook);
+        addPiece(Coordinate.of(7, rank), rook);
     }
     
     /**
@@ -1370,18 +1053,12 @@ public class Board {
      * @param color color of the bishops
      */
     private void addInitialBishops(PieceColor color) {
-        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1; 
+        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1;
         
-        Square square1 = grid[2][rank];
-        Square square2 = grid[5][rank];
-
         Piece bishop = Piece.bishop(color, false);
-
-        square1.addPiece(bishop);
-        square2.addPiece(bishop);
         
-        grid[2][rank] = square1;
-        grid[5][rank] = square2;
+        addPiece(Coordinate.of(2, rank), bishop);
+        addPiece(Coordinate.of(5, rank), bishop);
     }
     
     /**
@@ -1389,15 +1066,9 @@ public class Board {
      * @param color color of the king
      */
     private void addInitialKing(PieceColor color) {
-        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1; 
+        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1;
         
-        Square square = grid[4][rank];
-
-        Piece king = Piece.king(color, false);
-
-        square.addPiece(king);
-        
-        grid[4][rank] = square;
+        addPiece(Coordinate.of(4, rank), Piece.king(color, false));
     }
     
     /**
@@ -1405,39 +1076,8 @@ public class Board {
      * @param color color of the queen
      */
     private void addInitialQueen(PieceColor color) {
-        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1; 
-        
-        Square square = grid[3][rank];
-
-        Piece queen = Piece.queen(color, false);
-
-        square.addPiece(queen);
-        
-        grid[3][rank] = square;
-    }
-    
-    /**
-     * Retrieve an arbitrary element out of a set
-     * @param set Set of elements to remove from
-     * @return any element contained in set
-     */
-    private <T> T getArbitrary(Set<T> set) {
-        Set<T> setCopy = new HashSet<>(set);
-        if (set.size() == 0) {
-            throw new RuntimeException("Can not remove an arbitrary element out of empty set");
-        }
-        
-        Random generator = new Random();
-        int pick = generator.nextInt(set.size());
-        
-        int i = 0;
-        for (T item : setCopy) {
-            if (i == pick) {
-                return item;
-            }
-            i++;
-        }
+        int rank = (color.equals(PieceColor.WHITE)) ? 0 : Board.DEFAULT_SIZE - 1;
         
-        throw new RuntimeException("Item must have been picked");
+        addPiece(Coordinate.of(3, rank), Piece.queen(color, false));
     }
 }
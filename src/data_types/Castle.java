@@ -59,7 +59,7 @@ public class Castle implements Move{
 
     @Override
     public Coordinate coordFrom() {
-        return (turnSide.equals(PieceColor.WHITE)) ? new Coordinate("e1") : new Coordinate("e8");
+        return (turnSide.equals(PieceColor.WHITE)) ? Coordinate.of("e1") : Coordinate.of("e8");
     }
 
     @Override
@@ -71,7 +71,7 @@ public class Castle implements Move{
                                                                   // either the g file if kingside, or the c file if queenside
         
         checkRep();
-        return new Coordinate(x, y);
+        return Coordinate.of(x, y);
     }
 
     @Override
@@ -90,8 +90,8 @@ public class Castle implements Move{
         
         coordsChanged.add(coordFrom());
         coordsChanged.add(coordTo());
-        coordsChanged.add(new Coordinate(rookFromX, rookY));
-        coordsChanged.add(new Coordinate(rookToX, rookY));
+        coordsChanged.add(Coordinate.of(rookFromX, rookY));
+        coordsChanged.add(Coordinate.of(rookToX, rookY));
         checkRep();
         return coordsChanged;
     }
@@ -1,12 +1,12 @@
 package data_types;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /** Represents an Immutable (x,y) coordinate on the chess board, where axes extend to the right and upwards so that
  *  - (0,0) is the a1 square
  *  - (1,0) is the b1 square
  *  - (0,1) is the a2 square 
+ *  
+ * There are only 64 distinct coordinates, so Coordinate.of returns one canonical instance
+ * for each, which should be preferred over the constructors to avoid allocating.
  * @author bgalapon
  *
  */
@@ -14,7 +14,16 @@ public class Coordinate {
     private final int x;
     private final int y;
     
-    private final Map<Character, Integer> letterToNumber = new HashMap<Character, Integer>();
+    private final static String FILE_LETTERS = "abcdefgh";
+    private final static Coordinate[] COORDINATES = new Coordinate[Board.DEFAULT_SIZE * Board.DEFAULT_SIZE];
+    
+    static {
+        for (int y = 0; y < Board.DEFAULT_SIZE; y++) {
+            for (int x = 0; x < Board.DEFAULT_SIZE; x++) {
+                COORDINATES[index(x, y)] = new Coordinate(x, y);
+            }
+        }
+    }
     
     // Abstraction Function:
     //  - represents a coordinate (x, y) on the plane
@@ -41,8 +50,6 @@ public class Coordinate {
             throw new IllegalArgumentException("Illegal y-coordinate");
         }
         
-        initializeMap();
-        
         this.x = x;
         this.y = y;
         
@@ -56,32 +63,49 @@ public class Coordinate {
      * @throws IllegalArgumentException if coordinate does not match a valid chess coordinate
      */
     public Coordinate(String coordinate) {
-        initializeMap();
-        
-        String coordinateRegex = "[a-h][1-8]";
-        
-        if (! coordinate.matches(coordinateRegex)) {
+        if (!isChessNotation(coordinate)) {
             throw new IllegalArgumentException("Could not recognize chess coordinate");
         }
         
-        this.x = letterToNumber.get(coordinate.charAt(0));  // take the letter and convert to 0-indexed number
-        this.y = Integer.valueOf(coordinate.substring(1,2)) - 1;
+        this.x = coordinate.charAt(0) - 'a';  // take the letter and convert to 0-indexed number
+        this.y = coordinate.charAt(1) - '1';
         
         checkRep();
     }
     
     /**
-     * Configure the letterToNumber map
+     * Retrieve the canonical chess coordinate at standard (x,y) coordinates
+     *  - Requires that 0 <= x,y < Board.DEFAULT_SIZE
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return the coordinate (x, y), which is the same instance on every call
+     * @throws IllegalArgumentException if given x,y out of default board grid
      */
-    private void initializeMap() {
-        letterToNumber.put('a', 0);
-        letterToNumber.put('b', 1);
-        letterToNumber.put('c', 2);
-        letterToNumber.put('d', 3);
-        letterToNumber.put('e', 4);
-        letterToNumber.put('f', 5);
-        letterToNumber.put('g', 6);
-        letterToNumber.put('h', 7);
+    public static Coordinate of(int x, int y) {
+        if (0 > x || x >= Board.DEFAULT_SIZE) {
+            throw new IllegalArgumentException("Illegal x-coordinate");
+        }
+        
+        if (0 > y || y >= Board.DEFAULT_SIZE) {
+            throw new IllegalArgumentException("Illegal y-coordinate");
+        }
+        
+        return COORDINATES[index(x, y)];
+    }
+    
+    /**
+     * Retrieve the canonical chess coordinate of a location in chess notation
+     *  - Requires that coordinate matches the regex [a-h][1-8]
+     * @param coordinate location in chess notation
+     * @return the coordinate at coordinate, which is the same instance on every call
+     * @throws IllegalArgumentException if coordinate does not match a valid chess coordinate
+     */
+    public static Coordinate of(String coordinate) {
+        if (!isChessNotation(coordinate)) {
+            throw new IllegalArgumentException("Could not recognize chess coordinate");
+        }
+        
+        return COORDINATES[index(coordinate.charAt(0) - 'a', coordinate.charAt(1) - '1')];
     }
     
     /** Retrieve the X-coordinate of this Coordinate
@@ -110,6 +134,7 @@ public class Coordinate {
     
     @Override
     public boolean equals(Object other) {
+        if (this == other) {return true;}
         if (! (other instanceof Coordinate)) {return false;}
         
         Coordinate otherCoordinate = (Coordinate) other; 
@@ -126,19 +151,36 @@ public class Coordinate {
      */
     @Override
     public String toString() {
-        Character letter = null;
-        
-        for (Character key : letterToNumber.keySet()) {
-            if (letterToNumber.get(key) == getX()) {
-                letter = key;
-            }
-        }
-        
-        return String.format("%s%d", letter, getY()+1);
+        return FILE_LETTERS.charAt(getX()) + String.valueOf(getY()+1);
     }
     
     @Override
     public int hashCode() {
-        return getX()*getY();
+        return index(getX(), getY());
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Retrieve the index of a coordinate in the canonical table, which is distinct for every coordinate
+     * @param x x-coordinate, 0 <= x < Board.DEFAULT_SIZE
+     * @param y y-coordinate, 0 <= y < Board.DEFAULT_SIZE
+     * @return the index of the coordinate (x, y)
+     */
+    private static int index(int x, int y) {
+        return y * Board.DEFAULT_SIZE + x;
+    }
+    
+    /**
+     * Check if a string is a coordinate in chess notation
+     * @param coordinate string to check
+     * @return true if and only if coordinate matches the regex [a-h][1-8]
+     */
+    private static boolean isChessNotation(String coordinate) {
+        return coordinate.length() == 2
+                && 'a' <= coordinate.charAt(0) && coordinate.charAt(0) <= 'h'
+                && '1' <= coordinate.charAt(1) && coordinate.charAt(1) <= '8';
     }
 }
@@ -55,9 +55,14 @@ public class EmptyPiece implements Piece {
     
     @Override
     public int hashCode() {
-        return 0;
+        return Piece.code(type(), color(), false);
     }
 
+    @Override
+    public PieceType type() {
+        return PieceType.NONE;
+    }
+    
     @Override
     public boolean isPawn() {
         return false;
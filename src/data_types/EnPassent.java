@@ -93,7 +93,7 @@ public class EnPassent implements Move{
         int scalar = piece().color().equals(PieceColor.WHITE) ? -1 : 1;
         
         // en passent capture square is one below coordTo on white and one above coordTo on black
-        coordsChanged.add(new Coordinate(squareTo.coordinate().getX(), squareTo.coordinate().getY()+scalar));
+        coordsChanged.add(Coordinate.of(squareTo.coordinate().getX(), squareTo.coordinate().getY()+scalar));
         
         checkRep();
         return coordsChanged;
@@ -166,7 +166,7 @@ public class EnPassent implements Move{
     public Coordinate captureCoordinate() throws RuntimeException {
         int scalar = piece().color().equals(PieceColor.WHITE) ? -1 : 1;
         
-        return new Coordinate(squareTo.coordinate().getX(), squareTo.coordinate().getY()+scalar);
+        return Coordinate.of(squareTo.coordinate().getX(), squareTo.coordinate().getY()+scalar);
     }
     
     @Override
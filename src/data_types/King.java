@@ -11,7 +11,9 @@ public class King implements Piece {
     private final PieceColor color;
     private final boolean moved;
     
-    private static final Coordinate D4_COORDINATE = new Coordinate(3, 3);
+    // canonical instances, indexed by color and then by whether or not they have moved
+    private static final King[] INSTANCES = {new King(PieceColor.WHITE, false), new King(PieceColor.WHITE, true),
+                                             new King(PieceColor.BLACK, false), new King(PieceColor.BLACK, true)};
     
     // Abstraction Function: 
     //  - represents a King with color color located at coordinate coordinate
@@ -35,6 +37,16 @@ public class King implements Piece {
         checkRep();
     }
     
+    /**
+     * Retrieve the canonical King with a color
+     * @param color color of the king, requires color is PieceColor.WHITE or PieceColor.BLACK
+     * @param moved whether or not the king has moved
+     * @return the king with color color that has (or has not) moved, which is the same instance on every call
+     */
+    static King of(PieceColor color, boolean moved) {
+        return INSTANCES[2 * color.ordinal() + (moved ? 1 : 0)];
+    }
+    
     /**
      * Assert the Rep Invariant
      */
@@ -52,17 +64,17 @@ public class King implements Piece {
         for (int i = -1; i <= 1; i++) {
             for (int j = -1; j <=1; j++) {
                 if ((!(i==0 && j==0)) && inRange(x+i, y+j))
-                    moves.add(new Coordinate(x+i, y+j));
+                    moves.add(Coordinate.of(x+i, y+j));
             }
         }
         
         if (!hasMoved()) {
-            if (coord.equals(new Coordinate("e1")) && color().equals(PieceColor.WHITE)) {
-                moves.add(new Coordinate("g1"));
-                moves.add(new Coordinate("c1"));
-            } else if (coord.equals(new Coordinate("e8")) && color().equals(PieceColor.BLACK)) {
-                moves.add(new Coordinate("g8"));
-                moves.add(new Coordinate("c8"));
+            if (coord.equals(Coordinate.of("e1")) && color().equals(PieceColor.WHITE)) {
+                moves.add(Coordinate.of("g1"));
+                moves.add(Coordinate.of("c1"));
+            } else if (coord.equals(Coordinate.of("e8")) && color().equals(PieceColor.BLACK)) {
+                moves.add(Coordinate.of("g8"));
+                moves.add(Coordinate.of("c8"));
             }
         }
         
@@ -92,16 +104,13 @@ public class King implements Piece {
     
     @Override
     public boolean equals(Object other) {
+        if (this == other) {return true;}
         if (! (other instanceof King)) {return false;}
         
         King otherKing = (King) other; 
         
-        boolean moveSetSame = this.moveSet(D4_COORDINATE).equals(otherKing.moveSet(D4_COORDINATE));
-        boolean colorSame = this.color().equals(otherKing.color());
-        boolean movedSame = this.hasMoved() == otherKing.hasMoved();
-        
-        // considered equivalent if they have an equivalent moveSet when placed on d4
-        return  moveSetSame && colorSame && movedSame;
+        // considered equivalent if they have the same color and have both moved (or not)
+        return this.color == otherKing.color && this.moved == otherKing.moved;
     }
         
     @Override
@@ -111,9 +120,14 @@ public class King implements Piece {
     
     @Override
     public int hashCode() {
-        return moveSet(D4_COORDINATE).size() + (color().equals(PieceColor.BLACK) ? 0 : 1);
+        return Piece.code(PieceType.KING, color, moved);
     }
 
+    @Override
+    public PieceType type() {
+        return PieceType.KING;
+    }
+    
     @Override
     public boolean isPawn() {
         return false;
@@ -126,7 +140,7 @@ public class King implements Piece {
 
     @Override
     public Piece getMovedVersion() {
-        return new King(color, true);
+        return of(color, true);
     }
 
     @Override
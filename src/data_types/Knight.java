@@ -1,8 +1,6 @@
 package data_types;
 
-import java.util.Arrays;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -13,7 +11,11 @@ public class Knight implements Piece {
     private final PieceColor color;
     private final boolean moved;
     
-    private static final Coordinate D4_COORDINATE = new Coordinate(3, 3);
+    private static final int[][] VECTORS = {{2,1}, {2,-1}, {1,2}, {1,-2}, {-2,1}, {-2,-1}, {-1,2}, {-1,-2}};
+    
+    // canonical instances, indexed by color and then by whether or not they have moved
+    private static final Knight[] INSTANCES = {new Knight(PieceColor.WHITE, false), new Knight(PieceColor.WHITE, true),
+                                               new Knight(PieceColor.BLACK, false), new Knight(PieceColor.BLACK, true)};
     
     // Abstraction Function: 
     //  - represents a Knight with color color located at coordinate coordinate
@@ -37,6 +39,16 @@ public class Knight implements Piece {
         checkRep();
     }
     
+    /**
+     * Retrieve the canonical Knight with a color
+     * @param color color of the knight, requires color is PieceColor.WHITE or PieceColor.BLACK
+     * @param moved whether or not the knight has moved
+     * @return the knight with color color that has (or has not) moved, which is the same instance on every call
+     */
+    static Knight of(PieceColor color, boolean moved) {
+        return INSTANCES[2 * color.ordinal() + (moved ? 1 : 0)];
+    }
+    
     /** 
      * Assert the Rep Invariant.
      */
@@ -51,21 +63,12 @@ public class Knight implements Piece {
         final int x = coord.getX();
         final int y = coord.getY();
         
-        List<List<Integer>> vectors = Arrays.asList(Arrays.asList(2,1), 
-                                                    Arrays.asList(2,-1),
-                                                    Arrays.asList(1,2),
-                                                    Arrays.asList(1,-2),
-                                                    Arrays.asList(-2,1),
-                                                    Arrays.asList(-2,-1),
-                                                    Arrays.asList(-1,2),
-                                                    Arrays.asList(-1,-2));
-        
-        for (List<Integer> vectorPair : vectors) {
-            final int xCoord = x + vectorPair.get(0);
-            final int yCoord = y + vectorPair.get(1);
+        for (int[] vectorPair : VECTORS) {
+            final int xCoord = x + vectorPair[0];
+            final int yCoord = y + vectorPair[1];
             
             if (inRange(xCoord,yCoord)) {
-                moves.add(new Coordinate(xCoord,yCoord));
+                moves.add(Coordinate.of(xCoord,yCoord));
             }
         }
         
@@ -96,16 +99,13 @@ public class Knight implements Piece {
     
     @Override
     public boolean equals(Object other) {
+        if (this == other) {return true;}
         if (! (other instanceof Knight)) {return false;}
         
         Knight otherKnight = (Knight) other; 
         
-        boolean moveSetSame = this.moveSet(D4_COORDINATE).equals(otherKnight.moveSet(D4_COORDINATE));
-        boolean colorSame = this.color().equals(otherKnight.color());
-        boolean movedSame = this.hasMoved() == otherKnight.hasMoved();
-        
-        // considered equivalent if they have an equivalent moveSet when placed on d4
-        return  moveSetSame && colorSame && movedSame;
+        // considered equivalent if they have the same color and have both moved (or not)
+        return this.color == otherKnight.color && this.moved == otherKnight.moved;
     }
         
     @Override
@@ -115,7 +115,12 @@ public class Knight implements Piece {
     
     @Override
     public int hashCode() {
-        return moveSet(D4_COORDINATE).size() + (color().equals(PieceColor.BLACK) ? 0 : 1);
+        return Piece.code(PieceType.KNIGHT, color, moved);
+    }
+    
+    @Override
+    public PieceType type() {
+        return PieceType.KNIGHT;
     }
 
     @Override
@@ -130,7 +135,7 @@ public class Knight implements Piece {
 
     @Override
     public Piece getMovedVersion() {
-        return new Knight(color, true);
+        return of(color, true);
     }
 
     @Override
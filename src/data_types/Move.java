@@ -89,11 +89,11 @@ public interface Move {
         if ((movedPiece.equals(unmovedWhiteKing) || movedPiece.equals(unmovedBlackKing)) && pieceMovedTwoSquares) {
             if (movedPiece.equals(unmovedWhiteKing)) {
                 // if the king lands on g1, then we castle kingside. Otherwise, we castle queenside.
-                CastleSide castleSide = (coordTo.equals(new Coordinate("g1"))) ? CastleSide.KINGSIDE : CastleSide.QUEENSIDE;
+                CastleSide castleSide = (coordTo.equals(Coordinate.of("g1"))) ? CastleSide.KINGSIDE : CastleSide.QUEENSIDE;
                 return new Castle(movedPiece.color(), castleSide);
             } else if (movedPiece.equals(unmovedBlackKing)) {
                 // if the king lands on g8, then we castle kingside. Otherwise, we castle queenside.
-                CastleSide castleSide = (coordTo.equals(new Coordinate("g8"))) ? CastleSide.KINGSIDE : CastleSide.QUEENSIDE;
+                CastleSide castleSide = (coordTo.equals(Coordinate.of("g8"))) ? CastleSide.KINGSIDE : CastleSide.QUEENSIDE;
                 return new Castle(movedPiece.color(), castleSide);
             } else {
                 throw new RuntimeException("Impossible to be here. You broke computer science.");
@@ -0,0 +1,111 @@
+package data_types;
+
+/**
+ * Represents a reusable, mutable list of packed moves (see PackedMove), backed by a primitive
+ * array large enough to hold every legal move of any position, so that filling it never allocates
+ * @author bgalapon
+ */
+public class MoveList {
+    
+    private final int[] moves = new int[BitBoard.MAX_MOVES];
+    private int size;
+    
+    // Abstraction Function:
+    //  - represents the list moves[0], ..., moves[size-1] of packed moves
+    //
+    // Rep Invariant:
+    //  - 0 <= size <= moves.length
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private
+    //  - all inputs and outputs are primitives, except for buffer(), which is package-private
+    //     and only used by Board to generate moves into
+    //
+    
+    /**
+     * Create an empty move list
+     */
+    public MoveList() {
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert 0 <= size && size <= moves.length;
+    }
+    
+    /**
+     * Retrieve the number of moves in this list
+     * @return the number of moves in this list
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Retrieve a move of this list
+     * @param index index of move, requires 0 <= index < size()
+     * @return the packed move at index
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+    
+    /**
+     * Replace a move of this list
+     * @param index index of move, requires 0 <= index < size()
+     * @param move packed move to place at index
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+    
+    /**
+     * Add a move to the end of this list
+     *  - requires size() < BitBoard.MAX_MOVES
+     * @param move packed move to add
+     */
+    public void add(int move) {
+        moves[size++] = move;
+    }
+    
+    /**
+     * Check if this list contains a move
+     * @param move packed move to look for
+     * @return true if and only if move is in this list
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Remove every move from this list
+     */
+    public void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Retrieve the array backing this list, to generate moves directly into
+     * @return the array holding the moves of this list
+     */
+    int[] buffer() {
+        return moves;
+    }
+    
+    /**
+     * Set the number of moves in this list, after generating moves into buffer()
+     * @param size number of moves at the front of buffer(), 0 <= size <= BitBoard.MAX_MOVES
+     */
+    void setSize(int size) {
+        this.size = size;
+        checkRep();
+    }
+}
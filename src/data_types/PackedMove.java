@@ -0,0 +1,122 @@
+package data_types;
+
+/**
+ * Compact encoding of a chess move into the low 16 bits of an int, for move generation
+ * and search that must not allocate. Bits 0-5 hold the source square, bits 6-11 the target
+ * square (squares indexed as in BitBoard) and bits 12-15 one of the flags below:
+ *  - QUIET, DOUBLE_PUSH, KING_CASTLE, QUEEN_CASTLE, CAPTURE and EN_PASSENT
+ *  - PROMOTION or PROMOTION_CAPTURE, plus the promoted type minus BitBoard.KNIGHT
+ *
+ * Board.toPackedMove and Board.toMove convert between packed moves and Moves.
+ * @author bgalapon
+ */
+public final class PackedMove {
+    
+    public final static int NONE = 0;
+    
+    public final static int QUIET = 0;
+    public final static int DOUBLE_PUSH = 1;
+    public final static int KING_CASTLE = 2;
+    public final static int QUEEN_CASTLE = 3;
+    public final static int CAPTURE = 4;
+    public final static int EN_PASSENT = 5;
+    public final static int PROMOTION = 8;
+    public final static int PROMOTION_CAPTURE = 12;
+    
+    private PackedMove() {
+        // not instantiable
+    }
+    
+    /**
+     * Encode a move
+     * @param from square the moving piece starts on
+     * @param to square the moving piece lands on
+     * @param flags kind of move
+     * @return the packed move
+     */
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+    
+    /**
+     * Retrieve the source square of a packed move
+     * @param move packed move
+     * @return the square the moving piece starts on
+     */
+    public static int from(int move) {
+        return move & 63;
+    }
+    
+    /**
+     * Retrieve the target square of a packed move
+     * @param move packed move
+     * @return the square the moving piece lands on
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+    
+    /**
+     * Retrieve the flags of a packed move
+     * @param move packed move
+     * @return the kind of move
+     */
+    public static int flags(int move) {
+        return (move >>> 12) & 15;
+    }
+    
+    /**
+     * Check if a packed move captures a piece
+     * @param move packed move
+     * @return true if and only if move is a capture, an en passent or a capturing promotion
+     */
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+    
+    /**
+     * Check if a packed move promotes a pawn
+     * @param move packed move
+     * @return true if and only if move is a promotion
+     */
+    public static boolean isPromotion(int move) {
+        return flags(move) >= PROMOTION;
+    }
+    
+    /**
+     * Retrieve the type a pawn promotes to on a packed move
+     *  - requires that move is a promotion
+     * @param move packed move
+     * @return one of BitBoard.KNIGHT, BitBoard.BISHOP, BitBoard.ROOK or BitBoard.QUEEN
+     */
+    public static int promotionType(int move) {
+        return BitBoard.KNIGHT + (flags(move) & 3);
+    }
+    
+    /**
+     * Retrieve a packed move in coordinate notation
+     * @param move packed move
+     * @return the source and target squares of move (e.g. e2e4), followed by the lowercase
+     *          letter of the promoted type if move is a promotion (e.g. e7e8q)
+     */
+    public static String toString(int move) {
+        String name = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            name += "pnbrqk".charAt(promotionType(move));
+        }
+        return name;
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Retrieve the name of a square in chess notation
+     * @param square index of square
+     * @return the file letter followed by the rank number of square
+     */
+    private static String squareName(int square) {
+        return (char) ('a' + BitBoard.file(square)) + String.valueOf(BitBoard.rank(square) + 1);
+    }
+}
@@ -11,7 +11,9 @@ public class Pawn implements Piece {
     private final PieceColor color;
     private final boolean moved;
     
-    private static final Coordinate D4_COORDINATE = new Coordinate(3, 3);
+    // canonical instances, indexed by color and then by whether or not they have moved
+    private static final Pawn[] INSTANCES = {new Pawn(PieceColor.WHITE, false), new Pawn(PieceColor.WHITE, true),
+                                             new Pawn(PieceColor.BLACK, false), new Pawn(PieceColor.BLACK, true)};
     
     // Abstraction Function: 
     //  - represents a Pawn with color color located at coordinate coordinate that 
@@ -35,6 +37,16 @@ public class Pawn implements Piece {
         this.moved = moved;
     }
     
+    /**
+     * Retrieve the canonical Pawn with a color
+     * @param color color of the pawn, requires color is PieceColor.WHITE or PieceColor.BLACK
+     * @param moved whether or not the pawn has moved
+     * @return the pawn with color color that has (or has not) moved, which is the same instance on every call
+     */
+    static Pawn of(PieceColor color, boolean moved) {
+        return INSTANCES[2 * color.ordinal() + (moved ? 1 : 0)];
+    }
+    
     /** 
      * Assert the Rep Invariant.
      */
@@ -51,18 +63,18 @@ public class Pawn implements Piece {
         
         final int scaleFactor = (color.equals(PieceColor.WHITE)) ? 1 : -1;
         
-        moves.add(new Coordinate(x, y+scaleFactor)); // pawn can always move 1 square up
+        moves.add(Coordinate.of(x, y+scaleFactor)); // pawn can always move 1 square up
         
         if (!moved) {
-            moves.add(new Coordinate(x, y+2*scaleFactor)); // pawn can move two squares on first move
+            moves.add(Coordinate.of(x, y+2*scaleFactor)); // pawn can move two squares on first move
         } 
         
         // captures
         if (x == 0 || x == Board.DEFAULT_SIZE - 1){ // pawn is on edge of board
-            moves.add((x == 0) ? new Coordinate(x+1, y+scaleFactor) : new Coordinate(x-1,y+scaleFactor));
+            moves.add((x == 0) ? Coordinate.of(x+1, y+scaleFactor) : Coordinate.of(x-1,y+scaleFactor));
         } else {
-            moves.add(new Coordinate(x+1, y+scaleFactor)); // capture left
-            moves.add(new Coordinate(x-1, y+scaleFactor)); // capture right
+            moves.add(Coordinate.of(x+1, y+scaleFactor)); // capture left
+            moves.add(Coordinate.of(x-1, y+scaleFactor)); // capture right
         }
         
         checkRep();
@@ -81,17 +93,13 @@ public class Pawn implements Piece {
     
     @Override
     public boolean equals(Object other) {
+        if (this == other) {return true;}
         if (! (other instanceof Pawn)) {return false;}
         
         Pawn otherPawn = (Pawn) other; 
         
-        // considered equivalent if they have an equivalent moveSet when placed on d4
-        boolean moveSetSame = this.moveSet(D4_COORDINATE).equals(otherPawn.moveSet(D4_COORDINATE));
-        boolean colorSame = this.color().equals(otherPawn.color());
-        boolean movedSame = this.hasMoved() == otherPawn.hasMoved();
-        
-        // considered equivalent if they have an equivalent moveSet when placed on d4
-        return  moveSetSame && colorSame && movedSame;
+        // considered equivalent if they have the same color and have both moved (or not)
+        return this.color == otherPawn.color && this.moved == otherPawn.moved;
     }
         
     @Override
@@ -101,9 +109,14 @@ public class Pawn implements Piece {
     
     @Override
     public int hashCode() {
-        return moveSet(D4_COORDINATE).size() + (color().equals(PieceColor.BLACK) ? 0 : 1);
+        return Piece.code(PieceType.PAWN, color, moved);
     }
 
+    @Override
+    public PieceType type() {
+        return PieceType.PAWN;
+    }
+    
     @Override
     public boolean isPawn() {
         return true;
@@ -116,7 +129,7 @@ public class Pawn implements Piece {
 
     @Override
     public Piece getMovedVersion() {
-        return new Pawn(color, true);
+        return of(color, true);
     }
 
     @Override
@@ -15,87 +15,98 @@ public interface Piece {
     //         EmptyPiece()
     
     /**
-     * Create a new pawn with color color
+     * Retrieve the pawn with color color
      * @param color color of piece
      *          - requires !color.equals(PieceColor.TRANSPARENT)
      * @param moved whether of not this piece has moved
-     * @return a pawn with color color that has (or has not) moved
+     * @return the canonical pawn with color color that has (or has not) moved
      */
     public static Piece pawn(PieceColor color, boolean moved) {
         if (color.equals(PieceColor.TRANSPARENT)) {
             throw new IllegalArgumentException("Can't make a transparent piece!");
         }
-        return new Pawn(color, moved);
+        return Pawn.of(color, moved);
     }
     
     /**
-     * Create a new knight with color color
+     * Retrieve the knight with color color
      * @param color color of piece
      *          - requires !color.equals(PieceColor.TRANSPARENT)
      * @param moved whether of not this piece has moved
-     * @return a knight with color color that has (or has not) moved
+     * @return the canonical knight with color color that has (or has not) moved
      */
     public static Piece knight(PieceColor color, boolean moved) {
         if (color.equals(PieceColor.TRANSPARENT)) {
             throw new IllegalArgumentException("Can't make a transparent piece!");
         }
-        return new Knight(color, moved);
+        return Knight.of(color, moved);
     }
     
     /**
-     * Create a new bishop with color color
+     * Retrieve the bishop with color color
      * @param color color of piece
      *          - requires !color.equals(PieceColor.TRANSPARENT)
      * @param moved whether of not this piece has moved
-     * @return a bishop with color color that has (or has not) moved
+     * @return the canonical bishop with color color that has (or has not) moved
      */
     public static Piece bishop(PieceColor color, boolean moved) {
         if (color.equals(PieceColor.TRANSPARENT)) {
             throw new IllegalArgumentException("Can't make a transparent piece!");
         }
-        return new Bishop(color, moved);
+        return Bishop.of(color, moved);
     }
     
     /**
-     * Create a new rook with color color
+     * Retrieve the rook with color color
      * @param color color of piece
      *          - requires !color.equals(PieceColor.TRANSPARENT)
      * @param moved whether of not this piece has moved
-     * @return a rook with color color that has (or has not) moved
+     * @return the canonical rook with color color that has (or has not) moved
      */
     public static Piece rook(PieceColor color, boolean moved) {
         if (color.equals(PieceColor.TRANSPARENT)) {
             throw new IllegalArgumentException("Can't make a transparent piece!");
         }
-        return new Rook(color, moved);
+        return Rook.of(color, moved);
     }
     
     /**
-     * Create a new queen with color color
+     * Retrieve the queen with color color
      * @param color color of piece
      *          - requires !color.equals(PieceColor.TRANSPARENT)
      * @param moved whether of not this piece has moved
-     * @return a queen with color color that has (or has not) moved
+     * @return the canonical queen with color color that has (or has not) moved
      */
     public static Piece queen(PieceColor color, boolean moved) {
         if (color.equals(PieceColor.TRANSPARENT)) {
             throw new IllegalArgumentException("Can't make a transparent piece!");
         }
-        return new Queen(color, moved);
+        return Queen.of(color, moved);
     }
     
     /**
-     * Create a new king with color color
+     * Retrieve the king with color color
      * @param color color of piece
      *          - requires !color.equals(PieceColor.TRANSPARENT)
      * @param moved whether of not this piece has moved
-     * @return a king with color color that has (or has not) moved
+     * @return the canonical king with color color that has (or has not) moved
      */
     public static Piece king(PieceColor color, boolean moved) {
         if (color.equals(PieceColor.TRANSPARENT)) {
             throw new IllegalArgumentException("Can't make a transparent piece!");
         }
-        return new King(color, moved);
+        return King.of(color, moved);
+    }
+    
+    /**
+     * Retrieve the compact code of a piece, which identifies it by type, color and whether or not it has moved
+     * @param type type of piece
+     * @param color color of piece
+     * @param moved whether or not the piece has moved
+     * @return a small non-negative integer that is distinct for every combination of type, color and moved
+     */
+    public static int code(PieceType type, PieceColor color, boolean moved) {
+        return (type.ordinal() << 3) | (color.ordinal() << 1) | (moved ? 1 : 0);
     }
     
     /**
@@ -116,8 +127,7 @@ public interface Piece {
      *      on an empty board, including capture and castling moves, 
      *      when placed on coord.
      * @param coord coordinate to have 'placed' the piece
-     * @return a set of coordinate indicating the set of coordinates this piece
-     *          can move to on an empty board
+     * @return a new set of the canonical coordinates this piece can move to on an empty board
      */
     public Set<Coordinate> moveSet(Coordinate coord);
     
@@ -128,6 +138,13 @@ public interface Piece {
      */
     public PieceColor color();
     
+    /**
+     * Retrieve the type of this piece
+     * @return the type of this piece
+     *            - if this piece does not exist, return PieceType.NONE
+     */
+    public PieceType type();
+    
     /**
      * Check if this piece exists
      * @return true only if this piece exists
@@ -159,7 +176,12 @@ public interface Piece {
      */
     public int value();
     
-    // TODO Finish re-implementing equals/write tests for it
+    /**
+     * Check if this piece is equivalent to another object
+     * @param other object to compare to
+     * @return true if and only if other is a piece of the same type and color as this piece,
+     *          that has moved if and only if this piece has moved
+     */
     @Override
     public boolean equals(Object other);
         
@@ -180,6 +202,11 @@ public interface Piece {
     @Override
     public String toString();
     
+    /**
+     * Retrieve the hash code of this piece
+     * @return Piece.code(type(), color(), hasMoved()) if this piece exists, else
+     *          Piece.code(PieceType.NONE, PieceColor.TRANSPARENT, false)
+     */
     @Override
     public int hashCode();
         
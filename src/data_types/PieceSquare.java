@@ -0,0 +1,220 @@
+package data_types;
+
+/**
+ * Material values, piece-square tables and game phase weights, which BitBoard adds up
+ * incrementally as pieces are added to and removed from a position.
+ *
+ * A piece-square table gives the bonus, in centipawns, for a piece of a type standing on each
+ * square: knights in the centre, rooks on the seventh rank, a king tucked away behind its pawns.
+ * Tables are written from white's point of view with the eighth rank first, as the board is
+ * seen from white's side, and black uses the same tables mirrored across the middle of the board.
+ *
+ * Pawns and kings have a second table for the endgame, where the king should head for the centre
+ * and pawns for promotion. Positional scores hold both a middlegame and an endgame score packed
+ * into one int, as made by score(mg, eg), so that they can be added up with a single addition;
+ * blend interpolates between the two by the phase of the game, which counts down from MAX_PHASE
+ * with all pieces on the board to 0 with only pawns and kings.
+ *
+ * Squares and pieces are indexed as in BitBoard. Scores are from white's point of view: positive
+ * for white pieces, negative for black ones.
+ * @author Bryson
+ */
+public final class PieceSquare {
+    
+    public final static int MAX_PHASE = 24;
+    
+    // values of pawns, knights, bishops, rooks, queens and kings in centipawns
+    private final static int[] MATERIAL = {100, 320, 330, 500, 900, 0};
+    
+    // weights of pawns, knights, bishops, rooks, queens and kings in the phase of the game
+    private final static int[] PHASE = {0, 1, 1, 2, 4, 0};
+    
+    private final static int[][] MIDDLEGAME = {
+        { // pawn
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0,
+        },
+        { // knight
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50,
+        },
+        { // bishop
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20,
+        },
+        { // rook
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0,
+        },
+        { // queen
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+        },
+        { // king
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20,
+        },
+    };
+    
+    // knights, bishops, rooks and queens use their middlegame tables in the endgame too
+    private final static int[][] ENDGAME = {
+        { // pawn
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             15,  15,  15,  15,  15,  15,  15,  15,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0,
+        },
+        MIDDLEGAME[BitBoard.KNIGHT],
+        MIDDLEGAME[BitBoard.BISHOP],
+        MIDDLEGAME[BitBoard.ROOK],
+        MIDDLEGAME[BitBoard.QUEEN],
+        { // king
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50,
+        },
+    };
+    
+    // SCORES[piece][square] is the packed piece-square bonus of piece on square, from white's point of view
+    private final static int[][] SCORES = new int[12][64];
+    
+    static {
+        for (int type = BitBoard.PAWN; type <= BitBoard.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                // the tables list the eighth rank first, which is where black's first rank is
+                int white = square ^ 56;
+                SCORES[BitBoard.piece(BitBoard.WHITE, type)][square] = score(MIDDLEGAME[type][white], ENDGAME[type][white]);
+                SCORES[BitBoard.piece(BitBoard.BLACK, type)][square] = -score(MIDDLEGAME[type][square], ENDGAME[type][square]);
+            }
+        }
+    }
+    
+    private PieceSquare() {
+        // not instantiable
+    }
+    
+    /**
+     * Retrieve the material value of a type of piece
+     * @param type type of piece, BitBoard.PAWN to BitBoard.KING
+     * @return the value of a piece of type type in centipawns, 0 for kings
+     */
+    public static int value(int type) {
+        return MATERIAL[type];
+    }
+    
+    /**
+     * Retrieve the material score of a piece
+     * @param piece piece index, as given by BitBoard.piece
+     * @return the value of piece in centipawns, negated if piece is black
+     */
+    public static int material(int piece) {
+        int value = MATERIAL[BitBoard.typeOf(piece)];
+        return (BitBoard.colorOf(piece) == BitBoard.WHITE) ? value : -value;
+    }
+    
+    /**
+     * Retrieve the piece-square score of a piece on a square
+     * @param piece piece index, as given by BitBoard.piece
+     * @param square square of the piece
+     * @return the packed middlegame and endgame bonuses of piece for standing on square in
+     *          centipawns, negated if piece is black
+     */
+    public static int positional(int piece, int square) {
+        return SCORES[piece][square];
+    }
+    
+    /**
+     * Retrieve the weight of a piece in the phase of the game
+     * @param piece piece index, as given by BitBoard.piece
+     * @return how much piece adds to the phase of the game, 0 for pawns and kings
+     */
+    public static int phase(int piece) {
+        return PHASE[BitBoard.typeOf(piece)];
+    }
+    
+    /**
+     * Pack a middlegame and an endgame score into one int, such that adding packed scores adds
+     * both their middlegame and their endgame scores
+     * @param mg middlegame score, -32768 <= mg < 32768
+     * @param eg endgame score, -32768 <= eg < 32768
+     * @return the packed score of mg and eg
+     */
+    public static int score(int mg, int eg) {
+        return (eg << 16) + mg;
+    }
+    
+    /**
+     * Retrieve the middlegame score of a packed score
+     * @param score packed score, as made by score(mg, eg) or a sum of such
+     * @return the middlegame score of score
+     */
+    public static int middlegame(int score) {
+        return (short) score;
+    }
+    
+    /**
+     * Retrieve the endgame score of a packed score
+     * @param score packed score, as made by score(mg, eg) or a sum of such
+     * @return the endgame score of score
+     */
+    public static int endgame(int score) {
+        // a negative middlegame score borrows one from the upper half, so round it back up
+        return (score + 0x8000) >> 16;
+    }
+    
+    /**
+     * Interpolate between the middlegame and endgame scores of a packed score
+     * @param score packed score, as made by score(mg, eg) or a sum of such
+     * @param phase phase of the game, 0 <= phase <= MAX_PHASE
+     * @return the middlegame score of score if phase is MAX_PHASE, its endgame score if phase is
+     *          0, and the weighted average of the two in between
+     */
+    public static int blend(int score, int phase) {
+        return (middlegame(score) * phase + endgame(score) * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+}
@@ -0,0 +1,16 @@
+package data_types;
+
+/**
+ * Represents the type of a chess piece, regardless of its color
+ *  - the ordinals of PAWN through KING match the piece type indices of BitBoard
+ * @author bgalapon
+ */
+public enum PieceType {
+    PAWN,
+    KNIGHT,
+    BISHOP,
+    ROOK,
+    QUEEN,
+    KING,
+    NONE;
+}
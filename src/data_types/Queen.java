@@ -10,7 +10,9 @@ public class Queen implements Piece {
     private final PieceColor color;
     private final boolean moved;
     
-    private static final Coordinate D4_COORDINATE = new Coordinate(3, 3);
+    // canonical instances, indexed by color and then by whether or not they have moved
+    private static final Queen[] INSTANCES = {new Queen(PieceColor.WHITE, false), new Queen(PieceColor.WHITE, true),
+                                              new Queen(PieceColor.BLACK, false), new Queen(PieceColor.BLACK, true)};
     
     // Abstraction Function: 
     //  - represents a Queen with color color located at coordinate coordinate
@@ -34,6 +36,16 @@ public class Queen implements Piece {
         checkRep();
     }
     
+    /**
+     * Retrieve the canonical Queen with a color
+     * @param color color of the queen, requires color is PieceColor.WHITE or PieceColor.BLACK
+     * @param moved whether or not the queen has moved
+     * @return the queen with color color that has (or has not) moved, which is the same instance on every call
+     */
+    static Queen of(PieceColor color, boolean moved) {
+        return INSTANCES[2 * color.ordinal() + (moved ? 1 : 0)];
+    }
+    
     /** 
      * Assert the Rep Invariant.
      */
@@ -67,16 +79,13 @@ public class Queen implements Piece {
     
     @Override
     public boolean equals(Object other) {
+        if (this == other) {return true;}
         if (! (other instanceof Queen)) {return false;}
         
         Queen otherQueen = (Queen) other; 
         
-        boolean moveSetSame = this.moveSet(D4_COORDINATE).equals(otherQueen.moveSet(D4_COORDINATE));
-        boolean colorSame = this.color().equals(otherQueen.color());
-        boolean movedSame = this.hasMoved() == otherQueen.hasMoved();
-        
-        // considered equivalent if they have an equivalent moveSet when placed on d4
-        return  moveSetSame && colorSame && movedSame;        
+        // considered equivalent if they have the same color and have both moved (or not)
+        return this.color == otherQueen.color && this.moved == otherQueen.moved;
     }
         
     @Override
@@ -86,9 +95,14 @@ public class Queen implements Piece {
     
     @Override
     public int hashCode() {
-        return moveSet(D4_COORDINATE).size() + (color().equals(PieceColor.BLACK) ? 0 : 1);
+        return Piece.code(PieceType.QUEEN, color, moved);
     }
 
+    @Override
+    public PieceType type() {
+        return PieceType.QUEEN;
+    }
+    
     @Override
     public boolean isPawn() {
         return false;
@@ -101,7 +115,7 @@ public class Queen implements Piece {
 
     @Override
     public Piece getMovedVersion() {
-        return new Queen(color, true);
+        return of(color, true);
     }
 
     @Override
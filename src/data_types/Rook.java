@@ -11,7 +11,9 @@ public class Rook implements Piece {
     private final PieceColor color;
     private final boolean moved;
     
-    private static final Coordinate D4_COORDINATE = new Coordinate(3, 3);
+    // canonical instances, indexed by color and then by whether or not they have moved
+    private static final Rook[] INSTANCES = {new Rook(PieceColor.WHITE, false), new Rook(PieceColor.WHITE, true),
+                                             new Rook(PieceColor.BLACK, false), new Rook(PieceColor.BLACK, true)};
 
     
     // Abstraction Function: 
@@ -36,6 +38,16 @@ public class Rook implements Piece {
         checkRep();
     }
     
+    /**
+     * Retrieve the canonical Rook with a color
+     * @param color color of the rook, requires color is PieceColor.WHITE or PieceColor.BLACK
+     * @param moved whether or not the rook has moved
+     * @return the rook with color color that has (or has not) moved, which is the same instance on every call
+     */
+    static Rook of(PieceColor color, boolean moved) {
+        return INSTANCES[2 * color.ordinal() + (moved ? 1 : 0)];
+    }
+    
     /** 
      * Assert the Rep Invariant.
      */
@@ -53,13 +65,13 @@ public class Rook implements Piece {
         // Fix y, vary x
         for (int i = 0; i < Board.DEFAULT_SIZE; i++) {
             if (i != x) 
-                moves.add(new Coordinate(i, y));
+                moves.add(Coordinate.of(i, y));
         }
         
         // Fix x, vary y
         for (int i = 0; i < Board.DEFAULT_SIZE; i++) {
             if (i != y) 
-                moves.add(new Coordinate(x, i));
+                moves.add(Coordinate.of(x, i));
         }
         
         checkRep();
@@ -78,16 +90,13 @@ public class Rook implements Piece {
 
     @Override
     public boolean equals(Object other) {
+        if (this == other) {return true;}
         if (! (other instanceof Rook)) {return false;}
         
         Rook otherRook = (Rook) other; 
         
-        boolean moveSetSame = this.moveSet(D4_COORDINATE).equals(otherRook.moveSet(D4_COORDINATE));
-        boolean colorSame = this.color().equals(otherRook.color());
-        boolean movedSame = this.hasMoved() == otherRook.hasMoved();
-        
-        // considered equivalent if they have an equivalent moveSet when placed on d4
-        return  moveSetSame && colorSame && movedSame;
+        // considered equivalent if they have the same color and have both moved (or not)
+        return this.color == otherRook.color && this.moved == otherRook.moved;
     }
         
     @Override
@@ -97,9 +106,14 @@ public class Rook implements Piece {
     
     @Override
     public int hashCode() {
-        return moveSet(D4_COORDINATE).size() + (color().equals(PieceColor.BLACK) ? 0 : 1);
+        return Piece.code(PieceType.ROOK, color, moved);
     }
 
+    @Override
+    public PieceType type() {
+        return PieceType.ROOK;
+    }
+    
     @Override
     public boolean isPawn() {
         return false;
@@ -112,7 +126,7 @@ public class Rook implements Piece {
 
     @Override
     public Piece getMovedVersion() {
-        return new Rook(color, true);
+        return of(color, true);
     }
 
     @Override
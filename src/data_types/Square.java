@@ -40,7 +40,7 @@ public class Square {
      * @param y y-coordinate of square
      */
     public Square(int x, int y) {
-        this.coordinate = new Coordinate(x, y);
+        this.coordinate = Coordinate.of(x, y);
         this.occupied = false;
         this.piece = new EmptyPiece();
         checkRep();
@@ -0,0 +1,105 @@
+package data_types;
+
+/**
+ * Random keys for Zobrist hashing of BitBoard positions.
+ *
+ * The key of a position is the exclusive or of the key of every piece on its square, the
+ * key of the castling rights, the key of the file of the en passent square if there is one,
+ * and the side key if black is to move. Since exclusive or is its own inverse, making a move
+ * only has to flip the keys of what the move changes. The keys are generated once, when the
+ * class is loaded, using a fixed seed so that a position has the same key on every run.
+ *
+ * Squares and pieces are indexed as in BitBoard.
+ * @author bgalapon
+ */
+public final class Zobrist {
+    
+    private final static long[][] PIECES = new long[12][64];
+    private final static long[] CASTLING = new long[16];
+    private final static long[] EN_PASSENT = new long[8];
+    private final static long SIDE;
+    
+    // state of the random number generator used to generate the keys
+    private static long seed = 0x9E3779B97F4A7C15L;
+    
+    static {
+        for (int piece = 0; piece < PIECES.length; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECES[piece][square] = nextRandom();
+            }
+        }
+        
+        // castling rights hash as the union of a key for each right, so that losing
+        // one right flips the same key no matter which others remain
+        long[] rights = {nextRandom(), nextRandom(), nextRandom(), nextRandom()};
+        for (int castling = 0; castling < CASTLING.length; castling++) {
+            for (int right = 0; right < rights.length; right++) {
+                if ((castling & (1 << right)) != 0) {
+                    CASTLING[castling] ^= rights[right];
+                }
+            }
+        }
+        
+        for (int file = 0; file < EN_PASSENT.length; file++) {
+            EN_PASSENT[file] = nextRandom();
+        }
+        SIDE = nextRandom();
+    }
+    
+    private Zobrist() {
+        // not instantiable
+    }
+    
+    /**
+     * Retrieve the key of a piece on a square
+     * @param piece piece index of the piece
+     * @param square square of the piece
+     * @return the key of piece standing on square
+     */
+    public static long piece(int piece, int square) {
+        return PIECES[piece][square];
+    }
+    
+    /**
+     * Retrieve the key of a set of castling rights
+     * @param castlingRights a bitwise union of BitBoard.WHITE_KINGSIDE, BitBoard.WHITE_QUEENSIDE,
+     *          BitBoard.BLACK_KINGSIDE and BitBoard.BLACK_QUEENSIDE
+     * @return the key of castlingRights
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+    
+    /**
+     * Retrieve the key of an en passent square
+     * @param square the en passent square, or BitBoard.NO_SQUARE
+     * @return the key of the file of square, or 0 if square is BitBoard.NO_SQUARE
+     */
+    public static long enPassent(int square) {
+        return (square == BitBoard.NO_SQUARE) ? 0L : EN_PASSENT[BitBoard.file(square)];
+    }
+    
+    /**
+     * Retrieve the key of the side to move
+     * @param color BitBoard.WHITE or BitBoard.BLACK
+     * @return the key of color being the side to move
+     */
+    public static long side(int color) {
+        return (color == BitBoard.BLACK) ? SIDE : 0L;
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Retrieve the next number of a splitmix64 random number generator
+     * @return the next pseudo-random number
+     */
+    private static long nextRandom() {
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
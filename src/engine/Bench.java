@@ -0,0 +1,118 @@
+package engine;
+
+import data_types.Board;
+
+/**
+ * Search benchmark driver, which searches a fixed set of positions to a fixed depth with each
+ * selective-search technique of SearchOptions on its own and all together, and reports how many
+ * fewer nodes each needs than a full-width search, and how often the pawn hash table and the
+ * evaluation cache hit.
+ *
+ * Usage: java engine.Bench [depth] [fen]
+ *  - depth is the number of moves to look ahead, 6 if omitted
+ *  - fen is the only position to search, the built-in positions if omitted
+ * @author Bryson
+ */
+public class Bench {
+    
+    public final static int DEFAULT_DEPTH = 6;
+    
+    // typical middlegames and a few endgames, where null moves are dangerous
+    public final static String[] POSITIONS = {
+        "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8",
+        "r2q1rk1/1b2bppp/p2ppn2/1p6/3NP3/1BN1B3/PPP2PPP/R2QR1K1 w - - 0 12",
+        "2r2rk1/pp1bqpp1/2nppn1p/8/2PNP3/2N1B3/PP2BPPP/2RQ1RK1 w - - 0 14",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1",
+    };
+    
+    private Bench() {
+        // not instantiable
+    }
+    
+    /**
+     * Run the benchmark from the command line, printing the nodes, time, nodes per second, node
+     * reduction, average pawn hash hit rate and evaluation cache hit rate of each configuration
+     * @param args an optional depth, followed by an optional position in FEN
+     */
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        
+        String[] fens = POSITIONS;
+        if (args.length > 1) {
+            StringBuilder fields = new StringBuilder();
+            for (int i = 1; i < args.length; i++) {
+                fields.append(args[i]).append(' ');
+            }
+            fens = new String[] {fields.toString().trim()};
+        }
+        
+        SearchOptions none = SearchOptions.FULL_WIDTH;
+        String[] names = {"full width", "null move", "late-move reductions", "futility", "razoring",
+            "pvs", "aspiration windows", "all"};
+        SearchOptions[] configurations = {
+            none,
+            none.withNullMove(true),
+            none.withLateMoveReductions(true),
+            none.withFutility(true),
+            none.withRazoring(true),
+            none.withPvs(true),
+            none.withAspiration(true),
+            SearchOptions.DEFAULT,
+        };
+        
+        long baseline = 0;
+        for (int i = 0; i < configurations.length; i++) {
+            long start = System.nanoTime();
+            long nodes = 0;
+            int pawnHits = 0;
+            long evaluationHits = 0;
+            long evaluations = 0;
+            for (String fen : fens) {
+                Engine engine = engine(fen, configurations[i]);
+                nodes += engine.search(depth).nodes();
+                pawnHits += engine.pawnHashHitRate();
+                evaluationHits += engine.evaluationCacheHits();
+                evaluations += engine.evaluationCacheHits() + engine.evaluationCacheMisses();
+            }
+            long elapsed = Math.max(System.nanoTime() - start, 1);
+            if (i == 0) {
+                baseline = nodes;
+            }
+            
+            System.out.println(String.format("%-22s nodes %12d  time %7d ms  nps %9d  reduction %5.1f%%  pawn hits %5.1f%%  eval hits %5.1f%%",
+                    names[i], nodes, elapsed / 1000000, nodes * 1000000000L / elapsed,
+                    100.0 * (baseline - nodes) / baseline, pawnHits / 10.0 / fens.length,
+                    100.0 * evaluationHits / Math.max(evaluations, 1)));
+        }
+    }
+    
+    /**
+     * Search a position from scratch with a new single-threaded engine
+     * @param fen position to search
+     * @param depth number of moves to look ahead, 1 <= depth < Engine.MAX_PLY
+     * @param options selective-search techniques to use
+     * @return the result of the search
+     */
+    public static SearchResult search(String fen, int depth, SearchOptions options) {
+        return engine(fen, options).search(depth);
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Create a new single-threaded engine for a position
+     * @param fen position to search
+     * @param options selective-search techniques to use
+     * @return an engine running on fen that searches with options
+     */
+    private static Engine engine(String fen, SearchOptions options) {
+        Engine engine = new Engine(new Board(fen));
+        engine.setOptions(options);
+        return engine;
+    }
+}
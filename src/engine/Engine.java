@@ -1,32 +1,116 @@
 package engine;
 
+import java.util.List;
+
 import data_types.Board;
 import data_types.Move;
 
 /**
- * Represents a Chess Engine running on a Board
+ * Represents a Chess Engine running on a Board.
+ *
+ * The engine searches with negamax alpha-beta over packed moves, deepening one move at a time
+ * (iterative deepening). Results are cached in a transposition table, which cuts off positions
+ * reached again by another move order and supplies the move to try first in each position.
+ * Moves that are unlikely to matter are pruned or searched less deeply, as set by SearchOptions.
+ *
+ * With more than one thread the engine runs a Lazy SMP search: helper threads search the same
+ * position on their own copies of the board, starting at staggered depths, and only share work
+ * through the transposition table. The main thread decides the result, and the helpers are
+ * stopped as soon as it completes its last iteration.
+ *
+ * A search may be given a time or node budget. Searchers poll a flag and their budget every few
+ * hundred nodes, abandon the iteration in progress once either runs out, and the engine returns
+ * the result of the deepest iteration the main thread completed.
+ *
+ * Between searches the engine can ponder on the opponent's time: it searches the position after
+ * the reply it expects, without a budget, in the background. If the opponent plays that reply,
+ * the next search takes over the ponder search and only gives it the rest of its budget.
+ * Otherwise the ponder search is cancelled, and the next search starts from scratch, but with
+ * the transposition table it filled.
+ *
+ * An engine is not safe to use from several threads at once, except for stop().
  * @author Bryson
  */
 public class Engine {
+    
+    public final static int DEFAULT_DEPTH = 4;
+    public final static int DEFAULT_HASH_MEGABYTES = 16;
+    public final static int DEFAULT_PAWN_HASH_MEGABYTES = 1;
+    public final static int DEFAULT_EVALUATION_CACHE_MEGABYTES = 1;
+    public final static int DEFAULT_THREADS = 1;
+    public final static int MAX_THREADS = 256;
+    public final static int MAX_PLY = 64;
+    public final static int MATE = 32000;
+    
     private final Board board;
+    private final TranspositionTable table;
+    private final Searcher[] searchers;
+    private SearchOptions options = SearchOptions.DEFAULT;
+    private Network network;
+    
+    private Move expectedReply;
+    private long expectedKey;
+    private Thread ponderThread;
+    private long ponderKey;
+    private SearchResult ponderResult;
     
     // Abstraction Function:
-    // 
-    // Representation Invariant: 
-    // 
-    // Safety from Rep Exposure: 
+    //  - represents a chess engine that finds moves for the current position of board with
+    //     searchers.length threads, remembering the results of its searches in table
+    //  - searchers[0] is the search of the main thread, and the others are its helpers, all
+    //     of which prune and reduce moves as options say, and evaluate positions with network if
+    //     it is not null, or with the Evaluator otherwise
+    //  - the last search expects the opponent to play expectedReply, if not null, in the position
+    //     with Zobrist key expectedKey
+    //  - the engine is pondering if ponderThread is not null, on the position with Zobrist key
+    //     ponderKey, and ponderThread stores its result in ponderResult when it finishes
+    //
+    // Representation Invariant:
+    //  - 1 <= searchers.length <= MAX_THREADS
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private, and all but options and the pondering state are final
+    //  - board is shared with the caller on purpose, so that the engine follows the game, but
+    //     is never mutated: searchers run on copies of board
+    //  - search results and moves are immutable
     //
-    // TODO Do all of these
-    // 
-    // 
-    // 
     
     /**
-     * Create a new Engine that is running on a board
-     * @param board board to run engine on
+     * Create a new single-threaded Engine that is running on a board, with a transposition
+     * table of DEFAULT_HASH_MEGABYTES
+     * @param board board to run engine on, which the engine reads but never mutates
      */
     public Engine(Board board) {
+        this(board, DEFAULT_HASH_MEGABYTES, DEFAULT_THREADS);
+    }
+    
+    /**
+     * Create a new single-threaded Engine that is running on a board
+     * @param board board to run engine on, which the engine reads but never mutates
+     * @param hashMegabytes size of the transposition table in megabytes, hashMegabytes >= 1
+     * @throws IllegalArgumentException if hashMegabytes < 1
+     */
+    public Engine(Board board, int hashMegabytes) {
+        this(board, hashMegabytes, DEFAULT_THREADS);
+    }
+    
+    /**
+     * Create a new Engine that is running on a board
+     * @param board board to run engine on, which the engine reads but never mutates
+     * @param hashMegabytes size of the transposition table in megabytes, hashMegabytes >= 1
+     * @param threads number of threads to search with, 1 <= threads <= MAX_THREADS
+     * @throws IllegalArgumentException if hashMegabytes or threads is out of range
+     */
+    public Engine(Board board, int hashMegabytes, int threads) {
+        if (threads < 1 || threads > MAX_THREADS) {
+            throw new IllegalArgumentException("Threads must be between 1 and " + MAX_THREADS);
+        }
         this.board = board;
+        this.table = new TranspositionTable(hashMegabytes);
+        this.searchers = new Searcher[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher(table);
+        }
         checkRep();
     }
     
@@ -34,15 +118,306 @@ public class Engine {
      * Assert the Rep Invariant.
      */
     private void checkRep() {
-        // TODO finish this
+        assert 1 <= searchers.length && searchers.length <= MAX_THREADS;
     }
     
+    /**
+     * Start pondering in the background: search the position after the reply the last search
+     * expects the opponent to play, or the current position of the board if there is none, until
+     * the next search or stop(). Any pondering already in progress is cancelled first.
+     */
     public void start() {
-        // finish this, plus the specification
+        stopPondering();
+        
+        final Board position = new Board(board);
+        if (expectedReply != null && board.zobristKey() == expectedKey && position.legalMoves().contains(expectedReply)) {
+            position.move(expectedReply);
+        }
+        ponderKey = position.zobristKey();
+        prepare(position, new SearchLimits(MAX_PLY - 1, SearchLimits.UNLIMITED, SearchLimits.UNLIMITED));
+        
+        ponderThread = new Thread(new Runnable() {
+            public void run() {
+                ponderResult = execute(position);
+            }
+        }, "search-ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+    
+    /**
+     * Check whether the engine is pondering
+     * @return true if start() was called and no search or stop() has ended the pondering since
+     */
+    public boolean isPondering() {
+        return ponderThread != null;
+    }
+    
+    /**
+     * Change the selective-search techniques of the next searches. Any pondering in progress is
+     * cancelled first.
+     * @param options selective-search techniques to use
+     */
+    public void setOptions(SearchOptions options) {
+        stopPondering();
+        this.options = options;
+        for (Searcher searcher : searchers) {
+            searcher.configure(options);
+        }
+    }
+    
+    /**
+     * Change how the next searches evaluate positions. Any pondering in progress is cancelled first.
+     * @param network neural network to evaluate positions with, or null to evaluate them with the
+     *          Evaluator, which is what the engine does unless changed
+     */
+    public void setNetwork(Network network) {
+        stopPondering();
+        this.network = network;
+        for (Searcher searcher : searchers) {
+            searcher.setNetwork(network);
+        }
+    }
+    
+    /**
+     * Retrieve the neural network this engine evaluates positions with
+     * @return the network set with setNetwork, or null if this engine uses the Evaluator
+     */
+    public Network network() {
+        return network;
+    }
+    
+    /**
+     * Change the size of the pawn hash tables of the next searches, one for each thread, which
+     * start out empty. Any pondering in progress is cancelled first.
+     * @param megabytes memory to use for each table, megabytes >= 1; DEFAULT_PAWN_HASH_MEGABYTES
+     *          unless changed
+     * @throws IllegalArgumentException if megabytes < 1
+     */
+    public void setPawnHashSize(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Pawn hash table needs at least 1 MB");
+        }
+        stopPondering();
+        for (Searcher searcher : searchers) {
+            searcher.setPawnTable(new PawnHashTable(megabytes));
+        }
+    }
+    
+    /**
+     * Measure how often the pawn hash tables of this engine found the pawn structure of a position
+     *  - requires that no search is running
+     * @return the number of pawn hash table probes that hit per thousand probes, over all threads and
+     *          all searches since the tables were created, or 0 if there were none
+     */
+    public int pawnHashHitRate() {
+        long probes = 0;
+        long hits = 0;
+        for (Searcher searcher : searchers) {
+            probes += searcher.pawnTable().probes();
+            hits += searcher.pawnTable().hits();
+        }
+        return (probes == 0) ? 0 : (int) (hits * 1000 / probes);
+    }
+    
+    /**
+     * Change the size of the evaluation caches of the next searches, one for each thread, which
+     * start out empty. Any pondering in progress is cancelled first.
+     * @param megabytes memory to use for each cache, megabytes >= 1; DEFAULT_EVALUATION_CACHE_MEGABYTES
+     *          unless changed
+     * @throws IllegalArgumentException if megabytes < 1
+     */
+    public void setEvaluationCacheSize(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Evaluation cache needs at least 1 MB");
+        }
+        stopPondering();
+        for (Searcher searcher : searchers) {
+            searcher.setEvaluationCache(new EvaluationCache(megabytes));
+        }
+    }
+    
+    /**
+     * Count the evaluations of this engine that were found in its evaluation caches
+     *  - requires that no search is running
+     * @return the number of evaluation cache hits, over all threads and all searches since the
+     *          caches were created
+     */
+    public long evaluationCacheHits() {
+        long hits = 0;
+        for (Searcher searcher : searchers) {
+            hits += searcher.evaluationCache().hits();
+        }
+        return hits;
+    }
+    
+    /**
+     * Count the evaluations of this engine that were not found in its evaluation caches, and so
+     * were computed by the Evaluator
+     *  - requires that no search is running
+     * @return the number of evaluation cache misses, over all threads and all searches since the
+     *          caches were created
+     */
+    public long evaluationCacheMisses() {
+        long misses = 0;
+        for (Searcher searcher : searchers) {
+            misses += searcher.evaluationCache().misses();
+        }
+        return misses;
+    }
+    
+    /**
+     * Retrieve the selective-search techniques of this engine
+     * @return the selective-search techniques this engine searches with, SearchOptions.DEFAULT
+     *          unless changed with setOptions
+     */
+    public SearchOptions options() {
+        return options;
+    }
+    
+    /**
+     * Retrieve the number of threads this engine searches with
+     * @return the number of threads this engine searches with
+     */
+    public int threads() {
+        return searchers.length;
     }
     
+    /**
+     * Find the best move for the current position of the board
+     * @return the best move found by a search DEFAULT_DEPTH moves deep, or an undefined move if
+     *          the current player has no legal moves
+     */
     public Move getBestMove() {
-        // finish this, plus the specification
-        throw new RuntimeException("Unimplemented");
+        return search(DEFAULT_DEPTH).bestMove();
+    }
+    
+    /**
+     * Search the current position of the board, deepening one move at a time up to a maximum depth
+     * @param depth number of moves to look ahead, 1 <= depth < MAX_PLY
+     * @return the result of the deepest iteration of the main thread, with the nodes visited by all threads
+     * @throws IllegalArgumentException if depth is out of range
+     */
+    public SearchResult search(int depth) {
+        return search(SearchLimits.depth(depth));
+    }
+    
+    /**
+     * Search the current position of the board, deepening one move at a time until a limit is
+     * reached or the search is stopped. The first iteration always completes, so that there is a
+     * move to return.
+     *
+     * If the engine is pondering on the current position of the board, the ponder search
+     * continues under limits, which count from the start of the pondering. Otherwise the
+     * pondering is cancelled and a new search starts.
+     * @param limits depth, time and node budget of the search
+     * @return the result of the deepest iteration the main thread completed, with the nodes visited by all threads
+     */
+    public SearchResult search(SearchLimits limits) {
+        SearchResult result;
+        if (ponderThread != null && board.zobristKey() == ponderKey) {
+            searchers[0].limit(limits.depth(), limits.millis(), limits.nodes());
+            join(ponderThread);
+            ponderThread = null;
+            result = ponderResult;
+        } else {
+            stopPondering();
+            prepare(board, limits);
+            result = execute(board);
+        }
+        
+        List<Move> line = result.principalVariation();
+        expectedReply = null;
+        if (line.size() >= 2) {
+            Board next = new Board(board);
+            next.move(line.get(0));
+            expectedReply = line.get(1);
+            expectedKey = next.zobristKey();
+        }
+        
+        checkRep();
+        return result;
+    }
+    
+    /**
+     * Stop the search or pondering in progress as soon as possible. The search still returns the
+     * result of its deepest completed iteration. May be called from any thread.
+     */
+    public void stop() {
+        searchers[0].stop();
+    }
+    
+    /**
+     * Stop pondering, if the engine is pondering, and wait for the ponder search to finish. The
+     * transposition table keeps what it learned.
+     */
+    public void stopPondering() {
+        if (ponderThread != null) {
+            searchers[0].stop();
+            join(ponderThread);
+            ponderThread = null;
+        }
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Prepare the main thread to search a position, on the calling thread so that its budget
+     * may be replaced as soon as this returns
+     * @param position position to search, which is never mutated
+     * @param limits depth, time and node budget of the search
+     */
+    private void prepare(Board position, SearchLimits limits) {
+        table.newSearch();
+        searchers[0].reset(position, 1, limits.depth(), limits.millis(), limits.nodes());
+    }
+    
+    /**
+     * Run the search the main thread was prepared for, with the helpers of the engine
+     * @param position position the main thread was prepared to search, which is never mutated
+     * @return the result of the deepest iteration the main thread completed, with the nodes visited by all threads
+     */
+    private SearchResult execute(Board position) {
+        // helpers keep deepening until stopped, odd ones a move ahead of the even ones
+        Thread[] helpers = new Thread[searchers.length];
+        for (int i = 1; i < searchers.length; i++) {
+            searchers[i].reset(position, 1 + (i & 1), MAX_PLY - 1);
+            helpers[i] = new Thread(searchers[i], "search-helper-" + i);
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        
+        Searcher main = searchers[0];
+        main.run();
+        
+        long nodes = main.nodes();
+        for (int i = 1; i < searchers.length; i++) {
+            searchers[i].stop();
+            join(helpers[i]);
+            nodes += searchers[i].nodes();
+        }
+        
+        return new SearchResult(main.completedScore(), main.completedDepth(), nodes, main.principalVariation());
+    }
+    
+    /**
+     * Wait for a thread to finish, even if the calling thread is interrupted while waiting
+     * @param thread thread to wait for
+     */
+    private static void join(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,125 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size, direct-mapped cache of static evaluations, indexed by Zobrist key.
+ *
+ * A search reaches many of its leaves more than once, through transpositions and through the
+ * quiescence search re-evaluating positions the main search evaluated already, so the score of a
+ * position is looked up here before the Evaluator runs. Each entry is a single long holding the
+ * upper 48 bits of the key and a 16-bit score, and a store replaces whatever the entry held. The
+ * cache counts its hits and misses, so that its hit rate can be measured.
+ *
+ * Caches are not thread-safe: each search thread has its own.
+ * @author Bryson
+ */
+public class EvaluationCache {
+    
+    public final static int NO_SCORE = Integer.MIN_VALUE;
+    
+    private final static int BYTES_PER_ENTRY = 8;
+    private final static long KEY_MASK = ~0xFFFFL;
+    
+    private final long[] entries;
+    private final int mask;
+    private long hits;
+    private long misses;
+    
+    // Abstraction Function:
+    //  - represents a cache holding, for each index i with entries[i] != 0, the score
+    //     (short) entries[i] of the positions whose Zobrist key has the upper 48 bits of entries[i]
+    //  - hits and misses are the numbers of probes since the cache was created or cleared that
+    //     found a score and that did not
+    //
+    // Rep Invariant:
+    //  - entries.length == mask + 1, a power of two
+    //  - hits >= 0, misses >= 0
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private
+    //  - all inputs and outputs are primitives
+    //
+    
+    /**
+     * Create an empty evaluation cache
+     * @param megabytes memory to use, rounded down to a power of two number of entries, megabytes >= 1
+     * @throws IllegalArgumentException if megabytes < 1
+     */
+    public EvaluationCache(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Evaluation cache needs at least 1 MB");
+        }
+        int size = Integer.highestOneBit((int) Math.min((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY, 1 << 30));
+        entries = new long[size];
+        mask = size - 1;
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert entries.length == mask + 1;
+        assert Integer.bitCount(entries.length) == 1;
+        assert hits >= 0 && misses >= 0;
+    }
+    
+    /**
+     * Retrieve the number of entries of this cache
+     * @return the number of positions this cache can hold at once
+     */
+    public int size() {
+        return entries.length;
+    }
+    
+    /**
+     * Remove every entry of this cache and reset its counters
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+        hits = 0;
+        misses = 0;
+    }
+    
+    /**
+     * Look up the evaluation of a position
+     * @param key Zobrist key of the position
+     * @return the score stored for the position, or NO_SCORE if this cache holds none
+     */
+    public int probe(long key) {
+        long entry = entries[(int) key & mask];
+        if (entry != 0L && ((entry ^ key) & KEY_MASK) == 0) {
+            hits++;
+            return (short) entry;
+        }
+        misses++;
+        return NO_SCORE;
+    }
+    
+    /**
+     * Store the evaluation of a position, replacing the entry it maps to
+     * @param key Zobrist key of the position
+     * @param score static evaluation of the position, -32768 <= score < 32768
+     */
+    public void store(long key, int score) {
+        assert (short) score == score;
+        entries[(int) key & mask] = (key & KEY_MASK) | (score & 0xFFFFL);
+    }
+    
+    /**
+     * Retrieve the number of hits of this cache
+     * @return the number of probes since this cache was created or cleared that found a score
+     */
+    public long hits() {
+        return hits;
+    }
+    
+    /**
+     * Retrieve the number of misses of this cache
+     * @return the number of probes since this cache was created or cleared that found no score
+     */
+    public long misses() {
+        return misses;
+    }
+}
@@ -0,0 +1,269 @@
+package engine;
+
+import data_types.Attacks;
+import data_types.BitBoard;
+import data_types.Board;
+import data_types.PieceColor;
+import data_types.PieceSquare;
+import data_types.PieceType;
+
+/**
+ * Static evaluation of chess positions for the Engine.
+ *
+ * A position is scored by its material plus a tapered score: every other term has a middlegame
+ * and an endgame score, packed into one int as by PieceSquare.score, and the sum of the terms is
+ * blended by the phase of the game, so that the evaluation slides smoothly from one to the other
+ * as pieces come off the board. The terms are
+ *  - piece-square scores, kept up to date by the board as moves are made and unmade
+ *  - mobility, the squares each knight, bishop, rook and queen attacks that are neither occupied
+ *     by its own pieces nor attacked by enemy pawns
+ *  - pawn structure: doubled, isolated, backward and passed pawns, which only depends on where
+ *     the pawns are and can be looked up in a PawnHashTable
+ *  - king safety: the pawns shielding each king, and the pieces attacking the squares around it
+ *
+ * Evaluation never looks for checkmate or stalemate: the search detects those when a position
+ * has no legal moves.
+ * @author Bryson
+ */
+public final class Evaluator {
+    
+    private final static PieceType[] TYPES = PieceType.values();
+    
+    // bonus per square a knight, bishop, rook or queen can safely move to
+    private final static int[] MOBILITY = {
+        0, PieceSquare.score(4, 4), PieceSquare.score(3, 5), PieceSquare.score(2, 4), PieceSquare.score(1, 2), 0,
+    };
+    
+    private final static int DOUBLED = PieceSquare.score(-10, -25);
+    private final static int ISOLATED = PieceSquare.score(-10, -15);
+    private final static int BACKWARD = PieceSquare.score(-8, -10);
+    
+    // bonus of a passed pawn by its rank, counted from its own side of the board
+    private final static int[] PASSED = {
+        0, PieceSquare.score(0, 5), PieceSquare.score(5, 10), PieceSquare.score(10, 20),
+        PieceSquare.score(20, 40), PieceSquare.score(35, 70), PieceSquare.score(60, 110), 0,
+    };
+    
+    // bonus per pawn in front of its own king
+    private final static int SHIELD = PieceSquare.score(10, 0);
+    
+    // weight of each square around the enemy king a knight, bishop, rook or queen attacks
+    private final static int[] KING_ATTACK = {0, 2, 2, 3, 5, 0};
+    private final static int MAX_KING_DANGER = 400;
+    
+    private final static long[] ADJACENT_FILES = new long[8];
+    
+    // FRONT[color][square] is the squares in front of square on its file, from the point of
+    // view of color, PASSED_SPAN[color][square] those on its file and the adjacent files,
+    // SUPPORT[color][square] the squares on the adjacent files not in front of square, and
+    // SHIELD_ZONE[color][square] the squares one and two ranks in front of a king on square
+    private final static long[][] FRONT = new long[2][64];
+    private final static long[][] PASSED_SPAN = new long[2][64];
+    private final static long[][] SUPPORT = new long[2][64];
+    private final static long[][] SHIELD_ZONE = new long[2][64];
+    
+    static {
+        for (int file = 0; file < 8; file++) {
+            long left = (file > 0) ? BitBoard.FILE_A << (file - 1) : 0L;
+            long right = (file < 7) ? BitBoard.FILE_A << (file + 1) : 0L;
+            ADJACENT_FILES[file] = left | right;
+        }
+        
+        for (int square = 0; square < 64; square++) {
+            int file = BitBoard.file(square);
+            int rank = BitBoard.rank(square);
+            long files = (BitBoard.FILE_A << file) | ADJACENT_FILES[file];
+            
+            long above = (rank < 7) ? -1L << (8 * (rank + 1)) : 0L;
+            long below = (1L << (8 * rank)) - 1;
+            FRONT[BitBoard.WHITE][square] = (BitBoard.FILE_A << file) & above;
+            FRONT[BitBoard.BLACK][square] = (BitBoard.FILE_A << file) & below;
+            PASSED_SPAN[BitBoard.WHITE][square] = files & above;
+            PASSED_SPAN[BitBoard.BLACK][square] = files & below;
+            SUPPORT[BitBoard.WHITE][square] = ADJACENT_FILES[file] & ~above;
+            SUPPORT[BitBoard.BLACK][square] = ADJACENT_FILES[file] & ~below;
+            
+            long whiteRanks = (rank < 6) ? (BitBoard.RANK_1 << (8 * (rank + 1))) | (BitBoard.RANK_1 << (8 * (rank + 2))) : 0L;
+            long blackRanks = (rank > 1) ? (BitBoard.RANK_1 << (8 * (rank - 1))) | (BitBoard.RANK_1 << (8 * (rank - 2))) : 0L;
+            SHIELD_ZONE[BitBoard.WHITE][square] = files & whiteRanks;
+            SHIELD_ZONE[BitBoard.BLACK][square] = files & blackRanks;
+        }
+    }
+    
+    private Evaluator() {
+        // not instantiable
+    }
+    
+    /**
+     * Retrieve the value of a type of piece
+     * @param type type of piece, not PieceType.NONE
+     * @return the value of a piece of type type in centipawns, 0 for kings
+     */
+    public static int value(PieceType type) {
+        return PieceSquare.value(type.ordinal());
+    }
+    
+    /**
+     * Evaluate a position without searching it
+     *  - does not detect checkmate or stalemate
+     * @param board position to evaluate, with a king of each color
+     * @return the score of board in centipawns, from the point of view of the side to move
+     */
+    public static int evaluate(Board board) {
+        long whitePawns = board.pieces(PieceColor.WHITE, PieceType.PAWN);
+        long blackPawns = board.pieces(PieceColor.BLACK, PieceType.PAWN);
+        return evaluate(board, pawns(whitePawns, blackPawns));
+    }
+    
+    /**
+     * Evaluate a position without searching it, looking its pawn structure up in a pawn hash table
+     *  - does not detect checkmate or stalemate
+     * @param board position to evaluate, with a king of each color
+     * @param pawnTable table to look the pawn structure of board up in, and store it in if it is not there
+     * @return the score of board in centipawns, from the point of view of the side to move, the
+     *          same as evaluate(board)
+     */
+    public static int evaluate(Board board, PawnHashTable pawnTable) {
+        long whitePawns = board.pieces(PieceColor.WHITE, PieceType.PAWN);
+        long blackPawns = board.pieces(PieceColor.BLACK, PieceType.PAWN);
+        return evaluate(board, pawnTable.probe(board.pawnKey(), whitePawns, blackPawns));
+    }
+    
+    /**
+     * Score the pawn structure of a position
+     * @param whitePawns squares of the white pawns, where bit 8*y + x is set for square (x, y)
+     * @param blackPawns squares of the black pawns, in the same form
+     * @return the packed score of the doubled, isolated, backward and passed pawns of both sides,
+     *          from white's point of view
+     */
+    public static int pawns(long whitePawns, long blackPawns) {
+        return pawns(BitBoard.WHITE, whitePawns, blackPawns) - pawns(BitBoard.BLACK, blackPawns, whitePawns);
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Evaluate a position whose pawn structure is already scored
+     * @param board position to evaluate, with a king of each color
+     * @param pawns packed pawn structure score of board, as given by pawns
+     * @return the score of board in centipawns, from the point of view of the side to move
+     */
+    private static int evaluate(Board board, int pawns) {
+        int score = board.positional() + pawns
+                + pieces(board, PieceColor.WHITE, PieceColor.BLACK) - pieces(board, PieceColor.BLACK, PieceColor.WHITE)
+                + shield(board, PieceColor.WHITE) - shield(board, PieceColor.BLACK);
+        
+        int eval = board.material() + PieceSquare.blend(score, board.phase());
+        return board.turn().equals(PieceColor.WHITE) ? eval : -eval;
+    }
+    
+    /**
+     * Score the mobility of the pieces of a color and their attacks on the enemy king
+     * @param board position to evaluate
+     * @param color color of the pieces to score
+     * @param enemy the other color
+     * @return the packed mobility and king attack score of the knights, bishops, rooks and queens
+     *          of color, from the point of view of color
+     */
+    private static int pieces(Board board, PieceColor color, PieceColor enemy) {
+        long own = board.occupancy(color);
+        long occupied = own | board.occupancy(enemy);
+        int enemyIndex = enemy.equals(PieceColor.WHITE) ? BitBoard.WHITE : BitBoard.BLACK;
+        long safe = ~own & ~BitBoard.pawnAttacks(enemyIndex, board.pieces(enemy, PieceType.PAWN));
+        
+        int king = Long.numberOfTrailingZeros(board.pieces(enemy, PieceType.KING));
+        long kingZone = Attacks.king(king) | (1L << king);
+        
+        int score = 0;
+        int attackers = 0;
+        int attackWeight = 0;
+        for (int type = BitBoard.KNIGHT; type <= BitBoard.QUEEN; type++) {
+            long remaining = board.pieces(color, TYPES[type]);
+            while (remaining != 0) {
+                int square = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                
+                long attacks = attacks(type, square, occupied);
+                score += MOBILITY[type] * Long.bitCount(attacks & safe);
+                
+                int zoneAttacks = Long.bitCount(attacks & kingZone);
+                attackers += Math.min(zoneAttacks, 1);
+                attackWeight += KING_ATTACK[type] * zoneAttacks;
+            }
+        }
+        
+        // a lone attacker is easily parried, while every extra one makes the attack far stronger
+        int danger = (attackers >= 2) ? Math.min(attackWeight * attackWeight / 4, MAX_KING_DANGER) : 0;
+        return score + PieceSquare.score(danger, danger / 4);
+    }
+    
+    /**
+     * Retrieve the squares a knight, bishop, rook or queen attacks
+     * @param type type of the piece, BitBoard.KNIGHT to BitBoard.QUEEN
+     * @param square square of the piece
+     * @param occupied occupied squares of the position
+     * @return the squares the piece attacks
+     */
+    private static long attacks(int type, int square, long occupied) {
+        switch (type) {
+        case BitBoard.KNIGHT:
+            return Attacks.knight(square);
+        case BitBoard.BISHOP:
+            return Attacks.bishop(square, occupied);
+        case BitBoard.ROOK:
+            return Attacks.rook(square, occupied);
+        default:
+            return Attacks.queen(square, occupied);
+        }
+    }
+    
+    /**
+     * Score the pawns of one color
+     * @param color BitBoard.WHITE or BitBoard.BLACK
+     * @param own squares of the pawns of color
+     * @param enemy squares of the pawns of the other color
+     * @return the packed score of the doubled, isolated, backward and passed pawns of color,
+     *          from the point of view of color
+     */
+    private static int pawns(int color, long own, long enemy) {
+        long enemyAttacks = BitBoard.pawnAttacks(1 - color, enemy);
+        int score = 0;
+        long remaining = own;
+        while (remaining != 0) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            
+            // a backward pawn has no pawns beside or behind it to support its advance, which an enemy pawn stops
+            int stop = (color == BitBoard.WHITE) ? square + 8 : square - 8;
+            if ((own & ADJACENT_FILES[BitBoard.file(square)]) == 0) {
+                score += ISOLATED;
+            } else if ((own & SUPPORT[color][square]) == 0 && (enemyAttacks & (1L << stop)) != 0) {
+                score += BACKWARD;
+            }
+            
+            // the pawn behind is the doubled one, and only the front pawn can be passed
+            if ((own & FRONT[color][square]) != 0) {
+                score += DOUBLED;
+            } else if ((enemy & PASSED_SPAN[color][square]) == 0) {
+                int rank = BitBoard.rank(square);
+                score += PASSED[(color == BitBoard.WHITE) ? rank : 7 - rank];
+            }
+        }
+        return score;
+    }
+    
+    /**
+     * Score the pawns shielding the king of a color
+     * @param board position to evaluate
+     * @param color color of the king
+     * @return the packed score of the pawns of color in front of its king, from the point of view
+     *          of color
+     */
+    private static int shield(Board board, PieceColor color) {
+        int index = color.equals(PieceColor.WHITE) ? BitBoard.WHITE : BitBoard.BLACK;
+        int king = Long.numberOfTrailingZeros(board.pieces(color, PieceType.KING));
+        return SHIELD * Long.bitCount(board.pieces(color, PieceType.PAWN) & SHIELD_ZONE[index][king]);
+    }
+}
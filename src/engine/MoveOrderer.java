@@ -0,0 +1,251 @@
+package engine;
+
+import data_types.Board;
+import data_types.MoveList;
+import data_types.PackedMove;
+import data_types.PieceColor;
+import data_types.PieceType;
+
+/**
+ * Orders the moves of a search so that the moves most likely to cause a beta cutoff are tried
+ * first. Moves are scored in stages, each stage ranking above the next:
+ *  - the hash move, the best move stored for the position in the transposition table
+ *  - captures and promotions that do not lose material by static exchange evaluation (SEE),
+ *     by most valuable victim, least valuable attacker (MVV-LVA)
+ *  - the two killer moves of the ply, quiet moves that caused a cutoff in a sibling position
+ *  - the counter move, the quiet move that last refuted the opponent's previous move
+ *  - every other quiet move, by its butterfly history score
+ *  - captures and promotions that lose material by SEE, by MVV-LVA
+ *
+ * Scores are written to a caller-supplied array and moves are picked from it by selection,
+ * so ordering never allocates. Each search thread has its own orderer.
+ * @author Bryson
+ */
+class MoveOrderer {
+    
+    private final static int HASH_MOVE = 1 << 30;
+    private final static int CAPTURE = 1 << 28;
+    private final static int KILLER = 1 << 27;
+    private final static int COUNTER_MOVE = 1 << 26;
+    private final static int BAD_CAPTURE = -(1 << 26);
+    
+    // history scores stay within [-MAX_HISTORY, MAX_HISTORY], well below the counter move stage
+    // and well above the bad capture stage
+    private final static int MAX_HISTORY = 1 << 14;
+    
+    private final static PieceType[] TYPES = PieceType.values();
+    
+    private final int[][] killers = new int[Engine.MAX_PLY][2];
+    private final int[][] counterMoves = new int[64][64];
+    private final int[][][] history = new int[2][64][64];
+    
+    // Abstraction Function:
+    //  - represents the ordering knowledge gathered by a search: killers[ply] are the last two
+    //     quiet moves that caused a cutoff ply moves below the root, most recent first,
+    //     counterMoves[from][to] is the quiet move that last refuted the move from from to to,
+    //     and history[color][from][to] is how often the quiet move from from to to of side color
+    //     caused a cutoff, weighed by depth, minus how often it failed to
+    //
+    // Rep Invariant:
+    //  - -MAX_HISTORY <= history[color][from][to] <= MAX_HISTORY
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private
+    //  - all inputs and outputs are primitives or immutable, except for the move lists and
+    //     score arrays of the caller, which are only written to as specified
+    //
+    
+    /**
+     * Create an orderer with no ordering knowledge
+     */
+    MoveOrderer() {
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int score : from) {
+                    assert -MAX_HISTORY <= score && score <= MAX_HISTORY;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Prepare for a new search: forget the killers, which belong to the positions of the last
+     * search, and halve the history scores so that recent results weigh more
+     */
+    void newSearch() {
+        for (int[] pair : killers) {
+            pair[0] = PackedMove.NONE;
+            pair[1] = PackedMove.NONE;
+        }
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < 64; to++) {
+                    from[to] /= 2;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Score the moves of a position for ordering
+     * @param position position the moves were generated for
+     * @param list moves of position
+     * @param scores array to write the score of each move of list to, at the same index
+     * @param ply number of moves played from the root of the search to position
+     * @param hashMove move to try first, or PackedMove.NONE
+     * @param previousMove move that led to position, or PackedMove.NONE
+     */
+    void score(Board position, MoveList list, int[] scores, int ply, int hashMove, int previousMove) {
+        int color = side(position);
+        int counter = (previousMove == PackedMove.NONE) ? PackedMove.NONE
+                : counterMoves[PackedMove.from(previousMove)][PackedMove.to(previousMove)];
+        int[] killer = killers[ply];
+        
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE;
+            } else if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                scores[i] = (position.seeGreaterOrEqual(move, 0) ? CAPTURE : BAD_CAPTURE) + mvvLva(position, move);
+            } else if (move == killer[0]) {
+                scores[i] = KILLER + 1;
+            } else if (move == killer[1]) {
+                scores[i] = KILLER;
+            } else if (move == counter) {
+                scores[i] = COUNTER_MOVE;
+            } else {
+                scores[i] = history[color][PackedMove.from(move)][PackedMove.to(move)];
+            }
+        }
+    }
+    
+    /**
+     * Score the captures and promotions of a position for ordering by MVV-LVA
+     * @param position position the moves were generated for
+     * @param list moves of position
+     * @param scores array to write the score of each move of list to, at the same index
+     */
+    void scoreCaptures(Board position, MoveList list, int[] scores) {
+        for (int i = 0; i < list.size(); i++) {
+            scores[i] = mvvLva(position, list.get(i));
+        }
+    }
+    
+    /**
+     * Record that a move caused a beta cutoff, rewarding it if it is quiet and penalizing the
+     * quiet moves tried before it
+     * @param position position the move was made in, with the move taken back
+     * @param list moves of position, in the order they were tried
+     * @param index index of the move that caused the cutoff in list
+     * @param ply number of moves played from the root of the search to position
+     * @param depth number of moves position was searched ahead
+     * @param previousMove move that led to position, or PackedMove.NONE
+     */
+    void recordCutoff(Board position, MoveList list, int index, int ply, int depth, int previousMove) {
+        int move = list.get(index);
+        if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+            return;
+        }
+        
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (previousMove != PackedMove.NONE) {
+            counterMoves[PackedMove.from(previousMove)][PackedMove.to(previousMove)] = move;
+        }
+        
+        int color = side(position);
+        int bonus = Math.min(depth * depth, MAX_HISTORY);
+        updateHistory(color, move, bonus);
+        for (int i = 0; i < index; i++) {
+            int tried = list.get(i);
+            if (!PackedMove.isCapture(tried) && !PackedMove.isPromotion(tried)) {
+                updateHistory(color, tried, -bonus);
+            }
+        }
+    }
+    
+    /**
+     * Swap the move with the highest score among the moves not tried yet into the next slot
+     * @param list moves of a position
+     * @param scores scores of the moves of list, swapped along with them
+     * @param next index of the next move to try, all moves before it have been tried
+     * @return the move with the highest score at or after next
+     */
+    static int pickNext(MoveList list, int[] scores, int next) {
+        int best = next;
+        for (int i = next + 1; i < list.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        
+        int move = list.get(best);
+        int score = scores[best];
+        list.set(best, list.get(next));
+        scores[best] = scores[next];
+        list.set(next, move);
+        scores[next] = score;
+        return move;
+    }
+    
+    /**
+     * Retrieve the type of the piece a move captures
+     * @param position position the move was generated for
+     * @param move packed move of position
+     * @return the type of the piece move captures, or PieceType.NONE if it captures nothing
+     */
+    static PieceType capturedType(Board position, int move) {
+        return (PackedMove.flags(move) == PackedMove.EN_PASSENT) ? PieceType.PAWN : position.pieceTypeAt(PackedMove.to(move));
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Score a move by most valuable victim, least valuable attacker: captures of more valuable
+     * pieces come first, and among captures of the same piece, those made with less valuable
+     * pieces. Promotions count the promoted piece as part of the victim.
+     * @param position position the move was generated for
+     * @param move packed move of position
+     * @return the MVV-LVA score of move, higher for moves to try earlier
+     */
+    private static int mvvLva(Board position, int move) {
+        int victim = PackedMove.isCapture(move) ? Evaluator.value(capturedType(position, move)) : 0;
+        if (PackedMove.isPromotion(move)) {
+            victim += Evaluator.value(TYPES[PackedMove.promotionType(move)]) - Evaluator.value(PieceType.PAWN);
+        }
+        return 16 * victim - position.pieceTypeAt(PackedMove.from(move)).ordinal();
+    }
+    
+    /**
+     * Move the history score of a quiet move towards a bound, more slowly the closer it is,
+     * so that scores never leave [-MAX_HISTORY, MAX_HISTORY]
+     * @param color side that made the move, 0 for white and 1 for black
+     * @param move quiet packed move
+     * @param bonus amount to add, -MAX_HISTORY <= bonus <= MAX_HISTORY
+     */
+    private void updateHistory(int color, int move, int bonus) {
+        int[] scores = history[color][PackedMove.from(move)];
+        int to = PackedMove.to(move);
+        scores[to] += bonus - scores[to] * Math.abs(bonus) / MAX_HISTORY;
+    }
+    
+    /**
+     * Retrieve the side to move of a position as an index
+     * @param position position to look at
+     * @return 0 if white is to move in position, 1 if black is
+     */
+    private static int side(Board position) {
+        return position.turn().equals(PieceColor.WHITE) ? 0 : 1;
+    }
+}
@@ -0,0 +1,214 @@
+package engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import data_types.Accumulator;
+import data_types.BitBoard;
+import data_types.PieceColor;
+
+/**
+ * An efficiently updatable neural network (NNUE) that evaluates chess positions, as an
+ * alternative to the hand-written terms of the Evaluator.
+ *
+ * The network has a single hidden layer. Its inputs are the pieces on their squares, seen from
+ * both sides, and its first layer is an Accumulator that the board keeps up to date as moves are
+ * made and unmade. Evaluating a position clips the hidden neurons of the side to move and of the
+ * other side to [0, ACTIVATION_MAX] and multiplies them with the output weights. All arithmetic is
+ * on integers: the first layer is quantized to 16 bits, scaled by ACTIVATION_MAX, and the output
+ * layer to 8 bits, scaled by OUTPUT_SCALE.
+ *
+ * Networks are stored in a compact binary file, with every value big-endian as written by a
+ * DataOutputStream:
+ *  - the int MAGIC, the int VERSION and the int number of hidden neurons h
+ *  - the short first layer weights, Accumulator.INPUTS * h of them, feature by feature
+ *  - the short first layer biases, h of them
+ *  - the byte output weights, h for the side to move followed by h for the other side
+ *  - the int output bias
+ * @author Bryson
+ */
+public class Network {
+    
+    public final static int MAGIC = 0x4E4E5545;
+    public final static int VERSION = 1;
+    public final static int MAX_HIDDEN = 4096;
+    
+    // quantization: hidden neurons are clipped to ACTIVATION_MAX, output weights are scaled by
+    // OUTPUT_SCALE, and the output is scaled by EVALUATION_SCALE into centipawns
+    public final static int ACTIVATION_MAX = 255;
+    public final static int OUTPUT_SCALE = 64;
+    public final static int EVALUATION_SCALE = 400;
+    
+    // largest score the network may give, so that it is never mistaken for a mate score
+    private final static int MAX_SCORE = Engine.MATE - Engine.MAX_PLY - 1;
+    
+    private final short[] weights;
+    private final short[] biases;
+    private final byte[] outputWeights;
+    private final int outputBias;
+    
+    // Abstraction Function:
+    //  - represents a network with biases.length hidden neurons, where weights[f*h + i] is the
+    //     weight of feature f for hidden neuron i and biases[i] its bias, outputWeights[i] is the
+    //     weight of hidden neuron i of the side to move and outputWeights[h + i] that of the other
+    //     side, and outputBias is the bias of the output
+    //
+    // Rep Invariant:
+    //  - 0 < biases.length <= MAX_HIDDEN
+    //  - weights.length == Accumulator.INPUTS * biases.length, outputWeights.length == 2 * biases.length
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private and final
+    //  - the arrays are copies of the ones passed in or fresh arrays read from a file, and are
+    //     only shared with the accumulators made by newAccumulator, which never mutate them
+    //
+    
+    /**
+     * Create a network from its weights
+     * @param weights first layer weights, where weights[f*h + i] is the weight of feature f for
+     *          hidden neuron i, as for Accumulator
+     * @param biases first layer biases, one for each of the h hidden neurons, 0 < h <= MAX_HIDDEN
+     * @param outputWeights output weights, h for the hidden neurons of the side to move followed
+     *          by h for those of the other side
+     * @param outputBias output bias
+     * @throws IllegalArgumentException if the sizes of the layers do not agree
+     */
+    public Network(short[] weights, short[] biases, byte[] outputWeights, int outputBias) {
+        int hidden = biases.length;
+        if (hidden < 1 || hidden > MAX_HIDDEN) {
+            throw new IllegalArgumentException("Network must have between 1 and " + MAX_HIDDEN + " hidden neurons");
+        }
+        if (weights.length != Accumulator.INPUTS * hidden || outputWeights.length != 2 * hidden) {
+            throw new IllegalArgumentException("Layers of the network do not agree in size");
+        }
+        this.weights = weights.clone();
+        this.biases = biases.clone();
+        this.outputWeights = outputWeights.clone();
+        this.outputBias = outputBias;
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert 0 < biases.length && biases.length <= MAX_HIDDEN;
+        assert weights.length == Accumulator.INPUTS * biases.length;
+        assert outputWeights.length == 2 * biases.length;
+    }
+    
+    /**
+     * Load a network from a weight file
+     * @param path path of the file, in the format described above
+     * @return the network stored in the file
+     * @throws IOException if the file cannot be read or is not a network file
+     */
+    public static Network load(String path) throws IOException {
+        InputStream in = new FileInputStream(path);
+        try {
+            return load(in);
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Read a network
+     * @param in stream to read the network from, in the format described above, which is not closed
+     * @return the network read from in
+     * @throws IOException if in cannot be read or does not hold a network
+     */
+    public static Network load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        try {
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a network file");
+            }
+            int version = data.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported network version " + version);
+            }
+            int hidden = data.readInt();
+            if (hidden < 1 || hidden > MAX_HIDDEN) {
+                throw new IOException("Network must have between 1 and " + MAX_HIDDEN + " hidden neurons");
+            }
+            
+            short[] weights = new short[Accumulator.INPUTS * hidden];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = data.readShort();
+            }
+            short[] biases = new short[hidden];
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = data.readShort();
+            }
+            byte[] outputWeights = new byte[2 * hidden];
+            data.readFully(outputWeights);
+            return new Network(weights, biases, outputWeights, data.readInt());
+        } catch (EOFException e) {
+            throw new IOException("Network file is truncated", e);
+        }
+    }
+    
+    /**
+     * Write this network
+     * @param out stream to write this network to, in the format described above, which is flushed
+     *          but not closed
+     * @throws IOException if out cannot be written to
+     */
+    public void save(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(biases.length);
+        for (short weight : weights) {
+            data.writeShort(weight);
+        }
+        for (short bias : biases) {
+            data.writeShort(bias);
+        }
+        data.write(outputWeights);
+        data.writeInt(outputBias);
+        data.flush();
+    }
+    
+    /**
+     * Retrieve the number of hidden neurons of this network
+     * @return the number of neurons of the first layer of this network
+     */
+    public int hiddenSize() {
+        return biases.length;
+    }
+    
+    /**
+     * Create a first layer for this network, to be kept up to date by a board with Board.setAccumulator
+     * @return a new accumulator for the first layer of this network
+     */
+    public Accumulator newAccumulator() {
+        return new Accumulator(weights, biases);
+    }
+    
+    /**
+     * Evaluate a position
+     * @param accumulator first layer of this network, as made by newAccumulator, holding the
+     *          pieces of the position
+     * @param turn side to move in the position
+     * @return the score of the position in centipawns, from the point of view of the side to move,
+     *          strictly between -(Engine.MATE - Engine.MAX_PLY) and Engine.MATE - Engine.MAX_PLY
+     */
+    public int evaluate(Accumulator accumulator, PieceColor turn) {
+        int us = turn.equals(PieceColor.WHITE) ? BitBoard.WHITE : BitBoard.BLACK;
+        int hidden = biases.length;
+        long sum = (long) accumulator.dot(us, outputWeights, 0, ACTIVATION_MAX)
+                + accumulator.dot(1 - us, outputWeights, hidden, ACTIVATION_MAX)
+                + outputBias;
+        long score = sum * EVALUATION_SCALE / (ACTIVATION_MAX * OUTPUT_SCALE);
+        return (int) Math.max(-MAX_SCORE, Math.min(score, MAX_SCORE));
+    }
+}
@@ -0,0 +1,125 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size, direct-mapped hash table of pawn structure scores, indexed by pawn key.
+ *
+ * Pawns move rarely compared to the other pieces, so most positions a search visits share their
+ * pawns with a position it visited shortly before, and the pawn structure terms of the Evaluator
+ * can be looked up instead of computed again. A probe that misses computes the score and stores
+ * it over whatever the entry held. The table counts its probes and hits, so that its hit rate can
+ * be measured.
+ *
+ * Tables are not thread-safe: each search thread has its own.
+ * @author Bryson
+ */
+public class PawnHashTable {
+    
+    private final static int BYTES_PER_ENTRY = 12;
+    
+    private final long[] keys;
+    private final int[] scores;
+    private final int mask;
+    private long probes;
+    private long hits;
+    
+    // Abstraction Function:
+    //  - represents a table holding, for each index i, the packed pawn structure score scores[i]
+    //     of the pawns with pawn key keys[i]
+    //  - probes is the number of probes since the table was created or cleared, and hits the
+    //     number of those that found their score in the table
+    //
+    // Rep Invariant:
+    //  - keys.length == scores.length == mask + 1, a power of two
+    //  - scores[i] == Evaluator.pawns of the pawns with pawn key keys[i], which holds for an empty
+    //     entry too, since the pawn key 0 stands for no pawns, scored 0
+    //  - 0 <= hits <= probes
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private
+    //  - all inputs and outputs are primitives
+    //
+    
+    /**
+     * Create an empty pawn hash table
+     * @param megabytes memory to use, rounded down to a power of two number of entries, megabytes >= 1
+     * @throws IllegalArgumentException if megabytes < 1
+     */
+    public PawnHashTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Pawn hash table needs at least 1 MB");
+        }
+        int entries = Integer.highestOneBit((int) Math.min((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY, 1 << 30));
+        keys = new long[entries];
+        scores = new int[entries];
+        mask = entries - 1;
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert keys.length == scores.length;
+        assert keys.length == mask + 1;
+        assert Integer.bitCount(keys.length) == 1;
+        assert 0 <= hits && hits <= probes;
+    }
+    
+    /**
+     * Retrieve the number of entries of this table
+     * @return the number of pawn structures this table can hold at once
+     */
+    public int size() {
+        return keys.length;
+    }
+    
+    /**
+     * Remove every entry of this table and reset its counters
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(scores, 0);
+        probes = 0;
+        hits = 0;
+    }
+    
+    /**
+     * Score a pawn structure, looking it up in this table first and storing it if it is not there
+     * @param pawnKey pawn key of the position, as given by Board.pawnKey
+     * @param whitePawns squares of the white pawns of the position, as given by Board.pieces
+     * @param blackPawns squares of the black pawns of the position, in the same form
+     * @return Evaluator.pawns(whitePawns, blackPawns)
+     */
+    public int probe(long pawnKey, long whitePawns, long blackPawns) {
+        int index = (int) pawnKey & mask;
+        probes++;
+        if (keys[index] == pawnKey) {
+            hits++;
+            return scores[index];
+        }
+        
+        int score = Evaluator.pawns(whitePawns, blackPawns);
+        keys[index] = pawnKey;
+        scores[index] = score;
+        return score;
+    }
+    
+    /**
+     * Retrieve the number of probes of this table
+     * @return the number of times probe was called since this table was created or cleared
+     */
+    public long probes() {
+        return probes;
+    }
+    
+    /**
+     * Retrieve the number of hits of this table
+     * @return the number of probes since this table was created or cleared that found their
+     *          pawn structure in the table
+     */
+    public long hits() {
+        return hits;
+    }
+}
@@ -0,0 +1,97 @@
+package engine;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import data_types.BitBoard;
+import data_types.Board;
+import data_types.MoveList;
+import data_types.PackedMove;
+
+/**
+ * Performance test (perft) driver, which counts the leaf nodes of the tree of legal moves
+ * from a position to check the move generator for correctness and measure its speed.
+ *
+ * Usage: java engine.Perft depth [divide] [fen]
+ *  - depth is the number of moves to look ahead
+ *  - divide prints the number of leaf nodes below each legal move of the position
+ *  - fen is the position to start from, the standard initial position if omitted
+ * @author Bryson
+ */
+public class Perft {
+    
+    /**
+     * Run perft from the command line, printing the node count, time taken and nodes per second
+     * @param args depth, followed by an optional "divide" and an optional position in FEN
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java engine.Perft depth [divide] [fen]");
+            return;
+        }
+        
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = args.length > 1 && args[1].equals("divide");
+        
+        String fen = BitBoard.START_FEN;
+        int fenStart = divide ? 2 : 1;
+        if (args.length > fenStart) {
+            StringBuilder fields = new StringBuilder();
+            for (int i = fenStart; i < args.length; i++) {
+                fields.append(args[i]).append(' ');
+            }
+            fen = fields.toString().trim();
+        }
+        
+        Board board = new Board(fen);
+        long start = System.nanoTime();
+        long nodes = 0;
+        
+        if (divide) {
+            for (Map.Entry<String, Long> entry : divide(board, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println();
+        } else {
+            nodes = perft(board, depth);
+        }
+        
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1000000 + " ms");
+        System.out.println("NPS: " + nodes * 1000000000L / elapsed);
+    }
+    
+    /**
+     * Count the leaf nodes of the tree of legal moves from a position
+     * @param board position to count from, left unchanged when this returns
+     * @param depth number of moves to look ahead, requires depth >= 0
+     * @return the number of distinct sequences of depth legal moves that can be played from board
+     */
+    public static long perft(Board board, int depth) {
+        return board.perft(depth);
+    }
+    
+    /**
+     * Count the leaf nodes of the tree of legal moves below each legal move of a position
+     * @param board position to count from, left unchanged when this returns
+     * @param depth number of moves to look ahead, including the first move, requires depth >= 1
+     * @return a map from each legal move of board, in coordinate notation (e.g. e2e4 or e7e8q),
+     *          to the number of leaf nodes depth - 1 moves below it
+     */
+    public static Map<String, Long> divide(Board board, int depth) {
+        Map<String, Long> nodes = new TreeMap<>();
+        
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes.put(PackedMove.toString(moves.get(i)), board.perft(depth - 1));
+            board.unmakeMove();
+        }
+        
+        return nodes;
+    }
+}
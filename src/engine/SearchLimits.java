@@ -0,0 +1,118 @@
+package engine;
+
+/**
+ * Represents the budget of a search of the Engine: how deep it may look, how long it may take
+ * and how many positions it may visit. This class is immutable.
+ * @author Bryson
+ */
+public class SearchLimits {
+    
+    public final static long UNLIMITED = Long.MAX_VALUE;
+    
+    private final int depth;
+    private final long millis;
+    private final long nodes;
+    
+    // Abstraction Function:
+    //  - represents a search that stops after its iteration of depth moves, or once millis
+    //     milliseconds have passed, or once its main thread has visited nodes positions,
+    //     whichever comes first, where UNLIMITED stands for no limit
+    //
+    // Rep Invariant:
+    //  - 1 <= depth < Engine.MAX_PLY
+    //  - millis > 0, nodes > 0
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private and final
+    //  - all inputs and outputs are primitives
+    //
+    
+    /**
+     * Create search limits
+     * @param depth number of moves to look ahead at most, 1 <= depth < Engine.MAX_PLY
+     * @param millis number of milliseconds to search for at most, millis > 0, or UNLIMITED
+     * @param nodes number of positions the main thread may visit at most, nodes > 0, or UNLIMITED
+     * @throws IllegalArgumentException if any limit is out of range
+     */
+    public SearchLimits(int depth, long millis, long nodes) {
+        if (depth < 1 || depth >= Engine.MAX_PLY) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + (Engine.MAX_PLY - 1));
+        }
+        if (millis <= 0 || nodes <= 0) {
+            throw new IllegalArgumentException("Time and node limits must be positive");
+        }
+        this.depth = depth;
+        this.millis = millis;
+        this.nodes = nodes;
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert 1 <= depth && depth < Engine.MAX_PLY;
+        assert millis > 0 && nodes > 0;
+    }
+    
+    /**
+     * Create limits for a fixed-depth search
+     * @param depth number of moves to look ahead, 1 <= depth < Engine.MAX_PLY
+     * @return limits of a search that completes depth moves, however long it takes
+     * @throws IllegalArgumentException if depth is out of range
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, UNLIMITED, UNLIMITED);
+    }
+    
+    /**
+     * Create limits for a search on the clock
+     * @param millis number of milliseconds to search for, millis > 0
+     * @return limits of a search that looks as deep as it can in millis milliseconds
+     * @throws IllegalArgumentException if millis <= 0
+     */
+    public static SearchLimits time(long millis) {
+        return new SearchLimits(Engine.MAX_PLY - 1, millis, UNLIMITED);
+    }
+    
+    /**
+     * Create limits for a search with a node budget
+     * @param nodes number of positions the main thread may visit, nodes > 0
+     * @return limits of a search that looks as deep as it can by visiting nodes positions
+     * @throws IllegalArgumentException if nodes <= 0
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(Engine.MAX_PLY - 1, UNLIMITED, nodes);
+    }
+    
+    /**
+     * Retrieve the depth limit
+     * @return the number of moves the search may look ahead
+     */
+    public int depth() {
+        return depth;
+    }
+    
+    /**
+     * Retrieve the time limit
+     * @return the number of milliseconds the search may take, or UNLIMITED
+     */
+    public long millis() {
+        return millis;
+    }
+    
+    /**
+     * Retrieve the node limit
+     * @return the number of positions the main thread of the search may visit, or UNLIMITED
+     */
+    public long nodes() {
+        return nodes;
+    }
+    
+    @Override
+    public String toString() {
+        return "depth " + depth
+                + " millis " + (millis == UNLIMITED ? "unlimited" : String.valueOf(millis))
+                + " nodes " + (nodes == UNLIMITED ? "unlimited" : String.valueOf(nodes));
+    }
+}
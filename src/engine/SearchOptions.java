@@ -0,0 +1,318 @@
+package engine;
+
+/**
+ * Represents the tunable selective-search techniques of the Engine, which let it skip, search
+ * less deeply or search with narrower windows the moves that are unlikely to matter. This class
+ * is immutable.
+ *
+ *  - null-move pruning: if the side to move is so far ahead that passing the turn still holds
+ *     beta in a search nullMoveReduction moves shallower, the position is cut off without
+ *     searching its moves. It is skipped in check, after another null move, and when the side
+ *     to move only has pawns, where passing may be better than any move (zugzwang).
+ *  - late-move reductions: quiet moves ordered after the first lateMoveThreshold moves are
+ *     searched less deeply, the more so the later they come, and searched again at full depth
+ *     only if they turn out to raise alpha.
+ *  - futility pruning: one or two moves from the horizon, quiet moves are skipped if the static
+ *     evaluation plus futilityMargin per move left is still no better than alpha.
+ *  - razoring: one or two moves from the horizon, a position whose static evaluation plus
+ *     razorMargin per move left is no better than alpha is resolved with a quiescence search.
+ *  - principal variation search: every move after the first is searched with a null window,
+ *     which only proves it is no better than the best move so far, and searched again with the
+ *     full window only if it turns out to be better.
+ *  - aspiration windows: each iteration after the first few searches the root with a window
+ *     of aspirationWindow around the score of the previous iteration, and doubles the window
+ *     on the side the score falls outside of until it falls inside.
+ * @author Bryson
+ */
+public class SearchOptions {
+    
+    public final static SearchOptions DEFAULT = new SearchOptions(true, 2, true, 3, true, 150, true, 300, true, true, 50);
+    public final static SearchOptions FULL_WIDTH = new SearchOptions(false, 2, false, 3, false, 150, false, 300, false, false, 50);
+    
+    private final boolean nullMove;
+    private final int nullMoveReduction;
+    private final boolean lateMoveReductions;
+    private final int lateMoveThreshold;
+    private final boolean futility;
+    private final int futilityMargin;
+    private final boolean razoring;
+    private final int razorMargin;
+    private final boolean pvs;
+    private final boolean aspiration;
+    private final int aspirationWindow;
+    
+    // Abstraction Function:
+    //  - represents a search that uses null-move pruning if nullMove, late-move reductions if
+    //     lateMoveReductions, futility pruning if futility, razoring if razoring, principal
+    //     variation search if pvs and aspiration windows if aspiration, tuned by nullMoveReduction,
+    //     lateMoveThreshold, futilityMargin, razorMargin and aspirationWindow as described above
+    //
+    // Rep Invariant:
+    //  - nullMoveReduction >= 1, lateMoveThreshold >= 1
+    //  - futilityMargin > 0, razorMargin > 0, aspirationWindow > 0
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private and final
+    //  - all inputs and outputs are primitives or immutable
+    //
+    
+    /**
+     * Create search options
+     * @param nullMove true to use null-move pruning
+     * @param nullMoveReduction number of moves a null move is searched less deeply, at least 1
+     * @param lateMoveReductions true to use late-move reductions
+     * @param lateMoveThreshold number of moves searched at full depth in every position, at least 1
+     * @param futility true to use futility pruning
+     * @param futilityMargin centipawns per move left a quiet move must be able to gain, positive
+     * @param razoring true to use razoring
+     * @param razorMargin centipawns per move left a position must be able to gain, positive
+     * @param pvs true to use principal variation search
+     * @param aspiration true to use aspiration windows
+     * @param aspirationWindow centipawns on each side of the previous score the first window spans, positive
+     * @throws IllegalArgumentException if a tunable is out of range
+     */
+    private SearchOptions(boolean nullMove, int nullMoveReduction, boolean lateMoveReductions, int lateMoveThreshold,
+            boolean futility, int futilityMargin, boolean razoring, int razorMargin,
+            boolean pvs, boolean aspiration, int aspirationWindow) {
+        if (nullMoveReduction < 1 || lateMoveThreshold < 1) {
+            throw new IllegalArgumentException("Null-move reduction and late-move threshold must be at least 1");
+        }
+        if (futilityMargin <= 0 || razorMargin <= 0 || aspirationWindow <= 0) {
+            throw new IllegalArgumentException("Margins must be positive");
+        }
+        this.nullMove = nullMove;
+        this.nullMoveReduction = nullMoveReduction;
+        this.lateMoveReductions = lateMoveReductions;
+        this.lateMoveThreshold = lateMoveThreshold;
+        this.futility = futility;
+        this.futilityMargin = futilityMargin;
+        this.razoring = razoring;
+        this.razorMargin = razorMargin;
+        this.pvs = pvs;
+        this.aspiration = aspiration;
+        this.aspirationWindow = aspirationWindow;
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert nullMoveReduction >= 1 && lateMoveThreshold >= 1;
+        assert futilityMargin > 0 && razorMargin > 0 && aspirationWindow > 0;
+    }
+    
+    /**
+     * Check whether null-move pruning is used
+     * @return true if the search uses null-move pruning
+     */
+    public boolean nullMove() {
+        return nullMove;
+    }
+    
+    /**
+     * Retrieve the depth reduction of null moves
+     * @return the number of moves a null move is searched less deeply than a real one, before
+     *          the extra reduction of deep searches
+     */
+    public int nullMoveReduction() {
+        return nullMoveReduction;
+    }
+    
+    /**
+     * Check whether late-move reductions are used
+     * @return true if the search uses late-move reductions
+     */
+    public boolean lateMoveReductions() {
+        return lateMoveReductions;
+    }
+    
+    /**
+     * Retrieve the number of moves that are never reduced
+     * @return the number of moves searched at full depth in every position
+     */
+    public int lateMoveThreshold() {
+        return lateMoveThreshold;
+    }
+    
+    /**
+     * Check whether futility pruning is used
+     * @return true if the search uses futility pruning
+     */
+    public boolean futility() {
+        return futility;
+    }
+    
+    /**
+     * Retrieve the futility margin
+     * @return the number of centipawns per move left a quiet move must be able to gain
+     */
+    public int futilityMargin() {
+        return futilityMargin;
+    }
+    
+    /**
+     * Check whether razoring is used
+     * @return true if the search uses razoring
+     */
+    public boolean razoring() {
+        return razoring;
+    }
+    
+    /**
+     * Retrieve the razoring margin
+     * @return the number of centipawns per move left a position must be able to gain
+     */
+    public int razorMargin() {
+        return razorMargin;
+    }
+    
+    /**
+     * Check whether principal variation search is used
+     * @return true if the search uses principal variation search
+     */
+    public boolean pvs() {
+        return pvs;
+    }
+    
+    /**
+     * Check whether aspiration windows are used
+     * @return true if the search uses aspiration windows
+     */
+    public boolean aspiration() {
+        return aspiration;
+    }
+    
+    /**
+     * Retrieve the initial aspiration window
+     * @return the number of centipawns on each side of the previous score the first window spans
+     */
+    public int aspirationWindow() {
+        return aspirationWindow;
+    }
+    
+    /**
+     * Turn null-move pruning on or off
+     * @param nullMove true to use null-move pruning
+     * @return these options, with null-move pruning used if and only if nullMove
+     */
+    public SearchOptions withNullMove(boolean nullMove) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Change the depth reduction of null moves
+     * @param nullMoveReduction number of moves a null move is searched less deeply, at least 1
+     * @return these options, with null moves reduced by nullMoveReduction
+     * @throws IllegalArgumentException if nullMoveReduction < 1
+     */
+    public SearchOptions withNullMoveReduction(int nullMoveReduction) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Turn late-move reductions on or off
+     * @param lateMoveReductions true to use late-move reductions
+     * @return these options, with late-move reductions used if and only if lateMoveReductions
+     */
+    public SearchOptions withLateMoveReductions(boolean lateMoveReductions) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Change the number of moves that are never reduced
+     * @param lateMoveThreshold number of moves searched at full depth in every position, at least 1
+     * @return these options, with the first lateMoveThreshold moves of a position never reduced
+     * @throws IllegalArgumentException if lateMoveThreshold < 1
+     */
+    public SearchOptions withLateMoveThreshold(int lateMoveThreshold) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Turn futility pruning on or off
+     * @param futility true to use futility pruning
+     * @return these options, with futility pruning used if and only if futility
+     */
+    public SearchOptions withFutility(boolean futility) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Change the futility margin
+     * @param futilityMargin centipawns per move left a quiet move must be able to gain, positive
+     * @return these options, with a futility margin of futilityMargin
+     * @throws IllegalArgumentException if futilityMargin <= 0
+     */
+    public SearchOptions withFutilityMargin(int futilityMargin) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Turn razoring on or off
+     * @param razoring true to use razoring
+     * @return these options, with razoring used if and only if razoring
+     */
+    public SearchOptions withRazoring(boolean razoring) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Change the razoring margin
+     * @param razorMargin centipawns per move left a position must be able to gain, positive
+     * @return these options, with a razoring margin of razorMargin
+     * @throws IllegalArgumentException if razorMargin <= 0
+     */
+    public SearchOptions withRazorMargin(int razorMargin) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Turn principal variation search on or off
+     * @param pvs true to use principal variation search
+     * @return these options, with principal variation search used if and only if pvs
+     */
+    public SearchOptions withPvs(boolean pvs) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Turn aspiration windows on or off
+     * @param aspiration true to use aspiration windows
+     * @return these options, with aspiration windows used if and only if aspiration
+     */
+    public SearchOptions withAspiration(boolean aspiration) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    /**
+     * Change the initial aspiration window
+     * @param aspirationWindow centipawns on each side of the previous score the first window spans, positive
+     * @return these options, with a first aspiration window of aspirationWindow on each side
+     * @throws IllegalArgumentException if aspirationWindow <= 0
+     */
+    public SearchOptions withAspirationWindow(int aspirationWindow) {
+        return new SearchOptions(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold,
+                futility, futilityMargin, razoring, razorMargin, pvs, aspiration, aspirationWindow);
+    }
+    
+    @Override
+    public String toString() {
+        return "null move " + (nullMove ? "R=" + nullMoveReduction : "off")
+                + ", late-move reductions " + (lateMoveReductions ? "after " + lateMoveThreshold : "off")
+                + ", futility " + (futility ? futilityMargin : "off")
+                + ", razoring " + (razoring ? razorMargin : "off")
+                + ", principal variation search " + (pvs ? "on" : "off")
+                + ", aspiration windows " + (aspiration ? aspirationWindow : "off");
+    }
+}
@@ -0,0 +1,106 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import data_types.Move;
+
+/**
+ * Represents the outcome of a search of the Engine. This class is immutable.
+ * @author Bryson
+ */
+public class SearchResult {
+    
+    private final Move bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final List<Move> principalVariation;
+    
+    // Abstraction Function:
+    //  - represents a search that looked depth moves ahead, visiting nodes positions, and
+    //     found bestMove to be the best move of the position, worth score centipawns to the
+    //     side to move if both sides then follow principalVariation
+    //
+    // Rep Invariant:
+    //  - depth >= 0, nodes >= 0
+    //  - principalVariation is empty if bestMove is undefined, and starts with bestMove otherwise
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private and final
+    //  - Move is immutable
+    //  - principalVariation is defensively copied on input and output
+    //
+    
+    /**
+     * Create a search result
+     * @param score score of the searched position in centipawns, from the point of view of the side to move
+     * @param depth number of moves the search looked ahead, depth >= 0
+     * @param nodes number of positions the search visited, nodes >= 0
+     * @param principalVariation the moves both sides are expected to play, best move first, or an
+     *          empty list if the searched position has no legal moves
+     */
+    public SearchResult(int score, int depth, long nodes, List<Move> principalVariation) {
+        this.bestMove = principalVariation.isEmpty() ? Move.undefined() : principalVariation.get(0);
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.principalVariation = new ArrayList<>(principalVariation);
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert depth >= 0;
+        assert nodes >= 0;
+        assert principalVariation.isEmpty() == bestMove.isUndefined();
+    }
+    
+    /**
+     * Retrieve the best move found by the search
+     * @return the best move of the searched position, or an undefined move if it has no legal moves
+     */
+    public Move bestMove() {
+        return bestMove;
+    }
+    
+    /**
+     * Retrieve the score of the searched position
+     * @return the score of the searched position in centipawns, from the point of view of the side to move
+     *          - checkmates score within Engine.MAX_PLY of Engine.MATE, positive if the side to move mates
+     */
+    public int score() {
+        return score;
+    }
+    
+    /**
+     * Retrieve the depth of the search
+     * @return the number of moves the search looked ahead
+     */
+    public int depth() {
+        return depth;
+    }
+    
+    /**
+     * Retrieve the number of positions visited by the search
+     * @return the number of positions visited by the search
+     */
+    public long nodes() {
+        return nodes;
+    }
+    
+    /**
+     * Retrieve the principal variation of the search
+     * @return the moves both sides are expected to play from the searched position, best move first
+     */
+    public List<Move> principalVariation() {
+        return new ArrayList<>(principalVariation);
+    }
+    
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " pv " + principalVariation;
+    }
+}
@@ -0,0 +1,645 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import data_types.Accumulator;
+import data_types.BitBoard;
+import data_types.Board;
+import data_types.Move;
+import data_types.MoveList;
+import data_types.PackedMove;
+
+/**
+ * A single search thread of the Engine. Each searcher searches its own copy of the position,
+ * and searchers of the same engine share its transposition table.
+ * @author Bryson
+ */
+class Searcher implements Runnable {
+    
+    private final static int INFINITY = Engine.MATE + 1;
+    
+    // number of nodes between two checks of the stop flag and the limits, minus one, which
+    // keeps the time between checks well under a millisecond
+    private final static int STOP_CHECK_INTERVAL = 255;
+    
+    private final static long NANOS_PER_MILLI = 1000000L;
+    
+    // margin by which a capture must be able to raise the stand-pat score above alpha to be searched in quiescence
+    private final static int DELTA_MARGIN = 200;
+    
+    // futility pruning and razoring only apply this many moves or fewer from the horizon
+    private final static int FRONTIER_DEPTH = 2;
+    
+    // late-move reductions only apply with at least this many moves left
+    private final static int REDUCTION_DEPTH = 3;
+    
+    // iterations shallower than this search the root with a full window
+    private final static int ASPIRATION_DEPTH = 4;
+    
+    // scores beyond this are mates, which pruning must not hide
+    private final static int MATE_BOUND = Engine.MATE - Engine.MAX_PLY;
+    
+    // score of a drawn position, and the number of moves without a capture or pawn move that draws by the fifty-move rule
+    private final static int DRAW = 0;
+    private final static int FIFTY_MOVE_CLOCK = 100;
+    
+    // REDUCTIONS[depth][index] is the late-move reduction of the move ordered index-th with depth moves left
+    private final static int[][] REDUCTIONS = new int[Engine.MAX_PLY][BitBoard.MAX_MOVES];
+    
+    static {
+        for (int depth = 1; depth < Engine.MAX_PLY; depth++) {
+            for (int index = 1; index < BitBoard.MAX_MOVES; index++) {
+                int reduction = (int) (0.75 + Math.log(depth) * Math.log(index) / 2.25);
+                REDUCTIONS[depth][index] = Math.max(1, Math.min(reduction, depth - 2));
+            }
+        }
+    }
+    
+    private final TranspositionTable table;
+    private final MoveList[] moves = new MoveList[Engine.MAX_PLY];
+    private final int[][] pv = new int[Engine.MAX_PLY][Engine.MAX_PLY];
+    private final int[] pvLength = new int[Engine.MAX_PLY];
+    private final int[][] scores = new int[Engine.MAX_PLY][BitBoard.MAX_MOVES];
+    private final int[] played = new int[Engine.MAX_PLY];
+    private final MoveOrderer orderer = new MoveOrderer();
+    private PawnHashTable pawnTable = new PawnHashTable(Engine.DEFAULT_PAWN_HASH_MEGABYTES);
+    private EvaluationCache evaluationCache = new EvaluationCache(Engine.DEFAULT_EVALUATION_CACHE_MEGABYTES);
+    private Network network;
+    private Accumulator accumulator;
+    private SearchOptions options = SearchOptions.DEFAULT;
+    private Board position;
+    private int startDepth;
+    private volatile int maxDepth;
+    private long startTime;
+    private volatile long timeLimit = Long.MAX_VALUE;
+    private volatile long nodeLimit = Long.MAX_VALUE;
+    private long nodes;
+    private volatile boolean stopped;
+    private boolean aborted;
+    
+    private int completedDepth;
+    private int completedScore;
+    private int[] completedPv = new int[0];
+    
+    // Abstraction Function:
+    //  - represents a search of position, deepening from startDepth to maxDepth moves ahead,
+    //     pruning and reducing moves as options say, and sharing results with other searchers
+    //     through table
+    //  - positions are evaluated by network, if not null, whose first layer for position is
+    //     accumulator, and by the Evaluator otherwise
+    //  - the scores of the positions it evaluated are cached in evaluationCache, and their pawn
+    //     structures in pawnTable
+    //  - moves[ply] holds the moves generated ply moves below the root, scores[ply] their
+    //     ordering scores as given by orderer, played[ply] the move being searched, and
+    //     pv[ply][0..pvLength[ply]-1] is the best line found from that ply in the current iteration
+    //  - nodes is the number of positions visited so far
+    //  - the search started at System.nanoTime() == startTime, and runs out of budget once
+    //     timeLimit nanoseconds have passed or nodeLimit positions were visited, where
+    //     Long.MAX_VALUE stands for no limit
+    //  - stopped is true if the search was asked to stop, and aborted is true once it did so
+    //     in the middle of an iteration, which it never does before an iteration completes
+    //  - completedDepth is the depth of the deepest completed iteration (0 if none), which scored
+    //     the position completedScore and found the line completedPv
+    //
+    // Rep Invariant:
+    //  - 0 <= pvLength[ply] <= Engine.MAX_PLY - ply for every ply
+    //  - nodes >= 0, timeLimit > 0, nodeLimit > 0
+    //  - 0 <= completedDepth < Engine.MAX_PLY
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private
+    //  - position is a copy made by this searcher
+    //  - the principal variation is returned as a new list of immutable moves
+    //
+    
+    /**
+     * Create a searcher
+     * @param table transposition table to share with the other searchers of the engine
+     */
+    Searcher(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply < Engine.MAX_PLY; ply++) {
+            moves[ply] = new MoveList();
+        }
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        for (int ply = 0; ply < Engine.MAX_PLY; ply++) {
+            assert 0 <= pvLength[ply] && pvLength[ply] <= Engine.MAX_PLY - ply;
+        }
+        assert nodes >= 0;
+        assert timeLimit > 0 && nodeLimit > 0;
+        assert 0 <= completedDepth && completedDepth < Engine.MAX_PLY;
+    }
+    
+    /**
+     * Change the selective-search techniques of the next searches
+     *  - requires that the search is not running
+     * @param options selective-search techniques to use
+     */
+    void configure(SearchOptions options) {
+        this.options = options;
+    }
+    
+    /**
+     * Change the pawn hash table of the next searches
+     *  - requires that the search is not running
+     * @param pawnTable table to look up pawn structures in, used by this searcher alone
+     */
+    void setPawnTable(PawnHashTable pawnTable) {
+        this.pawnTable = pawnTable;
+    }
+    
+    /**
+     * Retrieve the pawn hash table of this searcher
+     * @return the table this searcher looks up pawn structures in, which must not be used while
+     *          the search is running
+     */
+    PawnHashTable pawnTable() {
+        return pawnTable;
+    }
+    
+    /**
+     * Change how the next searches evaluate positions, forgetting the evaluations of the last ones
+     *  - requires that the search is not running
+     * @param network neural network to evaluate positions with, or null to use the Evaluator
+     */
+    void setNetwork(Network network) {
+        this.network = network;
+        this.accumulator = (network == null) ? null : network.newAccumulator();
+        evaluationCache.clear();
+    }
+    
+    /**
+     * Change the evaluation cache of the next searches
+     *  - requires that the search is not running
+     * @param evaluationCache cache to look up static evaluations in, used by this searcher alone
+     */
+    void setEvaluationCache(EvaluationCache evaluationCache) {
+        this.evaluationCache = evaluationCache;
+    }
+    
+    /**
+     * Retrieve the evaluation cache of this searcher
+     * @return the cache this searcher looks up static evaluations in, which must not be used
+     *          while the search is running
+     */
+    EvaluationCache evaluationCache() {
+        return evaluationCache;
+    }
+    
+    /**
+     * Prepare a new search without a time or node budget, forgetting the results of the last one
+     * @param board position to search, copied with the moves of its game, so that the search never
+     *          mutates it and sees repetitions of the game
+     * @param startDepth depth of the first iteration, 1 <= startDepth
+     * @param maxDepth depth of the last iteration, startDepth <= maxDepth < Engine.MAX_PLY
+     */
+    void reset(Board board, int startDepth, int maxDepth) {
+        reset(board, startDepth, maxDepth, SearchLimits.UNLIMITED, SearchLimits.UNLIMITED);
+    }
+    
+    /**
+     * Prepare a new search, forgetting the results of the last one. The budget starts now, and
+     * the search stops once it runs out, but only after its first iteration completes.
+     * @param board position to search, copied with the moves of its game, so that the search never
+     *          mutates it and sees repetitions of the game
+     * @param startDepth depth of the first iteration, 1 <= startDepth
+     * @param maxDepth depth of the last iteration, startDepth <= maxDepth < Engine.MAX_PLY
+     * @param millis number of milliseconds to search for, millis > 0, or SearchLimits.UNLIMITED
+     * @param nodeLimit number of positions to visit, nodeLimit > 0, or SearchLimits.UNLIMITED
+     */
+    void reset(Board board, int startDepth, int maxDepth, long millis, long nodeLimit) {
+        this.startTime = System.nanoTime();
+        this.position = new Board(board);
+        position.setAccumulator(accumulator);
+        this.startDepth = startDepth;
+        limit(maxDepth, millis, nodeLimit);
+        nodes = 0;
+        stopped = false;
+        aborted = false;
+        completedDepth = 0;
+        completedScore = 0;
+        completedPv = new int[0];
+        pvLength[0] = 0;
+        orderer.newSearch();
+        checkRep();
+    }
+    
+    /**
+     * Search the position, deepening one move at a time until the last iteration completes,
+     * the search is stopped or it runs out of budget
+     */
+    @Override
+    public void run() {
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            int score = aspirate(depth);
+            if (aborted) {
+                break;
+            }
+            completedDepth = depth;
+            completedScore = score;
+            completedPv = Arrays.copyOf(pv[0], pvLength[0]);
+            
+            // the next iteration takes longer than all the previous ones together, so don't
+            // start one that would most likely be abandoned on time
+            if (stopped || nodes >= nodeLimit || System.nanoTime() - startTime >= timeLimit / 2) {
+                break;
+            }
+        }
+        checkRep();
+    }
+    
+    /**
+     * Replace the budget of the search, which may already be running. The budget still counts
+     * from the start of the search, and a search that already used it up stops at its next check.
+     * May be called from any thread.
+     * @param maxDepth depth of the last iteration, 1 <= maxDepth < Engine.MAX_PLY
+     * @param millis number of milliseconds to search for, millis > 0, or SearchLimits.UNLIMITED
+     * @param nodeLimit number of positions to visit, nodeLimit > 0, or SearchLimits.UNLIMITED
+     */
+    void limit(int maxDepth, long millis, long nodeLimit) {
+        this.maxDepth = maxDepth;
+        this.timeLimit = (millis >= Long.MAX_VALUE / NANOS_PER_MILLI) ? Long.MAX_VALUE : millis * NANOS_PER_MILLI;
+        this.nodeLimit = nodeLimit;
+    }
+    
+    /**
+     * Ask the search to stop as soon as possible, abandoning the iteration in progress.
+     * May be called from any thread.
+     */
+    void stop() {
+        stopped = true;
+    }
+    
+    /**
+     * Retrieve the number of positions visited by the last search
+     * @return the number of positions visited by the last search
+     */
+    long nodes() {
+        return nodes;
+    }
+    
+    /**
+     * Retrieve the depth of the deepest completed iteration of the last search
+     * @return the depth of the deepest completed iteration, or 0 if none completed
+     */
+    int completedDepth() {
+        return completedDepth;
+    }
+    
+    /**
+     * Retrieve the score found by the deepest completed iteration of the last search
+     * @return the score of the position from the point of view of the side to move
+     */
+    int completedScore() {
+        return completedScore;
+    }
+    
+    /**
+     * Convert the best line found by the deepest completed iteration into Moves
+     *  - requires that the search is not running
+     * @return the moves of the principal variation, in order
+     */
+    List<Move> principalVariation() {
+        List<Move> line = new ArrayList<>();
+        for (int move : completedPv) {
+            line.add(position.toMove(move));
+            position.makeMove(move);
+        }
+        for (int i = 0; i < completedPv.length; i++) {
+            position.unmakeMove();
+        }
+        return line;
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Evaluate the current position without searching it, looking it up in the evaluation cache first
+     * @return the static evaluation of position, from the point of view of the side to move
+     */
+    private int evaluate() {
+        long key = position.zobristKey();
+        int score = evaluationCache.probe(key);
+        if (score == EvaluationCache.NO_SCORE) {
+            score = (network == null) ? Evaluator.evaluate(position, pawnTable) : network.evaluate(accumulator, position.turn());
+            evaluationCache.store(key, score);
+        }
+        return score;
+    }
+    
+    /**
+     * Search the root, with a window around the score of the previous iteration if aspiration
+     * windows are used. Each time the score falls outside the window, the window is doubled on
+     * that side and the root searched again.
+     * @param depth number of moves to look ahead, depth >= 1
+     * @return the score of the root from the point of view of the side to move
+     */
+    private int aspirate(int depth) {
+        if (!options.aspiration() || depth < ASPIRATION_DEPTH || completedDepth == 0
+                || Math.abs(completedScore) >= MATE_BOUND) {
+            return negamax(depth, 0, -INFINITY, INFINITY, false);
+        }
+        
+        int window = options.aspirationWindow();
+        int alpha = Math.max(completedScore - window, -INFINITY);
+        int beta = Math.min(completedScore + window, INFINITY);
+        while (true) {
+            int score = negamax(depth, 0, alpha, beta, false);
+            if (aborted) {
+                return 0;
+            }
+            
+            window *= 2;
+            if (score <= alpha) {
+                alpha = Math.max(score - window, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + window, INFINITY);
+            } else {
+                return score;
+            }
+        }
+    }
+    
+    /**
+     * Search a position with alpha-beta, from the point of view of the side to move
+     * @param depth number of moves left to look ahead, depth >= 0
+     * @param ply number of moves played since the root of the search
+     * @param alpha score the side to move is already guaranteed
+     * @param beta score the opponent is already guaranteed, alpha < beta
+     * @param nullAllowed true if the side to move may try a null move, false right after one
+     * @return the score of position if it is strictly between alpha and beta, otherwise a bound
+     *          on the score that is no better than alpha or no worse than beta
+     */
+    private int negamax(int depth, int ply, int alpha, int beta, boolean nullAllowed) {
+        if (depth == 0) {
+            return quiesce(ply, alpha, beta);
+        }
+        
+        nodes++;
+        if ((nodes & STOP_CHECK_INTERVAL) == 0 && shouldStop()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        
+        // the best move of the previous iteration is the most likely to be best again
+        int previousBest = (ply == 0 && pvLength[0] > 0) ? pv[0][0] : PackedMove.NONE;
+        pvLength[ply] = 0;
+        
+        // a repeated position is a draw, since the side that repeated it could repeat it again
+        if (ply > 0 && (position.repetition() || position.halfmoveClock() >= FIFTY_MOVE_CLOCK)) {
+            return DRAW;
+        }
+        
+        if (ply == Engine.MAX_PLY - 1) {
+            return evaluate();
+        }
+        
+        long key = position.zobristKey();
+        long entry = table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            hashMove = TranspositionTable.move(entry);
+            
+            // the root always searches, so that it has a best move to return
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        
+        // the root and positions in check are never pruned
+        boolean inCheck = position.inCheck();
+        boolean prunable = !inCheck && ply > 0;
+        int staticEval = prunable ? evaluate() : -INFINITY;
+        
+        // hopeless positions near the horizon are left to quiescence, if it confirms they are hopeless
+        if (prunable && options.razoring() && depth <= FRONTIER_DEPTH && staticEval + options.razorMargin() * depth <= alpha
+                && hashMove == PackedMove.NONE && alpha > -MATE_BOUND) {
+            int score = quiesce(ply, alpha, alpha + 1);
+            if (aborted) {
+                return 0;
+            }
+            if (score <= alpha) {
+                return score;
+            }
+        }
+        
+        // if passing still holds beta in a shallower search, so will the best move
+        if (prunable && options.nullMove() && nullAllowed && depth >= 2 && staticEval >= beta && beta < MATE_BOUND
+                && position.hasNonPawnMaterial()) {
+            int reduction = options.nullMoveReduction() + depth / 6;
+            played[ply] = PackedMove.NONE;
+            position.makeNullMove();
+            int score = -negamax(Math.max(depth - 1 - reduction, 0), ply + 1, -beta, -beta + 1, false);
+            position.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score >= beta) {
+                return (score >= MATE_BOUND) ? beta : score;
+            }
+        }
+        
+        MoveList list = moves[ply];
+        position.legalMoves(list);
+        if (list.size() == 0) {
+            return inCheck ? -Engine.MATE + ply : 0;
+        }
+        
+        // quiet moves near the horizon that cannot bring the score back up to alpha are skipped
+        boolean futile = prunable && options.futility() && depth <= FRONTIER_DEPTH
+                && staticEval + options.futilityMargin() * depth <= alpha && alpha > -MATE_BOUND;
+        
+        if (previousBest != PackedMove.NONE) {
+            hashMove = previousBest;
+        }
+        int previousMove = (ply > 0) ? played[ply - 1] : PackedMove.NONE;
+        int[] order = scores[ply];
+        orderer.score(position, list, order, ply, hashMove, previousMove);
+        
+        int originalAlpha = alpha;
+        int bestMove = PackedMove.NONE;
+        int best = -INFINITY;
+        for (int i = 0; i < list.size(); i++) {
+            int move = MoveOrderer.pickNext(list, order, i);
+            boolean quiet = !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+            played[ply] = move;
+            position.makeMove(move);
+            boolean givesCheck = position.inCheck();
+            
+            if (futile && i > 0 && quiet && !givesCheck) {
+                position.unmakeMove();
+                continue;
+            }
+            
+            int reduction = (options.lateMoveReductions() && depth >= REDUCTION_DEPTH && i >= options.lateMoveThreshold()
+                    && quiet && !inCheck && !givesCheck) ? REDUCTIONS[depth][i] : 0;
+            
+            int score;
+            if (i == 0 || (reduction == 0 && !options.pvs())) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+            } else {
+                // a later move is expected to be worse, which a null window proves cheaply, and a
+                // reduced or null-window search that raises alpha is not trusted until confirmed
+                score = -negamax(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+                if (options.pvs()) {
+                    if (score > alpha && reduction > 0 && !aborted) {
+                        score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha, true);
+                    }
+                    if (score > alpha && score < beta && !aborted) {
+                        score = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+                    }
+                } else if (score > alpha && !aborted) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+                }
+            }
+            position.unmakeMove();
+            
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                updatePv(ply, move);
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                orderer.recordCutoff(position, list, i, ply, depth, previousMove);
+                break;
+            }
+        }
+        
+        int bound = (best >= beta) ? TranspositionTable.LOWER
+                  : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, best, depth, bound, ply);
+        return best;
+    }
+    
+    /**
+     * Search only the captures and promotions of a position, until it is quiet enough for its
+     * static evaluation to be trusted. The side to move may stand pat on the static evaluation
+     * instead of capturing, unless it is in check, in which case every evasion is searched.
+     * @param ply number of moves played since the root of the search
+     * @param alpha score the side to move is already guaranteed
+     * @param beta score the opponent is already guaranteed, alpha < beta
+     * @return the score of position if it is strictly between alpha and beta, otherwise a bound
+     *          on the score that is no better than alpha or no worse than beta
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        nodes++;
+        if ((nodes & STOP_CHECK_INTERVAL) == 0 && shouldStop()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        pvLength[ply] = 0;
+        
+        int standPat = evaluate();
+        if (ply == Engine.MAX_PLY - 1) {
+            return standPat;
+        }
+        
+        boolean inCheck = position.inCheck();
+        MoveList list = moves[ply];
+        int best;
+        if (inCheck) {
+            position.legalMoves(list);
+            if (list.size() == 0) {
+                return -Engine.MATE + ply;
+            }
+            best = -INFINITY;
+        } else {
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            position.captures(list);
+            best = standPat;
+        }
+        
+        int[] order = scores[ply];
+        orderer.scoreCaptures(position, list, order);
+        
+        for (int i = 0; i < list.size(); i++) {
+            int move = MoveOrderer.pickNext(list, order, i);
+            
+            // skip captures that cannot bring the score back up to alpha even when they win the
+            // piece for free, and captures that lose material once the exchange is played out
+            if (!inCheck && !PackedMove.isPromotion(move)
+                    && standPat + Evaluator.value(MoveOrderer.capturedType(position, move)) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            if (!inCheck && !position.seeGreaterOrEqual(move, 0)) {
+                continue;
+            }
+            
+            played[ply] = move;
+            position.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            position.unmakeMove();
+            
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                updatePv(ply, move);
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Check whether the search must abandon its iteration in progress
+     * @return true if the search was asked to stop or ran out of depth, time or nodes, and an
+     *          iteration already completed so that there is a best move to return
+     */
+    private boolean shouldStop() {
+        if (completedDepth == 0) {
+            return false;
+        }
+        return stopped || completedDepth >= maxDepth || nodes >= nodeLimit
+                || System.nanoTime() - startTime >= timeLimit;
+    }
+    
+    /**
+     * Record a move followed by the best line of the next ply as the best line of a ply
+     * @param ply ply to record the line for
+     * @param move best move found so far at ply
+     */
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+}
@@ -0,0 +1,235 @@
+package engine;
+
+import java.util.Arrays;
+
+import data_types.PackedMove;
+
+/**
+ * A fixed-size hash table of search results, indexed by Zobrist key, that may be shared
+ * between search threads without locking.
+ *
+ * Each entry is packed into two longs: the data (best move, score, depth, bound and age of
+ * the search that stored it) and the key exclusive-ored with the data. A probe only accepts an
+ * entry whose two halves are consistent, so an entry torn by two threads storing to it at once
+ * reads as a miss instead of returning data of another position.
+ * @author Bryson
+ */
+public class TranspositionTable {
+    
+    public final static long NO_ENTRY = 0L;
+    
+    // bounds of a stored score
+    public final static int UPPER = 1;
+    public final static int LOWER = 2;
+    public final static int EXACT = 3;
+    
+    private final static int BYTES_PER_ENTRY = 16;
+    private final static int AGE_MASK = 63;
+    
+    // entries: bits 0-15 of data hold the packed move, 16-31 the score, 32-39 the depth,
+    // 40-41 the bound and 42-47 the age
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private volatile int age;
+    
+    // Abstraction Function:
+    //  - represents a table holding, for each index i with data[i] != NO_ENTRY, the search result
+    //     data[i] for the position with Zobrist key keys[i] ^ data[i]
+    //  - age is the number of searches started with this table, modulo 64
+    //
+    // Rep Invariant:
+    //  - keys.length == data.length == mask + 1, a power of two
+    //  - 0 <= age <= AGE_MASK
+    //
+    // Safety from Rep Exposure:
+    //  - all fields are private
+    //  - all inputs and outputs are primitives
+    //
+    
+    /**
+     * Create an empty transposition table
+     * @param megabytes memory to use, rounded down to a power of two number of entries, megabytes >= 1
+     * @throws IllegalArgumentException if megabytes < 1
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        int entries = Integer.highestOneBit((int) Math.min((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY, 1 << 30));
+        keys = new long[entries];
+        data = new long[entries];
+        mask = entries - 1;
+        checkRep();
+    }
+    
+    /**
+     * Assert the Rep Invariant.
+     */
+    private void checkRep() {
+        assert keys.length == data.length;
+        assert keys.length == mask + 1;
+        assert Integer.bitCount(keys.length) == 1;
+        assert 0 <= age && age <= AGE_MASK;
+    }
+    
+    /**
+     * Retrieve the number of entries of this table
+     * @return the number of positions this table can hold at once
+     */
+    public int size() {
+        return keys.length;
+    }
+    
+    /**
+     * Start a new search, so that entries of earlier searches are replaced first
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+    
+    /**
+     * Remove every entry of this table
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, NO_ENTRY);
+    }
+    
+    /**
+     * Look up a position
+     * @param key Zobrist key of the position
+     * @return the data stored for the position, to be read with move, score, depth and bound,
+     *          or NO_ENTRY if this table holds nothing for the position
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        if (entry == NO_ENTRY || (keys[index] ^ entry) != key) {
+            return NO_ENTRY;
+        }
+        return entry;
+    }
+    
+    /**
+     * Store the result of searching a position, unless the entry it maps to holds a deeper
+     * result of another position stored during the current search
+     * @param key Zobrist key of the position
+     * @param move best packed move found in the position, or PackedMove.NONE
+     * @param score score of the position, from the point of view of the side to move
+     * @param depth number of moves the position was searched ahead, 0 <= depth < 256
+     * @param bound EXACT if score is the exact score, LOWER if the exact score is at least score,
+     *          or UPPER if it is at most score
+     * @param ply number of moves played from the root of the search to the position, used to
+     *          store mate scores relative to the position rather than to the root
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = (int) key & mask;
+        long old = data[index];
+        int currentAge = age;
+        
+        if (old != NO_ENTRY && (keys[index] ^ old) != key
+                && ageOf(old) == currentAge && depth(old) > depth) {
+            return;
+        }
+        
+        // keep the best move of a shallower search of the same position if this search found none
+        if (move == PackedMove.NONE && old != NO_ENTRY && (keys[index] ^ old) == key) {
+            move = move(old);
+        }
+        
+        long entry = (move & 0xFFFFL)
+                | ((long) (toTable(score, ply) & 0xFFFF) << 16)
+                | ((long) depth << 32)
+                | ((long) bound << 40)
+                | ((long) currentAge << 42);
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+    
+    /**
+     * Estimate how full this table is
+     * @return the number of entries out of the first thousand that were stored during the current search, per mille
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, data.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != NO_ENTRY && ageOf(data[i]) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+    
+    /**
+     * Retrieve the best move of an entry
+     * @param entry data returned by probe, not NO_ENTRY
+     * @return the best packed move of entry, or PackedMove.NONE if it has none
+     */
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+    
+    /**
+     * Retrieve the score of an entry
+     * @param entry data returned by probe, not NO_ENTRY
+     * @param ply number of moves played from the root of the current search to the position of entry
+     * @return the score of entry, with mate scores adjusted to be relative to the root of the current search
+     */
+    public static int score(long entry, int ply) {
+        int score = (short) (entry >>> 16);
+        if (score >= Engine.MATE - Engine.MAX_PLY) {
+            return score - ply;
+        } else if (score <= -Engine.MATE + Engine.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+    
+    /**
+     * Retrieve the depth of an entry
+     * @param entry data returned by probe, not NO_ENTRY
+     * @return the number of moves the position of entry was searched ahead
+     */
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+    
+    /**
+     * Retrieve the bound of an entry
+     * @param entry data returned by probe, not NO_ENTRY
+     * @return one of EXACT, LOWER or UPPER
+     */
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 3);
+    }
+    
+    //////////////////////////////////////////////////////////////////////
+    /////////////////////// PRIVATE HELPER METHODS ///////////////////////
+    //////////////////////////////////////////////////////////////////////
+    
+    /**
+     * Retrieve the age of an entry
+     * @param entry stored data, not NO_ENTRY
+     * @return the age of the search that stored entry
+     */
+    private static int ageOf(long entry) {
+        return (int) ((entry >>> 42) & AGE_MASK);
+    }
+    
+    /**
+     * Convert a score relative to the root of the search into a score relative to a position
+     * @param score score of the position, with mate scores relative to the root
+     * @param ply number of moves played from the root to the position
+     * @return score, with mate scores counted from the position instead of from the root
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= Engine.MATE - Engine.MAX_PLY) {
+            return score + ply;
+        } else if (score <= -Engine.MATE + Engine.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+}
@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
+import java.util.Locale;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
 
@@ -149,9 +150,9 @@ public class GUI extends JFrame{
      */
     private Coordinate getBoardCoordinate(int col, int row) {
         if (playerSide.equals(PieceColor.WHITE)) {
-            return new Coordinate(row, 7-col);
+            return Coordinate.of(row, 7-col);
         } else if (playerSide.equals(PieceColor.BLACK)) {
-            return new Coordinate(7-row, col);
+            return Coordinate.of(7-row, col);
         } else {
             throw new RuntimeException("Side is not either one of black or white");
         }
@@ -164,46 +165,21 @@ public class GUI extends JFrame{
      * @return an image of piece
      */
     private ImageIcon getIcon(Piece piece) {
-        PieceColor white = PieceColor.WHITE;
-        PieceColor black = PieceColor.BLACK;
         ImageIcon icon = new ImageIcon();
         
         if (piece.exists()) {
-            if (piece.color().equals(white)) {
-                if (piece.isPawn()) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "white_pawn.png"));
-                } else if (piece.isKing()) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "white_king.png"));
-                } else if (piece.getMovedVersion().equals(Piece.queen(white, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "white_queen.png"));
-                } else if (piece.getMovedVersion().equals(Piece.rook(white, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "white_rook.png"));
-                } else if (piece.getMovedVersion().equals(Piece.knight(white, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "white_knight.png"));
-                } else if (piece.getMovedVersion().equals(Piece.bishop(white, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "white_bishop.png"));
-                } else {
-                    throw new RuntimeException("Can not recognize piece");
-                }
-            } else if (piece.color().equals(black)) {
-                if (piece.isPawn()) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "black_pawn.png"));
-                } else if (piece.isKing()) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "black_king.png"));
-                } else if (piece.getMovedVersion().equals(Piece.queen(black, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "black_queen.png"));
-                } else if (piece.getMovedVersion().equals(Piece.rook(black, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "black_rook.png"));
-                } else if (piece.getMovedVersion().equals(Piece.knight(black, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "black_knight.png"));
-                } else if (piece.getMovedVersion().equals(Piece.bishop(black, true))) {
-                    icon = new ImageIcon(getClass().getResource(GUI_IMAGES + "black_bishop.png"));
-                } else {
-                    throw new RuntimeException("Can not recognize piece");
-                }
+            String color;
+            if (piece.color().equals(PieceColor.WHITE)) {
+                color = "white";
+            } else if (piece.color().equals(PieceColor.BLACK)) {
+                color = "black";
             } else {
                 throw new RuntimeException("Piece's color is not one of black or white");
             }
+            
+            // images are named after the color and type of the piece, e.g. white_knight.png
+            String type = piece.type().name().toLowerCase(Locale.ROOT);
+            icon = new ImageIcon(getClass().getResource(GUI_IMAGES + color + "_" + type + ".png"));
         }
         
         return icon;
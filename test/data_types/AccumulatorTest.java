@@ -0,0 +1,153 @@
+package data_types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the Accumulator class
+ * @author Bryson
+ */
+public class AccumulatorTest {
+    
+    // Testing Strategy:
+    //
+    // Accumulator:
+    //  - one neuron, many neurons, lengths that do not agree
+    //
+    // reset, refresh, add, remove, matches:
+    //  - empty position, initial position
+    //  - after captures, castling, en passent, promotions, null moves
+    //  - after moves are unmade, after a board is loaded from FEN
+    //
+    // dot:
+    //  - values below 0, between 0 and max, above max
+    //
+    // feature:
+    //  - white piece, black piece, seen from white, from black
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testLengthsDisagree() {
+        new Accumulator(new short[Accumulator.INPUTS], new short[2]);
+    }
+    
+    @Test
+    public void testEmptyPosition() {
+        Accumulator accumulator = accumulator(4, 1);
+        accumulator.add(BitBoard.piece(BitBoard.WHITE, BitBoard.QUEEN), 27);
+        accumulator.refresh(new BitBoard());
+        
+        assertEquals("Expected four neurons", 4, accumulator.size());
+        for (int i = 0; i < accumulator.size(); i++) {
+            assertEquals("Expected the bias from white's side", 10 * i, accumulator.value(BitBoard.WHITE, i));
+            assertEquals("Expected the bias from black's side", 10 * i, accumulator.value(BitBoard.BLACK, i));
+        }
+    }
+    
+    @Test
+    public void testAddRemove() {
+        Accumulator accumulator = accumulator(1, 2);
+        int before = accumulator.value(BitBoard.WHITE, 0);
+        accumulator.add(BitBoard.piece(BitBoard.BLACK, BitBoard.KNIGHT), 40);
+        accumulator.remove(BitBoard.piece(BitBoard.BLACK, BitBoard.KNIGHT), 40);
+        assertEquals("Expected adding and removing to cancel out", before, accumulator.value(BitBoard.WHITE, 0));
+    }
+    
+    @Test
+    public void testMatchesAfterMoves() {
+        Board board = new Board("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        Accumulator accumulator = accumulator(16, 3);
+        board.setAccumulator(accumulator);
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            assertTrue("Expected incremental layer to match FEN", accumulator.matches(position(board.toFen())));
+            board.unmakeMove();
+            assertTrue("Expected layer to be restored", accumulator.matches(position(board.toFen())));
+        }
+        
+        board.makeNullMove();
+        assertTrue("Expected null move to keep layer", accumulator.matches(position(board.toFen())));
+        board.unmakeMove();
+        
+        board.move(board.legalMoves().iterator().next());
+        board.takeBackLastMove();
+        assertTrue("Expected layer to be restored after take back", accumulator.matches(position(board.toFen())));
+    }
+    
+    @Test
+    public void testLoadFen() {
+        BitBoard position = position(BitBoard.START_FEN);
+        Accumulator accumulator = accumulator(8, 4);
+        position.setAccumulator(accumulator);
+        position.loadFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+        assertTrue("Expected layer of the loaded position", accumulator.matches(position("4k3/8/8/8/8/8/8/4K2R w K - 0 1")));
+        
+        position.setAccumulator(null);
+        position.loadFen(BitBoard.START_FEN);
+        assertTrue("Expected detached layer to be left alone", accumulator.matches(position("4k3/8/8/8/8/8/8/4K2R w K - 0 1")));
+    }
+    
+    @Test
+    public void testDot() {
+        short[] weights = new short[Accumulator.INPUTS * 3];
+        Accumulator accumulator = new Accumulator(weights, new short[] {-5, 7, 300});
+        byte[] next = {0, 2, 3, -1};
+        
+        assertEquals("Expected clipped values times weights", -5 * 0 + 7 * 2 + 255 * 3, accumulator.dot(BitBoard.WHITE, next, 0, 255));
+        assertEquals("Expected weights from the offset", 0 * 2 + 7 * 3 + 255 * -1, accumulator.dot(BitBoard.BLACK, next, 1, 255));
+    }
+    
+    @Test
+    public void testFeature() {
+        int whitePawn = BitBoard.piece(BitBoard.WHITE, BitBoard.PAWN);
+        int blackPawn = BitBoard.piece(BitBoard.BLACK, BitBoard.PAWN);
+        int e2 = 12;
+        int e7 = 52;
+        
+        assertEquals("Expected piece and square", whitePawn * 64 + e2, Accumulator.feature(BitBoard.WHITE, whitePawn, e2));
+        assertEquals("Expected own pawn seen from black", Accumulator.feature(BitBoard.WHITE, whitePawn, e2), Accumulator.feature(BitBoard.BLACK, blackPawn, e7));
+        assertEquals("Expected enemy pawn seen from black", Accumulator.feature(BitBoard.WHITE, blackPawn, e7), Accumulator.feature(BitBoard.BLACK, whitePawn, e2));
+    }
+    
+    /**
+     * Create an accumulator with small random weights, and biases 0, 10, 20, ...
+     * @param size number of neurons
+     * @param seed seed of the random weights
+     * @return a new accumulator with size neurons
+     */
+    private static Accumulator accumulator(int size, long seed) {
+        Random random = new Random(seed);
+        short[] weights = new short[Accumulator.INPUTS * size];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (short) (random.nextInt(201) - 100);
+        }
+        short[] biases = new short[size];
+        for (int i = 0; i < size; i++) {
+            biases[i] = (short) (10 * i);
+        }
+        return new Accumulator(weights, biases);
+    }
+    
+    /**
+     * Create a position from FEN
+     * @param fen position in Forsyth-Edwards Notation
+     * @return a new position loaded from fen
+     */
+    private static BitBoard position(String fen) {
+        BitBoard position = new BitBoard();
+        position.loadFen(fen);
+        return position;
+    }
+}
@@ -0,0 +1,99 @@
+package data_types;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for the Attacks class
+ * @author Bryson
+ */
+public class AttacksTest {
+    
+    // Testing Strategy:
+    //
+    // knight/king/pawn:
+    //  - every square, compared against the set-wise BitBoard attacks
+    //
+    // bishop/rook/queen:
+    //  - no blockers, blockers next to the piece, blockers on the edge of the board
+    //  - piece in the corner, on the edge, in the center
+    //
+    // between/line:
+    //  - squares share a rank, file, diagonal, nothing
+    //  - squares are adjacent, squares are far apart
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testLeaperTables() {
+        for (int square = 0; square < 64; square++) {
+            long bit = 1L << square;
+            assertEquals("Expected knight table to match", BitBoard.knightAttacks(bit), Attacks.knight(square));
+            assertEquals("Expected king table to match", BitBoard.kingAttacks(bit), Attacks.king(square));
+            assertEquals("Expected white pawn table to match", BitBoard.pawnAttacks(BitBoard.WHITE, bit), Attacks.pawn(BitBoard.WHITE, square));
+            assertEquals("Expected black pawn table to match", BitBoard.pawnAttacks(BitBoard.BLACK, bit), Attacks.pawn(BitBoard.BLACK, square));
+        }
+    }
+    
+    @Test
+    public void testSlidersEmptyBoard() {
+        for (int square = 0; square < 64; square++) {
+            assertEquals("Expected rook to attack 14 squares", 14, Long.bitCount(Attacks.rook(square, 0L)));
+        }
+        assertEquals("Expected 7 bishop attacks from a1", 7, Long.bitCount(Attacks.bishop(BitBoard.square(0, 0), 0L)));
+        assertEquals("Expected 7 bishop attacks from a4", 7, Long.bitCount(Attacks.bishop(BitBoard.square(0, 3), 0L)));
+        assertEquals("Expected 13 bishop attacks from e4", 13, Long.bitCount(Attacks.bishop(BitBoard.square(4, 3), 0L)));
+        assertEquals("Expected 27 queen attacks from d5", 27, Long.bitCount(Attacks.queen(BitBoard.square(3, 4), 0L)));
+    }
+    
+    @Test
+    public void testSlidersBlocked() {
+        int a1 = BitBoard.square(0, 0);
+        int e4 = BitBoard.square(4, 3);
+        long adjacent = Attacks.king(e4);
+        
+        assertEquals("Expected rook to only attack adjacent blockers", adjacent & Attacks.rook(e4, 0L), Attacks.rook(e4, adjacent));
+        assertEquals("Expected bishop to only attack adjacent blockers", adjacent & Attacks.bishop(e4, 0L), Attacks.bishop(e4, adjacent));
+        
+        // pieces on the edge of the board never block anything
+        long edges = BitBoard.FILE_A | BitBoard.FILE_H | BitBoard.RANK_1 | BitBoard.RANK_8;
+        assertEquals("Expected edge blockers to be ignored", Attacks.rook(e4, 0L), Attacks.rook(e4, edges));
+        
+        long blockers = (1L << BitBoard.square(0, 2)) | (1L << BitBoard.square(3, 0)) | (1L << BitBoard.square(2, 2));
+        long expected = (1L << BitBoard.square(0, 1)) | (1L << BitBoard.square(0, 2))
+                | (1L << BitBoard.square(1, 0)) | (1L << BitBoard.square(2, 0)) | (1L << BitBoard.square(3, 0));
+        assertEquals("Expected rook on a1 to stop at a3 and d1", expected, Attacks.rook(a1, blockers));
+        assertEquals("Expected bishop on a1 to stop at c3", (1L << BitBoard.square(1, 1)) | (1L << BitBoard.square(2, 2)),
+                Attacks.bishop(a1, blockers));
+    }
+    
+    @Test
+    public void testBetween() {
+        int a1 = BitBoard.square(0, 0);
+        int h8 = BitBoard.square(7, 7);
+        int a8 = BitBoard.square(0, 7);
+        int b3 = BitBoard.square(1, 2);
+        
+        assertEquals("Expected 6 squares between a1 and h8", 6, Long.bitCount(Attacks.between(a1, h8)));
+        assertEquals("Expected between to be symmetric", Attacks.between(a1, a8), Attacks.between(a8, a1));
+        assertEquals("Expected 6 squares between a1 and a8", 6, Long.bitCount(Attacks.between(a1, a8)));
+        assertEquals("Expected nothing between adjacent squares", 0L, Attacks.between(a1, BitBoard.square(1, 1)));
+        assertEquals("Expected nothing between unaligned squares", 0L, Attacks.between(a1, b3));
+    }
+    
+    @Test
+    public void testLine() {
+        int c1 = BitBoard.square(2, 0);
+        int e3 = BitBoard.square(4, 2);
+        int b3 = BitBoard.square(1, 2);
+        
+        assertEquals("Expected the diagonal c1-h6", 6, Long.bitCount(Attacks.line(c1, e3)));
+        assertEquals("Expected the whole third rank", BitBoard.RANK_1 << 16, Attacks.line(b3, e3));
+        assertEquals("Expected no line through unaligned squares", 0L, Attacks.line(c1, b3));
+    }
+}
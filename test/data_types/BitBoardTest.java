@@ -0,0 +1,308 @@
+package data_types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the BitBoard class
+ * @author Bryson
+ */
+public class BitBoardTest {
+    
+    // Testing Strategy:
+    //
+    // addPiece/removePiece/pieceAt:
+    //  - square is empty, square is occupied
+    //  - piece has moved, piece has not moved
+    //
+    // knightAttacks/kingAttacks/pawnAttacks:
+    //  - piece in the corner, on the edge, in the center
+    //
+    // rookAttacks/bishopAttacks:
+    //  - no blockers, some blockers
+    //
+    // inCheck:
+    //  - king is attacked, king is not attacked
+    //  - attacker is a slider that is blocked, attacker is not blocked
+    //
+    // refreshCastlingRights:
+    //  - king and rooks unmoved, king moved, one rook moved
+    //
+    // generateLegalMoves:
+    //  - initial position, position with pinned piece
+    //  - king in check, king in double check
+    //  - en passent that exposes the king along a rank, en passent that resolves a check
+    //
+    // generateCaptures:
+    //  - captures by every piece type, en passent, promotions with and without capture
+    //  - king in check, king not in check
+    //
+    // makeMove/unmakeMove:
+    //  - one move, many moves
+    //  - quiet moves, captures, castling
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testAddRemovePiece() {
+        BitBoard position = new BitBoard();
+        int e4 = BitBoard.square(4, 3);
+        int whiteKnight = BitBoard.piece(BitBoard.WHITE, BitBoard.KNIGHT);
+        int blackQueen = BitBoard.piece(BitBoard.BLACK, BitBoard.QUEEN);
+        
+        assertEquals("Expected empty square", BitBoard.EMPTY, position.pieceAt(e4));
+        
+        position.addPiece(e4, whiteKnight, true);
+        assertEquals("Expected knight on e4", whiteKnight, position.pieceAt(e4));
+        assertTrue("Expected knight to have moved", position.hasMoved(e4));
+        assertEquals("Expected e4 to be occupied by white", 1L << e4, position.occupancy(BitBoard.WHITE));
+        
+        position.addPiece(e4, blackQueen, false);
+        assertEquals("Expected queen to replace knight", blackQueen, position.pieceAt(e4));
+        assertFalse("Expected queen to not have moved", position.hasMoved(e4));
+        assertEquals("Expected no white pieces", 0L, position.occupancy(BitBoard.WHITE));
+        
+        position.removePiece(e4);
+        assertEquals("Expected empty square", BitBoard.EMPTY, position.pieceAt(e4));
+        assertEquals("Expected empty board", 0L, position.occupied());
+    }
+    
+    @Test
+    public void testKnightAttacks() {
+        assertEquals("Expected 2 knight attacks from a1", 2, Long.bitCount(BitBoard.knightAttacks(1L << BitBoard.square(0, 0))));
+        assertEquals("Expected 4 knight attacks from a4", 4, Long.bitCount(BitBoard.knightAttacks(1L << BitBoard.square(0, 3))));
+        assertEquals("Expected 8 knight attacks from d4", 8, Long.bitCount(BitBoard.knightAttacks(1L << BitBoard.square(3, 3))));
+    }
+    
+    @Test
+    public void testKingAndPawnAttacks() {
+        assertEquals("Expected 3 king attacks from h8", 3, Long.bitCount(BitBoard.kingAttacks(1L << BitBoard.square(7, 7))));
+        assertEquals("Expected 8 king attacks from e4", 8, Long.bitCount(BitBoard.kingAttacks(1L << BitBoard.square(4, 3))));
+        assertEquals("Expected white pawn on a2 to attack b3", 1L << BitBoard.square(1, 2),
+                BitBoard.pawnAttacks(BitBoard.WHITE, 1L << BitBoard.square(0, 1)));
+        assertEquals("Expected black pawn on e5 to attack d4 and f4", (1L << BitBoard.square(3, 3)) | (1L << BitBoard.square(5, 3)),
+                BitBoard.pawnAttacks(BitBoard.BLACK, 1L << BitBoard.square(4, 4)));
+    }
+    
+    @Test
+    public void testSliderAttacks() {
+        int d4 = BitBoard.square(3, 3);
+        
+        assertEquals("Expected 14 rook attacks on empty board", 14, Long.bitCount(BitBoard.rookAttacks(d4, 0L)));
+        assertEquals("Expected 13 bishop attacks on empty board", 13, Long.bitCount(BitBoard.bishopAttacks(d4, 0L)));
+        
+        long blockers = (1L << BitBoard.square(3, 5)) | (1L << BitBoard.square(5, 5));
+        long rookAttacks = BitBoard.rookAttacks(d4, blockers);
+        long bishopAttacks = BitBoard.bishopAttacks(d4, blockers);
+        
+        assertTrue("Expected rook to attack blocker on d6", (rookAttacks & (1L << BitBoard.square(3, 5))) != 0);
+        assertFalse("Expected rook to not see through blocker to d7", (rookAttacks & (1L << BitBoard.square(3, 6))) != 0);
+        assertTrue("Expected bishop to attack blocker on f6", (bishopAttacks & (1L << BitBoard.square(5, 5))) != 0);
+        assertFalse("Expected bishop to not see through blocker to g7", (bishopAttacks & (1L << BitBoard.square(6, 6))) != 0);
+    }
+    
+    @Test
+    public void testInCheck() {
+        BitBoard position = new BitBoard();
+        position.addPiece(BitBoard.square(4, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(4, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(4, 5), BitBoard.piece(BitBoard.BLACK, BitBoard.ROOK), true);
+        
+        assertTrue("Expected rook to check white king", position.inCheck(BitBoard.WHITE));
+        assertFalse("Expected black king to not be in check", position.inCheck(BitBoard.BLACK));
+        
+        position.addPiece(BitBoard.square(4, 2), BitBoard.piece(BitBoard.WHITE, BitBoard.PAWN), true);
+        assertFalse("Expected pawn to block check", position.inCheck(BitBoard.WHITE));
+    }
+    
+    @Test
+    public void testRefreshCastlingRights() {
+        BitBoard position = new BitBoard();
+        position.addPiece(BitBoard.square(4, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.KING), false);
+        position.addPiece(BitBoard.square(0, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.ROOK), false);
+        position.addPiece(BitBoard.square(7, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.ROOK), true);
+        position.addPiece(BitBoard.square(4, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(0, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.ROOK), false);
+        position.refreshCastlingRights();
+        
+        assertEquals("Expected only white queenside castling", BitBoard.WHITE_QUEENSIDE, position.castlingRights());
+    }
+    
+    @Test
+    public void testGenerateLegalMovesInitial() {
+        Board board = new Board();
+        BitBoard position = new BitBoard();
+        
+        for (int x = 0; x < Board.DEFAULT_SIZE; x++) {
+            for (int y = 0; y < Board.DEFAULT_SIZE; y++) {
+                Square square = board.getSquare(x, y);
+                if (square.isOccupied()) {
+                    Piece piece = square.getPiece();
+                    int color = piece.color().equals(PieceColor.WHITE) ? BitBoard.WHITE : BitBoard.BLACK;
+                    int type = piece.type().ordinal();
+                    position.addPiece(BitBoard.square(x, y), BitBoard.piece(color, type), false);
+                }
+            }
+        }
+        
+        assertEquals("Expected 20 initial moves", 20, position.generateLegalMoves(new int[BitBoard.MAX_MOVES]));
+    }
+    
+    @Test
+    public void testGenerateLegalMovesPinned() {
+        BitBoard position = new BitBoard();
+        position.addPiece(BitBoard.square(4, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(4, 1), BitBoard.piece(BitBoard.WHITE, BitBoard.KNIGHT), true);
+        position.addPiece(BitBoard.square(4, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.ROOK), true);
+        position.addPiece(BitBoard.square(0, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.KING), true);
+        
+        // the pinned knight may not move, so only the 4 king moves remain
+        assertEquals("Expected only king moves", 4, position.generateLegalMoves(new int[BitBoard.MAX_MOVES]));
+    }
+    
+    @Test
+    public void testGenerateLegalMovesDoubleCheck() {
+        BitBoard position = new BitBoard();
+        position.addPiece(BitBoard.square(4, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(0, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.ROOK), true);
+        position.addPiece(BitBoard.square(4, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.ROOK), true);
+        position.addPiece(BitBoard.square(3, 2), BitBoard.piece(BitBoard.BLACK, BitBoard.KNIGHT), true);
+        position.addPiece(BitBoard.square(0, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.KING), true);
+        
+        // the rook could capture the knight, but only king moves escape a double check
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int count = position.generateLegalMoves(moves);
+        assertEquals("Expected only king moves", 3, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals("Expected king to move", BitBoard.square(4, 0), PackedMove.from(moves[i]));
+        }
+    }
+    
+    @Test
+    public void testGenerateLegalMovesCheckEvasion() {
+        BitBoard position = new BitBoard();
+        position.addPiece(BitBoard.square(4, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(0, 2), BitBoard.piece(BitBoard.WHITE, BitBoard.ROOK), true);
+        position.addPiece(BitBoard.square(7, 3), BitBoard.piece(BitBoard.BLACK, BitBoard.BISHOP), true);
+        position.addPiece(BitBoard.square(0, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.KING), true);
+        
+        // 4 king moves off the diagonal, and the rook blocks on f3
+        assertEquals("Expected king moves and one block", 5, position.generateLegalMoves(new int[BitBoard.MAX_MOVES]));
+    }
+    
+    @Test
+    public void testGenerateLegalMovesEnPassentPin() {
+        BitBoard position = new BitBoard();
+        position.addPiece(BitBoard.square(0, 4), BitBoard.piece(BitBoard.WHITE, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(1, 4), BitBoard.piece(BitBoard.WHITE, BitBoard.PAWN), true);
+        position.addPiece(BitBoard.square(2, 6), BitBoard.piece(BitBoard.BLACK, BitBoard.PAWN), false);
+        position.addPiece(BitBoard.square(7, 4), BitBoard.piece(BitBoard.BLACK, BitBoard.ROOK), true);
+        position.addPiece(BitBoard.square(7, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.KING), true);
+        position.setTurn(BitBoard.BLACK);
+        
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int count = position.generateLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.flags(moves[i]) == PackedMove.DOUBLE_PUSH) {
+                position.makeMove(moves[i]);
+            }
+        }
+        assertEquals("Expected en passent square on c6", BitBoard.square(2, 5), position.enPassent());
+        
+        // capturing en passent would clear the fifth rank between the rook and the king
+        count = position.generateLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            assertFalse("Expected en passent to be illegal", PackedMove.flags(moves[i]) == PackedMove.EN_PASSENT);
+        }
+        
+        // with the rook gone, en passent is legal
+        position.removePiece(BitBoard.square(7, 4));
+        count = position.generateLegalMoves(moves);
+        boolean enPassent = false;
+        for (int i = 0; i < count; i++) {
+            enPassent |= PackedMove.flags(moves[i]) == PackedMove.EN_PASSENT;
+        }
+        assertTrue("Expected en passent to be legal", enPassent);
+    }
+    
+    @Test
+    public void testMakeUnmakeMove() {
+        BitBoard position = new BitBoard();
+        position.addPiece(BitBoard.square(4, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.KING), false);
+        position.addPiece(BitBoard.square(7, 0), BitBoard.piece(BitBoard.WHITE, BitBoard.ROOK), false);
+        position.addPiece(BitBoard.square(4, 7), BitBoard.piece(BitBoard.BLACK, BitBoard.KING), true);
+        position.addPiece(BitBoard.square(3, 6), BitBoard.piece(BitBoard.BLACK, BitBoard.KNIGHT), true);
+        position.addPiece(BitBoard.square(4, 3), BitBoard.piece(BitBoard.WHITE, BitBoard.BISHOP), true);
+        position.refreshCastlingRights();
+        
+        BitBoard expected = new BitBoard();
+        expected.copyFrom(position);
+        
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int count = position.generateLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            assertEquals("Expected one move in history", 1, position.historySize());
+            
+            int[] replies = new int[BitBoard.MAX_MOVES];
+            int replyCount = position.generateLegalMoves(replies);
+            for (int j = 0; j < replyCount; j++) {
+                position.makeMove(replies[j]);
+                position.unmakeMove();
+            }
+            
+            position.unmakeMove();
+            assertEquals("Expected empty history", 0, position.historySize());
+            assertEquals("Expected same occupancy", expected.occupied(), position.occupied());
+            assertEquals("Expected same castling rights", expected.castlingRights(), position.castlingRights());
+            assertEquals("Expected same turn", expected.turn(), position.turn());
+            for (int square = 0; square < 64; square++) {
+                assertEquals("Expected same piece", expected.pieceAt(square), position.pieceAt(square));
+                assertEquals("Expected same moved flag", expected.hasMoved(square), position.hasMoved(square));
+            }
+        }
+    }
+    
+    @Test
+    public void testGenerateCapturesMatchesLegalMoves() {
+        String[] fens = {BitBoard.START_FEN,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3",
+                "4k3/8/8/8/8/8/3p4/2R1K3 b - - 0 1",
+                "4k3/8/8/8/4r3/8/3P4/4K3 w - - 0 1"};
+        
+        for (String fen : fens) {
+            BitBoard position = new BitBoard();
+            position.loadFen(fen);
+            
+            int[] moves = new int[BitBoard.MAX_MOVES];
+            int count = position.generateLegalMoves(moves);
+            int expected = 0;
+            for (int i = 0; i < count; i++) {
+                if (PackedMove.isCapture(moves[i]) || PackedMove.isPromotion(moves[i])) {
+                    expected++;
+                }
+            }
+            
+            int[] captures = new int[BitBoard.MAX_MOVES];
+            int captureCount = position.generateCaptures(captures);
+            assertEquals("Expected captures and promotions of " + fen, expected, captureCount);
+            for (int i = 0; i < captureCount; i++) {
+                assertTrue("Expected capture or promotion", PackedMove.isCapture(captures[i]) || PackedMove.isPromotion(captures[i]));
+                boolean legal = false;
+                for (int j = 0; j < count; j++) {
+                    legal |= moves[j] == captures[i];
+                }
+                assertTrue("Expected legal capture", legal);
+            }
+        }
+    }
+}
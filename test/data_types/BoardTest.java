@@ -317,6 +317,8 @@ public class BoardTest {
     //  - last move was an en passent, last move was not an en passent
     //  - last move captured a piece, last move did not capture a piece
     //  - last move moved a piece normally, last move did not move a piece normally
+    //  - one move is taken back, many moves are taken back in a row
+    //  - last move was passed to the constructor, last move was played on the board
     // 
     // movesPlayed:
     //  - no moves were played, multiple moves were played
@@ -325,6 +327,55 @@ public class BoardTest {
     //  - moves played includes en passent, moves played does not include en passent
     //  - moves played includes a promotion, moves played does not include a promotion
     //  
+    // Board(String fen), toFen:
+    //  - initial position, position after some moves
+    //  - en passent square is set, en passent square is not set
+    //  - all castling rights, some castling rights, no castling rights
+    //  - fen is malformed, fen has a missing king
+    //  
+    // legalMoves(MoveList), makeMove, unmakeMove, toPackedMove, toMove:
+    //  - initial position, position with castling, en passent and promotions
+    //  - packed moves outstanding, no packed moves outstanding
+    //  - move is legal, move is illegal
+    //  
+    // inCheck, pieceCount, pieceTypeAt, captures:
+    //  - current player in check, not in check
+    //  - no pieces of a type, several pieces of a type, type is NONE
+    //  - square is empty, square is occupied
+    //  - position has captures, has none
+    //  
+    // zobristKey, pawnKey:
+    //  - same position reached by different move orders, different positions
+    //  - same pawns with different pieces, different pawns, no pawns
+    //  - positions differ only in side to move, castling rights, en passent square
+    //  - after moves are taken back, after packed moves are unmade
+    //  
+    // see, seeGreaterOrEqual:
+    //  - capture of an undefended piece, of a defended piece, quiet move to an attacked square
+    //  - recaptures revealed behind other pieces (x-rays), king may recapture, may not
+    //  - en passent, promotion, castling
+    //  - threshold below, at, above the exchange
+    //  - move is legal, illegal
+    //  
+    // makeNullMove, hasNonPawnMaterial:
+    //  - position has an en passent square, has none
+    //  - current player has pieces other than pawns and king, has only pawns and king
+    //  
+    // material, positional:
+    //  - initial position, lopsided position
+    //  - after captures, castling, en passent, promotions, null moves
+    //  - after moves are unmade, after moves are taken back
+    // 
+    // phase, pieces, occupancy:
+    //  - all pieces on the board, only pawns and kings, more pieces than at the start
+    //  - no pieces of a type, several pieces of a type, type is NONE
+    //  
+    // Board(Board), repetition, halfmoveClock:
+    //  - no moves played, moves played and taken back on the copy
+    //  - position repeated, not repeated, repeated before a capture or pawn move, repeated
+    //     across a null move, repeated with the other side to move
+    //  - halfmove clock from FEN, after quiet moves, after a capture
+    //  
     
     // TODO write tests for isEnPassent, getChecks, getCaptures
     
@@ -596,6 +647,50 @@ public class BoardTest {
         assertEquals("Expected board to return to original state", expectedBoard, board);
     }
     
+    @Test
+    public void testTakeBackLastMoveMany() {
+        Board board = new Board();
+        Board expectedBoard = new Board();
+        
+        String[][] moves = {{"e2", "e4"}, {"d7", "d5"}, {"e4", "d5"}, {"c7", "c5"}, {"d5", "c6"},
+                            {"b8", "a6"}, {"c6", "b7"}, {"c8", "d7"}, {"b7", "a8"}};
+        
+        for (String[] move : moves) {
+            Square squareFrom = board.getSquare(move[0]);
+            Square squareTo = board.getSquare(move[1]);
+            
+            if (board.isEnPassent(squareFrom.coordinate(), squareTo.coordinate())) {
+                board.move(Move.enPassent(squareFrom, squareTo));
+            } else if (squareTo.coordinate().getY() == 7 && squareFrom.getPiece().isPawn()) {
+                board.move(Move.promote(squareFrom, squareTo, Piece.queen(PieceColor.WHITE, true)));
+            } else {
+                board.move(Move.createMove(squareFrom, squareTo));
+            }
+        }
+        
+        assertEquals("Expected promoted queen on a8", "Q", board.getSquare("a8").getPiece().toString());
+        
+        for (int i = 0; i < moves.length; i++) {
+            board.takeBackLastMove();
+        }
+        
+        assertEquals("Expected to revert back to original board", expectedBoard, board);
+        assertEquals("Expected original legal moves", expectedBoard.legalMoves(), board.legalMoves());
+        assertEquals("Expected original castling moves to be possible again", expectedBoard.toString(), board.toString());
+    }
+    
+    @Test
+    public void testTakeBackLastMoveConstructorMove() {
+        Board board = new Board();
+        board.move(Move.createMove(board.getSquare("e2"), board.getSquare("e4")));
+        
+        Board boardCopy = new Board(board.whitePieces(), board.blackPieces(), board.turn(), board.getLastMove());
+        Board expectedBoard = new Board(board.whitePieces(), board.blackPieces(), board.turn(), board.getLastMove());
+        boardCopy.takeBackLastMove();
+        
+        assertEquals("Expected constructor move to not be taken back", expectedBoard, boardCopy);
+    }
+    
     @Test
     public void testGetChecksAndCapturesNoChecksOrCaptures() {
         PieceColor white = PieceColor.WHITE;
@@ -2037,7 +2132,480 @@ public class BoardTest {
                                 "R N B Q K B N R \n";
         
         assertEquals(expectedString, board.toString());
-
+    
+    }
+    
+    @Test
+    public void testFenInit() {
+        Board board = new Board(BitBoard.START_FEN);
+        
+        assertEquals("Expected initial position", new Board(), board);
+        assertEquals("Expected same legal moves as the initial position", new Board().legalMoves(), board.legalMoves());
+        assertEquals("Expected initial FEN", BitBoard.START_FEN, new Board().toFen());
+    }
+    
+    @Test
+    public void testFenAfterMoves() {
+        Board board = new Board();
+        board.move(Move.createMove(board.getSquare("e2"), board.getSquare("e4")));
+        board.move(Move.createMove(board.getSquare("g8"), board.getSquare("f6")));
+        board.move(Move.createMove(board.getSquare("e4"), board.getSquare("e5")));
+        board.move(Move.createMove(board.getSquare("d7"), board.getSquare("d5")));
+        
+        String fen = "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        assertEquals("Expected en passent square in FEN", fen, board.toFen());
+        
+        Board fenBoard = new Board(fen);
+        assertEquals("Expected same FEN", fen, fenBoard.toFen());
+        assertEquals("Expected same legal moves", board.legalMoves(), fenBoard.legalMoves());
+        assertTrue("Expected en passent to be possible", fenBoard.isEnPassent(new Coordinate("e5"), new Coordinate("d6")));
+        
+        board.move(Move.createMove(board.getSquare("e1"), board.getSquare("e2")));
+        assertEquals("Expected white to lose castling rights", "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3", board.toFen());
+    }
+    
+    @Test
+    public void testFenCastlingRights() {
+        Board board = new Board("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+        
+        assertTrue("Expected white to castle kingside", board.legalMoves().contains(Move.createMove(board.getSquare("e1"), board.getSquare("g1"))));
+        assertFalse("Expected white to not castle queenside", board.legalMoves().contains(Move.createMove(board.getSquare("e1"), board.getSquare("c1"))));
+        assertTrue("Expected unmoved king", !board.getSquare("e1").getPiece().hasMoved());
+        assertTrue("Expected queenside rook to have moved", board.getSquare("a1").getPiece().hasMoved());
+        assertEquals("Expected same castling rights", "r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1", board.toFen());
+        
+        Board noCastling = new Board("r3k2r/8/8/8/8/8/8/R3K2R b - - 10 40");
+        assertEquals("Expected no castling rights", "r3k2r/8/8/8/8/8/8/R3K2R b - - 10 40", noCastling.toFen());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testFenMalformed() {
+        new Board("rnbqkbnr/pppppppp/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testFenMissingKing() {
+        new Board("8/8/8/8/8/8/8/4K3 w - - 0 1");
+    }
+    
+    @Test
+    public void testPackedMovesMatchLegalMoves() {
+        Board board = new Board("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        
+        Set<Move> converted = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = board.toMove(moves.get(i));
+            converted.add(move);
+            assertEquals("Expected conversion to round trip", moves.get(i), board.toPackedMove(move));
+        }
+        
+        assertEquals("Expected same number of moves", board.legalMoves().size(), moves.size());
+        assertEquals("Expected same moves", board.legalMoves(), converted);
+    }
+    
+    @Test
+    public void testMakeUnmakePackedMove() {
+        Board board = new Board();
+        String fen = board.toFen();
+        int move = board.toPackedMove(Move.createMove(board.getSquare("e2"), board.getSquare("e4")));
+        
+        board.makeMove(move);
+        assertEquals("Expected pawn to have moved", "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", board.toFen());
+        assertEquals("Expected black to move", PieceColor.BLACK, board.turn());
+        assertTrue("Expected no moves played", board.movesPlayed().isEmpty());
+        assertEquals("Expected black to have 20 moves", 20, board.legalMoves().size());
+        
+        board.unmakeMove();
+        assertEquals("Expected initial position", fen, board.toFen());
+        assertEquals("Expected white to have 20 moves", 20, board.legalMoves().size());
+    }
+    
+    @Test(expected=RuntimeException.class)
+    public void testMoveWithPackedMoveOutstanding() {
+        Board board = new Board();
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        
+        board.makeMove(moves.get(0));
+        board.takeBackLastMove();
+    }
+    
+    @Test(expected=RuntimeException.class)
+    public void testUnmakeWithoutPackedMove() {
+        Board board = new Board();
+        board.move(Move.createMove(board.getSquare("e2"), board.getSquare("e4")));
+        board.unmakeMove();
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testToPackedMoveIllegal() {
+        Board board = new Board();
+        board.toPackedMove(Move.createMove(board.getSquare("e2"), board.getSquare("e5")));
+    }
+    
+    @Test
+    public void testZobristKeyTransposition() {
+        Board first = new Board();
+        first.move(Move.createMove(first.getSquare("g1"), first.getSquare("f3")));
+        first.move(Move.createMove(first.getSquare("g8"), first.getSquare("f6")));
+        first.move(Move.createMove(first.getSquare("b1"), first.getSquare("c3")));
+        
+        Board second = new Board();
+        second.move(Move.createMove(second.getSquare("b1"), second.getSquare("c3")));
+        second.move(Move.createMove(second.getSquare("g8"), second.getSquare("f6")));
+        second.move(Move.createMove(second.getSquare("g1"), second.getSquare("f3")));
+        
+        assertEquals("Expected same key after transposition", first.zobristKey(), second.zobristKey());
+        assertEquals("Expected same key as FEN", new Board(first.toFen()).zobristKey(), first.zobristKey());
+        assertFalse("Expected different key from initial position", first.zobristKey() == new Board().zobristKey());
+    }
+    
+    @Test
+    public void testZobristKeyState() {
+        long white = new Board("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1").zobristKey();
+        long noEnPassent = new Board("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq - 0 1").zobristKey();
+        long noCastling = new Board("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kkq d6 0 1").zobristKey();
+        long black = new Board("r3k2r/8/8/3pP3/8/8/8/R3K2R b KQkq - 0 1").zobristKey();
+        
+        assertFalse("Expected en passent to change key", white == noEnPassent);
+        assertFalse("Expected castling rights to change key", white == noCastling);
+        assertFalse("Expected side to move to change key", noEnPassent == black);
+        assertEquals("Expected move counters to not change key", noEnPassent, new Board("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq - 7 30").zobristKey());
+    }
+    
+    @Test
+    public void testZobristKeyMatchesAfterMoves() {
+        Board board = new Board("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        long key = board.zobristKey();
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            assertEquals("Expected incremental key to match FEN", new Board(board.toFen()).zobristKey(), board.zobristKey());
+            board.unmakeMove();
+            assertEquals("Expected key to be restored", key, board.zobristKey());
+        }
+        
+        board.move(getArbitrary(board.legalMoves()));
+        board.takeBackLastMove();
+        assertEquals("Expected key to be restored after take back", key, board.zobristKey());
+    }
+    
+    @Test
+    public void testPawnKey() {
+        Board board = new Board("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        long pawnKey = board.pawnKey();
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            assertEquals("Expected incremental pawn key to match FEN", new Board(board.toFen()).pawnKey(), board.pawnKey());
+            board.unmakeMove();
+            assertEquals("Expected pawn key to be restored", pawnKey, board.pawnKey());
+        }
+        
+        assertEquals("Expected other pieces to not change pawn key", pawnKey, new Board("4k3/1P6/8/3pP3/8/8/8/4K1N1 b - - 0 1").pawnKey());
+        assertFalse("Expected other pawns to change pawn key", pawnKey == new Board("r3k2r/1P6/8/4P3/3p4/8/8/R3K2R w KQkq - 0 1").pawnKey());
+        assertEquals("Expected no pawns", 0L, new Board("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1").pawnKey());
+    }
+    
+    @Test
+    public void testInCheck() {
+        assertFalse("Expected no check", new Board().inCheck());
+        assertTrue("Expected check", new Board("4k3/8/8/8/8/8/8/4K2r w - - 0 1").inCheck());
+    }
+    
+    @Test
+    public void testPieceCount() {
+        Board board = new Board("4k3/pp6/8/8/8/8/8/RN2K3 w - - 0 1");
+        
+        assertEquals("Expected two black pawns", 2, board.pieceCount(PieceColor.BLACK, PieceType.PAWN));
+        assertEquals("Expected no white pawns", 0, board.pieceCount(PieceColor.WHITE, PieceType.PAWN));
+        assertEquals("Expected one white knight", 1, board.pieceCount(PieceColor.WHITE, PieceType.KNIGHT));
+        assertEquals("Expected 8 white pawns", 8, new Board().pieceCount(PieceColor.WHITE, PieceType.PAWN));
+    }
+    
+    @Test
+    public void testPieceTypeAtCaptures() {
+        Board board = new Board("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1");
+        MoveList captures = new MoveList();
+        
+        assertEquals("Expected pawn", PieceType.PAWN, board.pieceTypeAt(BitBoard.square(3, 4)));
+        assertEquals("Expected king", PieceType.KING, board.pieceTypeAt(BitBoard.square(4, 0)));
+        assertEquals("Expected empty square", PieceType.NONE, board.pieceTypeAt(BitBoard.square(0, 0)));
+        
+        board.captures(captures);
+        assertEquals("Expected one capture", 1, captures.size());
+        assertEquals("Expected exd5", Move.createMove(board.getSquare("e4"), board.getSquare("d5")), board.toMove(captures.get(0)));
+        
+        new Board().captures(captures);
+        assertEquals("Expected no captures", 0, captures.size());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testPieceCountNone() {
+        new Board().pieceCount(PieceColor.WHITE, PieceType.NONE);
+    }
+    
+    @Test
+    public void testSee() {
+        assertEquals("Expected to win a pawn", 100, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1e5"));
+        assertEquals("Expected knight for pawn", 220, see("4k3/8/2p5/3n4/4P3/8/8/4K3 w - - 0 1", "e4d5"));
+        assertEquals("Expected to lose the queen for a pawn", -800, see("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1", "d2d5"));
+        assertEquals("Expected to lose the knight", -320, see("4k3/8/8/2p5/8/1N6/8/4K3 w - - 0 1", "b3d4"));
+    }
+    
+    @Test
+    public void testSeeXRays() {
+        assertEquals("Expected black to recapture last", -400, see("3rk3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5"));
+        assertEquals("Expected the king not to recapture", 100, see("8/8/4k3/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5"));
+        assertEquals("Expected the king to recapture", -400, see("8/8/4k3/3p4/8/8/3R4/4K3 w - - 0 1", "d2d5"));
+    }
+    
+    @Test
+    public void testSeeSpecialMoves() {
+        assertEquals("Expected en passent to win a pawn", 100, see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+        assertEquals("Expected castling to exchange nothing", 0, see("4k3/8/8/8/8/8/8/4K2R w K - 0 1", "e1g1"));
+        assertEquals("Expected promotion to win a queen for a pawn", 800, see("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a7a8q"));
+        assertEquals("Expected promotion to lose the pawn", -100, see("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a7a8n"));
+    }
+    
+    @Test
+    public void testSeeGreaterOrEqualMatchesSee() {
+        String[] fens = {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1",
+            "3rk3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1",
+            "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8",
+        };
+        MoveList moves = new MoveList();
+        for (String fen : fens) {
+            Board board = new Board(fen);
+            board.legalMoves(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int see = board.see(moves.get(i));
+                for (int threshold = -1000; threshold <= 1000; threshold += 10) {
+                    assertEquals("Expected threshold check to agree with see for " + PackedMove.toString(moves.get(i)) + " in " + fen,
+                            see >= threshold, board.seeGreaterOrEqual(moves.get(i), threshold));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testSeeMove() {
+        Board board = new Board("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1");
+        Move capture = Move.createMove(board.getSquare("d2"), board.getSquare("d5"));
+        
+        assertEquals("Expected to lose the queen for a pawn", -800, board.see(capture));
+        assertTrue("Expected to lose at least 800", board.seeGreaterOrEqual(capture, -800));
+        assertFalse("Expected to lose more than 799", board.seeGreaterOrEqual(capture, -799));
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testSeeIllegalMove() {
+        Board board = new Board();
+        board.see(Move.createMove(board.getSquare("e2"), board.getSquare("e5")));
+    }
+    
+    @Test
+    public void testMakeNullMove() {
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1";
+        Board board = new Board(fen);
+        long key = board.zobristKey();
+        
+        board.makeNullMove();
+        assertEquals("Expected black to move", PieceColor.BLACK, board.turn());
+        assertEquals("Expected en passent square to be gone", "r3k2r/8/8/3pP3/8/8/8/R3K2R b KQkq - 1 1", board.toFen());
+        assertEquals("Expected key of the position after passing",
+                new Board("r3k2r/8/8/3pP3/8/8/8/R3K2R b KQkq - 1 1").zobristKey(), board.zobristKey());
+        
+        board.unmakeMove();
+        assertEquals("Expected original position", fen, board.toFen());
+        assertEquals("Expected original key", key, board.zobristKey());
+    }
+    
+    @Test
+    public void testHasNonPawnMaterial() {
+        assertTrue("Expected pieces", new Board().hasNonPawnMaterial());
+        assertFalse("Expected only pawns", new Board("4k3/pp6/8/8/8/8/8/RN2K3 b - - 0 1").hasNonPawnMaterial());
+        assertTrue("Expected a knight", new Board("4k3/pp6/8/8/8/8/8/1N2K3 w - - 0 1").hasNonPawnMaterial());
+        assertFalse("Expected a bare king", new Board("4k3/pp6/8/8/8/8/8/4K3 w - - 0 1").hasNonPawnMaterial());
+    }
+    
+    @Test
+    public void testMaterialInitialPosition() {
+        assertEquals("Expected equal material", 0, new Board().material());
+        assertEquals("Expected mirrored piece-square scores", 0, new Board().positional());
+        
+        Board board = new Board("4k3/8/8/8/8/8/8/QN2K3 w - - 0 1");
+        assertEquals("Expected queen and knight", 1220, board.material());
+        assertEquals("Expected corner penalties of queen and knight", PieceSquare.score(-20 - 40, -20 - 40), board.positional());
+    }
+    
+    @Test
+    public void testPhase() {
+        assertEquals("Expected middlegame", PieceSquare.MAX_PHASE, new Board().phase());
+        assertEquals("Expected endgame", 0, new Board("4k3/pp6/8/8/8/8/8/4K3 w - - 0 1").phase());
+        assertEquals("Expected queen and knight", 5, new Board("4k3/8/8/8/8/8/8/QN2K3 w - - 0 1").phase());
+        assertEquals("Expected phase to be capped", PieceSquare.MAX_PHASE, new Board("4k3/8/8/8/8/8/QQQQ4/QQQQK3 w - - 0 1").phase());
+    }
+    
+    @Test
+    public void testPiecesBitboards() {
+        Board board = new Board("4k3/pp6/8/8/8/8/8/RN2K3 w - - 0 1");
+        
+        assertEquals("Expected pawns on a7 and b7", (1L << 48) | (1L << 49), board.pieces(PieceColor.BLACK, PieceType.PAWN));
+        assertEquals("Expected no white pawns", 0L, board.pieces(PieceColor.WHITE, PieceType.PAWN));
+        assertEquals("Expected rook, knight and king", (1L << 0) | (1L << 1) | (1L << 4), board.occupancy(PieceColor.WHITE));
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testPiecesNone() {
+        new Board().pieces(PieceColor.WHITE, PieceType.NONE);
+    }
+    
+    @Test
+    public void testMaterialMatchesAfterMoves() {
+        Board board = new Board("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        int material = board.material();
+        int positional = board.positional();
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            Board fresh = new Board(board.toFen());
+            assertEquals("Expected incremental material to match FEN", fresh.material(), board.material());
+            assertEquals("Expected incremental piece-square score to match FEN", fresh.positional(), board.positional());
+            assertEquals("Expected incremental phase to match FEN", fresh.phase(), board.phase());
+            board.unmakeMove();
+            assertEquals("Expected material to be restored", material, board.material());
+            assertEquals("Expected piece-square score to be restored", positional, board.positional());
+        }
+        
+        board.makeNullMove();
+        assertEquals("Expected null move to keep material", material, board.material());
+        assertEquals("Expected null move to keep piece-square score", positional, board.positional());
+        board.unmakeMove();
+        
+        board.move(getArbitrary(board.legalMoves()));
+        board.takeBackLastMove();
+        assertEquals("Expected material to be restored after take back", material, board.material());
+        assertEquals("Expected piece-square score to be restored after take back", positional, board.positional());
+    }
+    
+    @Test
+    public void testCopy() {
+        Board board = new Board();
+        board.move(Move.createMove(board.getSquare("e2"), board.getSquare("e4")));
+        board.move(Move.createMove(board.getSquare("e7"), board.getSquare("e5")));
+        String fen = board.toFen();
+        Board copy = new Board(board);
+        
+        assertEquals("Expected same position", fen, copy.toFen());
+        assertEquals("Expected same moves played", board.movesPlayed(), copy.movesPlayed());
+        
+        copy.takeBackLastMove();
+        copy.takeBackLastMove();
+        assertEquals("Expected initial position on the copy", new Board().toFen(), copy.toFen());
+        assertEquals("Expected board to be left unchanged", fen, board.toFen());
+    }
+    
+    @Test
+    public void testRepetition() {
+        Board board = new Board();
+        String[][] moves = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        
+        assertFalse("Expected no repetition in the initial position", board.repetition());
+        for (String[] move : moves) {
+            assertFalse("Expected no repetition before the knights return", board.repetition());
+            board.move(Move.createMove(board.getSquare(move[0]), board.getSquare(move[1])));
+        }
+        assertTrue("Expected the initial position to be repeated", board.repetition());
+        assertTrue("Expected the repetition to be kept by a copy", new Board(board).repetition());
+        assertEquals("Expected four quiet moves", 4, board.halfmoveClock());
+        
+        board.takeBackLastMove();
+        assertFalse("Expected no repetition after taking back", board.repetition());
+    }
+    
+    @Test
+    public void testRepetitionOtherSideToMove() {
+        Board board = new Board("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        String[][] moves = {{"a1", "a2"}, {"e8", "d8"}, {"a2", "a1"}};
+        
+        for (String[] move : moves) {
+            board.move(Move.createMove(board.getSquare(move[0]), board.getSquare(move[1])));
+        }
+        assertFalse("Expected no repetition with black's king moved", board.repetition());
+        
+        board.move(Move.createMove(board.getSquare("d8"), board.getSquare("e8")));
+        assertTrue("Expected the position to be repeated", board.repetition());
+    }
+    
+    @Test
+    public void testRepetitionBeforePawnMove() {
+        Board board = new Board("4k3/p7/8/8/8/8/P7/4K3 w - - 7 20");
+        String[][] moves = {{"e1", "d1"}, {"e8", "d8"}, {"d1", "e1"}, {"d8", "e8"}, {"a2", "a3"}, {"a7", "a6"}};
+        
+        for (String[] move : moves) {
+            board.move(Move.createMove(board.getSquare(move[0]), board.getSquare(move[1])));
+        }
+        assertEquals("Expected the clock to be reset by the pawn move", 0, board.halfmoveClock());
+        
+        board.move(Move.createMove(board.getSquare("e1"), board.getSquare("d1")));
+        board.move(Move.createMove(board.getSquare("e8"), board.getSquare("d8")));
+        board.move(Move.createMove(board.getSquare("d1"), board.getSquare("e1")));
+        board.move(Move.createMove(board.getSquare("d8"), board.getSquare("e8")));
+        assertTrue("Expected the position after the pawn moves to be repeated", board.repetition());
+        assertEquals("Expected four quiet moves", 4, board.halfmoveClock());
+    }
+    
+    @Test
+    public void testRepetitionPackedMoves() {
+        Board board = new Board("4k3/8/8/8/8/8/8/R3K3 w - - 12 40");
+        int[] moves = {PackedMove.encode(BitBoard.square(0, 0), BitBoard.square(0, 1), PackedMove.QUIET),
+                       PackedMove.encode(BitBoard.square(4, 7), BitBoard.square(3, 7), PackedMove.QUIET),
+                       PackedMove.encode(BitBoard.square(0, 1), BitBoard.square(0, 0), PackedMove.QUIET),
+                       PackedMove.encode(BitBoard.square(3, 7), BitBoard.square(4, 7), PackedMove.QUIET)};
+        
+        for (int move : moves) {
+            board.makeMove(move);
+        }
+        assertTrue("Expected the position to be repeated", board.repetition());
+        assertEquals("Expected the clock to count from FEN", 16, board.halfmoveClock());
+        for (int i = 0; i < moves.length; i++) {
+            board.unmakeMove();
+        }
+        
+        board.makeMove(moves[0]);
+        board.makeNullMove();
+        board.makeMove(moves[2]);
+        board.makeNullMove();
+        assertFalse("Expected no repetition across null moves", board.repetition());
+    }
+    
+    /**
+     * Resolve the exchange a move starts in a position
+     * @param fen position to play the move in
+     * @param move legal move of fen in coordinate notation, e.g. e2e4 or e7e8q
+     * @return the see of move in fen
+     */
+    private int see(String fen, String move) {
+        Board board = new Board(fen);
+        MoveList moves = new MoveList();
+        board.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toString(moves.get(i)).equals(move)) {
+                return board.see(moves.get(i));
+            }
+        }
+        throw new RuntimeException("Move " + move + " is not legal in " + fen);
     }
     
     /**
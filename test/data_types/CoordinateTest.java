@@ -2,6 +2,9 @@ package data_types;
 
 import static org.junit.Assert.*;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
 /**
@@ -34,6 +37,13 @@ public class CoordinateTest {
     // equals:
     // - coordinate1 != coordinate2, coordinate1 == coordinate2 
     // 
+    // of:
+    // - coordinate given in (x,y) form, coordinate given in chess notation
+    // - coordinate is on the board, coordinate is off the board
+    // 
+    // hashCode:
+    // - coordinates share a rank, share a file, share nothing
+    // 
     
     @Test(expected=AssertionError.class)
     public void testAssertionsEnabled() {
@@ -174,4 +184,38 @@ public class CoordinateTest {
         assertFalse("Expected equals to fail on different coordinates", coordinate1.equals(coordinate2));
     }
     
+    @Test
+    public void testOfCanonical() {
+        Coordinate coordinate1 = Coordinate.of("e4");
+        Coordinate coordinate2 = Coordinate.of(4, 3);
+        
+        assertTrue("Expected the same instance for the same coordinate", coordinate1 == coordinate2);
+        assertEquals("Expected canonical coordinate to equal a new one", new Coordinate("e4"), coordinate1);
+        assertEquals("Expected x-coordinate of e4", 4, coordinate1.getX());
+        assertEquals("Expected y-coordinate of e4", 3, coordinate1.getY());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testOfOffBoard() {
+        Coordinate.of(8, 0);
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testOfInvalidNotation() {
+        Coordinate.of("i9");
+    }
+    
+    @Test
+    public void testHashCodeDistinct() {
+        Set<Integer> hashCodes = new HashSet<>();
+        for (int x = 0; x < Board.DEFAULT_SIZE; x++) {
+            for (int y = 0; y < Board.DEFAULT_SIZE; y++) {
+                hashCodes.add(Coordinate.of(x, y).hashCode());
+                assertEquals("Expected equal coordinates to have equal hash codes", new Coordinate(x, y).hashCode(), Coordinate.of(x, y).hashCode());
+            }
+        }
+        
+        assertEquals("Expected a distinct hash code for every coordinate", 64, hashCodes.size());
+    }
+
 }
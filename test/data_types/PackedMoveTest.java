@@ -0,0 +1,99 @@
+package data_types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the PackedMove and MoveList classes
+ * @author Bryson
+ */
+public class PackedMoveTest {
+    
+    // Testing Strategy:
+    //
+    // encode, from, to, flags:
+    //  - squares in the corners, squares in the center
+    //  - every flag
+    //
+    // isCapture, isPromotion, promotionType, toString:
+    //  - quiet move, capture, en passent, promotion, capturing promotion
+    //  - promotion to every type
+    //
+    // MoveList:
+    //  - empty, one move, full
+    //  - cleared after adding moves
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testEncodeRoundTrip() {
+        int[] flags = {PackedMove.QUIET, PackedMove.DOUBLE_PUSH, PackedMove.KING_CASTLE, PackedMove.QUEEN_CASTLE,
+                PackedMove.CAPTURE, PackedMove.EN_PASSENT, PackedMove.PROMOTION | 3, PackedMove.PROMOTION_CAPTURE | 3};
+        int[][] squares = {{0, 63}, {63, 0}, {27, 36}, {12, 28}};
+        
+        for (int flag : flags) {
+            for (int[] pair : squares) {
+                int move = PackedMove.encode(pair[0], pair[1], flag);
+                assertEquals("Expected same source", pair[0], PackedMove.from(move));
+                assertEquals("Expected same target", pair[1], PackedMove.to(move));
+                assertEquals("Expected same flags", flag, PackedMove.flags(move));
+                assertTrue("Expected move to fit in 16 bits", (move & ~0xFFFF) == 0);
+            }
+        }
+    }
+    
+    @Test
+    public void testKinds() {
+        int quiet = PackedMove.encode(12, 28, PackedMove.DOUBLE_PUSH);
+        int capture = PackedMove.encode(28, 35, PackedMove.CAPTURE);
+        int enPassent = PackedMove.encode(36, 43, PackedMove.EN_PASSENT);
+        int promotion = PackedMove.encode(52, 60, PackedMove.PROMOTION | (BitBoard.QUEEN - BitBoard.KNIGHT));
+        int capturePromotion = PackedMove.encode(52, 61, PackedMove.PROMOTION_CAPTURE);
+        
+        assertFalse("Expected quiet move", PackedMove.isCapture(quiet) || PackedMove.isPromotion(quiet));
+        assertTrue("Expected capture", PackedMove.isCapture(capture) && !PackedMove.isPromotion(capture));
+        assertTrue("Expected en passent to capture", PackedMove.isCapture(enPassent) && !PackedMove.isPromotion(enPassent));
+        assertTrue("Expected promotion", PackedMove.isPromotion(promotion) && !PackedMove.isCapture(promotion));
+        assertTrue("Expected capturing promotion", PackedMove.isPromotion(capturePromotion) && PackedMove.isCapture(capturePromotion));
+        
+        assertEquals("Expected e2e4", "e2e4", PackedMove.toString(quiet));
+        assertEquals("Expected e7e8q", "e7e8q", PackedMove.toString(promotion));
+        assertEquals("Expected e7f8n", "e7f8n", PackedMove.toString(capturePromotion));
+    }
+    
+    @Test
+    public void testPromotionTypes() {
+        for (int type = BitBoard.KNIGHT; type <= BitBoard.QUEEN; type++) {
+            int move = PackedMove.encode(52, 60, PackedMove.PROMOTION | (type - BitBoard.KNIGHT));
+            assertEquals("Expected same promotion type", type, PackedMove.promotionType(move));
+        }
+    }
+    
+    @Test
+    public void testMoveList() {
+        MoveList moves = new MoveList();
+        assertEquals("Expected empty list", 0, moves.size());
+        
+        moves.add(PackedMove.encode(12, 28, PackedMove.DOUBLE_PUSH));
+        assertEquals("Expected one move", 1, moves.size());
+        assertTrue("Expected move in list", moves.contains(PackedMove.encode(12, 28, PackedMove.DOUBLE_PUSH)));
+        assertFalse("Expected move not in list", moves.contains(PackedMove.encode(12, 20, PackedMove.QUIET)));
+        
+        moves.clear();
+        for (int i = 0; i < BitBoard.MAX_MOVES; i++) {
+            moves.add(i);
+        }
+        assertEquals("Expected full list", BitBoard.MAX_MOVES, moves.size());
+        assertEquals("Expected last move", BitBoard.MAX_MOVES - 1, moves.get(BitBoard.MAX_MOVES - 1));
+        
+        moves.clear();
+        assertEquals("Expected empty list", 0, moves.size());
+    }
+}
@@ -45,6 +45,10 @@ public class PieceTest {
     //    - bishop is on the edge, bishop is not on the edge
     //    - bishop is in the center, bishop is not in the center
     // 
+    // pawn, knight, bishop, rook, queen, king:
+    //  - piece is white, piece is black
+    //  - piece has moved, piece has not moved
+    //
     // exists:
     //  - piece is a pawn, piece is not a pawn
     //  - piece is a king, piece is not a king
@@ -98,6 +102,13 @@ public class PieceTest {
     //  - piece is a bishop, piece is not a bishop
     //  - piece is a queen, piece is not a queen
     //
+    // type:
+    //  - piece exists, piece is empty
+    //
+    // equals, hashCode:
+    //  - pieces differ in type, color, moved, nothing
+    //  - pieces were created by factories, pieces were constructed directly
+    //
     
     @Test(expected=AssertionError.class)
     public void testAssertionsEnabled() {
@@ -848,4 +859,62 @@ public class PieceTest {
         assertFalse("Expected non-equivalent pieces to be not equivalent", whiteKnight1.equals(whiteKing1));
     }
     
+    @Test
+    public void testFactoriesCanonical() {
+        for (PieceColor color : new PieceColor[] {PieceColor.WHITE, PieceColor.BLACK}) {
+            for (boolean moved : new boolean[] {false, true}) {
+                assertTrue("Expected the same pawn instance", Piece.pawn(color, moved) == Piece.pawn(color, moved));
+                assertTrue("Expected the same knight instance", Piece.knight(color, moved) == Piece.knight(color, moved));
+                assertTrue("Expected the same bishop instance", Piece.bishop(color, moved) == Piece.bishop(color, moved));
+                assertTrue("Expected the same rook instance", Piece.rook(color, moved) == Piece.rook(color, moved));
+                assertTrue("Expected the same queen instance", Piece.queen(color, moved) == Piece.queen(color, moved));
+                assertTrue("Expected the same king instance", Piece.king(color, moved) == Piece.king(color, moved));
+                assertEquals("Expected the right color", color, Piece.queen(color, moved).color());
+                assertEquals("Expected the right moved flag", moved, Piece.queen(color, moved).hasMoved());
+            }
+        }
+        
+        assertTrue("Expected moved version to be canonical", Piece.rook(PieceColor.BLACK, false).getMovedVersion() == Piece.rook(PieceColor.BLACK, true));
+        assertFalse("Expected different instances for different colors", Piece.king(PieceColor.WHITE, false) == Piece.king(PieceColor.BLACK, false));
+    }
+    
+    @Test
+    public void testType() {
+        PieceColor white = PieceColor.WHITE;
+        
+        assertEquals("Expected pawn type", PieceType.PAWN, Piece.pawn(white, false).type());
+        assertEquals("Expected knight type", PieceType.KNIGHT, Piece.knight(white, false).type());
+        assertEquals("Expected bishop type", PieceType.BISHOP, Piece.bishop(white, false).type());
+        assertEquals("Expected rook type", PieceType.ROOK, Piece.rook(white, false).type());
+        assertEquals("Expected queen type", PieceType.QUEEN, Piece.queen(white, false).type());
+        assertEquals("Expected king type", PieceType.KING, Piece.king(PieceColor.BLACK, true).type());
+        assertEquals("Expected empty type", PieceType.NONE, new EmptyPiece().type());
+    }
+    
+    @Test
+    public void testEqualsHashCodeCompact() {
+        PieceColor white = PieceColor.WHITE;
+        PieceColor black = PieceColor.BLACK;
+        
+        assertEquals("Expected constructed piece to equal canonical piece", new Queen(white, true), Piece.queen(white, true));
+        assertEquals("Expected equal hash codes", new Queen(white, true).hashCode(), Piece.queen(white, true).hashCode());
+        assertFalse("Expected different colors to differ", Piece.rook(white, false).equals(Piece.rook(black, false)));
+        assertFalse("Expected different moved flags to differ", Piece.rook(white, false).equals(Piece.rook(white, true)));
+        assertFalse("Expected different types to differ", Piece.bishop(white, false).equals(Piece.knight(white, false)));
+        
+        Set<Integer> hashCodes = new HashSet<>();
+        for (PieceColor color : new PieceColor[] {white, black}) {
+            for (boolean moved : new boolean[] {false, true}) {
+                hashCodes.add(Piece.pawn(color, moved).hashCode());
+                hashCodes.add(Piece.knight(color, moved).hashCode());
+                hashCodes.add(Piece.bishop(color, moved).hashCode());
+                hashCodes.add(Piece.rook(color, moved).hashCode());
+                hashCodes.add(Piece.queen(color, moved).hashCode());
+                hashCodes.add(Piece.king(color, moved).hashCode());
+            }
+        }
+        
+        assertEquals("Expected a distinct hash code for every piece", 24, hashCodes.size());
+    }
+    
 }
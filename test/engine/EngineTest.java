@@ -0,0 +1,347 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import data_types.Board;
+import data_types.Move;
+
+/**
+ * Tests for the Engine class
+ * @author Bryson
+ */
+public class EngineTest {
+    
+    // Testing Strategy:
+    //
+    // search, getBestMove:
+    //  - depth == 1, depth > 1, depth out of range
+    //  - position has a mate in one, a mate in two, a hanging piece, a defended piece, no legal moves
+    //  - capture sequence continues beyond depth
+    //  - side to move is white, black
+    //  - board is left unchanged
+    //  - one thread, several threads
+    //  - limited by depth, time, nodes, stopped from another thread
+    //  - limits out of range
+    //  - pondering on the expected reply, on the current position; ponderhit, miss
+    //  - default options, full width, each technique on its own
+    //  - a move repeats a position of the game, a move draws by the fifty-move rule
+    //  - best move is by a piece that moved and returned to its initial square
+    //
+    // Engine:
+    //  - threads == 1, threads > 1, threads out of range
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testMateInOne() {
+        Board board = new Board("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Engine(board).search(2);
+        
+        assertEquals("Expected back rank mate", Move.createMove(board.getSquare("a1"), board.getSquare("a8")), result.bestMove());
+        assertEquals("Expected mate score", Engine.MATE - 1, result.score());
+        assertEquals("Expected depth 2", 2, result.depth());
+        assertTrue("Expected nodes to be counted", result.nodes() > 0);
+    }
+    
+    @Test
+    public void testMateInTwo() {
+        Board board = new Board("k7/8/1K6/8/8/8/8/1R6 w - - 0 1");
+        SearchResult result = new Engine(board).search(4);
+        
+        assertEquals("Expected mate in two", Engine.MATE - 3, result.score());
+        assertEquals("Expected three moves of principal variation", 3, result.principalVariation().size());
+    }
+    
+    @Test
+    public void testBlackCapturesHangingQueen() {
+        Board board = new Board("4k3/8/8/3q4/8/8/3Q4/K7 b - - 0 1");
+        Engine engine = new Engine(board);
+        String fen = board.toFen();
+        
+        assertEquals("Expected queen capture", Move.createMove(board.getSquare("d5"), board.getSquare("d2")), engine.getBestMove());
+        assertEquals("Expected board to be unchanged", fen, board.toFen());
+    }
+    
+    @Test
+    public void testQuiescenceSeesRecapture() {
+        Board board = new Board("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1");
+        SearchResult result = new Engine(board).search(1);
+        
+        assertFalse("Expected queen to not take defended pawn", result.bestMove().equals(Move.createMove(board.getSquare("d2"), board.getSquare("d5"))));
+        assertTrue("Expected white to stay ahead", result.score() > 0);
+    }
+    
+    @Test
+    public void testQuiescenceCaptureSequence() {
+        // Rxd5 wins a pawn only if the rook is not recaptured, which takes more than one move to see
+        Board board = new Board("3rk3/8/8/3p4/8/8/8/3RK3 w - - 0 1");
+        SearchResult result = new Engine(board).search(1);
+        
+        assertFalse("Expected rook to not take defended pawn", result.bestMove().equals(Move.createMove(board.getSquare("d1"), board.getSquare("d5"))));
+    }
+    
+    @Test
+    public void testPrincipalVariation() {
+        Board board = new Board();
+        SearchResult result = new Engine(board).search(3);
+        List<Move> line = result.principalVariation();
+        
+        assertEquals("Expected three moves of principal variation", 3, line.size());
+        assertEquals("Expected principal variation to start with best move", result.bestMove(), line.get(0));
+        for (Move move : line) {
+            board.move(move);
+        }
+    }
+    
+    @Test
+    public void testNoLegalMoves() {
+        Board board = new Board("k7/8/1Q6/8/8/8/8/7K b - - 0 1");
+        SearchResult result = new Engine(board).search(1);
+        
+        assertTrue("Expected undefined move", result.bestMove().isUndefined());
+        assertEquals("Expected stalemate score", 0, result.score());
+    }
+    
+    @Test
+    public void testThreads() {
+        Board board = new Board("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+        Engine engine = new Engine(board, 1, 4);
+        SearchResult parallel = engine.search(4);
+        
+        assertEquals("Expected 4 threads", 4, engine.threads());
+        assertEquals("Expected same depth", 4, parallel.depth());
+        assertTrue("Expected a legal move", board.legalMoves().contains(parallel.bestMove()));
+    }
+    
+    @Test
+    public void testThreadsMateInTwo() {
+        Board board = new Board("k7/8/1K6/8/8/8/8/1R6 w - - 0 1");
+        assertEquals("Expected mate in two", Engine.MATE - 3, new Engine(board, 1, 3).search(4).score());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testThreadsOutOfRange() {
+        new Engine(new Board(), 1, 0);
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testDepthOutOfRange() {
+        new Engine(new Board()).search(0);
+    }
+    
+    @Test
+    public void testTimeLimit() {
+        Board board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long start = System.nanoTime();
+        SearchResult result = new Engine(board).search(SearchLimits.time(100));
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        
+        assertTrue("Expected search to stop on time, took " + elapsed + " ms", elapsed < 1000);
+        assertTrue("Expected a completed iteration", result.depth() >= 1);
+        assertTrue("Expected a legal move", board.legalMoves().contains(result.bestMove()));
+    }
+    
+    @Test
+    public void testNodeLimit() {
+        Board board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        SearchResult result = new Engine(board).search(SearchLimits.nodes(20000));
+        
+        assertTrue("Expected node budget to be respected, visited " + result.nodes(), result.nodes() < 20000 + 1024);
+        assertTrue("Expected a completed iteration", result.depth() >= 1);
+        assertTrue("Expected a legal move", board.legalMoves().contains(result.bestMove()));
+    }
+    
+    @Test
+    public void testTinyBudgetCompletesFirstIteration() {
+        Board board = new Board("k7/8/1K6/8/8/8/8/1R6 w - - 0 1");
+        SearchResult result = new Engine(board, 1, 2).search(SearchLimits.nodes(1));
+        
+        assertEquals("Expected one completed iteration", 1, result.depth());
+        assertTrue("Expected a legal move", board.legalMoves().contains(result.bestMove()));
+    }
+    
+    @Test
+    public void testStop() throws InterruptedException {
+        Board board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        final Engine engine = new Engine(board);
+        final SearchResult[] result = new SearchResult[1];
+        Thread search = new Thread(new Runnable() {
+            public void run() {
+                result[0] = engine.search(SearchLimits.time(60000));
+            }
+        });
+        
+        search.start();
+        Thread.sleep(100);
+        engine.stop();
+        search.join(5000);
+        
+        assertFalse("Expected search to stop", search.isAlive());
+        assertTrue("Expected a legal move", board.legalMoves().contains(result[0].bestMove()));
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testTimeLimitOutOfRange() {
+        SearchLimits.time(0);
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testNodeLimitOutOfRange() {
+        SearchLimits.nodes(-1);
+    }
+    
+    @Test
+    public void testPonderHit() throws InterruptedException {
+        Board board = new Board("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+        Engine engine = new Engine(board);
+        List<Move> line = engine.search(3).principalVariation();
+        
+        board.move(line.get(0));
+        engine.start();
+        assertTrue("Expected engine to ponder", engine.isPondering());
+        Thread.sleep(200);
+        board.move(line.get(1));
+        
+        SearchResult cold = new Engine(board).search(2);
+        SearchResult hit = engine.search(2);
+        assertFalse("Expected pondering to end", engine.isPondering());
+        assertTrue("Expected a completed iteration", hit.depth() >= 2);
+        assertTrue("Expected a legal move", board.legalMoves().contains(hit.bestMove()));
+        assertTrue("Expected ponder search to continue", hit.nodes() > cold.nodes());
+    }
+    
+    @Test
+    public void testPonderMiss() throws InterruptedException {
+        Board board = new Board("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+        Engine engine = new Engine(board);
+        List<Move> line = engine.search(3).principalVariation();
+        
+        board.move(line.get(0));
+        engine.start();
+        Thread.sleep(50);
+        for (Move move : board.legalMoves()) {
+            if (!move.equals(line.get(1))) {
+                board.move(move);
+                break;
+            }
+        }
+        
+        SearchResult miss = engine.search(2);
+        assertFalse("Expected pondering to end", engine.isPondering());
+        assertEquals("Expected a new search", 2, miss.depth());
+        assertTrue("Expected a legal move", board.legalMoves().contains(miss.bestMove()));
+    }
+    
+    @Test
+    public void testPonderCurrentPosition() throws InterruptedException {
+        Board board = new Board();
+        Engine engine = new Engine(board);
+        engine.start();
+        Thread.sleep(50);
+        
+        SearchResult result = engine.search(SearchLimits.time(50));
+        assertTrue("Expected a completed iteration", result.depth() >= 1);
+        assertTrue("Expected a legal move", board.legalMoves().contains(result.bestMove()));
+        
+        engine.start();
+        engine.stopPondering();
+        assertFalse("Expected pondering to end", engine.isPondering());
+    }
+    
+    @Test
+    public void testOptions() {
+        Engine engine = new Engine(new Board());
+        assertEquals("Expected default options", SearchOptions.DEFAULT, engine.options());
+        
+        engine.setOptions(SearchOptions.FULL_WIDTH);
+        assertEquals("Expected full width", SearchOptions.FULL_WIDTH, engine.options());
+    }
+    
+    @Test
+    public void testSelectiveSearchVisitsFewerNodes() {
+        String fen = "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8";
+        long fullWidth = Bench.search(fen, 5, SearchOptions.FULL_WIDTH).nodes();
+        
+        assertTrue("Expected null moves to prune", Bench.search(fen, 5, SearchOptions.FULL_WIDTH.withNullMove(true)).nodes() < fullWidth);
+        assertTrue("Expected late moves to be reduced", Bench.search(fen, 5, SearchOptions.FULL_WIDTH.withLateMoveReductions(true)).nodes() < fullWidth);
+        assertTrue("Expected futile moves to be pruned", Bench.search(fen, 5, SearchOptions.FULL_WIDTH.withFutility(true)).nodes() < fullWidth);
+        assertTrue("Expected razoring to prune", Bench.search(fen, 5, SearchOptions.FULL_WIDTH.withRazoring(true)).nodes() < fullWidth);
+        assertTrue("Expected null windows to prune", Bench.search(fen, 5, SearchOptions.FULL_WIDTH.withPvs(true)).nodes() < fullWidth);
+        assertTrue("Expected all techniques to prune", Bench.search(fen, 5, SearchOptions.DEFAULT).nodes() < fullWidth);
+        
+        // the first guess is too far from the score in this position for the window alone to pay off
+        String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        assertTrue("Expected aspiration windows to prune", Bench.search(kiwipete, 5, SearchOptions.FULL_WIDTH.withAspiration(true)).nodes()
+                < Bench.search(kiwipete, 5, SearchOptions.FULL_WIDTH).nodes());
+    }
+    
+    @Test
+    public void testWindowsKeepScore() {
+        String fen = "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+        SearchOptions windows = SearchOptions.FULL_WIDTH.withPvs(true).withAspiration(true);
+        
+        assertEquals("Expected same score with narrower windows",
+                Bench.search(fen, 5, SearchOptions.FULL_WIDTH).score(), Bench.search(fen, 5, windows).score());
+    }
+    
+    @Test
+    public void testSelectiveSearchFindsMates() {
+        assertEquals("Expected mate in two", Engine.MATE - 3,
+                Bench.search("k7/8/1K6/8/8/8/8/1R6 w - - 0 1", 6, SearchOptions.DEFAULT).score());
+        assertEquals("Expected mate in two at full width", Engine.MATE - 3,
+                Bench.search("k7/8/1K6/8/8/8/8/1R6 w - - 0 1", 4, SearchOptions.FULL_WIDTH).score());
+    }
+    
+    @Test
+    public void testSelectiveSearchFindsCapture() {
+        Board board = new Board("4k3/8/8/3q4/8/8/3Q4/K7 b - - 0 1");
+        SearchResult result = Bench.search(board.toFen(), 6, SearchOptions.DEFAULT);
+        
+        assertEquals("Expected Qxd2", Move.createMove(board.getSquare("d5"), board.getSquare("d2")), result.bestMove());
+    }
+    
+    @Test
+    public void testRepetitionDraw() {
+        Board board = new Board("6k1/8/8/8/8/Q7/8/K7 b - - 0 1");
+        String[][] moves = {{"g8", "h8"}, {"a1", "a2"}, {"h8", "g8"}, {"a2", "a1"}};
+        for (String[] move : moves) {
+            board.move(Move.createMove(board.getSquare(move[0]), board.getSquare(move[1])));
+        }
+        SearchResult result = new Engine(board).search(4);
+        
+        assertEquals("Expected black to repeat the position", Move.createMove(board.getSquare("g8"), board.getSquare("h8")), result.bestMove());
+        assertEquals("Expected draw score", 0, result.score());
+        assertTrue("Expected no draw without the moves of the game",
+                new Engine(new Board(board.toFen())).search(4).score() < -500);
+    }
+    
+    @Test
+    public void testFiftyMoveDraw() {
+        SearchResult result = new Engine(new Board("6k1/8/8/8/8/Q7/8/K7 b - - 99 80")).search(4);
+        
+        assertEquals("Expected draw score", 0, result.score());
+    }
+    
+    @Test
+    public void testSearchMovedPieceOnInitialSquare() {
+        Board board = new Board("k7/8/8/8/8/7q/8/K5N1 w - - 0 1");
+        String[][] moves = {{"g1", "f3"}, {"h3", "h4"}, {"f3", "g1"}, {"h4", "h3"}};
+        for (String[] move : moves) {
+            board.move(Move.createMove(board.getSquare(move[0]), board.getSquare(move[1])));
+        }
+        SearchResult result = new Engine(board).search(3);
+        
+        assertTrue("Expected a legal move", board.legalMoves().contains(result.bestMove()));
+        assertTrue("Expected the knight to have moved", board.getSquare("g1").getPiece().hasMoved());
+    }
+}
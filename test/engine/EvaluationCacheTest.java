@@ -0,0 +1,107 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import data_types.Board;
+
+/**
+ * Tests for the EvaluationCache class
+ * @author Bryson
+ */
+public class EvaluationCacheTest {
+    
+    // Testing Strategy:
+    //
+    // EvaluationCache:
+    //  - megabytes == 1, megabytes > 1, megabytes < 1
+    //
+    // store, probe, hits, misses:
+    //  - position stored, not stored, another position stored at the same index
+    //  - score is positive, negative, zero, at the limits of 16 bits
+    //
+    // clear:
+    //  - empty cache, cache with entries
+    //
+    // Engine:
+    //  - counters after a search, evaluation cache size out of range
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testSize() {
+        assertTrue("Expected a power of two", Integer.bitCount(new EvaluationCache(1).size()) == 1);
+        assertEquals("Expected twice the entries", 2 * new EvaluationCache(1).size(), new EvaluationCache(2).size());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testSizeTooSmall() {
+        new EvaluationCache(0);
+    }
+    
+    @Test
+    public void testStoreAndProbe() {
+        EvaluationCache cache = new EvaluationCache(1);
+        long key = new Board().zobristKey();
+        
+        assertEquals("Expected a miss", EvaluationCache.NO_SCORE, cache.probe(key));
+        int[] scores = {0, 35, -35, Short.MAX_VALUE, Short.MIN_VALUE};
+        for (int score : scores) {
+            cache.store(key, score);
+            assertEquals("Expected stored score", score, cache.probe(key));
+        }
+        assertEquals("Expected one miss", 1, cache.misses());
+        assertEquals("Expected a hit per score", scores.length, cache.hits());
+    }
+    
+    @Test
+    public void testStoreReplacesOtherPosition() {
+        EvaluationCache cache = new EvaluationCache(1);
+        long key = 0x123456789ABCDEFL;
+        long other = key + ((long) cache.size() << 20);
+        
+        cache.store(key, 50);
+        assertEquals("Expected a miss for another position", EvaluationCache.NO_SCORE, cache.probe(other));
+        cache.store(other, -20);
+        assertEquals("Expected score of the other position", -20, cache.probe(other));
+        assertEquals("Expected first position to be replaced", EvaluationCache.NO_SCORE, cache.probe(key));
+    }
+    
+    @Test
+    public void testClear() {
+        EvaluationCache cache = new EvaluationCache(1);
+        cache.clear();
+        assertEquals("Expected no misses", 0, cache.misses());
+        
+        cache.store(0x1234L << 32, 10);
+        cache.probe(0x1234L << 32);
+        cache.clear();
+        assertEquals("Expected no hits", 0, cache.hits());
+        assertEquals("Expected entry to be gone", EvaluationCache.NO_SCORE, cache.probe(0x1234L << 32));
+    }
+    
+    @Test
+    public void testEngineCounters() {
+        Engine engine = new Engine(new Board("r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8"));
+        assertEquals("Expected no hits yet", 0, engine.evaluationCacheHits());
+        assertEquals("Expected no misses yet", 0, engine.evaluationCacheMisses());
+        
+        SearchResult result = engine.search(5);
+        assertTrue("Expected some evaluations to be found", engine.evaluationCacheHits() > 0);
+        assertTrue("Expected no more evaluations than nodes", engine.evaluationCacheHits() + engine.evaluationCacheMisses() <= result.nodes());
+        
+        engine.setEvaluationCacheSize(2);
+        assertEquals("Expected new caches", 0, engine.evaluationCacheHits() + engine.evaluationCacheMisses());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testEngineEvaluationCacheSizeTooSmall() {
+        new Engine(new Board()).setEvaluationCacheSize(0);
+    }
+}
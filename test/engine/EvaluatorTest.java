@@ -0,0 +1,191 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import data_types.Board;
+import data_types.PieceSquare;
+
+/**
+ * Tests for the Evaluator class
+ * @author Bryson
+ */
+public class EvaluatorTest {
+    
+    // Testing Strategy:
+    //
+    // evaluate:
+    //  - initial position, position mirrored with colors swapped
+    //  - white to move, black to move
+    //  - middlegame, endgame
+    //  - pieces with many safe squares, few safe squares
+    //  - king shielded by pawns, king with its pawns pushed, king attacked by several pieces
+    //  - with a pawn hash table, without
+    //
+    // pawns:
+    //  - no pawns, doubled, isolated, backward, passed pawns, pawns blocked by enemy pawns
+    //
+    // PieceSquare.score, middlegame, endgame, blend:
+    //  - scores positive, negative, zero
+    //  - phase is 0, MAX_PHASE, in between
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testInitialPosition() {
+        assertEquals("Expected an even position", 0, Evaluator.evaluate(new Board()));
+    }
+    
+    @Test
+    public void testMirroredPositions() {
+        String[] fens = {
+            "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w - - 4 4",
+            "r2q1rk1/1b2bppp/p2ppn2/1p6/3NP3/1BN1B3/PPP2PPP/R2QR1K1 b - - 0 12",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        };
+        for (String fen : fens) {
+            assertEquals("Expected the same score for the mirrored position of " + fen,
+                    Evaluator.evaluate(new Board(fen)), Evaluator.evaluate(new Board(mirror(fen))));
+        }
+    }
+    
+    @Test
+    public void testSideToMove() {
+        String fen = "4k3/8/8/8/8/8/4P3/4K3 ";
+        assertEquals("Expected the score of the other side negated",
+                Evaluator.evaluate(new Board(fen + "w - - 0 1")), -Evaluator.evaluate(new Board(fen + "b - - 0 1")));
+        assertTrue("Expected white to be better", Evaluator.evaluate(new Board(fen + "w - - 0 1")) > 0);
+    }
+    
+    @Test
+    public void testKingCentralizedInEndgame() {
+        int centre = Evaluator.evaluate(new Board("4k3/pppp4/8/8/3K4/8/PPPP4/8 w - - 0 1"));
+        int corner = Evaluator.evaluate(new Board("4k3/pppp4/8/8/8/8/PPPP4/K7 w - - 0 1"));
+        assertTrue("Expected a central king in the endgame", centre > corner);
+        
+        int castled = Evaluator.evaluate(new Board("rnbq1rk1/pppppppp/8/8/8/8/PPPPPPPP/RNBQ1RK1 w - - 0 1"));
+        int central = Evaluator.evaluate(new Board("rnbq1rk1/pppppppp/8/8/8/4K3/PPPPPPPP/RNBQ1R2 w - - 0 1"));
+        assertTrue("Expected a castled king in the middlegame", castled > central);
+    }
+    
+    @Test
+    public void testMobility() {
+        int open = Evaluator.evaluate(new Board("4k3/8/8/8/3B4/8/1P6/4K3 w - - 0 1"));
+        int blocked = Evaluator.evaluate(new Board("4k3/8/8/8/8/8/1P6/B3K3 w - - 0 1"));
+        assertTrue("Expected a bishop in the open to be worth more", open > blocked + 50);
+    }
+    
+    @Test
+    public void testKingSafety() {
+        int shielded = Evaluator.evaluate(new Board("r2q1rk1/5ppp/8/8/8/8/5PPP/R2Q1RK1 w - - 0 1"));
+        int pushed = Evaluator.evaluate(new Board("r2q1rk1/5ppp/8/8/5PPP/8/8/R2Q1RK1 w - - 0 1"));
+        assertTrue("Expected pawns in front of the king to help", shielded > pushed);
+        
+        int attacked = Evaluator.evaluate(new Board("6k1/5ppp/8/6NQ/8/8/5PPP/6K1 w - - 0 1"));
+        int distant = Evaluator.evaluate(new Board("6k1/5ppp/8/8/8/8/5PPP/NQ4K1 w - - 0 1"));
+        assertTrue("Expected attackers near the king to be worth more", attacked > distant);
+    }
+    
+    @Test
+    public void testPawnHashTable() {
+        PawnHashTable table = new PawnHashTable(1);
+        String[] fens = {
+            "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w - - 4 4",
+            "r2q1rk1/1b2bppp/p2ppn2/1p6/3NP3/1BN1B3/PPP2PPP/R2QR1K1 b - - 0 12",
+            "r2q1rk1/1b2bppp/p2ppn2/1p6/3NP3/1BN1B3/PPP2PPP/R2QR1K1 b - - 0 12",
+        };
+        for (String fen : fens) {
+            assertEquals("Expected the same score with a pawn hash table", Evaluator.evaluate(new Board(fen)), Evaluator.evaluate(new Board(fen), table));
+        }
+        assertEquals("Expected the repeated position to hit", 1, table.hits());
+    }
+    
+    @Test
+    public void testBackwardPawn() {
+        long b2 = 1L << 9;
+        long c2 = 1L << 10;
+        long c3 = 1L << 18;
+        long a4 = 1L << 24;
+        long c5 = 1L << 34;
+        
+        // a4 guards b3, and with c3 already past it, b2 has no pawn left to advance beside it
+        int backward = Evaluator.pawns(b2 | c3, a4 | c5);
+        int supported = Evaluator.pawns(b2 | c2, a4 | c5);
+        assertTrue("Expected a backward pawn to be worse", PieceSquare.middlegame(backward) < PieceSquare.middlegame(supported));
+        assertTrue("Expected a backward pawn to be worse", PieceSquare.endgame(backward) < PieceSquare.endgame(supported));
+    }
+    
+    @Test
+    public void testPawnsNone() {
+        assertEquals("Expected no pawn structure", 0, Evaluator.pawns(0L, 0L));
+    }
+    
+    @Test
+    public void testPawnStructure() {
+        long a2 = 1L << 8;
+        long b2 = 1L << 9;
+        long a3 = 1L << 16;
+        long a7 = 1L << 48;
+        long b7 = 1L << 49;
+        
+        // a7 and b7 block both white pawns, so only the shape of the structure counts
+        int connected = Evaluator.pawns(a2 | b2, a7 | b7);
+        int doubled = Evaluator.pawns(a2 | a3, a7 | b7);
+        assertTrue("Expected doubled, isolated pawns to be worse", PieceSquare.middlegame(doubled) < PieceSquare.middlegame(connected));
+        assertTrue("Expected doubled, isolated pawns to be worse", PieceSquare.endgame(doubled) < PieceSquare.endgame(connected));
+        
+        int passed = Evaluator.pawns(a2 | b2, b7 << 1);
+        assertTrue("Expected passed pawns to be better", PieceSquare.endgame(passed) > PieceSquare.endgame(connected));
+        assertEquals("Expected a mirrored structure to score the opposite",
+                -Evaluator.pawns(a2 | b2, b7 << 1), Evaluator.pawns(1L << 10, a7 | b7));
+    }
+    
+    @Test
+    public void testPackedScores() {
+        int[][] pairs = {{0, 0}, {35, -70}, {-35, 70}, {-120, -300}, {250, 40}};
+        for (int[] pair : pairs) {
+            int score = PieceSquare.score(pair[0], pair[1]);
+            assertEquals("Expected middlegame score", pair[0], PieceSquare.middlegame(score));
+            assertEquals("Expected endgame score", pair[1], PieceSquare.endgame(score));
+        }
+        
+        int sum = PieceSquare.score(-10, 20) + PieceSquare.score(-15, -45);
+        assertEquals("Expected middlegame scores to add", -25, PieceSquare.middlegame(sum));
+        assertEquals("Expected endgame scores to add", -25, PieceSquare.endgame(sum));
+    }
+    
+    @Test
+    public void testBlend() {
+        int score = PieceSquare.score(-40, 80);
+        assertEquals("Expected middlegame score", -40, PieceSquare.blend(score, PieceSquare.MAX_PHASE));
+        assertEquals("Expected endgame score", 80, PieceSquare.blend(score, 0));
+        assertEquals("Expected average", 20, PieceSquare.blend(score, PieceSquare.MAX_PHASE / 2));
+    }
+    
+    /**
+     * Mirror a position across the middle of the board and swap the colors of its pieces
+     * @param fen position without castling rights or en passent square
+     * @return the FEN of the mirrored position, with the other side to move
+     */
+    private static String mirror(String fen) {
+        String[] fields = fen.split(" ");
+        String[] ranks = fields[0].split("/");
+        StringBuilder placement = new StringBuilder();
+        for (int rank = ranks.length - 1; rank >= 0; rank--) {
+            for (char c : ranks[rank].toCharArray()) {
+                placement.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+            }
+            if (rank > 0) {
+                placement.append('/');
+            }
+        }
+        String turn = fields[1].equals("w") ? "b" : "w";
+        return placement + " " + turn + " " + fields[2] + " " + fields[3] + " " + fields[4] + " " + fields[5];
+    }
+}
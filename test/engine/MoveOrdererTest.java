@@ -0,0 +1,180 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import data_types.BitBoard;
+import data_types.Board;
+import data_types.Move;
+import data_types.MoveList;
+import data_types.PackedMove;
+
+/**
+ * Tests for the MoveOrderer class
+ * @author Bryson
+ */
+public class MoveOrdererTest {
+    
+    // Testing Strategy:
+    //
+    // score, pickNext:
+    //  - hash move given, not given
+    //  - captures of different victims, of the same victim by different attackers, promotions
+    //  - captures that lose material by SEE
+    //  - killer moves, counter move, quiet moves with and without history
+    //
+    // recordCutoff:
+    //  - move is quiet, move is a capture
+    //  - quiet moves tried before the cutoff
+    //
+    // newSearch:
+    //  - killers are forgotten, history is kept
+    //
+    
+    private final static String CAPTURES = "4k3/8/8/3q1r2/4P3/2N5/8/4K3 w - - 0 1";
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testHashMoveFirst() {
+        Board board = new Board();
+        int hashMove = board.toPackedMove(Move.createMove(board.getSquare("g1"), board.getSquare("f3")));
+        
+        assertEquals("Expected hash move first", hashMove, ordered(new MoveOrderer(), board, 0, hashMove, PackedMove.NONE)[0]);
+    }
+    
+    @Test
+    public void testCapturesByMvvLva() {
+        Board board = new Board(CAPTURES);
+        int[] order = ordered(new MoveOrderer(), board, 0, PackedMove.NONE, PackedMove.NONE);
+        
+        assertEquals("Expected pawn takes queen first", "e4d5", PackedMove.toString(order[0]));
+        assertEquals("Expected knight takes queen second", "c3d5", PackedMove.toString(order[1]));
+        assertEquals("Expected pawn takes rook third", "e4f5", PackedMove.toString(order[2]));
+    }
+    
+    @Test
+    public void testPromotionsBeforeQuietMoves() {
+        Board board = new Board("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        int[] order = ordered(new MoveOrderer(), board, 0, PackedMove.NONE, PackedMove.NONE);
+        
+        assertEquals("Expected queen promotion first", "b7b8q", PackedMove.toString(order[0]));
+        assertTrue("Expected promotion second", PackedMove.isPromotion(order[1]));
+    }
+    
+    @Test
+    public void testLosingCapturesLast() {
+        Board board = new Board("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1");
+        int[] order = ordered(new MoveOrderer(), board, 0, PackedMove.NONE, PackedMove.NONE);
+        
+        assertEquals("Expected queen takes defended pawn last", "d2d5", PackedMove.toString(order[order.length - 1]));
+    }
+    
+    @Test
+    public void testKillers() {
+        Board board = new Board();
+        MoveOrderer orderer = new MoveOrderer();
+        MoveList list = new MoveList();
+        board.legalMoves(list);
+        
+        orderer.recordCutoff(board, list, indexOf(list, "b1c3"), 3, 1, PackedMove.NONE);
+        orderer.recordCutoff(board, list, indexOf(list, "g1f3"), 3, 1, PackedMove.NONE);
+        int[] order = ordered(orderer, board, 3, PackedMove.NONE, PackedMove.NONE);
+        assertEquals("Expected latest killer first", "g1f3", PackedMove.toString(order[0]));
+        assertEquals("Expected older killer second", "b1c3", PackedMove.toString(order[1]));
+        
+        orderer.newSearch();
+        MoveList cutoff = new MoveList();
+        cutoff.add(list.get(indexOf(list, "h2h3")));
+        orderer.recordCutoff(board, cutoff, 0, 3, 20, PackedMove.NONE);
+        orderer.newSearch();
+        assertEquals("Expected killers to be forgotten", "h2h3", PackedMove.toString(ordered(orderer, board, 3, PackedMove.NONE, PackedMove.NONE)[0]));
+    }
+    
+    @Test
+    public void testCounterMove() {
+        Board board = new Board();
+        MoveOrderer orderer = new MoveOrderer();
+        MoveList list = new MoveList();
+        board.legalMoves(list);
+        int previous = PackedMove.encode(BitBoard.square(4, 6), BitBoard.square(4, 4), PackedMove.DOUBLE_PUSH);
+        
+        orderer.recordCutoff(board, list, indexOf(list, "a2a3"), 5, 1, previous);
+        assertEquals("Expected counter move first", "a2a3", PackedMove.toString(ordered(orderer, board, 6, PackedMove.NONE, previous)[0]));
+    }
+    
+    @Test
+    public void testHistory() {
+        Board board = new Board();
+        MoveOrderer orderer = new MoveOrderer();
+        MoveList legal = new MoveList();
+        board.legalMoves(legal);
+        
+        // b1c3 refutes after a2a3 and h2h3 were tried first
+        MoveList tried = new MoveList();
+        tried.add(legal.get(indexOf(legal, "a2a3")));
+        tried.add(legal.get(indexOf(legal, "h2h3")));
+        tried.add(legal.get(indexOf(legal, "b1c3")));
+        orderer.recordCutoff(board, tried, 2, 0, 4, PackedMove.NONE);
+        orderer.newSearch();
+        
+        int[] order = ordered(orderer, board, 0, PackedMove.NONE, PackedMove.NONE);
+        assertEquals("Expected move with history first", "b1c3", PackedMove.toString(order[0]));
+        String last = PackedMove.toString(order[order.length - 1]) + PackedMove.toString(order[order.length - 2]);
+        assertTrue("Expected moves tried before the cutoff last", last.contains("a2a3") && last.contains("h2h3"));
+    }
+    
+    @Test
+    public void testCaptureCutoffNotRecorded() {
+        Board board = new Board(CAPTURES);
+        MoveOrderer orderer = new MoveOrderer();
+        MoveList list = new MoveList();
+        board.legalMoves(list);
+        
+        orderer.recordCutoff(board, list, indexOf(list, "e4f5"), 0, 4, PackedMove.NONE);
+        int[] order = ordered(orderer, board, 0, PackedMove.NONE, PackedMove.NONE);
+        assertTrue("Expected captures and then a quiet move", PackedMove.isCapture(order[2]) && !PackedMove.isCapture(order[3]));
+    }
+    
+    /**
+     * Order the legal moves of a position
+     * @param orderer orderer to score the moves with
+     * @param board position to order the moves of
+     * @param ply ply of the position
+     * @param hashMove move to try first, or PackedMove.NONE
+     * @param previousMove move that led to the position, or PackedMove.NONE
+     * @return the legal moves of board in the order they would be tried
+     */
+    private static int[] ordered(MoveOrderer orderer, Board board, int ply, int hashMove, int previousMove) {
+        MoveList list = new MoveList();
+        board.legalMoves(list);
+        int[] scores = new int[BitBoard.MAX_MOVES];
+        orderer.score(board, list, scores, ply, hashMove, previousMove);
+        
+        int[] order = new int[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            order[i] = MoveOrderer.pickNext(list, scores, i);
+        }
+        return order;
+    }
+    
+    /**
+     * Find a move in a move list
+     * @param list moves to look in
+     * @param move move in coordinate notation
+     * @return the index of move in list
+     */
+    private static int indexOf(MoveList list, String move) {
+        for (int i = 0; i < list.size(); i++) {
+            if (PackedMove.toString(list.get(i)).equals(move)) {
+                return i;
+            }
+        }
+        throw new RuntimeException("Move not found: " + move);
+    }
+}
@@ -0,0 +1,200 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import data_types.Accumulator;
+import data_types.Board;
+
+/**
+ * Tests for the Network class
+ * @author Bryson
+ */
+public class NetworkTest {
+    
+    // Testing Strategy:
+    //
+    // Network:
+    //  - one hidden neuron, many, none, layers that do not agree in size
+    //
+    // evaluate:
+    //  - white to move, black to move, position mirrored with colors swapped
+    //  - after moves are made and unmade, score beyond the mate scores
+    //
+    // save, load:
+    //  - network saved and loaded back, stream with the wrong magic number, wrong version,
+    //     truncated stream
+    //
+    // Engine:
+    //  - search with a network, with the network removed again
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testNoHiddenNeurons() {
+        new Network(new short[0], new short[0], new byte[0], 0);
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testLayersDisagree() {
+        new Network(new short[Accumulator.INPUTS * 2], new short[2], new byte[2], 0);
+    }
+    
+    @Test
+    public void testOneHiddenNeuron() {
+        short[] weights = new short[Accumulator.INPUTS];
+        Network network = new Network(weights, new short[] {100}, new byte[] {64, 0}, 0);
+        Board board = new Board();
+        Accumulator accumulator = network.newAccumulator();
+        board.setAccumulator(accumulator);
+        
+        assertEquals("Expected one hidden neuron", 1, network.hiddenSize());
+        assertEquals("Expected the bias scaled into centipawns", 100 * 64 * Network.EVALUATION_SCALE / (Network.ACTIVATION_MAX * Network.OUTPUT_SCALE),
+                network.evaluate(accumulator, board.turn()));
+    }
+    
+    @Test
+    public void testMirroredPositions() {
+        Network network = network(32, 1);
+        String[][] pairs = {
+            {"r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w - - 4 4", "rnbqk2r/pppp1ppp/5n2/2b1p3/4P3/2N2N2/PPPP1PPP/R1BQKB1R b - - 4 4"},
+            {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "8/4p1p1/8/1r3P1K/kp5R/3P4/2P5/8 b - - 0 1"},
+        };
+        for (String[] pair : pairs) {
+            assertEquals("Expected the same score for the mirrored position", evaluate(network, pair[0]), evaluate(network, pair[1]));
+        }
+    }
+    
+    @Test
+    public void testEvaluateAfterMoves() {
+        Network network = network(32, 2);
+        Board board = new Board("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        Accumulator accumulator = network.newAccumulator();
+        board.setAccumulator(accumulator);
+        int before = network.evaluate(accumulator, board.turn());
+        
+        for (Object move : board.legalMoves().toArray()) {
+            board.move((data_types.Move) move);
+            assertEquals("Expected incremental evaluation to match FEN", evaluate(network, board.toFen()), network.evaluate(accumulator, board.turn()));
+            board.takeBackLastMove();
+        }
+        assertEquals("Expected evaluation to be restored", before, network.evaluate(accumulator, board.turn()));
+    }
+    
+    @Test
+    public void testScoreBelowMate() {
+        short[] weights = new short[Accumulator.INPUTS];
+        Network network = new Network(weights, new short[] {0}, new byte[2], Integer.MAX_VALUE / 2);
+        Accumulator accumulator = network.newAccumulator();
+        new Board().setAccumulator(accumulator);
+        int score = network.evaluate(accumulator, new Board().turn());
+        assertTrue("Expected a score below the mate scores", score < Engine.MATE - Engine.MAX_PLY && score > 0);
+    }
+    
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Network network = network(16, 3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        network.save(out);
+        assertEquals("Expected a compact file", 12 + 2 * Accumulator.INPUTS * 16 + 2 * 16 + 2 * 16 + 4, out.size());
+        
+        Network loaded = Network.load(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("Expected same hidden size", network.hiddenSize(), loaded.hiddenSize());
+        String fen = "r2q1rk1/1b2bppp/p2ppn2/1p6/3NP3/1BN1B3/PPP2PPP/R2QR1K1 b - - 0 12";
+        assertEquals("Expected same evaluation", evaluate(network, fen), evaluate(loaded, fen));
+    }
+    
+    @Test(expected=IOException.class)
+    public void testLoadWrongMagic() throws IOException {
+        Network.load(new ByteArrayInputStream(new byte[] {0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1}));
+    }
+    
+    @Test(expected=IOException.class)
+    public void testLoadWrongVersion() throws IOException {
+        byte[] bytes = saved(network(1, 4));
+        bytes[7] = 2;
+        Network.load(new ByteArrayInputStream(bytes));
+    }
+    
+    @Test(expected=IOException.class)
+    public void testLoadTruncated() throws IOException {
+        byte[] bytes = saved(network(4, 5));
+        Network.load(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+    
+    @Test
+    public void testEngineWithNetwork() {
+        Board board = new Board("r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8");
+        Engine engine = new Engine(board);
+        Network network = network(32, 6);
+        engine.setNetwork(network);
+        assertEquals("Expected the network", network, engine.network());
+        
+        SearchResult result = engine.search(3);
+        assertTrue("Expected a legal move", board.legalMoves().contains(result.bestMove()));
+        assertEquals("Expected board to be left unchanged", "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8", board.toFen());
+        
+        engine.setNetwork(null);
+        assertNull("Expected the Evaluator", engine.network());
+        assertTrue("Expected a legal move", board.legalMoves().contains(engine.search(3).bestMove()));
+    }
+    
+    /**
+     * Create a network with random weights
+     * @param hidden number of hidden neurons
+     * @param seed seed of the random weights
+     * @return a new network with hidden neurons
+     */
+    private static Network network(int hidden, long seed) {
+        Random random = new Random(seed);
+        short[] weights = new short[Accumulator.INPUTS * hidden];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (short) (random.nextInt(121) - 60);
+        }
+        short[] biases = new short[hidden];
+        for (int i = 0; i < hidden; i++) {
+            biases[i] = (short) random.nextInt(100);
+        }
+        byte[] outputWeights = new byte[2 * hidden];
+        random.nextBytes(outputWeights);
+        return new Network(weights, biases, outputWeights, random.nextInt(1000) - 500);
+    }
+    
+    /**
+     * Evaluate a position with a network from scratch
+     * @param network network to evaluate with
+     * @param fen position to evaluate
+     * @return the score network gives fen
+     */
+    private static int evaluate(Network network, String fen) {
+        Board board = new Board(fen);
+        Accumulator accumulator = network.newAccumulator();
+        board.setAccumulator(accumulator);
+        return network.evaluate(accumulator, board.turn());
+    }
+    
+    /**
+     * Save a network to bytes
+     * @param network network to save
+     * @return the bytes of the weight file of network
+     * @throws IOException never, since the bytes are kept in memory
+     */
+    private static byte[] saved(Network network) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        network.save(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import data_types.Board;
+import data_types.PieceColor;
+import data_types.PieceType;
+
+/**
+ * Tests for the PawnHashTable class
+ * @author Bryson
+ */
+public class PawnHashTableTest {
+    
+    // Testing Strategy:
+    //
+    // PawnHashTable:
+    //  - megabytes == 1, megabytes > 1, megabytes < 1
+    //
+    // probe, probes, hits:
+    //  - pawn structure stored, not stored, another pawn structure stored at the same index
+    //  - position without pawns
+    //
+    // clear:
+    //  - empty table, table with entries
+    //
+    // Engine:
+    //  - hit rate after a search, pawn hash size out of range
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testSize() {
+        assertTrue("Expected a power of two", Integer.bitCount(new PawnHashTable(1).size()) == 1);
+        assertEquals("Expected twice the entries", 2 * new PawnHashTable(1).size(), new PawnHashTable(2).size());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testSizeTooSmall() {
+        new PawnHashTable(0);
+    }
+    
+    @Test
+    public void testProbeStoresScore() {
+        PawnHashTable table = new PawnHashTable(1);
+        Board board = new Board("4k3/pp3p2/8/2P5/8/8/P4PP1/4K3 w - - 0 1");
+        long white = board.pieces(PieceColor.WHITE, PieceType.PAWN);
+        long black = board.pieces(PieceColor.BLACK, PieceType.PAWN);
+        
+        assertEquals("Expected computed score", Evaluator.pawns(white, black), table.probe(board.pawnKey(), white, black));
+        assertEquals("Expected a miss", 0, table.hits());
+        assertEquals("Expected stored score", Evaluator.pawns(white, black), table.probe(board.pawnKey(), white, black));
+        assertEquals("Expected a hit", 1, table.hits());
+        assertEquals("Expected two probes", 2, table.probes());
+    }
+    
+    @Test
+    public void testProbeReplacesOtherStructure() {
+        PawnHashTable table = new PawnHashTable(1);
+        long key = 0x1234L;
+        long other = key + table.size();
+        
+        table.probe(key, 1L << 8, 0L);
+        assertEquals("Expected score of the other structure", Evaluator.pawns(1L << 9, 1L << 50), table.probe(other, 1L << 9, 1L << 50));
+        table.probe(key, 1L << 8, 0L);
+        assertEquals("Expected no hits", 0, table.hits());
+    }
+    
+    @Test
+    public void testProbeNoPawns() {
+        PawnHashTable table = new PawnHashTable(1);
+        Board board = new Board("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        
+        assertEquals("Expected no pawn key", 0L, board.pawnKey());
+        assertEquals("Expected no pawn structure", 0, table.probe(board.pawnKey(), 0L, 0L));
+    }
+    
+    @Test
+    public void testClear() {
+        PawnHashTable table = new PawnHashTable(1);
+        table.clear();
+        assertEquals("Expected no probes", 0, table.probes());
+        
+        table.probe(0x1234L, 1L << 8, 0L);
+        table.probe(0x1234L, 1L << 8, 0L);
+        table.clear();
+        assertEquals("Expected no probes", 0, table.probes());
+        assertEquals("Expected no hits", 0, table.hits());
+        table.probe(0x1234L, 1L << 8, 0L);
+        assertEquals("Expected entry to be gone", 0, table.hits());
+    }
+    
+    @Test
+    public void testEngineHitRate() {
+        Engine engine = new Engine(new Board("r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8"));
+        assertEquals("Expected no probes yet", 0, engine.pawnHashHitRate());
+        
+        engine.search(5);
+        assertTrue("Expected most pawn structures to be found", engine.pawnHashHitRate() > 800);
+        
+        engine.setPawnHashSize(2);
+        assertEquals("Expected new tables", 0, engine.pawnHashHitRate());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testEnginePawnHashSizeTooSmall() {
+        new Engine(new Board()).setPawnHashSize(0);
+    }
+}
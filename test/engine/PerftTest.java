@@ -0,0 +1,107 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import data_types.Board;
+
+/**
+ * Tests for the Perft class, checking move generation against the node counts
+ * of well known reference positions
+ * @author Bryson
+ */
+public class PerftTest {
+    
+    // Testing Strategy:
+    //
+    // perft:
+    //  - depth == 0, depth == 1, depth > 1
+    //  - initial position, middlegame position, endgame position
+    //  - position with castling, en passent, promotions, pins, checks
+    //
+    // divide:
+    //  - counts add up to perft, move is a promotion
+    //  - board is left unchanged
+    //
+    
+    private final static String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private final static String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private final static String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private final static String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testPerftDepthZero() {
+        assertEquals("Expected a single node at depth 0", 1, Perft.perft(new Board(), 0));
+    }
+    
+    @Test
+    public void testPerftInitial() {
+        Board board = new Board();
+        
+        assertEquals("Expected 20 nodes at depth 1", 20, Perft.perft(board, 1));
+        assertEquals("Expected 400 nodes at depth 2", 400, Perft.perft(board, 2));
+        assertEquals("Expected 8902 nodes at depth 3", 8902, Perft.perft(board, 3));
+        assertEquals("Expected 197281 nodes at depth 4", 197281, Perft.perft(board, 4));
+    }
+    
+    @Test
+    public void testPerftKiwipete() {
+        Board board = new Board(KIWIPETE);
+        
+        assertEquals("Expected 48 nodes at depth 1", 48, Perft.perft(board, 1));
+        assertEquals("Expected 2039 nodes at depth 2", 2039, Perft.perft(board, 2));
+        assertEquals("Expected 97862 nodes at depth 3", 97862, Perft.perft(board, 3));
+    }
+    
+    @Test
+    public void testPerftPosition3() {
+        Board board = new Board(POSITION_3);
+        
+        assertEquals("Expected 2812 nodes at depth 3", 2812, Perft.perft(board, 3));
+        assertEquals("Expected 43238 nodes at depth 4", 43238, Perft.perft(board, 4));
+        assertEquals("Expected 674624 nodes at depth 5", 674624, Perft.perft(board, 5));
+    }
+    
+    @Test
+    public void testPerftPosition4() {
+        Board board = new Board(POSITION_4);
+        
+        assertEquals("Expected 6 nodes at depth 1", 6, Perft.perft(board, 1));
+        assertEquals("Expected 264 nodes at depth 2", 264, Perft.perft(board, 2));
+        assertEquals("Expected 9467 nodes at depth 3", 9467, Perft.perft(board, 3));
+    }
+    
+    @Test
+    public void testPerftPosition5() {
+        Board board = new Board(POSITION_5);
+        
+        assertEquals("Expected 44 nodes at depth 1", 44, Perft.perft(board, 1));
+        assertEquals("Expected 1486 nodes at depth 2", 1486, Perft.perft(board, 2));
+        assertEquals("Expected 62379 nodes at depth 3", 62379, Perft.perft(board, 3));
+    }
+    
+    @Test
+    public void testDivide() {
+        Board board = new Board(POSITION_5);
+        String fen = board.toFen();
+        
+        Map<String, Long> divide = Perft.divide(board, 2);
+        long total = 0;
+        for (long nodes : divide.values()) {
+            total += nodes;
+        }
+        
+        assertEquals("Expected a count for every legal move", 44, divide.size());
+        assertEquals("Expected counts to add up to perft", 1486, total);
+        assertEquals("Expected 31 replies to d7xc8=Q", 31, (long) divide.get("d7c8q"));
+        assertEquals("Expected board to be unchanged", fen, board.toFen());
+    }
+}
@@ -0,0 +1,90 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the SearchOptions class
+ * @author Bryson
+ */
+public class SearchOptionsTest {
+    
+    // Testing Strategy:
+    //
+    // DEFAULT, FULL_WIDTH:
+    //  - every technique on, every technique off
+    //
+    // with methods:
+    //  - turn a technique on, off
+    //  - change a tunable, tunable out of range
+    //  - other options are unchanged
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testDefaultAndFullWidth() {
+        SearchOptions all = SearchOptions.DEFAULT;
+        assertTrue("Expected null move", all.nullMove());
+        assertTrue("Expected late-move reductions", all.lateMoveReductions());
+        assertTrue("Expected futility", all.futility());
+        assertTrue("Expected razoring", all.razoring());
+        assertTrue("Expected principal variation search", all.pvs());
+        assertTrue("Expected aspiration windows", all.aspiration());
+        
+        SearchOptions none = SearchOptions.FULL_WIDTH;
+        assertFalse("Expected no null move", none.nullMove());
+        assertFalse("Expected no late-move reductions", none.lateMoveReductions());
+        assertFalse("Expected no futility", none.futility());
+        assertFalse("Expected no razoring", none.razoring());
+        assertFalse("Expected no principal variation search", none.pvs());
+        assertFalse("Expected no aspiration windows", none.aspiration());
+    }
+    
+    @Test
+    public void testWithTechniques() {
+        SearchOptions options = SearchOptions.FULL_WIDTH.withNullMove(true).withRazoring(true).withPvs(true);
+        
+        assertTrue("Expected null move", options.nullMove());
+        assertTrue("Expected razoring", options.razoring());
+        assertFalse("Expected no late-move reductions", options.lateMoveReductions());
+        assertFalse("Expected no futility", options.futility());
+        assertTrue("Expected principal variation search", options.pvs());
+        assertFalse("Expected no aspiration windows", options.aspiration());
+        assertFalse("Expected null move off again", options.withNullMove(false).nullMove());
+    }
+    
+    @Test
+    public void testWithTunables() {
+        SearchOptions options = SearchOptions.DEFAULT.withNullMoveReduction(3).withLateMoveThreshold(5)
+                .withFutilityMargin(100).withRazorMargin(400).withAspirationWindow(30);
+        
+        assertEquals("Expected null-move reduction", 3, options.nullMoveReduction());
+        assertEquals("Expected late-move threshold", 5, options.lateMoveThreshold());
+        assertEquals("Expected futility margin", 100, options.futilityMargin());
+        assertEquals("Expected razoring margin", 400, options.razorMargin());
+        assertEquals("Expected aspiration window", 30, options.aspirationWindow());
+        assertTrue("Expected techniques unchanged", options.nullMove() && options.lateMoveReductions());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testNullMoveReductionOutOfRange() {
+        SearchOptions.DEFAULT.withNullMoveReduction(0);
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testMarginOutOfRange() {
+        SearchOptions.DEFAULT.withFutilityMargin(-50);
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testAspirationWindowOutOfRange() {
+        SearchOptions.DEFAULT.withAspirationWindow(0);
+    }
+}
@@ -0,0 +1,125 @@
+package engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import data_types.Board;
+import data_types.PackedMove;
+
+/**
+ * Tests for the TranspositionTable class
+ * @author Bryson
+ */
+public class TranspositionTableTest {
+    
+    // Testing Strategy:
+    //
+    // TranspositionTable:
+    //  - megabytes == 1, megabytes > 1, megabytes < 1
+    //
+    // store, probe:
+    //  - position stored, not stored, another position stored at the same index
+    //  - score is positive, negative, a mate score
+    //  - bound is EXACT, LOWER, UPPER
+    //  - entry is from the current search, from an earlier search
+    //  - deeper result stored, shallower result stored
+    //
+    // clear, hashfull:
+    //  - empty table, table with entries
+    //
+    // Engine:
+    //  - search repeated with a warm table
+    //
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    public void testSize() {
+        assertEquals("Expected 16 bytes per entry", 1 << 16, new TranspositionTable(1).size());
+        assertEquals("Expected size rounded down to a power of two", 1 << 17, new TranspositionTable(3).size());
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testSizeTooSmall() {
+        new TranspositionTable(0);
+    }
+    
+    @Test
+    public void testStoreProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = PackedMove.encode(12, 28, PackedMove.DOUBLE_PUSH);
+        
+        assertEquals("Expected miss on empty table", TranspositionTable.NO_ENTRY, table.probe(42L));
+        
+        table.store(42L, move, -135, 7, TranspositionTable.LOWER, 3);
+        long entry = table.probe(42L);
+        assertEquals("Expected same move", move, TranspositionTable.move(entry));
+        assertEquals("Expected same score", -135, TranspositionTable.score(entry, 3));
+        assertEquals("Expected same depth", 7, TranspositionTable.depth(entry));
+        assertEquals("Expected same bound", TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        
+        assertEquals("Expected miss for another key at the same index", TranspositionTable.NO_ENTRY, table.probe(42L + table.size()));
+    }
+    
+    @Test
+    public void testMateScoreRelativeToPosition() {
+        TranspositionTable table = new TranspositionTable(1);
+        
+        // mate found 5 moves from the root, by a position stored 2 moves from the root
+        table.store(7L, PackedMove.NONE, Engine.MATE - 5, 3, TranspositionTable.EXACT, 2);
+        assertEquals("Expected mate 3 moves from the position", Engine.MATE - 3, TranspositionTable.score(table.probe(7L), 0));
+        assertEquals("Expected mate 9 moves from a root 6 moves back", Engine.MATE - 9, TranspositionTable.score(table.probe(7L), 6));
+        
+        table.store(7L, PackedMove.NONE, -Engine.MATE + 4, 3, TranspositionTable.EXACT, 4);
+        assertEquals("Expected being mated at the position", -Engine.MATE, TranspositionTable.score(table.probe(7L), 0));
+    }
+    
+    @Test
+    public void testReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long other = 5L + table.size();
+        
+        table.store(5L, PackedMove.NONE, 10, 6, TranspositionTable.EXACT, 0);
+        table.store(other, PackedMove.NONE, 20, 2, TranspositionTable.EXACT, 0);
+        assertEquals("Expected deeper entry to be kept", 10, TranspositionTable.score(table.probe(5L), 0));
+        
+        table.newSearch();
+        table.store(other, PackedMove.NONE, 20, 2, TranspositionTable.EXACT, 0);
+        assertEquals("Expected entry of an earlier search to be replaced", 20, TranspositionTable.score(table.probe(other), 0));
+        
+        int move = PackedMove.encode(1, 18, PackedMove.QUIET);
+        table.store(other, move, 30, 3, TranspositionTable.UPPER, 0);
+        table.store(other, PackedMove.NONE, 40, 4, TranspositionTable.UPPER, 0);
+        assertEquals("Expected move of the same position to be kept", move, TranspositionTable.move(table.probe(other)));
+    }
+    
+    @Test
+    public void testClearHashfull() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals("Expected empty table", 0, table.hashfull());
+        
+        for (long key = 0; key < 500; key++) {
+            table.store(key, PackedMove.NONE, 0, 1, TranspositionTable.EXACT, 0);
+        }
+        assertEquals("Expected half of the sample to be used", 500, table.hashfull());
+        
+        table.clear();
+        assertEquals("Expected empty table", 0, table.hashfull());
+        assertEquals("Expected miss after clear", TranspositionTable.NO_ENTRY, table.probe(1L));
+    }
+    
+    @Test
+    public void testWarmTableSearchesFewerNodes() {
+        Engine engine = new Engine(new Board("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4"));
+        SearchResult cold = engine.search(4);
+        SearchResult warm = engine.search(4);
+        
+        assertEquals("Expected same score", cold.score(), warm.score());
+        assertTrue("Expected fewer nodes with a warm table", warm.nodes() < cold.nodes());
+    }
+}